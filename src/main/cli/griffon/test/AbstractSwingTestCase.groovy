@@ -86,4 +86,8 @@ public class AbstractSwingTestCase extends GroovyTestCase {
     def execFuture = { Object... args ->
         UIThreadManager.instance.executeFuture(*args)
     }
+    /** Schedules a block of code, returning a Promise */
+    def execPromise = { Object... args ->
+        UIThreadManager.instance.executePromise(*args)
+    }
 }
@@ -94,4 +94,8 @@ class GriffonUnitTestCase extends GroovyTestCase {
     def execFuture = { Object... args ->
         UIThreadManager.instance.executeFuture(*args)
     }
+    /** Schedules a block of code, returning a Promise */
+    def execPromise = { Object... args ->
+        UIThreadManager.instance.executePromise(*args)
+    }
 }
@@ -58,10 +58,21 @@ import java.lang.annotation.Target;
  * &nbsp;&nbsp;&nbsp;&nbsp;publishes and event outside of the publisher's thread</li>
  * <li><code>public void publishEventAsync(java.lang.String, java.util.List)</code><br/>
  * &nbsp;&nbsp;&nbsp;&nbsp;publishes and event outside of the publisher's thread</li>
+ * <li><code>public void addEventListener(java.lang.Class, griffon.core.EventHandler)</code><br/>
+ * &nbsp;&nbsp;&nbsp;&nbsp;registers a typed event listener</li>
+ * <li><code>public void removeEventListener(java.lang.Class, griffon.core.EventHandler)</code><br/>
+ * &nbsp;&nbsp;&nbsp;&nbsp;unregisters a typed event listener</li>
+ * <li><code>public void publishEvent(griffon.core.Event)</code><br/>
+ * &nbsp;&nbsp;&nbsp;&nbsp;publishes a typed event in the current thread</li>
+ * <li><code>public void publishEventOutside(griffon.core.Event)</code><br/>
+ * &nbsp;&nbsp;&nbsp;&nbsp;publishes a typed event outside of the UI thread</li>
+ * <li><code>public void publishEventAsync(griffon.core.Event)</code><br/>
+ * &nbsp;&nbsp;&nbsp;&nbsp;publishes a typed event outside of the publisher's thread</li>
  * <p/>
  * </ul>
  *
  * @author Andres Almiray
+ * @see griffon.core.TypedEventPublisher
  * @see org.codehaus.griffon.ast.EventPublisherASTTransformation
  */
 @Retention(RetentionPolicy.SOURCE)
@@ -44,6 +44,18 @@ import java.lang.annotation.Target;
  * <li><code>public List&lt;? extends GriffonMvcArtifact&gt; createMVCGroup(String mvcType, String mvcName)</code></li>
  * <li><code>public List&lt;? extends GriffonMvcArtifact&gt; createMVCGroup(Map&lt;String, Object&gt; args, String mvcType, String mvcName)</code></li>
  * <li><code>public List&lt;? extends GriffonMvcArtifact&gt; createMVCGroup(String mvcType, String mvcName, Map&lt;String, Object&gt; args)</code></li>
+ * <li><code>public Future&lt;MVCGroup&gt; buildMVCGroupAsync(String mvcType)</code></li>
+ * <li><code>public Future&lt;MVCGroup&gt; buildMVCGroupAsync(Map&lt;String, Object&gt; args, String mvcType)</code></li>
+ * <li><code>public Future&lt;MVCGroup&gt; buildMVCGroupAsync(String mvcType, Map&lt;String, Object&gt; args)</code></li>
+ * <li><code>public Future&lt;MVCGroup&gt; buildMVCGroupAsync(String mvcType, String mvcName)</code></li>
+ * <li><code>public Future&lt;MVCGroup&gt; buildMVCGroupAsync(Map&lt;String, Object&gt; args, String mvcType, String mvcName)</code></li>
+ * <li><code>public Future&lt;MVCGroup&gt; buildMVCGroupAsync(String mvcType, String mvcName, Map&lt;String, Object&gt; args)</code></li>
+ * <li><code>public Future&lt;List&lt;? extends GriffonMvcArtifact&gt;&gt; createMVCGroupAsync(String mvcType)</code></li>
+ * <li><code>public Future&lt;List&lt;? extends GriffonMvcArtifact&gt;&gt; createMVCGroupAsync(Map&lt;String, Object&gt; args, String mvcType)</code></li>
+ * <li><code>public Future&lt;List&lt;? extends GriffonMvcArtifact&gt;&gt; createMVCGroupAsync(String mvcType, Map&lt;String, Object&gt; args)</code></li>
+ * <li><code>public Future&lt;List&lt;? extends GriffonMvcArtifact&gt;&gt; createMVCGroupAsync(String mvcType, String mvcName)</code></li>
+ * <li><code>public Future&lt;List&lt;? extends GriffonMvcArtifact&gt;&gt; createMVCGroupAsync(Map&lt;String, Object&gt; args, String mvcType, String mvcName)</code></li>
+ * <li><code>public Future&lt;List&lt;? extends GriffonMvcArtifact&gt;&gt; createMVCGroupAsync(String mvcType, String mvcName, Map&lt;String, Object&gt; args)</code></li>
  * <li><code>public void destroyMVCGroup(String mvcName)</code></li>
  * <li><code>public void withMVCGroup(String mvcType, Closure handler)</code></li>
  * <li><code>public void withMVCGroup(String mvcType, String mvcName, Closure handler)</code></li>
@@ -59,6 +71,7 @@ import java.lang.annotation.Target;
  *
  * @author Andres Almiray
  * @see griffon.core.MVCHandler
+ * @see griffon.core.AsyncMVCHandler
  * @see org.codehaus.griffon.ast.MVCAwareASTTransformation
  * @since 0.9.3
  */
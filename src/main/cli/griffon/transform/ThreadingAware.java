@@ -39,10 +39,13 @@ import java.lang.annotation.Target;
  * <li><code>public Future execFuture(Closure closure)</code></li>
  * <li><code>public Future execFuture(ExecutorService executorService, Callable callable)</code></li>
  * <li><code>public Future execFuture(Callable callable)</code></li>
+ * <li><code>public Promise execPromise(Closure closure)</code></li>
+ * <li><code>public Promise execPromise(Callable callable)</code></li>
  * </ul>
  *
  * @author Andres Almiray
  * @see griffon.core.ThreadingHandler
+ * @see griffon.core.PromiseHandler
  * @see org.codehaus.griffon.ast.ThreadingAwareASTTransformation
  * @since 0.9.3
  */
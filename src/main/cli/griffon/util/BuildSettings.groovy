@@ -16,6 +16,7 @@
 package griffon.util
 
 import java.util.regex.Pattern
+import org.apache.ivy.core.module.descriptor.Configuration
 import org.apache.ivy.plugins.repository.TransferEvent
 import org.apache.ivy.plugins.repository.TransferListener
 import org.apache.ivy.util.DefaultMessageLogger
@@ -133,6 +134,16 @@ class BuildSettings extends AbstractBuildSettings {
      */
     public static final String SOURCE_ENCODING = "griffon.source.encoding"
 
+    /**
+     * The name of the system property for {@link #dependencyCacheEnabled}.
+     */
+    public static final String DEPENDENCY_CACHE = "griffon.project.dependency.cache"
+
+    /**
+     * The name of the file, inside {@link #projectWorkDir}, that holds the resolved dependencies.
+     */
+    public static final String DEPENDENCY_CACHE_FILE = "resolved-dependencies.properties"
+
     /**
      * The base directory for the build, which is normally the root
      * directory of the current project. If a command is run outside
@@ -262,6 +273,13 @@ class BuildSettings extends AbstractBuildSettings {
     boolean verboseCompile = false
 
     public void resetDependencies() {
+        // plugins may have been installed or uninstalled since the dependencies were resolved
+        if (dependencyCache != null) {
+            String fingerprint = dependencyFingerprint()
+            if (!dependencyCache.isFresh(fingerprint)) {
+                dependencyCache.reset(fingerprint, getInlinePluginDirectories())
+            }
+        }
         resetCompileDependencies()
         resetRuntimeDependencies()
         resetTestDependencies()
@@ -315,7 +333,7 @@ class BuildSettings extends AbstractBuildSettings {
 
     /** List containing the default (resolved via the dependencyManager) compile-time dependencies of the app as File instances. */
     private defaultCompileDependenciesClosure = {
-        def jarFiles = dependencyManager.resolveDependencies(IvyDependencyManager.COMPILE_CONFIGURATION).allArtifactsReports.localFile + applicationJars
+        def jarFiles = resolveDependencies(IvyDependencyManager.COMPILE_CONFIGURATION) + applicationJars
         Message.debug("Resolved jars for [compile]: ${{-> jarFiles.join('\n')}}")
         if (LOG.debugEnabled) LOG.debug("Resolved jars for [compile]: ${{-> jarFiles.join('\n')}}")
         return jarFiles
@@ -343,7 +361,7 @@ class BuildSettings extends AbstractBuildSettings {
     }
 
     private defaultTestDependenciesClosure = {
-        def jarFiles = dependencyManager.resolveDependencies(IvyDependencyManager.TEST_CONFIGURATION).allArtifactsReports.localFile + applicationJars
+        def jarFiles = resolveDependencies(IvyDependencyManager.TEST_CONFIGURATION) + applicationJars
         Message.debug("Resolved jars for [test]: ${{-> jarFiles.join('\n')}}")
         if (LOG.debugEnabled) LOG.debug("Resolved jars for [test]: ${{-> jarFiles.join('\n')}}")
         return jarFiles
@@ -371,7 +389,7 @@ class BuildSettings extends AbstractBuildSettings {
     }
 
     private defaultRuntimeDependenciesClosure = {
-        def jarFiles = dependencyManager.resolveDependencies(IvyDependencyManager.RUNTIME_CONFIGURATION).allArtifactsReports.localFile + applicationJars
+        def jarFiles = resolveDependencies(IvyDependencyManager.RUNTIME_CONFIGURATION) + applicationJars
         Message.debug("Resolved jars for [runtime]: ${{-> jarFiles.join('\n')}}")
         if (LOG.debugEnabled) LOG.debug("Resolved jars for [runtime]: ${{-> jarFiles.join('\n')}}")
         return jarFiles
@@ -383,7 +401,7 @@ class BuildSettings extends AbstractBuildSettings {
         if (dependenciesExternallyConfigured) {
             return []
         }
-        def jarFiles = dependencyManager.resolveDependencies(IvyDependencyManager.PROVIDED_CONFIGURATION).allArtifactsReports.localFile
+        def jarFiles = resolveDependencies(IvyDependencyManager.PROVIDED_CONFIGURATION)
         Message.debug("Resolved jars for [provided]: ${{-> jarFiles.join('\n')}}")
         if (LOG.debugEnabled) LOG.debug("Resolved jars for [provided]: ${{-> jarFiles.join('\n')}}")
         return jarFiles
@@ -395,7 +413,7 @@ class BuildSettings extends AbstractBuildSettings {
         if (dependenciesExternallyConfigured) {
             return []
         }
-        def jarFiles = dependencyManager.resolveDependencies(IvyDependencyManager.BUILD_CONFIGURATION).allArtifactsReports.localFile + applicationJars
+        def jarFiles = resolveDependencies(IvyDependencyManager.BUILD_CONFIGURATION) + applicationJars
         Message.debug("Resolved jars for [build]: ${{-> jarFiles.join('\n')}}")
         if (LOG.debugEnabled) LOG.debug("Resolved jars for [build]: ${{-> jarFiles.join('\n')}}")
         return jarFiles
@@ -408,6 +426,89 @@ class BuildSettings extends AbstractBuildSettings {
      */
     IvyDependencyManager dependencyManager
 
+    /**
+     * Whether resolved dependencies are stored in {@link #projectWorkDir} and reused
+     * for as long as the dependency configuration stays the same. Can be overridden
+     * via -Dgriffon.project.dependency.cache=false
+     */
+    boolean dependencyCacheEnabled = true
+    private boolean dependencyCacheEnabledSet
+    private DependencyResolutionCache dependencyCache
+    // configuration read by getDependencyManager() when dependencies came from the cache
+    private ConfigObject deferredDependencyConfig
+
+    /**
+     * Returns the dependency manager, configuring it first if all dependencies have
+     * been resolved from the cache so far.
+     */
+    IvyDependencyManager getDependencyManager() {
+        if (dependencyManager == null && deferredDependencyConfig != null) {
+            ConfigObject dependencyConfig = deferredDependencyConfig
+            deferredDependencyConfig = null
+            configureDependencyManager(dependencyConfig)
+        }
+        dependencyManager
+    }
+
+    void setDependencyManager(IvyDependencyManager dependencyManager) {
+        this.dependencyManager = dependencyManager
+        deferredDependencyConfig = null
+    }
+
+    void setDependencyCacheEnabled(boolean flag) {
+        dependencyCacheEnabled = flag
+        dependencyCacheEnabledSet = true
+    }
+
+    /**
+     * Returns the cache of resolved dependencies, null if it is disabled.
+     */
+    DependencyResolutionCache getDependencyCache() {
+        dependencyCache
+    }
+
+    /**
+     * Drops every cached dependency, the next resolution goes through the dependency manager.
+     */
+    void clearDependencyCache() {
+        dependencyCache?.clear()
+    }
+
+    private List<File> resolveDependencies(Configuration configuration) {
+        List<File> jarFiles = dependencyCache?.get(configuration.name)
+        if (jarFiles != null) {
+            if (LOG.debugEnabled) LOG.debug("Using cached jars for [${configuration.name}]")
+            return jarFiles
+        }
+        def report = getDependencyManager().resolveDependencies(configuration)
+        jarFiles = report.allArtifactsReports.localFile
+        if (!report.hasError()) dependencyCache?.put(configuration.name, jarFiles)
+        return jarFiles
+    }
+
+    /**
+     * Computes the fingerprint of everything the resolved dependencies depend on:
+     * the build config files of the project, its plugins and the user, the scripts
+     * that may change dependencies on 'SetClasspath' and the Griffon version.
+     */
+    String dependencyFingerprint(Collection<File> inlinePlugins = []) {
+        Set<File> pluginDirs = new TreeSet<File>(getPluginDirectories())
+        pluginDirs.addAll(inlinePlugins)
+        List<File> files = [
+                new File(baseDir, "griffon-app/conf/BuildConfig.groovy"),
+                new File(baseDir, Metadata.FILE),
+                new File(baseDir, "scripts/_Events.groovy"),
+                new File("$userHome/.griffon/settings.groovy")]
+        for (File dir in pluginDirs) {
+            files << new File(dir, "griffon-app/conf/BuildConfig.groovy")
+            files << new File(dir, "dependencies.groovy")
+            files << new File(dir, "scripts/_Events.groovy")
+            dir.listFiles()?.findAll { it.name.endsWith("GriffonPlugin.groovy") }?.sort { it.name }?.each { files << it }
+        }
+        return DependencyResolutionCache.fingerprint(files,
+                [griffonVersion, Environment.current.name, dependenciesExternallyConfigured])
+    }
+
     /*
      * This is an unclever solution for handling "sticky" values in the
      * project paths, but trying to be clever so far has failed. So, if
@@ -703,7 +804,39 @@ class BuildSettings extends AbstractBuildSettings {
             defaultPluginSet = config.griffon.default.plugin.set
         }
         flatConfig = config.flatten()
-        configureDependencyManager(config)
+        if (restoreDependencyCache()) {
+            // Ivy is configured on demand, see getDependencyManager()
+            dependencyManager = null
+            deferredDependencyConfig = config
+        } else {
+            deferredDependencyConfig = null
+            configureDependencyManager(config)
+            dependencyCache?.reset(dependencyFingerprint(), getInlinePluginDirectories())
+        }
+    }
+
+    /**
+     * Reads the cache of resolved dependencies.
+     *
+     * @return true if the cache matches the current dependency configuration
+     */
+    private boolean restoreDependencyCache() {
+        if (!dependencyCacheEnabledSet) {
+            dependencyCacheEnabled = getPropertyValue(DEPENDENCY_CACHE, config.toProperties(), "true").toBoolean()
+        }
+        if (!dependencyCacheEnabled) {
+            dependencyCache = null
+            return false
+        }
+        dependencyCache = new DependencyResolutionCache(new File(projectWorkDir, DEPENDENCY_CACHE_FILE))
+        // inline plugins declared by other plugins are only found while configuring Ivy
+        List<File> inlinePlugins = dependencyCache.inlinePluginDirectories
+        if (dependencyCache.isFresh(dependencyFingerprint(inlinePlugins))) {
+            inlinePlugins.each { addPluginDirectory(it, true) }
+            if (LOG.debugEnabled) LOG.debug("Dependencies of ${baseDir.name} are up to date, reusing ${dependencyCache.file}")
+            return true
+        }
+        return false
     }
 
     protected boolean settingsFileLoaded = false
@@ -810,7 +943,7 @@ class BuildSettings extends AbstractBuildSettings {
     }
 
     Closure pluginDependencyHandler() {
-        return pluginDependencyHandler(dependencyManager)
+        return pluginDependencyHandler(getDependencyManager())
     }
 
     Closure pluginDependencyHandler(IvyDependencyManager dependencyManager) {
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package griffon.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Resolved dependencies of a project, stored in a properties file.<p>
+ * Entries are only valid for the fingerprint they were stored with, a hash of the
+ * files the dependency configuration is read from. Once the fingerprint changes
+ * every entry is dropped.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class DependencyResolutionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DependencyResolutionCache.class);
+
+    private static final String KEY_FINGERPRINT = "fingerprint";
+    private static final String KEY_INLINE_PLUGINS = "inline.plugins";
+    private static final String KEY_CONFIGURATION_PREFIX = "configuration.";
+
+    private final File file;
+    private final Properties entries = new Properties();
+
+    public DependencyResolutionCache(File file) {
+        this.file = file;
+        load();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized String getFingerprint() {
+        return entries.getProperty(KEY_FINGERPRINT);
+    }
+
+    public synchronized boolean isFresh(String fingerprint) {
+        return fingerprint != null && fingerprint.equals(entries.getProperty(KEY_FINGERPRINT));
+    }
+
+    /**
+     * Drops every entry and starts over with a new fingerprint.
+     *
+     * @param inlinePluginDirectories inline plugins found while reading the dependency configuration
+     */
+    public synchronized void reset(String fingerprint, Collection<File> inlinePluginDirectories) {
+        entries.clear();
+        entries.setProperty(KEY_FINGERPRINT, fingerprint);
+        entries.setProperty(KEY_INLINE_PLUGINS, join(inlinePluginDirectories));
+        store();
+    }
+
+    public synchronized List<File> getInlinePluginDirectories() {
+        List<File> directories = split(entries.getProperty(KEY_INLINE_PLUGINS));
+        return directories != null ? directories : Collections.<File>emptyList();
+    }
+
+    /**
+     * Returns the files resolved for a configuration.
+     *
+     * @return null if the configuration has not been resolved yet or one of its files is gone
+     */
+    public synchronized List<File> get(String configuration) {
+        List<File> files = split(entries.getProperty(KEY_CONFIGURATION_PREFIX + configuration));
+        if (files == null) return null;
+        for (File f : files) {
+            if (!f.exists()) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Cached dependency " + f + " of [" + configuration + "] no longer exists");
+                }
+                return null;
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Stores the files resolved for a configuration. Ignored until a fingerprint is set.
+     */
+    public synchronized void put(String configuration, Collection<File> files) {
+        if (entries.getProperty(KEY_FINGERPRINT) == null) return;
+        entries.setProperty(KEY_CONFIGURATION_PREFIX + configuration, join(files));
+        store();
+    }
+
+    /**
+     * Drops every entry and deletes the file.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        if (file.exists() && !file.delete() && LOG.isWarnEnabled()) {
+            LOG.warn("Could not delete " + file);
+        }
+    }
+
+    /**
+     * Computes a fingerprint out of the contents of the given files and a set of values.
+     * Missing files count as well, so that creating one changes the fingerprint.
+     */
+    public static String fingerprint(Collection<File> files, Collection<?> values) {
+        MessageDigest digest = DigestUtils.newDigest();
+        byte[] buffer = new byte[8192];
+        for (File f : files) {
+            update(digest, f.getAbsolutePath());
+            if (!f.isFile()) {
+                update(digest, "<missing>");
+                continue;
+            }
+            InputStream in = null;
+            try {
+                in = new FileInputStream(f);
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                // an unreadable file must not match anything that was stored before
+                update(digest, "<unreadable:" + System.nanoTime() + ">");
+            } finally {
+                closeQuietly(in);
+            }
+        }
+        for (Object value : values) {
+            update(digest, String.valueOf(value));
+        }
+        return DigestUtils.toHex(digest);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        DigestUtils.update(digest, value);
+        digest.update((byte) 0);
+    }
+
+    private void load() {
+        if (!file.isFile()) return;
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            entries.load(in);
+        } catch (IOException e) {
+            entries.clear();
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Could not read resolved dependencies from " + file, e);
+            }
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private void store() {
+        OutputStream out = null;
+        try {
+            file.getParentFile().mkdirs();
+            out = new FileOutputStream(file);
+            entries.store(out, "Resolved dependencies, do not edit");
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Could not store resolved dependencies in " + file, e);
+            }
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static String join(Collection<File> files) {
+        StringBuilder paths = new StringBuilder();
+        if (files != null) {
+            for (File f : files) {
+                if (paths.length() > 0) paths.append(File.pathSeparator);
+                paths.append(f.getAbsolutePath());
+            }
+        }
+        return paths.toString();
+    }
+
+    private static List<File> split(String paths) {
+        if (paths == null) return null;
+        List<File> files = new ArrayList<File>();
+        for (String path : paths.split(File.pathSeparator)) {
+            if (path.length() > 0) files.add(new File(path));
+        }
+        return files;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package griffon.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * MD5 digests as used by the build to tell whether files, classes or settings changed.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public final class DigestUtils {
+    private DigestUtils() {
+
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Feeds the UTF-8 bytes of a String to a digest.
+     */
+    public static void update(MessageDigest digest, String value) {
+        try {
+            digest.update(value.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Completes a digest, returning its value as lower case hex digits.
+     */
+    public static String toHex(MessageDigest digest) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public static String md5(String value) {
+        MessageDigest digest = newDigest();
+        update(digest, value);
+        return toHex(digest);
+    }
+
+    public static String md5(byte[] bytes) {
+        MessageDigest digest = newDigest();
+        digest.update(bytes);
+        return toHex(digest);
+    }
+}
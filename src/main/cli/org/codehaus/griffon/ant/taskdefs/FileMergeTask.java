@@ -14,6 +14,7 @@ import org.apache.tools.ant.types.FileSet;
 import org.apache.tools.ant.types.ZipFileSet;
 import org.apache.tools.ant.types.resources.FileResource;
 import org.apache.tools.ant.types.resources.ZipResource;
+import org.codehaus.griffon.runtime.core.ArtifactIndex;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 
 import java.io.*;
@@ -207,6 +208,18 @@ public class FileMergeTask extends MatchingTask {
         }
     }
 
+    public static class MergeGriffonArtifactIndex extends AbstractMergeStrategy {
+        public static final MergeStrategy INSTANCE = new MergeGriffonArtifactIndex();
+
+        public void merge(File file1, File file2) throws IOException {
+            List<ArtifactIndex.Entry> entries = ArtifactIndex.read(file1);
+            for (ArtifactIndex.Entry entry : ArtifactIndex.read(file2)) {
+                if (!entries.contains(entry)) entries.add(entry);
+            }
+            ArtifactIndex.write(file1, entries);
+        }
+    }
+
     private File dir;
     private String applicationName;
     private final List<ZipFileSet> zipFileSets = new ArrayList<ZipFileSet>();
@@ -216,6 +229,7 @@ public class FileMergeTask extends MatchingTask {
 
     static {
         DEFAULT_MAPPINGS.put(Pattern.compile("META-INF/griffon-artifacts.properties"), MergeGriffonArtifacts.INSTANCE);
+        DEFAULT_MAPPINGS.put(Pattern.compile("META-INF/griffon-artifacts.idx"), MergeGriffonArtifactIndex.INSTANCE);
         // DEFAULT_MAPPINGS.put(Pattern.compile("META-INF/griffon-lookandfeel.properties"), Merge.INSTANCE);
         DEFAULT_MAPPINGS.put(Pattern.compile("META-INF/MANIFEST.MF"), MergeManifest.INSTANCE);
         DEFAULT_MAPPINGS.put(Pattern.compile("META-INF/services/.*"), Merge.INSTANCE);
@@ -16,7 +16,10 @@
 
 package org.codehaus.griffon.ast;
 
+import griffon.core.Event;
+import griffon.core.EventHandler;
 import griffon.core.EventPublisher;
+import griffon.core.TypedEventPublisher;
 import org.codehaus.griffon.runtime.core.EventRouter;
 import griffon.util.RunnableWithArgs;
 import org.codehaus.groovy.ast.*;
@@ -48,6 +51,9 @@ public class EventPublisherASTTransformation extends AbstractASTTransformation {
     private static final ClassNode EVENT_HANDLER_CLASS = ClassHelper.makeWithoutCaching(EventPublisher.class);
     private static final ClassNode EVENT_PUBLISHER_CLASS = ClassHelper.makeWithoutCaching(griffon.transform.EventPublisher.class);
     private static final ClassNode EVENT_ROUTER_CLASS = ClassHelper.makeWithoutCaching(EventRouter.class);
+    private static final ClassNode EVENT_CLASS = ClassHelper.makeWithoutCaching(Event.class);
+    private static final ClassNode TYPED_EVENT_HANDLER_CLASS = ClassHelper.makeWithoutCaching(EventHandler.class);
+    private static final ClassNode TYPED_EVENT_PUBLISHER_CLASS = ClassHelper.makeWithoutCaching(TypedEventPublisher.class);
 
     /**
      * Convenience method to see if an annotated node is {@code @EventPublisher}.
@@ -95,6 +101,11 @@ public class EventPublisherASTTransformation extends AbstractASTTransformation {
      * <li>void publishEvent(String, List = [])</li>
      * <li>void publishEventOutside(String, List = [])</li>
      * <li>void publishEventAsync(String, List = [])</li>
+     * <li>void addEventListener(Class, EventHandler)</li>
+     * <li>void removeEventListener(Class, EventHandler)</li>
+     * <li>void publishEvent(Event)</li>
+     * <li>void publishEventOutside(Event)</li>
+     * <li>void publishEventAsync(Event)</li>
      * </ul>If any are defined all
      * must be defined or a compilation error results.
      *
@@ -152,11 +163,17 @@ public class EventPublisherASTTransformation extends AbstractASTTransformation {
      * <code>public void publishEvent(String,List = [])</code><br/>
      * <code>public void publishEventOutside(String,List = [])</code><br/>
      * <code>public void publishEventAsync(String,List = [])</code><br/>
+     * <code>public void addEventListener(Class, EventHandler)</code><br/>
+     * <code>public void removeEventListener(Class, EventHandler)</code><br/>
+     * <code>public void publishEvent(Event)</code><br/>
+     * <code>public void publishEventOutside(Event)</code><br/>
+     * <code>public void publishEventAsync(Event)</code><br/>
      *
      * @param declaringClass the class to which we add the support field and methods
      */
     protected static void addEventRouter(ClassNode declaringClass) {
         declaringClass.addInterface(EVENT_HANDLER_CLASS);
+        declaringClass.addInterface(TYPED_EVENT_PUBLISHER_CLASS);
 
         // add field:
         // protected final EventRouter this$eventRouter = new org.codehaus.griffon.runtime.core.EventRouter()
@@ -323,5 +340,65 @@ public class EventPublisherASTTransformation extends AbstractASTTransformation {
                         "publishAsync",
                         vars("name", "args")))
         ));
+
+        // add method:
+        // void addEventListener(Class eventClass, EventHandler listener) {
+        //     this$eventRouter.addEventListener(eventClass, listener)
+        //  }
+        declaringClass.addMethod(new MethodNode(
+                "addEventListener",
+                ACC_PUBLIC,
+                ClassHelper.VOID_TYPE,
+                params(
+                        param(ClassHelper.makeWithoutCaching(Class.class), "eventClass"),
+                        param(TYPED_EVENT_HANDLER_CLASS, "listener")),
+                ClassNode.EMPTY_ARRAY,
+                stmnt(call(
+                        field(erField),
+                        "addEventListener",
+                        vars("eventClass", "listener")))
+        ));
+
+        // add method:
+        // void removeEventListener(Class eventClass, EventHandler listener) {
+        //     this$eventRouter.removeEventListener(eventClass, listener)
+        //  }
+        declaringClass.addMethod(new MethodNode(
+                "removeEventListener",
+                ACC_PUBLIC,
+                ClassHelper.VOID_TYPE,
+                params(
+                        param(ClassHelper.makeWithoutCaching(Class.class), "eventClass"),
+                        param(TYPED_EVENT_HANDLER_CLASS, "listener")),
+                ClassNode.EMPTY_ARRAY,
+                stmnt(call(
+                        field(erField),
+                        "removeEventListener",
+                        vars("eventClass", "listener")))
+        ));
+
+        // add methods:
+        // void publishEvent(Event event) {
+        //     this$eventRouter.publish(event)
+        //  }
+        // and likewise for publishEventOutside/publishOutside, publishEventAsync/publishAsync
+        String[][] typedPublishers = {
+                {"publishEvent", "publish"},
+                {"publishEventOutside", "publishOutside"},
+                {"publishEventAsync", "publishAsync"}
+        };
+        for (String[] publisher : typedPublishers) {
+            declaringClass.addMethod(new MethodNode(
+                    publisher[0],
+                    ACC_PUBLIC,
+                    ClassHelper.VOID_TYPE,
+                    params(param(EVENT_CLASS, "event")),
+                    ClassNode.EMPTY_ARRAY,
+                    stmnt(call(
+                            field(erField),
+                            publisher[1],
+                            vars("event")))
+            ));
+        }
     }
 }
@@ -16,6 +16,7 @@
 
 package org.codehaus.griffon.ast;
 
+import griffon.core.AsyncMVCHandler;
 import griffon.core.MVCClosure;
 import griffon.core.MVCGroup;
 import griffon.core.MVCHandler;
@@ -29,6 +30,8 @@ import org.codehaus.groovy.transform.GroovyASTTransformation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Future;
+
 import static org.codehaus.griffon.ast.GriffonASTUtils.*;
 
 /**
@@ -42,13 +45,17 @@ public class MVCAwareASTTransformation extends AbstractASTTransformation {
 
     private static ClassNode MY_TYPE = ClassHelper.makeWithoutCaching(MVCAware.class);
     private static ClassNode MVC_HANDLER_TYPE = ClassHelper.makeWithoutCaching(MVCHandler.class);
+    private static final ClassNode ASYNC_MVC_HANDLER_TYPE = ClassHelper.makeWithoutCaching(AsyncMVCHandler.class);
     private static final ClassNode MVCCLOSURE_CLASS = ClassHelper.makeWithoutCaching(MVCClosure.class);
     private static final ClassNode MVCGROUP_CLASS = ClassHelper.makeWithoutCaching(MVCGroup.class);
+    private static final ClassNode FUTURE_CLASS = ClassHelper.makeWithoutCaching(Future.class);
 
     private static final String CREATE_MVC_GROUP = "createMVCGroup";
     private static final String DESTROY_MVC_GROUP = "destroyMVCGroup";
     private static final String BUILD_MVC_GROUP = "buildMVCGroup";
     private static final String WITH_MVC_GROUP = "withMVCGroup";
+    private static final String BUILD_MVC_GROUP_ASYNC = "buildMVCGroupAsync";
+    private static final String CREATE_MVC_GROUP_ASYNC = "createMVCGroupAsync";
     private static final String MVC_TYPE = "mvcType";
     private static final String MVC_NAME = "mvcName";
     private static final String HANDLER = "handler";
@@ -270,6 +277,12 @@ public class MVCAwareASTTransformation extends AbstractASTTransformation {
                         args(var(MVC_TYPE), var(MVC_NAME), var(ARGS))))
         ));
 
+        // Future buildMVCGroupAsync(...), Future createMVCGroupAsync(...)
+        if (!classNode.implementsInterface(ASYNC_MVC_HANDLER_TYPE)) {
+            classNode.addInterface(ASYNC_MVC_HANDLER_TYPE);
+            addAsyncMethods(classNode);
+        }
+
         // void destroyMVCGroup(String mvcName)
         classNode.addMethod(new MethodNode(
                 DESTROY_MVC_GROUP,
@@ -480,6 +493,43 @@ public class MVCAwareASTTransformation extends AbstractASTTransformation {
         ));
     }
 
+    private static void addAsyncMethods(ClassNode classNode) {
+        for (String methodName : new String[]{BUILD_MVC_GROUP_ASYNC, CREATE_MVC_GROUP_ASYNC}) {
+            addAsyncMethod(classNode, methodName,
+                    params(param(ClassHelper.STRING_TYPE, MVC_TYPE)),
+                    var(MVC_TYPE), emptyMap());
+            addAsyncMethod(classNode, methodName,
+                    params(param(ClassHelper.STRING_TYPE, MVC_TYPE), param(ClassHelper.STRING_TYPE, MVC_NAME)),
+                    var(MVC_NAME), emptyMap());
+            addAsyncMethod(classNode, methodName,
+                    params(param(ClassHelper.MAP_TYPE, ARGS), param(ClassHelper.STRING_TYPE, MVC_TYPE)),
+                    var(MVC_TYPE), var(ARGS));
+            addAsyncMethod(classNode, methodName,
+                    params(param(ClassHelper.STRING_TYPE, MVC_TYPE), param(ClassHelper.MAP_TYPE, ARGS)),
+                    var(MVC_TYPE), var(ARGS));
+            addAsyncMethod(classNode, methodName,
+                    params(param(ClassHelper.MAP_TYPE, ARGS), param(ClassHelper.STRING_TYPE, MVC_TYPE), param(ClassHelper.STRING_TYPE, MVC_NAME)),
+                    var(MVC_NAME), var(ARGS));
+            addAsyncMethod(classNode, methodName,
+                    params(param(ClassHelper.STRING_TYPE, MVC_TYPE), param(ClassHelper.STRING_TYPE, MVC_NAME), param(ClassHelper.MAP_TYPE, ARGS)),
+                    var(MVC_NAME), var(ARGS));
+        }
+    }
+
+    private static void addAsyncMethod(ClassNode classNode, String methodName, Parameter[] parameters, Expression mvcName, Expression arguments) {
+        classNode.addMethod(new MethodNode(
+                methodName,
+                ACC_PUBLIC,
+                FUTURE_CLASS,
+                parameters,
+                ClassNode.EMPTY_ARRAY,
+                returns(call(
+                        mvcGroupManagerInstance(),
+                        methodName,
+                        args(var(MVC_TYPE), mvcName, arguments)))
+        ));
+    }
+
     public static Expression mvcGroupManagerInstance() {
         return call(applicationInstance(), "getMvcGroupManager", NO_ARGS);
     }
@@ -335,7 +335,8 @@ public class ThreadingASTTransformation extends AbstractASTTransformation {
             return "executeOutside".equals(methodName) ||
                     "executeSync".equals(methodName)   ||
                     "executeAsync".equals(methodName)  ||
-                    "executeFuture".equals(methodName);
+                    "executeFuture".equals(methodName) ||
+                    "executePromise".equals(methodName);
         }
         return "execOutside".equals(methodName) || "doOutside".equals(methodName) ||
                 "execSync".equals(methodName)   || "edt".equals(methodName) ||
@@ -16,6 +16,8 @@
 
 package org.codehaus.griffon.ast;
 
+import griffon.core.Promise;
+import griffon.core.PromiseHandler;
 import griffon.core.ThreadingHandler;
 import griffon.core.UIThreadManager;
 import griffon.transform.ThreadingAware;
@@ -47,6 +49,8 @@ public class ThreadingAwareASTTransformation extends AbstractASTTransformation {
     private static ClassNode THREADING_HANDLER_TYPE = ClassHelper.makeWithoutCaching(ThreadingHandler.class);
     private static final ClassNode CALLABLE_CLASS = ClassHelper.makeWithoutCaching(Callable.class);
     private static final ClassNode FUTURE_CLASS = ClassHelper.makeWithoutCaching(Future.class);
+    private static final ClassNode PROMISE_CLASS = ClassHelper.makeWithoutCaching(Promise.class);
+    private static final ClassNode PROMISE_HANDLER_TYPE = ClassHelper.makeWithoutCaching(PromiseHandler.class);
     private static final ClassNode EXECUTOR_SERVICE_CLASS = ClassHelper.makeWithoutCaching(ExecutorService.class);
     private static final ClassNode UITHREAD_MANAGER_CLASS = ClassHelper.makeWithoutCaching(UIThreadManager.class);
     private static final ClassNode RUNNABLE_CLASS = ClassHelper.makeWithoutCaching(Runnable.class);
@@ -198,6 +202,35 @@ public class ThreadingAwareASTTransformation extends AbstractASTTransformation {
                 "executeFuture",
                 vars("executorService", CALLABLE)))
         ));
+
+        if (classNode.implementsInterface(PROMISE_HANDLER_TYPE)) return;
+        classNode.addInterface(PROMISE_HANDLER_TYPE);
+
+        // Promise execPromise(Closure)
+        classNode.addMethod(new MethodNode(
+            "execPromise",
+            ACC_PUBLIC,
+            PROMISE_CLASS,
+            params(param(ClassHelper.CLOSURE_TYPE, CLOSURE)),
+            ClassNode.EMPTY_ARRAY,
+            returns(call(
+                uiThreadManagerInstance(),
+                "executePromise",
+                vars(CLOSURE)))
+        ));
+
+        // Promise execPromise(Callable)
+        classNode.addMethod(new MethodNode(
+            "execPromise",
+            ACC_PUBLIC,
+            PROMISE_CLASS,
+            params(param(CALLABLE_CLASS, CALLABLE)),
+            ClassNode.EMPTY_ARRAY,
+            returns(call(
+                uiThreadManagerInstance(),
+                "executePromise",
+                vars(CALLABLE)))
+        ));
     }
 
     private static Expression uiThreadManagerInstance() {
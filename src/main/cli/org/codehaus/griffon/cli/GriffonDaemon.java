@@ -0,0 +1,314 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.cli;
+
+import griffon.util.DigestUtils;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Properties;
+
+/**
+ * Runs Griffon commands for a single project on behalf of other Griffon processes,
+ * keeping the JVM, its classloaders and the loaded build settings warm in between.<p>
+ * The daemon listens on a local socket. Its port is written to a file under
+ * ~/.griffon/daemons named after the base directory of the project, along with a
+ * token that clients must send back; only its owner may read the file. Commands
+ * run one at a time; their output is sent back to the client as it is written,
+ * followed by the exit code.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class GriffonDaemon {
+    public static final String STOP_COMMAND = "daemon stop";
+
+    private static final int OUTPUT = 'O';
+    private static final int EXIT = 'X';
+    private static final int STALE = 'S';
+    private static final int CONNECT_TIMEOUT = 1000;
+
+    /**
+     * What the daemon does with the commands it receives.
+     */
+    public interface CommandExecutor {
+        /**
+         * @return true if the build changed in a way that requires a fresh JVM
+         */
+        boolean isStale();
+
+        int execute(String commandLine, PrintStream out);
+    }
+
+    private final File baseDir;
+    private final String griffonHome;
+    private volatile boolean stopped;
+
+    public GriffonDaemon(File baseDir, String griffonHome) {
+        this.baseDir = canonical(baseDir);
+        this.griffonHome = griffonHome;
+    }
+
+    /**
+     * The file advertising the daemon of a project.
+     */
+    public File getPortFile() {
+        File dir = new File(System.getProperty("user.home"), ".griffon" + File.separator + "daemons");
+        return new File(dir, DigestUtils.md5(baseDir.getPath()) + ".properties");
+    }
+
+    /**
+     * Sends a command to the daemon of the project, if one is running.
+     *
+     * @return the exit code of the command, null if no daemon could run it
+     */
+    public Integer send(String commandLine, OutputStream out) {
+        Properties props = readPortFile();
+        if (props == null) return null;
+        if (!String.valueOf(griffonHome).equals(props.getProperty("griffonHome"))) return null;
+
+        Socket socket = new Socket();
+        try {
+            try {
+                socket.connect(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), Integer.parseInt(props.getProperty("port"))), CONNECT_TIMEOUT);
+            } catch (NumberFormatException e) {
+                return null;
+            } catch (IOException e) {
+                // the daemon went away without cleaning up after itself
+                getPortFile().delete();
+                return null;
+            }
+
+            try {
+                DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                request.writeUTF(props.getProperty("token"));
+                request.writeUTF(commandLine);
+                request.flush();
+
+                DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                while (true) {
+                    int type = response.read();
+                    if (type == OUTPUT) {
+                        byte[] bytes = new byte[response.readInt()];
+                        response.readFully(bytes);
+                        out.write(bytes);
+                        out.flush();
+                    } else if (type == EXIT) {
+                        return response.readInt();
+                    } else if (type == STALE) {
+                        return null;
+                    } else {
+                        throw new EOFException();
+                    }
+                }
+            } catch (IOException e) {
+                // the command may have run already, don't run it again
+                try {
+                    out.write(("The Griffon daemon stopped while running '" + commandLine + "'\n").getBytes());
+                } catch (IOException ignored) {
+                    // nowhere left to report it
+                }
+                return 1;
+            }
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Serves commands until it is told to stop or the build becomes stale.
+     */
+    public void serve(CommandExecutor executor) throws IOException {
+        ServerSocket server = new ServerSocket(Integer.getInteger("griffon.daemon.port", 0), 0, InetAddress.getByName("127.0.0.1"));
+        final File portFile = getPortFile();
+        String token = Long.toHexString(new SecureRandom().nextLong());
+        writePortFile(portFile, server.getLocalPort(), token);
+        Thread cleanup = new Thread() {
+            public void run() {
+                portFile.delete();
+            }
+        };
+        Runtime.getRuntime().addShutdownHook(cleanup);
+
+        System.out.println("Griffon daemon listening on port " + server.getLocalPort() + " for " + baseDir.getPath());
+        try {
+            while (!stopped) {
+                Socket socket = server.accept();
+                try {
+                    handle(socket, token, executor);
+                } catch (IOException e) {
+                    System.out.println("Griffon daemon lost its client: " + e.getMessage());
+                } finally {
+                    socket.close();
+                }
+            }
+        } finally {
+            server.close();
+            portFile.delete();
+            Runtime.getRuntime().removeShutdownHook(cleanup);
+        }
+    }
+
+    private void handle(Socket socket, String token, CommandExecutor executor) throws IOException {
+        // a client that never sends its request must not block the daemon
+        socket.setSoTimeout(Integer.getInteger("griffon.daemon.requestTimeout", 5000));
+        DataInputStream request = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        // compared in constant time, a timing difference must not give the token away
+        if (!MessageDigest.isEqual(token.getBytes("UTF-8"), request.readUTF().getBytes("UTF-8"))) return;
+        String commandLine = request.readUTF().trim();
+        socket.setSoTimeout(0);
+
+        final DataOutputStream response = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        if (STOP_COMMAND.equals(commandLine)) {
+            stopped = true;
+            writeOutput(response, "Griffon daemon stopped\n".getBytes());
+            response.write(EXIT);
+            response.writeInt(0);
+            response.flush();
+            return;
+        }
+        if (executor.isStale()) {
+            System.out.println("Build configuration changed, Griffon daemon stopping");
+            stopped = true;
+            response.write(STALE);
+            response.flush();
+            return;
+        }
+
+        PrintStream out = new PrintStream(new OutputStream() {
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            public void write(byte[] b, int off, int len) throws IOException {
+                byte[] bytes = new byte[len];
+                System.arraycopy(b, off, bytes, 0, len);
+                writeOutput(response, bytes);
+            }
+
+            public void flush() throws IOException {
+                response.flush();
+            }
+        }, true);
+
+        System.out.println("Running '" + commandLine + "'");
+        PrintStream systemOut = System.out;
+        PrintStream systemErr = System.err;
+        int exitCode;
+        System.setOut(out);
+        System.setErr(out);
+        try {
+            exitCode = executor.execute(commandLine, out);
+        } catch (Throwable t) {
+            t.printStackTrace(out);
+            exitCode = 1;
+        } finally {
+            out.flush();
+            System.setOut(systemOut);
+            System.setErr(systemErr);
+        }
+        response.write(EXIT);
+        response.writeInt(exitCode);
+        response.flush();
+    }
+
+    private static synchronized void writeOutput(DataOutputStream response, byte[] bytes) throws IOException {
+        response.write(OUTPUT);
+        response.writeInt(bytes.length);
+        response.write(bytes);
+    }
+
+    private Properties readPortFile() {
+        File portFile = getPortFile();
+        if (!portFile.isFile()) return null;
+        Properties props = new Properties();
+        try {
+            InputStream in = new FileInputStream(portFile);
+            try {
+                props.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return props;
+    }
+
+    private void writePortFile(File portFile, int port, String token) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("port", String.valueOf(port));
+        props.setProperty("token", token);
+        props.setProperty("griffonHome", String.valueOf(griffonHome));
+        props.setProperty("baseDir", baseDir.getPath());
+        portFile.getParentFile().mkdirs();
+        // clients must never see a half written file
+        File tmp = new File(portFile.getPath() + ".tmp");
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            // other users must not read the token, the file is still empty at this point
+            restrictToOwner(tmp);
+            props.store(out, "Griffon daemon");
+        } finally {
+            out.close();
+        }
+        portFile.delete();
+        if (!tmp.renameTo(portFile)) throw new IOException("Could not write " + portFile);
+    }
+
+    // File.setReadable/setWritable are only available on Java 6 and later,
+    // older JVMs leave the file with the default permissions of the user
+    private static void restrictToOwner(File file) throws IOException {
+        for (String name : new String[]{"setReadable", "setWritable"}) {
+            Method method;
+            try {
+                method = File.class.getMethod(name, boolean.class, boolean.class);
+            } catch (NoSuchMethodException e) {
+                return;
+            }
+            try {
+                method.invoke(file, Boolean.FALSE, Boolean.FALSE);
+                if (!Boolean.TRUE.equals(method.invoke(file, Boolean.TRUE, Boolean.TRUE))) {
+                    throw new IOException("Could not restrict access to " + file);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IOException("Could not restrict access to " + file + ": " + e);
+            } catch (InvocationTargetException e) {
+                throw new IOException("Could not restrict access to " + file + ": " + e.getCause());
+            }
+        }
+    }
+
+    private static File canonical(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
+}
@@ -81,6 +81,21 @@ public class GriffonScriptRunner {
         // available.
         String griffonHome = System.getProperty("griffon.home");
 
+        // Let the daemon of this project run the command if there's one.
+        if (script.name != null && !script.name.equalsIgnoreCase("interactive")) {
+            GriffonDaemon daemon = new GriffonDaemon(new File(System.getProperty(BuildSettings.APP_BASE_DIR, ".")), griffonHome);
+            if (script.name.equalsIgnoreCase("daemon") && "stop".equals(script.args)) {
+                if (daemon.send(GriffonDaemon.STOP_COMMAND, System.out) == null) {
+                    System.out.println("No Griffon daemon is running for this project");
+                }
+                System.exit(0);
+            }
+            else if (!script.name.equalsIgnoreCase("daemon")) {
+                Integer exitCode = daemon.send(allArgs.toString().trim(), System.out);
+                if (exitCode != null) System.exit(exitCode);
+            }
+        }
+
         // Now we can pick up the Griffon version from the Ant project properties.
         BuildSettings build = null;
         try {
@@ -297,6 +312,11 @@ public class GriffonScriptRunner {
             runInteractive();
             return 0;
         }
+        if (script.name.equalsIgnoreCase("daemon")) {
+            setRunningEnvironment(script.name, script.env);
+            // Serves commands until stopped or the build configuration changes.
+            return runDaemon();
+        }
         return callPluginOrGriffonScript(script);
     }
 
@@ -385,6 +405,73 @@ public class GriffonScriptRunner {
         }
     }
 
+    /**
+     * Runs Griffon as a daemon, serving the commands sent by other Griffon processes
+     * for this project.
+     */
+    private int runDaemon() {
+        System.setProperty("griffon.disable.exit", "true");
+        // there's nobody to answer questions
+        isInteractive = false;
+
+        final PrintStream daemonOut = out;
+        final Properties systemProperties = (Properties) System.getProperties().clone();
+        final Map<String, String> settingsProperties = new LinkedHashMap<String, String>(settings.getSystemProperties());
+        final String fingerprint = settings.dependencyFingerprint();
+        GriffonDaemon daemon = new GriffonDaemon(settings.getBaseDir(), System.getProperty("griffon.home"));
+        try {
+            daemon.serve(new GriffonDaemon.CommandExecutor() {
+                public boolean isStale() {
+                    // Called before every command. Start over from the system
+                    // properties the daemon was started with.
+                    System.setProperties((Properties) systemProperties.clone());
+                    SYSTEM_PROPERTIES.clear();
+                    settings.getSystemProperties().clear();
+                    settings.getSystemProperties().putAll(settingsProperties);
+                    return !fingerprint.equals(settings.dependencyFingerprint());
+                }
+
+                public int execute(String commandLine, PrintStream commandOut) {
+                    ScriptAndArgs script = processArgumentsAndReturnScriptName(commandLine);
+                    if (script.name == null || script.name.equalsIgnoreCase("interactive") || script.name.equalsIgnoreCase("daemon")) {
+                        commandOut.println("The Griffon daemon cannot run '" + commandLine + "'");
+                        return 1;
+                    }
+                    settings.getSystemProperties().putAll(SYSTEM_PROPERTIES);
+                    System.setProperty("griffon.cli.args", script.args != null ? script.args.replace(' ', '\n') : "");
+
+                    long now = System.currentTimeMillis();
+                    setOut(commandOut);
+                    try {
+                        return callPluginOrGriffonScript(script);
+                    }
+                    catch (ScriptNotFoundException ex) {
+                        commandOut.println("Script not found: " + ex.getScriptName());
+                        return 1;
+                    }
+                    catch (Throwable t) {
+                        if (t.getCause() instanceof ScriptExitException) {
+                            return ((ScriptExitException) t.getCause()).getExitCode();
+                        }
+                        commandOut.println("Error executing script " + script.name + ": " + t.getMessage());
+                        sanitizeStacktrace(t);
+                        t.printStackTrace(commandOut);
+                        return 1;
+                    }
+                    finally {
+                        setOut(daemonOut);
+                        daemonOut.println("Command " + script.name + " completed in " + (System.currentTimeMillis() - now) + "ms");
+                    }
+                }
+            });
+        }
+        catch (IOException e) {
+            out.println("Could not start the Griffon daemon: " + e.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+
     private final Map<String, CachedScript> scriptCache = new HashMap<String, CachedScript>();
     private final List<File> scriptsAllowedOutsideOfProject = new ArrayList<File>();
     private static final Closure DO_NOTHING_CLOSURE = new Closure(new Object()) {
@@ -482,7 +569,7 @@ public class GriffonScriptRunner {
                 CachedScript cachedScript = new CachedScript();
                 cachedScript.binding = binding;
                 cachedScript.potentialScripts = potentialScripts;
-                scriptCache.put("scriptName", cachedScript);
+                scriptCache.put(script.name, cachedScript);
             }
         }
 
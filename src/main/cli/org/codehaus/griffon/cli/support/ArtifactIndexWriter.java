@@ -0,0 +1,69 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.cli.support;
+
+import org.codehaus.griffon.runtime.core.ArtifactIndex;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the binary artifact index of an application or addon, see {@code ArtifactIndex}.<p>
+ * Whether an artifact is abstract is read from its compiled class file, classes are not loaded.
+ * Artifacts whose class file can't be found are left out of the index, the runtime then
+ * registers them from <tt>griffon-artifacts.properties</tt> instead.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class ArtifactIndexWriter {
+    /**
+     * Writes an index.
+     *
+     * @param target     the index file
+     * @param artifacts  class names, by artifact type
+     * @param classesDir where the artifacts were compiled to
+     */
+    public static void write(File target, Map<String, List<String>> artifacts, File classesDir) throws IOException {
+        List<ArtifactIndex.Entry> entries = new ArrayList<ArtifactIndex.Entry>();
+        for (Map.Entry<String, List<String>> artifact : artifacts.entrySet()) {
+            String type = artifact.getKey();
+            for (String className : artifact.getValue()) {
+                File classFile = new File(classesDir, className.replace('.', File.separatorChar) + ".class");
+                if (!classFile.isFile()) continue;
+                entries.add(new ArtifactIndex.Entry(type, className, isAbstract(classFile)));
+            }
+        }
+        ArtifactIndex.write(target, entries);
+    }
+
+    static boolean isAbstract(File classFile) throws IOException {
+        InputStream in = new FileInputStream(classFile);
+        try {
+            return (new ClassReader(in).getAccess() & Opcodes.ACC_ABSTRACT) != 0;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.compiler;
+
+import griffon.util.DigestUtils;
+import groovyjarjarasm.asm.ClassReader;
+import groovyjarjarasm.asm.FieldVisitor;
+import groovyjarjarasm.asm.Label;
+import groovyjarjarasm.asm.MethodVisitor;
+import groovyjarjarasm.asm.Opcodes;
+import groovyjarjarasm.asm.Type;
+import groovyjarjarasm.asm.commons.EmptyVisitor;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What the build needs to know about a compiled class: the source file it came from,
+ * the classes it refers to, a digest of its ABI and a digest of the whole class.<p>
+ * The ABI covers the class declaration and its non private fields and methods.
+ * Members generated by the Groovy compiler, such as the compilation timestamp,
+ * are left out, so recompiling a source without changes keeps its ABI. The timestamp
+ * is left out of the digest of the whole class as well.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class ClassSummary {
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+    // Groovy 1.8 loads class literals by name
+    private static final Pattern CLASS_NAME = Pattern.compile("[\\w$]+(\\.[\\w$]+)+");
+    private static final String GROOVY_TIMESTAMP = "__timeStamp";
+    private static final String GROOVY_TIMESTAMP_NAME = "__timeStamp__239_neverHappen";
+    private static final byte CONSTANT_LONG = 5;
+
+    private final String className;
+    private final String sourceFile;
+    private final String abi;
+    private final String digest;
+    private final Set<String> references;
+
+    public ClassSummary(String className, String sourceFile, String abi, String digest, Set<String> references) {
+        this.className = className;
+        this.sourceFile = sourceFile;
+        this.abi = abi;
+        this.digest = digest;
+        this.references = references;
+    }
+
+    /**
+     * Reads a class file.
+     */
+    public static ClassSummary read(File classFile) throws IOException {
+        byte[] bytes = readFully(classFile);
+        Collector collector = new Collector();
+        try {
+            new ClassReader(bytes).accept(collector, ClassReader.SKIP_FRAMES);
+        } catch (RuntimeException e) {
+            throw new IOException("Not a class file: " + classFile);
+        }
+        return collector.toSummary(bytes);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * The name of the source file without its path, null if the class was compiled without debug information.
+     */
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    public String getPackagePath() {
+        int i = className.lastIndexOf('.');
+        return i < 0 ? "" : className.substring(0, i).replace('.', '/');
+    }
+
+    public String getAbi() {
+        return abi;
+    }
+
+    /**
+     * Digest of the whole class, it changes whenever its bytecode does.
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Every class this one refers to, platform classes included.
+     */
+    public Set<String> getReferences() {
+        return Collections.unmodifiableSet(references);
+    }
+
+    // Groovy stores the compilation time in every class, it must not count as a change.
+    // It reads the clock twice, once for the field name and once for the value of
+    // __timeStamp, so both are blanked on their own
+    private static String digestWithoutTimestamp(byte[] bytes, String timestampName, Long timestamp) throws UnsupportedEncodingException {
+        if (timestampName != null || timestamp != null) bytes = bytes.clone();
+        if (timestampName != null) {
+            byte[] name = timestampName.getBytes("UTF-8");
+            blank(bytes, name, GROOVY_TIMESTAMP_NAME.length());
+        }
+        if (timestamp != null) {
+            byte[] constant = new byte[9];
+            constant[0] = CONSTANT_LONG;
+            for (int i = 0; i < 8; i++) constant[8 - i] = (byte) (timestamp >>> (8 * i));
+            blank(bytes, constant, 1);
+        }
+        return DigestUtils.md5(bytes);
+    }
+
+    // zeroes every occurrence of a pattern, starting at the given offset within the pattern
+    private static void blank(byte[] bytes, byte[] pattern, int from) {
+        search:
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (bytes[i + j] != pattern[j]) continue search;
+            }
+            Arrays.fill(bytes, i + from, i + pattern.length, (byte) 0);
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static boolean isGenerated(String name, int access) {
+        return (access & Opcodes.ACC_SYNTHETIC) != 0 || name.indexOf('$') > -1 || name.startsWith("__timeStamp");
+    }
+
+    private static class Collector extends EmptyVisitor {
+        private String className;
+        private String sourceFile;
+        private final List<String> members = new ArrayList<String>();
+        private final Set<String> references = new LinkedHashSet<String>();
+        private String declaration;
+        private String timestampName;
+        private Long timestamp;
+        private Long lastLong;
+
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            className = name.replace('/', '.');
+            List<String> sortedInterfaces = interfaces != null ? new ArrayList<String>(Arrays.asList(interfaces)) : new ArrayList<String>();
+            Collections.sort(sortedInterfaces);
+            declaration = (access & ~Opcodes.ACC_SUPER) + " " + name + " " + signature + " " + superName + " " + sortedInterfaces;
+            addType(superName);
+            for (String i : sortedInterfaces) addType(i);
+            addDescriptor(signature);
+        }
+
+        public void visitSource(String source, String debug) {
+            sourceFile = source;
+        }
+
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            if (name.startsWith(GROOVY_TIMESTAMP_NAME)) timestampName = name;
+            if ((access & Opcodes.ACC_PRIVATE) == 0 && !isGenerated(name, access)) {
+                members.add("F " + access + " " + name + " " + desc + " " + signature + " " + value);
+            }
+            addDescriptor(desc);
+            addDescriptor(signature);
+            return this;
+        }
+
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if ((access & Opcodes.ACC_PRIVATE) == 0 && !isGenerated(name, access)) {
+                members.add("M " + access + " " + name + " " + desc + " " + signature + " " + (exceptions != null ? Arrays.asList(exceptions) : ""));
+            }
+            addDescriptor(desc);
+            addDescriptor(signature);
+            if (exceptions != null) for (String e : exceptions) addType(e);
+            return this;
+        }
+
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            addType(name);
+        }
+
+        public void visitTypeInsn(int opcode, String type) {
+            addType(type);
+        }
+
+        public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+            // the static initializer loads the value of __timeStamp as a constant
+            if (opcode == Opcodes.PUTSTATIC && GROOVY_TIMESTAMP.equals(name)) timestamp = lastLong;
+            addType(owner);
+            addDescriptor(desc);
+        }
+
+        public void visitMethodInsn(int opcode, String owner, String name, String desc) {
+            addType(owner);
+            addDescriptor(desc);
+        }
+
+        public void visitLdcInsn(Object cst) {
+            if (cst instanceof Long) {
+                lastLong = (Long) cst;
+            } else if (cst instanceof Type) {
+                addDescriptor(((Type) cst).getDescriptor());
+            } else if (cst instanceof String && CLASS_NAME.matcher((String) cst).matches()) {
+                references.add((String) cst);
+            }
+        }
+
+        public void visitMultiANewArrayInsn(String desc, int dims) {
+            addDescriptor(desc);
+        }
+
+        public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+            addType(type);
+        }
+
+        public void visitLocalVariable(String name, String desc, String signature, Label start, Label end, int index) {
+            addDescriptor(desc);
+            addDescriptor(signature);
+        }
+
+        public groovyjarjarasm.asm.AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            addDescriptor(desc);
+            return this;
+        }
+
+        private void addType(String internalName) {
+            if (internalName == null) return;
+            if (internalName.startsWith("[")) {
+                addDescriptor(internalName);
+            } else {
+                references.add(internalName.replace('/', '.'));
+            }
+        }
+
+        private void addDescriptor(String descriptor) {
+            if (descriptor == null) return;
+            Matcher matcher = DESCRIPTOR_TYPE.matcher(descriptor);
+            while (matcher.find()) references.add(matcher.group(1).replace('/', '.'));
+        }
+
+        private ClassSummary toSummary(byte[] bytes) throws IOException {
+            Collections.sort(members);
+            MessageDigest abi = DigestUtils.newDigest();
+            DigestUtils.update(abi, declaration);
+            for (String member : members) {
+                abi.update((byte) '\n');
+                DigestUtils.update(abi, member);
+            }
+            references.remove(className);
+            return new ClassSummary(className, sourceFile, DigestUtils.toHex(abi), digestWithoutTimestamp(bytes, timestampName, timestamp), references);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.compiler;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Remembers, for every class compiled into a directory, the source file it came
+ * from, the digest of its ABI and the classes it refers to.<p>
+ * The incremental compiler relies on it to delete the classes of sources that were
+ * removed and to find the classes that must be recompiled when the ABI of another
+ * class changes.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class CompileIndex {
+    private static final String SOURCE = ".source";
+    private static final String ABI = ".abi";
+    private static final String REFS = ".refs";
+    // never compiled into an application, no need to track them
+    private static final String[] PLATFORM_PACKAGES = {"java.", "javax.", "groovy.", "groovyjarjar", "org.codehaus.groovy."};
+
+    private final File file;
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+    private static class Entry {
+        private String source;
+        private String abi;
+        private Set<String> references;
+    }
+
+    public CompileIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads an index. An index that does not exist or can't be read is empty.
+     */
+    public static CompileIndex load(File file) {
+        CompileIndex index = new CompileIndex(file);
+        if (!file.isFile()) return index;
+
+        Properties props = new Properties();
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                props.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return index;
+        }
+
+        for (Enumeration<?> keys = props.propertyNames(); keys.hasMoreElements(); ) {
+            String key = (String) keys.nextElement();
+            if (!key.endsWith(ABI)) continue;
+            String className = key.substring(0, key.length() - ABI.length());
+            Entry entry = new Entry();
+            entry.abi = props.getProperty(key);
+            entry.source = props.getProperty(className + SOURCE);
+            entry.references = new LinkedHashSet<String>();
+            String refs = props.getProperty(className + REFS, "");
+            if (refs.length() > 0) entry.references.addAll(Arrays.asList(refs.split(",")));
+            index.entries.put(className, entry);
+        }
+        return index;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public String getAbi(String className) {
+        Entry entry = entries.get(className);
+        return entry != null ? entry.abi : null;
+    }
+
+    /**
+     * @return the source a class was compiled from, null if unknown
+     */
+    public File getSource(String className) {
+        Entry entry = entries.get(className);
+        return entry != null && entry.source != null ? new File(entry.source) : null;
+    }
+
+    /**
+     * @return the indexed classes compiled from a source
+     */
+    public Set<String> getClassesOf(File source) {
+        String path = source.getAbsolutePath();
+        Set<String> classes = new LinkedHashSet<String>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (path.equals(entry.getValue().source)) classes.add(entry.getKey());
+        }
+        return classes;
+    }
+
+    /**
+     * @return the indexed classes whose source file no longer exists
+     */
+    public Set<String> getOrphans() {
+        Set<String> orphans = new LinkedHashSet<String>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            String source = entry.getValue().source;
+            if (source != null && !new File(source).exists()) orphans.add(entry.getKey());
+        }
+        return orphans;
+    }
+
+    /**
+     * @return the indexed classes that refer to any of the given classes
+     */
+    public Set<String> getDependents(Collection<String> classNames) {
+        Set<String> dependents = new LinkedHashSet<String>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            for (String ref : entry.getValue().references) {
+                if (classNames.contains(ref)) {
+                    dependents.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        dependents.removeAll(classNames);
+        return dependents;
+    }
+
+    /**
+     * Records a freshly compiled class.
+     *
+     * @return true if the class was indexed before with a different ABI
+     */
+    public boolean put(ClassSummary summary, File source) {
+        Entry entry = entries.get(summary.getClassName());
+        boolean changed = entry != null && !summary.getAbi().equals(entry.abi);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(summary.getClassName(), entry);
+        }
+        if (source != null) entry.source = source.getAbsolutePath();
+        entry.abi = summary.getAbi();
+        entry.references = new LinkedHashSet<String>();
+        for (String ref : summary.getReferences()) {
+            if (!isPlatformClass(ref)) entry.references.add(ref);
+        }
+        return changed;
+    }
+
+    private static boolean isPlatformClass(String className) {
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (className.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    public void remove(String className) {
+        entries.remove(className);
+    }
+
+    public void store() throws IOException {
+        Properties props = new Properties();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            String className = entry.getKey();
+            Entry value = entry.getValue();
+            props.setProperty(className + ABI, value.abi);
+            if (value.source != null) props.setProperty(className + SOURCE, value.source);
+            StringBuilder refs = new StringBuilder();
+            for (String ref : value.references) {
+                if (refs.length() > 0) refs.append(',');
+                refs.append(ref);
+            }
+            props.setProperty(className + REFS, refs.toString());
+        }
+
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            props.store(out, "Classes compiled by griffonc");
+        } finally {
+            out.close();
+        }
+    }
+}
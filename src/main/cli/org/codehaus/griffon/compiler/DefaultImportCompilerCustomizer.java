@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.*;
 
 /**
@@ -38,6 +39,8 @@ public class DefaultImportCompilerCustomizer extends CompilationCustomizer {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultImportCompilerCustomizer.class);
     private static final Map<String, String[]> IMPORTS_PER_ARTIFACT_TYPE = new LinkedHashMap<String, String[]>();
     private static final String[] DEFAULT_IMPORTS = {"griffon.core.", "griffon.util."};
+    // classloaders already scanned, along with the number of URLs they had back then
+    private static final Map<ClassLoader, Integer> SCANNED_CLASSLOADERS = new WeakHashMap<ClassLoader, Integer>();
 
     public DefaultImportCompilerCustomizer() {
         super(CompilePhase.CONVERSION);
@@ -66,6 +69,12 @@ public class DefaultImportCompilerCustomizer extends CompilationCustomizer {
 
     public void collectDefaultImportsPerArtifact() {
         ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        int urlCount = cl instanceof URLClassLoader ? ((URLClassLoader) cl).getURLs().length : -1;
+        synchronized (SCANNED_CLASSLOADERS) {
+            Integer scanned = SCANNED_CLASSLOADERS.get(cl);
+            if (scanned != null && scanned == urlCount) return;
+            SCANNED_CLASSLOADERS.put(cl, urlCount);
+        }
         Enumeration<URL> urls = null;
 
         try {
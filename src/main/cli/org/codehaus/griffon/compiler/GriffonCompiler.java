@@ -20,7 +20,12 @@ import org.codehaus.groovy.ant.Groovyc;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.Phases;
 
+import org.apache.tools.ant.BuildException;
+import org.apache.tools.ant.taskdefs.Javac;
+
 import java.io.File;
+import java.io.IOException;
+import java.util.*;
 
 /**
  * @author Andres Almiray
@@ -28,6 +33,11 @@ import java.io.File;
  * @since 0.9.1
  */
 public class GriffonCompiler extends Groovyc {
+    private Boolean incremental;
+    private File indexFile;
+    private boolean defaultImportsConfigured;
+    private boolean jointCompilation;
+
     public void setVerbose(boolean verbose) {
         GriffonCompilerContext.verbose = verbose;
     }
@@ -41,16 +51,174 @@ public class GriffonCompiler extends Groovyc {
         GriffonCompilerContext.projectName = projectName;
     }
 
+    /**
+     * Compiles only the sources that changed and those depending on classes whose ABI changed.
+     * Defaults to true unless griffon.disable.incremental.compilation is set.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public void addConfiguredJavac(Javac javac) {
+        jointCompilation = true;
+        super.addConfiguredJavac(javac);
+    }
+
+    public boolean isIncremental() {
+        if (incremental != null) return incremental;
+        return !GriffonCompilerContext.getConfigOption(GriffonCompilerContext.DISABLE_INCREMENTAL_COMPILATION);
+    }
+
+    /**
+     * Where the index of compiled classes is kept. Defaults to a file named after
+     * the destination directory, next to it.
+     */
+    public void setIndexFile(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    public File getIndexFile() {
+        if (indexFile != null) return indexFile;
+        File destdir = getDestdir().getAbsoluteFile();
+        return new File(destdir.getParentFile(), destdir.getName() + "-index.properties");
+    }
+
     protected void compile() {
         GriffonCompilerContext.setup();
-        super.compile();
+        if (isIncremental()) {
+            compileIncrementally();
+        } else {
+            super.compile();
+        }
+    }
+
+    private void compileIncrementally() {
+        // sources are compiled against the classes that were left alone
+        String destdir = getDestdir().getAbsolutePath();
+        if (getClasspath() == null || !Arrays.asList(getClasspath().list()).contains(destdir)) {
+            createClasspath().createPathElement().setLocation(getDestdir());
+        }
+
+        CompileIndex index = CompileIndex.load(getIndexFile());
+        Set<String> removed = new LinkedHashSet<String>();
+        for (String className : index.getOrphans()) {
+            deleteClass(className);
+            index.remove(className);
+            removed.add(className);
+        }
+        if (!removed.isEmpty()) log("Removed " + removed.size() + " class file(s) of deleted sources");
+
+        Set<File> compiled = new HashSet<File>();
+        File[] sources = compileList;
+        while (true) {
+            Set<String> previous = new LinkedHashSet<String>();
+            for (File source : sources) {
+                for (String className : index.getClassesOf(source)) {
+                    deleteClass(className);
+                    previous.add(className);
+                }
+                compiled.add(source.getAbsoluteFile());
+            }
+
+            // file systems may keep modification times with a one second precision
+            long start = System.currentTimeMillis() / 1000 * 1000 - 1000;
+            compileList = sources;
+            super.compile();
+
+            Set<String> changed = new LinkedHashSet<String>(removed);
+            for (ClassSummary summary : readClassesSince(getDestdir(), start)) {
+                File source = findSource(summary, sources);
+                if (source == null && !previous.contains(summary.getClassName())) continue;
+                if (index.put(summary, source)) changed.add(summary.getClassName());
+                previous.remove(summary.getClassName());
+            }
+            for (String className : previous) {
+                index.remove(className);
+                changed.add(className);
+            }
+            removed.clear();
+
+            sources = findDependentSources(index, changed, compiled);
+            if (sources.length == 0) break;
+            log("Recompiling " + sources.length + " source file(s) depending on changed classes");
+        }
+
+        try {
+            index.store();
+        } catch (IOException e) {
+            throw new BuildException("Could not write " + index.getFile(), e);
+        }
+    }
+
+    /**
+     * Dependents are compiled again right away, including those outside the source
+     * directories of this task: the task that compiles them may have run already,
+     * as the one for src/main does before the one for griffon-app/conf.
+     */
+    private File[] findDependentSources(CompileIndex index, Set<String> changed, Set<File> compiled) {
+        if (changed.isEmpty()) return new File[0];
+        Set<File> sources = new LinkedHashSet<File>();
+        for (String className : index.getDependents(changed)) {
+            File source = index.getSource(className);
+            if (source == null || !source.exists() || compiled.contains(source)) continue;
+            if (source.getName().endsWith(".java") && !jointCompilation) {
+                throw new BuildException(source + " depends on changed classes but can't be compiled without a nested javac, a clean build is required");
+            }
+            sources.add(source);
+        }
+        return sources.toArray(new File[sources.size()]);
+    }
+
+    /**
+     * Matches a class with the compiled source named in its SourceFile attribute,
+     * preferring the one whose directory matches the package of the class.
+     */
+    private static File findSource(ClassSummary summary, File[] sources) {
+        if (summary.getSourceFile() == null) return null;
+        String packageDir = File.separator + summary.getPackagePath().replace('/', File.separatorChar);
+        File candidate = null;
+        int matches = 0;
+        for (File source : sources) {
+            if (!source.getName().equals(summary.getSourceFile())) continue;
+            String parent = source.getAbsoluteFile().getParent();
+            if (summary.getPackagePath().length() == 0 || parent.endsWith(packageDir)) return source.getAbsoluteFile();
+            candidate = source.getAbsoluteFile();
+            matches++;
+        }
+        return matches == 1 ? candidate : null;
+    }
+
+    private List<ClassSummary> readClassesSince(File dir, long since) {
+        List<ClassSummary> summaries = new ArrayList<ClassSummary>();
+        File[] files = dir.listFiles();
+        if (files == null) return summaries;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                summaries.addAll(readClassesSince(file, since));
+            } else if (file.getName().endsWith(".class") && file.lastModified() >= since) {
+                try {
+                    summaries.add(ClassSummary.read(file));
+                } catch (IOException e) {
+                    log("Could not read " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return summaries;
+    }
+
+    private void deleteClass(String className) {
+        new File(getDestdir(), className.replace('.', File.separatorChar) + ".class").delete();
     }
 
     protected CompilationUnit makeCompileUnit() {
         if(!GriffonCompilerContext.getConfigOption(GriffonCompilerContext.DISABLE_AUTO_IMPORTS)) {
-            DefaultImportCompilerCustomizer defaultImportCompilerCustomizer = new DefaultImportCompilerCustomizer();
-            defaultImportCompilerCustomizer.collectDefaultImportsPerArtifact();
-            configuration.addCompilationCustomizers(defaultImportCompilerCustomizer);
+            // the configuration is shared by every pass of an incremental compilation
+            if(!defaultImportsConfigured) {
+                DefaultImportCompilerCustomizer defaultImportCompilerCustomizer = new DefaultImportCompilerCustomizer();
+                defaultImportCompilerCustomizer.collectDefaultImportsPerArtifact();
+                configuration.addCompilationCustomizers(defaultImportCompilerCustomizer);
+                defaultImportsConfigured = true;
+            }
         } else {
             log("Default imports feature disabled.");
         }
@@ -42,6 +42,7 @@ public class GriffonCompilerContext {
     public static final String DISABLE_AUTO_IMPORTS = "griffon.disable.auto.imports";
     public static final String DISABLE_LOGGING_INJECTION = "griffon.disable.logging.injection";
     public static final String DISABLE_THREADING_INJECTION = "griffon.disable.threading.injection";
+    public static final String DISABLE_INCREMENTAL_COMPILATION = "griffon.disable.incremental.compilation";
 
     public static boolean verbose;
     public static String basedir;
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.test.event
+
+/**
+ * Holds back the events of a test case until it ends, then publishes all of them
+ * at once through another publisher.<p>
+ * Used when test cases run in parallel, so that the events of one test case are
+ * never interleaved with those of another.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+class BufferedGriffonTestEventPublisher extends GriffonTestEventPublisher {
+    private final GriffonTestEventPublisher target
+    private final Object lock
+    private final List pending = []
+
+    /**
+     * @param target publishes the events
+     * @param lock   shared by every publisher with the same target
+     */
+    BufferedGriffonTestEventPublisher(GriffonTestEventPublisher target, Object lock) {
+        super(null)
+        this.target = target
+        this.lock = lock
+        this.event = { String name, List args -> pending << [name, args] }
+    }
+
+    void testCaseEnd(String name, String out = null, String err = null) {
+        super.testCaseEnd(name, out, err)
+        synchronized (lock) {
+            for (e in pending) {
+                target.event(e[0], e[1])
+            }
+        }
+        pending.clear()
+    }
+}
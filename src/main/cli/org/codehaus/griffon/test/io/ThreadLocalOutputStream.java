@@ -0,0 +1,68 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.test.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Sends whatever a thread writes to the stream that thread has set, or to a
+ * fallback stream if it has set none.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class ThreadLocalOutputStream extends OutputStream {
+    private final OutputStream fallback;
+    private final ThreadLocal<OutputStream> target = new ThreadLocal<OutputStream>();
+
+    public ThreadLocalOutputStream(OutputStream fallback) {
+        this.fallback = fallback;
+    }
+
+    public OutputStream getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Sends the output of the current thread to the given stream, null restores the fallback.
+     */
+    public void set(OutputStream stream) {
+        if (stream == null) {
+            target.remove();
+        } else {
+            target.set(stream);
+        }
+    }
+
+    public void write(int b) throws IOException {
+        current().write(b);
+    }
+
+    public void write(byte[] b, int off, int len) throws IOException {
+        current().write(b, off, len);
+    }
+
+    public void flush() throws IOException {
+        current().flush();
+    }
+
+    private OutputStream current() {
+        OutputStream stream = target.get();
+        return stream != null ? stream : fallback;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.test.io
+
+/**
+ * Swaps standard out and error for the current thread only, so that tests running
+ * on other threads keep their own output.<p>
+ * System.out and System.err must have been replaced by {@link #install()}
+ * beforehand.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+class ThreadLocalSystemOutAndErrSwapper extends SystemOutAndErrSwapper {
+    private final ThreadLocalOutputStream out
+    private final ThreadLocalOutputStream err
+
+    ThreadLocalSystemOutAndErrSwapper(ThreadLocalOutputStream out, ThreadLocalOutputStream err, boolean echoOut = false, boolean echoErr = false) {
+        super(echoOut, echoErr)
+        this.out = out
+        this.err = err
+    }
+
+    /**
+     * Routes System.out and System.err through thread local streams.
+     *
+     * @return [out, err], pass them to {@link #uninstall(List)} when done
+     */
+    static List<ThreadLocalOutputStream> install() {
+        def streams = [new ThreadLocalOutputStream(System.out), new ThreadLocalOutputStream(System.err)]
+        System.out = new PrintStream(streams[0], true)
+        System.err = new PrintStream(streams[1], true)
+        streams
+    }
+
+    /**
+     * Restores System.out and System.err to what they were before {@link #install()} was called.
+     */
+    static void uninstall(List<ThreadLocalOutputStream> streams) {
+        System.out.flush()
+        System.err.flush()
+        System.out = streams[0].fallback
+        System.err = streams[1].fallback
+    }
+
+    List<OutputStream> swapIn(OutputStream outStream, OutputStream errStream) {
+        if (swapped) throw new IllegalStateException("swapIn() called during a swap")
+
+        swappedInOutStream = echoOut ? new MultiplexingOutputStream(out.fallback, outStream) : outStream
+        swappedInErrStream = echoErr ? new MultiplexingOutputStream(err.fallback, errStream) : errStream
+        out.set(swappedInOutStream)
+        err.set(swappedInErrStream)
+
+        swapped = true
+
+        [swappedInOutStream, swappedInErrStream]
+    }
+
+    List<OutputStream> swapOut() {
+        if (!swapped) throw new IllegalStateException("swapOut() called while not during a swap")
+
+        System.out.flush()
+        System.err.flush()
+        out.set(null)
+        err.set(null)
+
+        def streams = []
+        streams << (echoOut ? swappedInOutStream.streams.last() : swappedInOutStream)
+        streams << (echoErr ? swappedInErrStream.streams.last() : swappedInErrStream)
+
+        swappedInOutStream = null
+        swappedInErrStream = null
+
+        swapped = false
+
+        streams
+    }
+}
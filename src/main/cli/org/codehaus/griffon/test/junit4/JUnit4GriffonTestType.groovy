@@ -17,8 +17,15 @@
 package org.codehaus.griffon.test.junit4
 
 import java.lang.reflect.Modifier
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 import org.codehaus.griffon.test.GriffonTestTypeResult
+import org.codehaus.griffon.test.event.BufferedGriffonTestEventPublisher
 import org.codehaus.griffon.test.event.GriffonTestEventPublisher
+import org.codehaus.griffon.test.io.ThreadLocalSystemOutAndErrSwapper
 import org.codehaus.griffon.test.junit4.listener.SuiteRunListener
 import org.codehaus.griffon.test.junit4.result.JUnit4ResultGriffonTestTypeResultAdapter
 import org.codehaus.griffon.test.junit4.runner.GriffonTestCaseRunnerBuilder
@@ -30,13 +37,17 @@ import org.junit.runner.notification.RunNotifier
 import org.junit.runners.Suite
 
 /**
- * An {@code GriffonTestType} for JUnit4 tests.
+ * An {@code GriffonTestType} for JUnit4 tests.<p>
+ * Test classes are run on several threads when the build asks for more than one
+ * {@link #getWorkerCount() worker}, unless the tests need the application.
  */
 public class JUnit4GriffonTestType extends GriffonTestTypeSupport {
     public static final SUFFIXES = ["Test", "Tests"].asImmutable()
 
     protected suite
     protected mode
+    // [test class, runner] pairs, slowest first, when running in parallel
+    protected List runners
 
     public JUnit4GriffonTestType(String name, String sourceDirectory) {
         this(name, sourceDirectory, null)
@@ -53,14 +64,25 @@ public class JUnit4GriffonTestType extends GriffonTestTypeSupport {
 
     protected int doPrepare() {
         def testClasses = getTestClasses()
-        if (testClasses) {
+        if (!testClasses) {
+            0
+        } else if (getWorkerCount() > 1) {
+            def builder = createRunnerBuilder()
+            runners = getTestDurations().sort(testClasses).collect { [it, builder.safeRunnerForClass(it)] }
+            runners.sum { it[1].testCount() }
+        } else {
             suite = createSuite(testClasses)
             suite.testCount()
-        } else {
-            0
         }
     }
 
+    /**
+     * Tests that need the application share it, they always run on a single thread.
+     */
+    protected int getWorkerCount() {
+        mode ? 1 : super.getWorkerCount()
+    }
+
     protected getTestClasses() {
         def classes = []
         eachSourceFile { testTargetPattern, sourceFile ->
@@ -99,6 +121,8 @@ public class JUnit4GriffonTestType extends GriffonTestTypeSupport {
     }
 
     protected GriffonTestTypeResult doRun(GriffonTestEventPublisher eventPublisher) {
+        if (runners) return doRunParallel(eventPublisher)
+
         def notifier = createNotifier(eventPublisher)
         def result = new Result()
         notifier.addListener(result.createListener())
@@ -107,4 +131,47 @@ public class JUnit4GriffonTestType extends GriffonTestTypeSupport {
         notifier.fireTestRunFinished(result)
         new JUnit4ResultGriffonTestTypeResultAdapter(result)
     }
+
+    /**
+     * Runs test classes on as many threads as there are workers, handing out the
+     * slowest classes first. Events are published and output is captured per class.
+     */
+    protected GriffonTestTypeResult doRunParallel(GriffonTestEventPublisher eventPublisher) {
+        def queue = new ConcurrentLinkedQueue(runners)
+        def durations = getTestDurations()
+        def reportsFactory = createJUnitReportsFactory()
+        def classLoader = Thread.currentThread().contextClassLoader
+        def lock = new Object()
+        int threads = Math.min(getWorkerCount(), runners.size())
+
+        def streams = ThreadLocalSystemOutAndErrSwapper.install()
+        ExecutorService executor = Executors.newFixedThreadPool(threads)
+        try {
+            def futures = (1..threads).collect {
+                executor.submit({
+                    Thread.currentThread().contextClassLoader = classLoader
+                    def notifier = new RunNotifier()
+                    def publisher = new BufferedGriffonTestEventPublisher(eventPublisher, lock)
+                    notifier.addListener(new SuiteRunListener(publisher, reportsFactory, createThreadLocalSystemOutAndErrSwapper(streams)))
+                    def result = new Result()
+                    notifier.addListener(result.createListener())
+
+                    def next
+                    while ((next = queue.poll()) != null) {
+                        long start = System.currentTimeMillis()
+                        next[1].run(notifier)
+                        durations[next[0].name] = System.currentTimeMillis() - start
+                    }
+                    notifier.fireTestRunFinished(result)
+                    result
+                } as Callable)
+            }
+            new JUnit4ResultGriffonTestTypeResultAdapter(futures.collect { it.get() })
+        } catch (ExecutionException e) {
+            throw e.cause
+        } finally {
+            executor.shutdownNow()
+            ThreadLocalSystemOutAndErrSwapper.uninstall(streams)
+        }
+    }
 }
@@ -73,7 +73,7 @@ class SuiteRunListener extends RunListener {
     }
 
     void testRunFinished(Result result) {
-        perTestListener.finish()
+        perTestListener?.finish()
     }
 
     void testIgnored(Description description) {
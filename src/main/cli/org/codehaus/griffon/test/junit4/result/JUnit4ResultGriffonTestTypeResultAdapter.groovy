@@ -20,17 +20,24 @@ import org.codehaus.griffon.test.GriffonTestTypeResult
 import org.junit.runner.Result
 
 class JUnit4ResultGriffonTestTypeResultAdapter implements GriffonTestTypeResult {
-    private final Result result
+    private final List<Result> results
 
     JUnit4ResultGriffonTestTypeResultAdapter(Result result) {
-        this.result = result
+        this([result])
+    }
+
+    /**
+     * Adds up the results of tests that ran in parallel.
+     */
+    JUnit4ResultGriffonTestTypeResultAdapter(Collection<Result> results) {
+        this.results = results.asList()
     }
 
     int getPassCount() {
-        result.runCount - failCount
+        (results.sum { it.runCount } ?: 0) - failCount
     }
 
     int getFailCount() {
-        result.failureCount
+        results.sum { it.failureCount } ?: 0
     }
 }
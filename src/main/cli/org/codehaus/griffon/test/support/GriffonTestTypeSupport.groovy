@@ -22,6 +22,8 @@ import org.codehaus.griffon.test.GriffonTestType
 import org.codehaus.griffon.test.GriffonTestTypeResult
 import org.codehaus.griffon.test.event.GriffonTestEventPublisher
 import org.codehaus.griffon.test.io.SystemOutAndErrSwapper
+import org.codehaus.griffon.test.io.ThreadLocalOutputStream
+import org.codehaus.griffon.test.io.ThreadLocalSystemOutAndErrSwapper
 
 /**
  * Provides a convenient base for {@link GriffonTestType} implementations.
@@ -175,11 +177,17 @@ abstract class GriffonTestTypeSupport implements GriffonTestType {
     
     /**
      * Calls {@code body} with the GriffonTestTargetPattern that matched the source, and the File for the source.
+     * 
+     * Sources of tests that are not affected by the latest changes are skipped if the build binding
+     * has a {@link TestSelection testSelection}.
      */
     protected void eachSourceFile(Closure body) {
+        TestSelection selection = buildBinding.variables.testSelection
         testTargetPatterns.each { testTargetPattern ->
             findSourceFiles(testTargetPattern).each { sourceFile ->
-                body(testTargetPattern, sourceFile)
+                if (selection == null || selection.isAffected(sourceFileToClassName(sourceFile))) {
+                    body(testTargetPattern, sourceFile)
+                }
             }
         }
     }
@@ -223,6 +231,31 @@ abstract class GriffonTestTypeSupport implements GriffonTestType {
         }
     }
     
+    /**
+     * Creates a swapper for tests running in parallel, see {@link ThreadLocalSystemOutAndErrSwapper#install()}.
+     */
+    protected SystemOutAndErrSwapper createThreadLocalSystemOutAndErrSwapper(List<ThreadLocalOutputStream> streams) {
+        buildBinding.with {
+            new ThreadLocalSystemOutAndErrSwapper(streams[0], streams[1], testOptions.echoOut == true, testOptions.echoErr == true)
+        }
+    }
+
+    /**
+     * Number of threads tests are run on, taken from {@code testWorkers} in the build binding.
+     */
+    protected int getWorkerCount() {
+        def workers = buildBinding.variables.testWorkers
+        workers ? workers as int : 1
+    }
+
+    /**
+     * The durations of previous test runs, taken from {@code testDurations} in the build binding.
+     */
+    protected TestDurations getTestDurations() {
+        if (!buildBinding.variables.testDurations) buildBinding.setVariable("testDurations", new TestDurations())
+        buildBinding.getVariable("testDurations")
+    }
+
     /**
      * Loods the class named by {@code className} using a class loader that can load the test classes, 
      * throwing a RuntimeException if the class can't be loaded.
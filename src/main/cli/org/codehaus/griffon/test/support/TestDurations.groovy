@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.test.support
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * How long each test class took the last time it ran, in milliseconds.<p>
+ * Parallel test runs start with the slowest classes, so that no worker is left
+ * with a long test class once the others are done.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+class TestDurations {
+    final File file
+    private final Map<String, Long> durations = new ConcurrentHashMap<String, Long>()
+
+    /**
+     * @param file where durations are read from and stored in, may be null
+     */
+    TestDurations(File file = null) {
+        this.file = file
+        if (file?.isFile()) {
+            def props = new Properties()
+            file.withInputStream { props.load(it) }
+            props.each { String name, String value ->
+                if (value.isLong()) durations[name] = value.toLong()
+            }
+        }
+    }
+
+    Long getAt(String className) {
+        durations[className]
+    }
+
+    void putAt(String className, long millis) {
+        durations[className] = millis
+    }
+
+    /**
+     * Orders test classes from the slowest to the fastest. Classes that never ran go
+     * first, as there's no telling how long they take.
+     */
+    List<Class> sort(Collection<Class> classes) {
+        classes.sort(false) { Class a, Class b ->
+            def da = durations[a.name]
+            def db = durations[b.name]
+            if (da == null || db == null) return da == db ? 0 : (da == null ? -1 : 1)
+            db <=> da
+        }
+    }
+
+    void store() {
+        if (!file) return
+        def props = new Properties()
+        durations.each { name, millis -> props[name] = millis.toString() }
+        file.parentFile?.mkdirs()
+        file.withOutputStream { props.store(it, "Test durations in ms") }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.test.support
+
+import org.codehaus.griffon.compiler.ClassSummary
+
+/**
+ * Selects the tests affected by the classes that changed since the last time all
+ * tests passed.<p>
+ * A test is affected if its own class or any class it depends on, directly or not,
+ * is new or has different bytecode. Without a record of a previous green run every
+ * test is affected.<p>
+ * References are read from the bytecode, see {@code ClassSummary}; classes whose name
+ * is computed at runtime are missed.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+class TestSelection {
+    final File file
+    // scanned classes by name
+    final Map<String, ClassSummary> classes = [:]
+
+    private final Properties previous = new Properties()
+    private final Set<String> changed = new HashSet<String>()
+    private final Map<String, Boolean> affected = [:]
+
+    /**
+     * @param file       holds the digests of the classes of the last green run
+     * @param classDirs  roots of the application and test classes
+     */
+    TestSelection(File file, Collection<File> classDirs) {
+        this.file = file
+        for (File dir in classDirs) {
+            if (dir?.isDirectory()) scan(dir)
+        }
+        if (file?.isFile()) {
+            file.withInputStream { previous.load(it) }
+        }
+        classes.each { String className, ClassSummary summary ->
+            if (previous.getProperty(className) != summary.digest) changed << className
+        }
+    }
+
+    // the first directory holding a class wins, as it does in a classpath
+    private void scan(File dir) {
+        dir.eachFileRecurse { File f ->
+            if (!f.isFile() || !f.name.endsWith('.class')) return
+            try {
+                ClassSummary summary = ClassSummary.read(f)
+                if (!classes.containsKey(summary.className)) classes[summary.className] = summary
+            } catch (IOException e) {
+                // not a class file, no test can depend on it
+            }
+        }
+    }
+
+    boolean hasPreviousRun() {
+        !previous.isEmpty()
+    }
+
+    /**
+     * Classes that are new or were changed since the last green run.
+     */
+    Set<String> getChangedClasses() {
+        changed.asImmutable()
+    }
+
+    boolean isAffected(String testClassName) {
+        if (!hasPreviousRun()) return true
+        Boolean result = affected[testClassName]
+        if (result == null) {
+            result = getDependencies(testClassName).any { it in changed }
+            affected[testClassName] = result
+        }
+        result
+    }
+
+    /**
+     * @return the class itself and every scanned class it depends on, directly or not
+     */
+    Set<String> getDependencies(String className) {
+        Set<String> seen = new LinkedHashSet<String>()
+        LinkedList<String> pending = new LinkedList<String>([className])
+        while (pending) {
+            String name = pending.removeFirst()
+            if (!seen.add(name)) continue
+            ClassSummary summary = classes[name]
+            if (summary) pending.addAll(summary.references.findAll { classes.containsKey(it) })
+        }
+        seen
+    }
+
+    /**
+     * Records the current classes as those of a green run.
+     */
+    void store() {
+        def props = new Properties()
+        classes.each { String className, ClassSummary summary ->
+            props.setProperty(className, summary.digest)
+        }
+        file.parentFile?.mkdirs()
+        file.withOutputStream { props.store(it, "Classes of the last green test run") }
+    }
+}
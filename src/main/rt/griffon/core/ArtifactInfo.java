@@ -25,10 +25,24 @@ package griffon.core;
  */
 public class ArtifactInfo {
     private final Class clazz;
+    private final String className;
     private final String type;
 
     public ArtifactInfo(Class clazz, String type) {
         this.clazz = clazz;
+        this.className = clazz.getName();
+        this.type = type;
+    }
+
+    /**
+     * Describes an artifact whose class has not been loaded yet. Subclasses
+     * must override {@code getClazz()}.
+     *
+     * @since 0.9.4
+     */
+    protected ArtifactInfo(String className, String type) {
+        this.clazz = null;
+        this.className = className;
         this.type = type;
     }
 
@@ -36,12 +50,22 @@ public class ArtifactInfo {
         return clazz;
     }
 
+    /**
+     * Returns the fully qualified name of the artifact's class. Unlike {@code getClazz()}
+     * it never causes the class to be loaded.
+     *
+     * @since 0.9.4
+     */
+    public String getClassName() {
+        return className;
+    }
+
     public String getType() {
         return type;
     }
 
     public String toString() {
-        return type + "[" + clazz.getName() + "]";
+        return type + "[" + className + "]";
     }
 
     public boolean equals(Object obj) {
@@ -50,12 +74,12 @@ public class ArtifactInfo {
         if(!(obj instanceof ArtifactInfo)) return false;
 
         ArtifactInfo other = (ArtifactInfo) obj;
-        return clazz.equals(other.clazz) &&
+        return className.equals(other.className) &&
                type.equals(other.type);
     }
 
     public int hashCode() {
-        return (clazz.hashCode() * 37) +
+        return (className.hashCode() * 37) +
                (type.hashCode() * 31);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Contract for classes that can instantiate MVC groups in the background.
+ * Complements {@code MVCHandler}.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public interface AsyncMVCHandler {
+    /**
+     * Instantiates an MVC group in the background, see {@link MVCHandler#buildMVCGroup(String)}.<p>
+     * Members are created and initialized in the <tt>mvcGroups</tt> pool, only the view
+     * script is built in the UI thread. The calling thread is never blocked.
+     *
+     * @param mvcType the type of group to build.
+     * @return a Future holding the MVCGroup, or the reason it could not be built
+     */
+    Future<MVCGroup> buildMVCGroupAsync(String mvcType);
+
+    /**
+     * Instantiates an MVC group in the background, see {@link MVCHandler#buildMVCGroup(String, String)}.<p>
+     * Members are created and initialized in the <tt>mvcGroups</tt> pool, only the view
+     * script is built in the UI thread. The calling thread is never blocked.
+     *
+     * @param mvcType the type of group to build.
+     * @param mvcName the name to assign to the built group.
+     * @return a Future holding the MVCGroup, or the reason it could not be built
+     */
+    Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName);
+
+    /**
+     * Instantiates an MVC group in the background, see {@link MVCHandler#buildMVCGroup(Map, String)}.<p>
+     * Members are created and initialized in the <tt>mvcGroups</tt> pool, only the view
+     * script is built in the UI thread. The calling thread is never blocked.
+     *
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @param mvcType the type of group to build.
+     * @return a Future holding the MVCGroup, or the reason it could not be built
+     */
+    Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType);
+
+    /**
+     * Instantiates an MVC group in the background, see {@link MVCHandler#buildMVCGroup(String, Map)}.<p>
+     * Members are created and initialized in the <tt>mvcGroups</tt> pool, only the view
+     * script is built in the UI thread. The calling thread is never blocked.
+     *
+     * @param mvcType the type of group to build.
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @return a Future holding the MVCGroup, or the reason it could not be built
+     */
+    Future<MVCGroup> buildMVCGroupAsync(String mvcType, Map<String, Object> args);
+
+    /**
+     * Instantiates an MVC group in the background, see {@link MVCHandler#buildMVCGroup(Map, String, String)}.<p>
+     * Members are created and initialized in the <tt>mvcGroups</tt> pool, only the view
+     * script is built in the UI thread. The calling thread is never blocked.
+     *
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @param mvcType the type of group to build.
+     * @param mvcName the name to assign to the built group.
+     * @return a Future holding the MVCGroup, or the reason it could not be built
+     */
+    Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName);
+
+    /**
+     * Instantiates an MVC group in the background, see {@link MVCHandler#buildMVCGroup(String, String, Map)}.<p>
+     * Members are created and initialized in the <tt>mvcGroups</tt> pool, only the view
+     * script is built in the UI thread. The calling thread is never blocked.
+     *
+     * @param mvcType the type of group to build.
+     * @param mvcName the name to assign to the built group.
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @return a Future holding the MVCGroup, or the reason it could not be built
+     */
+    Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args);
+
+    /**
+     * Instantiates an MVC group in the background returning only the MVC parts,
+     * see {@link MVCHandler#createMVCGroup(String)} and {@link #buildMVCGroupAsync(String)}.
+     *
+     * @param mvcType the type of group to build.
+     * @return a Future holding the canonical MVC members of the group
+     */
+    Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType);
+
+    /**
+     * Instantiates an MVC group in the background returning only the MVC parts,
+     * see {@link MVCHandler#createMVCGroup(String, String)} and {@link #buildMVCGroupAsync(String, String)}.
+     *
+     * @param mvcType the type of group to build.
+     * @param mvcName the name to assign to the built group.
+     * @return a Future holding the canonical MVC members of the group
+     */
+    Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName);
+
+    /**
+     * Instantiates an MVC group in the background returning only the MVC parts,
+     * see {@link MVCHandler#createMVCGroup(Map, String)} and {@link #buildMVCGroupAsync(Map, String)}.
+     *
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @param mvcType the type of group to build.
+     * @return a Future holding the canonical MVC members of the group
+     */
+    Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType);
+
+    /**
+     * Instantiates an MVC group in the background returning only the MVC parts,
+     * see {@link MVCHandler#createMVCGroup(String, Map)} and {@link #buildMVCGroupAsync(String, Map)}.
+     *
+     * @param mvcType the type of group to build.
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @return a Future holding the canonical MVC members of the group
+     */
+    Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, Map<String, Object> args);
+
+    /**
+     * Instantiates an MVC group in the background returning only the MVC parts,
+     * see {@link MVCHandler#createMVCGroup(Map, String, String)} and {@link #buildMVCGroupAsync(Map, String, String)}.
+     *
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @param mvcType the type of group to build.
+     * @param mvcName the name to assign to the built group.
+     * @return a Future holding the canonical MVC members of the group
+     */
+    Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName);
+
+    /**
+     * Instantiates an MVC group in the background returning only the MVC parts,
+     * see {@link MVCHandler#createMVCGroup(String, String, Map)} and {@link #buildMVCGroupAsync(String, String, Map)}.
+     *
+     * @param mvcType the type of group to build.
+     * @param mvcName the name to assign to the built group.
+     * @param args    any useful values that can be set as properties on each MVC member or that
+     *                identify a member that can be shared with other groups.
+     * @return a Future holding the canonical MVC members of the group
+     */
+    Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args);
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package griffon.core;
+
+import java.util.EventObject;
+
+/**
+ * Base class for typed events.<p>
+ * Typed events are routed by class: an {@code EventHandler} registered for a given
+ * class is notified of events of that class and all of its subclasses. Typed events
+ * are also delivered to listeners registered by name, using the simple name of the
+ * event's class as the event name, for example a bean listener with a method named
+ * <tt>onMarketTick(MarketTick event)</tt>.
+ * <p>Example:</p>
+ * <pre>
+class MarketTick extends Event {
+    final String symbol
+    final BigDecimal price
+
+    MarketTick(Object source, String symbol, BigDecimal price) {
+        super(source)
+        this.symbol = symbol
+        this.price = price
+    }
+}
+
+app.addApplicationEventListener(MarketTick, { MarketTick tick -> ... } as EventHandler)
+app.event(new MarketTick(this, 'ACME', 42.0))
+ * </pre>
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public abstract class Event extends EventObject {
+    private final long timestamp;
+
+    public Event(Object source) {
+        super(source);
+        timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the time (in milliseconds) at which this event was created.
+     *
+     * @return the creation timestamp of this event
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package griffon.core;
+
+/**
+ * Listener for typed events.<p>
+ * Handlers are invoked directly by the event router, publishing a typed event to
+ * handlers of this type does not create any objects besides the event itself.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public interface EventHandler<E extends Event> {
+    /**
+     * Called when an event of the registered type (or one of its subtypes) is published.
+     *
+     * @param event the published event
+     */
+    void onEvent(E event);
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.core;
+
+import griffon.util.ConfigUtils;
+import griffon.util.InstrumentedExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static griffon.util.ConfigUtils.getConfigValueAsInt;
+
+/**
+ * Keeps track of the application's thread pools, by name.<p>
+ * Pools are created the first time they are requested, using the settings found in
+ * {@code Config.groovy} under <tt>griffon.executors.&lt;name&gt;</tt><ul>
+ * <li><tt>type</tt> - <tt>fixed</tt>, <tt>cached</tt>, <tt>workStealing</tt> or <tt>virtual</tt>.
+ * <tt>workStealing</tt> requires a JVM that provides {@code java.util.concurrent.ForkJoinPool},
+ * otherwise a fixed pool is used. <tt>virtual</tt> runs every task on its own virtual thread,
+ * on JVMs without virtual threads a cached pool is used instead. Default: fixed</li>
+ * <li><tt>poolSize</tt> - number of threads. Default: number of processors</li>
+ * <li><tt>maxPoolSize</tt> - threads are added up to this number when no more tasks can wait.
+ * Without a <tt>queueCapacity</tt> tasks never wait, they are handed to a thread directly. Default: poolSize</li>
+ * <li><tt>queueCapacity</tt> - maximum number of waiting tasks. Default: unbounded, or none if
+ * <tt>maxPoolSize</tt> is greater than <tt>poolSize</tt></li>
+ * <li><tt>rejectionPolicy</tt> - <tt>abort</tt> or <tt>callerRuns</tt>, applies to bounded queues. Default: abort</li>
+ * <li><tt>threadNamePrefix</tt> - Default: griffon-&lt;name&gt;</li>
+ * <li><tt>daemon</tt> - Default: false</li>
+ * <li><tt>propagateContext</tt> - run tasks with the submitter's MDC logging context.
+ * Default: true for <tt>virtual</tt>, false otherwise</li>
+ * </ul>
+ * The <tt>default</tt> pool runs {@code execOutside} and {@code execFuture} blocks,
+ * the <tt>events</tt> pool delivers asynchronous events. All pools are shut down when
+ * the application shuts down, waiting at most <tt>griffon.executors.shutdownTimeout</tt>
+ * milliseconds (default: 5000) for running tasks. A pool that has been shut down is
+ * replaced by a new one the next time it is requested.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public final class ExecutorRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorRegistry.class);
+    private static final ExecutorRegistry INSTANCE = new ExecutorRegistry();
+
+    public static final String DEFAULT = "default";
+    public static final String EVENTS = "events";
+    public static final String KEY_EXECUTORS = "griffon.executors";
+    public static final String KEY_SHUTDOWN_TIMEOUT = "griffon.executors.shutdownTimeout";
+    private static final int DEFAULT_SHUTDOWN_TIMEOUT = 5000;
+    private static final String TYPE_VIRTUAL = "virtual";
+
+    private final Object lock = new Object();
+    // all of the following are guarded by lock
+    private final Map<String, InstrumentedExecutorService> executors = new LinkedHashMap<String, InstrumentedExecutorService>();
+    private final Map<String, Map> defaults = new LinkedHashMap<String, Map>();
+    private Map settings = Collections.EMPTY_MAP;
+    private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    private ScheduledExecutorService timer;
+
+    public static ExecutorRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private ExecutorRegistry() {
+
+    }
+
+    /**
+     * Reads pool settings from the application's configuration.<p>
+     * Settings take effect the next time a pool is created.
+     *
+     * @param config the application's configuration
+     */
+    public void configure(Map config) {
+        Object value = ConfigUtils.getConfigValue(config, KEY_EXECUTORS);
+        synchronized (lock) {
+            settings = value instanceof Map ? (Map) value : Collections.EMPTY_MAP;
+            shutdownTimeout = getConfigValueAsInt(config, KEY_SHUTDOWN_TIMEOUT, DEFAULT_SHUTDOWN_TIMEOUT);
+        }
+    }
+
+    /**
+     * Registers default settings for a pool. Settings found in the application's
+     * configuration take precedence.
+     *
+     * @param name     the name of the pool
+     * @param settings default settings
+     */
+    public void setDefaults(String name, Map settings) {
+        synchronized (lock) {
+            defaults.put(name, new LinkedHashMap(settings));
+        }
+    }
+
+    /**
+     * Returns the pool that runs {@code execOutside} and {@code execFuture} blocks.
+     */
+    public InstrumentedExecutorService getDefaultExecutorService() {
+        return getExecutorService(DEFAULT);
+    }
+
+    /**
+     * Returns the pool registered with the given name, creating it if needed.
+     *
+     * @param name the name of the pool
+     * @return a pool, never null
+     */
+    public InstrumentedExecutorService getExecutorService(String name) {
+        synchronized (lock) {
+            InstrumentedExecutorService executor = executors.get(name);
+            if (executor == null || executor.isShutdown()) {
+                Map settings = settingsFor(name);
+                boolean virtual = TYPE_VIRTUAL.equalsIgnoreCase(String.valueOf(settings.get("type")));
+                boolean propagateContext = Boolean.valueOf(String.valueOf(value(settings, "propagateContext", virtual)));
+                executor = new InstrumentedExecutorService(name, createExecutorService(name, settings), propagateContext);
+                executors.put(name, executor);
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * Runs a task after the given delay. All tasks are run by a single timer thread,
+     * they should hand any real work over to a pool.
+     *
+     * @param task  the task to run
+     * @param delay delay in milliseconds
+     * @return a Future that can be used to cancel the task
+     */
+    public Future schedule(Runnable task, long delay) {
+        synchronized (lock) {
+            if (timer == null) {
+                timer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("griffon-timer", true));
+            }
+            return timer.schedule(task, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the names of all pools created so far.
+     */
+    public Set<String> getExecutorNames() {
+        synchronized (lock) {
+            return new LinkedHashSet<String>(executors.keySet());
+        }
+    }
+
+    /**
+     * Shuts down all pools, waiting for running tasks to finish.
+     */
+    public void shutdown() {
+        List<InstrumentedExecutorService> pools;
+        long timeout;
+        synchronized (lock) {
+            pools = new ArrayList<InstrumentedExecutorService>(executors.values());
+            executors.clear();
+            timeout = shutdownTimeout;
+            if (timer != null) {
+                timer.shutdownNow();
+                timer = null;
+            }
+        }
+
+        for (InstrumentedExecutorService pool : pools) {
+            if (LOG.isDebugEnabled()) LOG.debug("Shutting down executor " + pool);
+            pool.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + timeout;
+        for (InstrumentedExecutorService pool : pools) {
+            try {
+                long remaining = Math.max(0L, deadline - System.currentTimeMillis());
+                if (!pool.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    List<Runnable> pending = pool.shutdownNow();
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn("Executor " + pool.getName() + " did not terminate in " + timeout + "ms; " + pending.size() + " task(s) were discarded");
+                    }
+                }
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Shuts down a single pool without waiting for its tasks. The pool is replaced
+     * by a new one the next time it is requested.
+     *
+     * @param name the name of the pool
+     */
+    public void shutdown(String name) {
+        InstrumentedExecutorService pool;
+        synchronized (lock) {
+            pool = executors.remove(name);
+        }
+        if (pool != null) {
+            if (LOG.isDebugEnabled()) LOG.debug("Shutting down executor " + pool);
+            pool.shutdown();
+        }
+    }
+
+    private Map settingsFor(String name) {
+        Map result = new LinkedHashMap();
+        Map defaultSettings = defaults.get(name);
+        if (defaultSettings != null) result.putAll(defaultSettings);
+        Object configured = settings.get(name);
+        if (configured instanceof Map) result.putAll((Map) configured);
+        return result;
+    }
+
+    private static ExecutorService createExecutorService(String name, Map settings) {
+        String type = String.valueOf(value(settings, "type", "fixed"));
+        int poolSize = Math.max(1, toInt(value(settings, "poolSize", null), Runtime.getRuntime().availableProcessors()));
+        String threadNamePrefix = String.valueOf(value(settings, "threadNamePrefix", "griffon-" + name));
+        ThreadFactory threadFactory = new NamedThreadFactory(threadNamePrefix,
+            Boolean.valueOf(String.valueOf(value(settings, "daemon", Boolean.FALSE))));
+
+        if (TYPE_VIRTUAL.equalsIgnoreCase(type)) {
+            ExecutorService virtualThreads = createVirtualThreadExecutor(threadNamePrefix);
+            if (virtualThreads != null) {
+                if (LOG.isDebugEnabled()) LOG.debug("Executor " + name + " runs each task on a virtual thread");
+                return virtualThreads;
+            }
+            if (LOG.isInfoEnabled()) LOG.info("Virtual threads are not available; executor " + name + " falls back to a cached pool");
+            type = "cached";
+        }
+
+        if ("workStealing".equalsIgnoreCase(type) || "forkJoin".equalsIgnoreCase(type)) {
+            ExecutorService forkJoinPool = createForkJoinPool(poolSize);
+            if (forkJoinPool != null) {
+                if (LOG.isDebugEnabled()) LOG.debug("Executor " + name + " is a work stealing pool with parallelism " + poolSize);
+                return forkJoinPool;
+            }
+            if (LOG.isInfoEnabled()) LOG.info("ForkJoinPool is not available; executor " + name + " falls back to a fixed pool");
+        }
+
+        if ("cached".equalsIgnoreCase(type)) {
+            if (LOG.isDebugEnabled()) LOG.debug("Executor " + name + " is a cached pool");
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), threadFactory);
+        }
+
+        int maxPoolSize = Math.max(poolSize, toInt(value(settings, "maxPoolSize", null), poolSize));
+        // an unbounded queue never fills up, so extra threads would never be started
+        int queueCapacity = toInt(value(settings, "queueCapacity", null), maxPoolSize > poolSize ? 0 : Integer.MAX_VALUE);
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ?
+            new LinkedBlockingQueue<Runnable>(queueCapacity) : new SynchronousQueue<Runnable>();
+        RejectedExecutionHandler rejectionHandler = "callerRuns".equalsIgnoreCase(String.valueOf(value(settings, "rejectionPolicy", "abort"))) ?
+            new ThreadPoolExecutor.CallerRunsPolicy() : new ThreadPoolExecutor.AbortPolicy();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Executor " + name + " is a fixed pool with " + poolSize + " thread(s) [maxPoolSize=" + maxPoolSize +
+                ", queueCapacity=" + queueCapacity + "]");
+        }
+        return new ThreadPoolExecutor(poolSize, maxPoolSize, 60L, TimeUnit.SECONDS, queue, threadFactory, rejectionHandler);
+    }
+
+    // ForkJoinPool is not available on every JVM Griffon runs on
+    private static ExecutorService createForkJoinPool(int parallelism) {
+        try {
+            Class forkJoinPoolClass = ExecutorRegistry.class.getClassLoader().loadClass("java.util.concurrent.ForkJoinPool");
+            return (ExecutorService) forkJoinPoolClass.getConstructor(int.class).newInstance(parallelism);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // virtual threads (Java 21) are looked up reflectively as well; the equivalent of
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory())
+    private static ExecutorService createVirtualThreadExecutor(String threadNamePrefix) {
+        try {
+            ClassLoader classLoader = ExecutorRegistry.class.getClassLoader();
+            Class builderClass = classLoader.loadClass("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        } catch (Exception e) {
+            // not supported, or a preview feature that has not been enabled
+            return null;
+        }
+    }
+
+    private static Object value(Map settings, String key, Object defaultValue) {
+        Object value = settings.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Number) return ((Number) value).intValue();
+        if (value != null) {
+            try {
+                return Integer.parseInt(String.valueOf(value).trim());
+            } catch (NumberFormatException nfe) {
+                // ignore
+            }
+        }
+        return defaultValue;
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final boolean daemon;
+        private final AtomicInteger threadCount = new AtomicInteger(1);
+
+        private NamedThreadFactory(String prefix, boolean daemon) {
+            this.prefix = prefix;
+            this.daemon = daemon;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + threadCount.getAndIncrement());
+            t.setDaemon(daemon);
+            return t;
+        }
+    }
+}
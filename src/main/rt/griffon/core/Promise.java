@@ -0,0 +1,83 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.core;
+
+import groovy.lang.Closure;
+
+import java.util.concurrent.Future;
+
+/**
+ * The result of a computation that runs in the background and that can be composed
+ * with other computations without blocking the calling thread.<p>
+ * Continuations registered with {@code then} run outside of the UI thread, those
+ * registered with {@code thenInside} run inside the UI thread. Cancelling a promise
+ * cancels every promise derived from it.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public interface Promise<T> extends Future<T> {
+    /**
+     * Continues with the given code block, outside of the UI thread, once this promise succeeds.
+     * The block receives the result of this promise; if it returns a Promise the returned promise
+     * completes with the result of that Promise. Failures skip the block and are passed on.
+     *
+     * @param callback the code to run next
+     * @return a promise for the result of the block
+     */
+    Promise then(Closure callback);
+
+    /**
+     * Continues with the given code block, inside the UI thread, once this promise succeeds.
+     *
+     * @param callback the code to run next
+     * @return a promise for the result of the block
+     */
+    Promise thenInside(Closure callback);
+
+    /**
+     * Recovers from a failure of this promise (or any of the promises it derives from).
+     * The block receives the Throwable and runs outside of the UI thread; its result becomes
+     * the result of the returned promise. Successful results are passed on unchanged.
+     *
+     * @param callback the code to run on failure
+     * @return a promise for the result of this promise or of the block
+     */
+    Promise onError(Closure callback);
+
+    /**
+     * Fails this promise with a {@code TimeoutException} unless it completes within the given time.
+     * The underlying task is interrupted if it's still running.
+     *
+     * @param millis time to wait, in milliseconds
+     * @return this promise
+     */
+    Promise<T> timeout(long millis);
+
+    /**
+     * Cancels this promise when the given group is destroyed.
+     *
+     * @param group the group that owns this promise
+     * @return this promise
+     */
+    Promise<T> bindTo(MVCGroup group);
+
+    /**
+     * True if this promise completed because of an exception, including timeouts.
+     */
+    boolean isFailed();
+}
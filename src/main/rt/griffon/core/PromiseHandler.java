@@ -0,0 +1,40 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.core;
+
+import groovy.lang.Closure;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Contract for classes that can run tasks in the background and hand out a
+ * {@code Promise} for their result. Complements {@code ThreadingHandler}.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public interface PromiseHandler {
+    /**
+     * Executes a code block outside of the UI thread and returns a Promise for its result.
+     */
+    Promise execPromise(Closure closure);
+
+    /**
+     * Executes a code block outside of the UI thread and returns a Promise for its result.
+     */
+    Promise execPromise(Callable callable);
+}
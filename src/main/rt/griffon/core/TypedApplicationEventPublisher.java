@@ -0,0 +1,83 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.core;
+
+import groovy.lang.Closure;
+
+/**
+ * Contract for applications that can publish typed application events.
+ * Complements the event methods of {@code GriffonApplication}.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public interface TypedApplicationEventPublisher {
+    /**
+     * Adds a typed application event listener.<p>
+     * The listener will be notified of events of the given class and its subclasses.
+     *
+     * @param eventClass the type of the event
+     * @param listener   an application event listener
+     */
+    <E extends Event> void addApplicationEventListener(Class<E> eventClass, EventHandler<? super E> listener);
+
+    /**
+     * Adds a closure as a typed application event listener.<p>
+     * The listener will be notified of events of the given class and its subclasses.
+     *
+     * @param eventClass the type of the event
+     * @param listener   an application event listener
+     */
+    void addApplicationEventListener(Class<? extends Event> eventClass, Closure listener);
+
+    /**
+     * Removes a typed application event listener.<p>
+     *
+     * @param eventClass the type of the event
+     * @param listener   an application event listener
+     */
+    <E extends Event> void removeApplicationEventListener(Class<E> eventClass, EventHandler<? super E> listener);
+
+    /**
+     * Removes a closure as a typed application event listener.<p>
+     *
+     * @param eventClass the type of the event
+     * @param listener   an application event listener
+     */
+    void removeApplicationEventListener(Class<? extends Event> eventClass, Closure listener);
+
+    /**
+     * Publishes a typed application event.<p>
+     *
+     * @param event the event to be published
+     */
+    void event(Event event);
+
+    /**
+     * Publishes a typed application event asynchronously off the UI thread.<p>
+     *
+     * @param event the event to be published
+     */
+    void eventOutside(Event event);
+
+    /**
+     * Publishes a typed application event asynchronously off the publisher's thread.<p>
+     *
+     * @param event the event to be published
+     */
+    void eventAsync(Event event);
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.core;
+
+/**
+ * Contract for classes that can publish typed events using their own
+ * event bus. Complements {@code EventPublisher}.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public interface TypedEventPublisher {
+    /**
+     * Adds a typed event listener.<p>
+     *
+     * @param eventClass the type of the event
+     * @param listener   an event listener
+     */
+    <E extends Event> void addEventListener(Class<E> eventClass, EventHandler<? super E> listener);
+
+    /**
+     * Removes a typed event listener.<p>
+     *
+     * @param eventClass the type of the event
+     * @param listener   an event listener
+     */
+    <E extends Event> void removeEventListener(Class<E> eventClass, EventHandler<? super E> listener);
+
+    /**
+     * Publishes a typed event.<p>
+     * Listeners will be notified in the same thread as the publisher.
+     *
+     * @param event the event to be published
+     */
+    void publishEvent(Event event);
+
+    /**
+     * Publishes a typed event.<p>
+     * Listeners will be notified outside of the UI thread.
+     *
+     * @param event the event to be published
+     */
+    void publishEventOutside(Event event);
+
+    /**
+     * Publishes a typed event.<p>
+     * Listeners will be notified in a different thread.
+     *
+     * @param event the event to be published
+     */
+    void publishEventAsync(Event event);
+}
@@ -15,6 +15,7 @@
  */
 package griffon.core;
 
+import griffon.util.DefaultPromise;
 import griffon.util.UIThreadHandler;
 import groovy.lang.ExpandoMetaClass;
 import groovy.lang.MetaClass;
@@ -23,9 +24,9 @@ import org.codehaus.groovy.runtime.MethodClosure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 /**
@@ -37,7 +38,6 @@ public final class UIThreadManager {
     // Shouldn't need to synchronize access to this field as setting its value
     // should be done at boot time
     private UIThreadHandler uiThreadHandler;
-    private static final ExecutorService DEFAULT_EXECUTOR_SERVICE = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
     private static final Logger LOG = LoggerFactory.getLogger(UIThreadManager.class);
 
     private static final UIThreadManager INSTANCE = new UIThreadManager();
@@ -47,9 +47,7 @@ public final class UIThreadManager {
     }
 
     private UIThreadManager() {
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Default Executor set to run with " + Runtime.getRuntime().availableProcessors() + " processors");
-        }
+
     }
 
     public static void enhance(Script script) {
@@ -62,6 +60,7 @@ public final class UIThreadManager {
         script.getBinding().setVariable("execOutside", new MethodClosure(INSTANCE, "executeOutside"));
         script.getBinding().setVariable("isUIThread", new MethodClosure(INSTANCE, "isUIThread"));
         script.getBinding().setVariable("execFuture", new MethodClosure(INSTANCE, "executeFuture"));
+        script.getBinding().setVariable("execPromise", new MethodClosure(INSTANCE, "executePromise"));
     }
 
     public static void enhance(MetaClass metaClass) {
@@ -75,6 +74,7 @@ public final class UIThreadManager {
             mc.registerInstanceMethod("execOutside", new MethodClosure(INSTANCE, "executeOutside"));
             mc.registerInstanceMethod("isUIThread", new MethodClosure(INSTANCE, "isUIThread"));
             mc.registerInstanceMethod("execFuture", new MethodClosure(INSTANCE, "executeFuture"));
+            mc.registerInstanceMethod("execPromise", new MethodClosure(INSTANCE, "executePromise"));
         }
     }
 
@@ -168,13 +168,13 @@ public final class UIThreadManager {
     }
 
     /**
-     * Executes a code block as a Future on an ExecutorService.
+     * Executes a code block as a Future on the default ExecutorService, see {@link ExecutorRegistry}.
      *
      * @param callable a code block to be executed
      * @return a Future that contains the result of the execution
      */
     public Future executeFuture(Callable<?> callable) {
-        return executeFuture(DEFAULT_EXECUTOR_SERVICE, callable);
+        return executeFuture(null, callable);
     }
 
     /**
@@ -185,7 +185,50 @@ public final class UIThreadManager {
      * @return a Future that contains the result of the execution
      */
     public Future executeFuture(ExecutorService executorService, Callable<?> callable) {
-        executorService = executorService != null ? executorService : DEFAULT_EXECUTOR_SERVICE;
+        executorService = executorService != null ? executorService : ExecutorRegistry.getInstance().getDefaultExecutorService();
         return executorService.submit(callable);
     }
+
+    /**
+     * Executes a code block outside of the UI thread and returns a Promise for its result.
+     *
+     * @param callable a code block to be executed
+     * @return a Promise that can be composed with further code blocks
+     */
+    public Promise executePromise(Callable<?> callable) {
+        return executePromise(null, callable);
+    }
+
+    /**
+     * Executes a code block on an ExecutorService and returns a Promise for its result.
+     *
+     * @param executorService the ExecutorService to use. Will use the default ExecutorService if null.
+     * @param callable        a code block to be executed
+     * @return a Promise that can be composed with further code blocks
+     */
+    public Promise executePromise(ExecutorService executorService, Callable<?> callable) {
+        return DefaultPromise.submit(executorService, callable);
+    }
+
+    /**
+     * Returns a Promise for the results of all the given Promises, in order.
+     * It fails as soon as any of them fails, cancelling the rest.
+     *
+     * @param promises the Promises to wait for
+     * @return a Promise whose result is a List
+     */
+    public Promise<List> all(List<? extends Future> promises) {
+        return DefaultPromise.all(promises);
+    }
+
+    /**
+     * Returns a Promise for the result of the first of the given Promises to succeed.
+     * The rest are cancelled once one succeeds.
+     *
+     * @param promises the Promises to wait for
+     * @return a Promise for the first result
+     */
+    public Promise any(List<? extends Future> promises) {
+        return DefaultPromise.any(promises);
+    }
 }
@@ -17,17 +17,22 @@ package griffon.swing;
 
 import griffon.application.StandaloneGriffonApplication;
 import griffon.core.UIThreadManager;
+import griffon.util.ConfigUtils;
 import griffon.util.GriffonExceptionHandler;
 import griffon.util.UIThreadHandler;
 import org.codehaus.griffon.runtime.core.AbstractGriffonApplication;
 
 import java.awt.*;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static griffon.util.GriffonExceptionHandler.sanitize;
 
 /**
- * Basic implementation of {@code GriffonApplication} that runs in standalone/webstart mode using Swing.
+ * Basic implementation of {@code GriffonApplication} that runs in standalone/webstart mode using Swing.<p>
+ * The time spent on each startup phase is logged once the application is ready, see {@link #getStartupTimings()}.
  *
  * @author Danno Ferrin
  * @author Andres Almiray
@@ -38,6 +43,9 @@ public abstract class AbstractSwingGriffonApplication extends AbstractGriffonApp
     private WindowDisplayHandler windowDisplayHandler;
     private final WindowDisplayHandler defaultWindowDisplayHandler = new ConfigurableWindowDisplayHandler();
     private static final Class[] CTOR_ARGS = new Class[]{String[].class};
+    private static final int DEFAULT_READY_MAX_WAIT = 5000;
+    private final long createdAt = System.nanoTime();
+    private final Map<String, Long> startupTimings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
 
     public AbstractSwingGriffonApplication() {
         this(AbstractSwingGriffonApplication.EMPTY_ARGS);
@@ -71,18 +79,35 @@ public abstract class AbstractSwingGriffonApplication extends AbstractGriffonApp
     }
 
     public void bootstrap() {
+        long start = System.nanoTime();
         initialize();
+        recordStartupPhase("bootstrap", start);
     }
 
     public void realize() {
+        long start = System.nanoTime();
         startup();
+        recordStartupPhase("realize", start);
     }
 
     public void show() {
+        long start = System.nanoTime();
         windowManager.show(windowManager.getStartingWindow());
+        recordStartupPhase("show", start);
         callReady();
     }
 
+    /**
+     * Milliseconds spent on each startup phase, in order: bootstrap, realize, show,
+     * waitForUI (time until the event queue drained), ready and total (since the
+     * application was created).
+     */
+    public Map<String, Long> getStartupTimings() {
+        synchronized (startupTimings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<String, Long>(startupTimings));
+        }
+    }
+
     public boolean shutdown() {
         if (super.shutdown()) {
             exit();
@@ -101,26 +126,46 @@ public abstract class AbstractSwingGriffonApplication extends AbstractGriffonApp
     }
 
     /**
-     * Calls the ready lifecycle method after the UI thread calms down
+     * Calls the ready lifecycle method as soon as the UI thread calms down, or after
+     * {@code griffon.ready.maxWait} milliseconds (5000 by default, 0 waits forever).
      */
     protected void callReady() {
-        // wait for EDT to empty out.... somehow
-        final boolean[] empty = {false};
-        while (true) {
-            UIThreadManager.getInstance().executeSync(new Runnable() {
+        final long start = System.nanoTime();
+        if (EventQueue.isDispatchThread()) {
+            // can't block the EDT while waiting for it
+            SwingUtils.whenIdle(new Runnable() {
                 public void run() {
-                    empty[0] = Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() == null;
+                    recordStartupPhase("waitForUI", start);
+                    doReady();
                 }
             });
-            if (empty[0]) break;
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // ignore
+            return;
+        }
+
+        long maxWait = ConfigUtils.getConfigValueAsInt(getConfig(), "griffon.ready.maxWait", DEFAULT_READY_MAX_WAIT);
+        try {
+            if (!SwingUtils.awaitIdle(maxWait) && getLog().isWarnEnabled()) {
+                getLog().warn("UI thread did not become idle within " + maxWait + "ms. Proceeding with Ready anyway.");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        recordStartupPhase("waitForUI", start);
+        doReady();
+    }
 
+    private void doReady() {
+        long start = System.nanoTime();
         ready();
+        recordStartupPhase("ready", start);
+        recordStartupPhase("total", createdAt);
+        if (getLog().isInfoEnabled()) {
+            getLog().info("Startup timings (ms): " + getStartupTimings());
+        }
+    }
+
+    private void recordStartupPhase(String phase, long start) {
+        startupTimings.put(phase, (System.nanoTime() - start) / 1000000L);
     }
 
     public static void run(Class applicationClass, String[] args) {
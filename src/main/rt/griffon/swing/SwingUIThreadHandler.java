@@ -16,27 +16,84 @@
 package griffon.swing;
 
 import org.codehaus.griffon.runtime.util.AbstractUIThreadHandler;
+import org.codehaus.griffon.runtime.util.UIThreadBatcher;
 
 import javax.swing.*;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static griffon.util.ConfigUtils.getConfigValueAsBoolean;
+import static griffon.util.ConfigUtils.getConfigValueAsInt;
 
 /**
- * Executes code using SwingUtilities.
+ * Executes code using SwingUtilities.<p>
+ * Asynchronous calls may be batched so that many of them are executed per EDT event,
+ * see {@link UIThreadBatcher}. Synchronous calls made outside the EDT then go through the
+ * same queue, so they run after the asynchronous calls made before them. The following flags may be set in {@code Config.groovy}<ul>
+ * <li><tt>griffon.uiThread.batching.enabled</tt> - turns batching on. Default: false</li>
+ * <li><tt>griffon.uiThread.batching.frameBudget</tt> - milliseconds a batch may keep the EDT busy. Default: 8</li>
+ * </ul>
  *
  * @author Andres Almiray
  */
 public class SwingUIThreadHandler extends AbstractUIThreadHandler {
+    public static final String KEY_BATCHING_ENABLED = "griffon.uiThread.batching.enabled";
+    public static final String KEY_BATCHING_FRAME_BUDGET = "griffon.uiThread.batching.frameBudget";
+
+    private static final Executor INVOKE_LATER = new Executor() {
+        public void execute(Runnable runnable) {
+            SwingUtilities.invokeLater(runnable);
+        }
+    };
+
+    private volatile UIThreadBatcher batcher;
+
+    /**
+     * Enables or disables batching according to the application's configuration.
+     *
+     * @param config the application's configuration
+     */
+    public void configure(Map config) {
+        if (getConfigValueAsBoolean(config, KEY_BATCHING_ENABLED, false)) {
+            int frameBudget = getConfigValueAsInt(config, KEY_BATCHING_FRAME_BUDGET, (int) UIThreadBatcher.DEFAULT_FRAME_BUDGET);
+            batcher = new UIThreadBatcher(INVOKE_LATER, frameBudget);
+        } else {
+            batcher = null;
+        }
+    }
+
+    /**
+     * Returns the batcher used by {@code executeAsync}, useful for inspecting queue depth
+     * and EDT latency. Returns null if batching is disabled.
+     */
+    public UIThreadBatcher getBatcher() {
+        return batcher;
+    }
+
     public boolean isUIThread() {
         return SwingUtilities.isEventDispatchThread();
     }
 
     public void executeAsync(Runnable runnable) {
-        SwingUtilities.invokeLater(runnable);
+        UIThreadBatcher b = batcher;
+        if (b != null) {
+            b.execute(runnable);
+        } else {
+            SwingUtilities.invokeLater(runnable);
+        }
     }
 
     public void executeSync(Runnable runnable) {
+        UIThreadBatcher b = batcher;
         if (isUIThread()) {
             runnable.run();
+        } else if (b != null) {
+            // queued behind the asynchronous runnables posted before it
+            SyncTask task = new SyncTask(runnable);
+            b.execute(task);
+            task.await();
         } else {
             try {
                 SwingUtilities.invokeAndWait(runnable);
@@ -47,4 +104,42 @@ public class SwingUIThreadHandler extends AbstractUIThreadHandler {
             }
         }
     }
+
+    private static final class SyncTask implements Runnable {
+        private final Runnable runnable;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile Throwable failure;
+
+        private SyncTask(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        public void run() {
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                latch.countDown();
+            }
+        }
+
+        /**
+         * Waits until the task has run, as invokeAndWait would, and restores the
+         * interrupt status of the caller if it was interrupted meanwhile.
+         */
+        private void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException ie) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (failure != null) throw new RuntimeException(failure);
+        }
+    }
 }
@@ -21,6 +21,11 @@ import griffon.util.ConfigUtils;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static griffon.util.GriffonApplicationUtils.isJdk16;
 import static griffon.util.GriffonApplicationUtils.isJdk17;
@@ -35,6 +40,38 @@ import static griffon.util.GriffonNameUtils.isBlank;
  * @since 0.3.1
  */
 public class SwingUtils {
+    private static final int MAX_IDLE_CHECKS = 10;
+    private static final Object IDLE_LOCK = new Object();
+    private static final Map<AtomicBoolean, Runnable> IDLE_CALLBACKS = new LinkedHashMap<AtomicBoolean, Runnable>();
+    private static boolean idleCheckScheduled;
+    private static int idleChecks;
+
+    private static final Runnable IDLE_CHECK = new Runnable() {
+        public void run() {
+            Map<AtomicBoolean, Runnable> callbacks;
+            synchronized (IDLE_LOCK) {
+                boolean idle = Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() == null;
+                if (!idle && ++idleChecks < MAX_IDLE_CHECKS) {
+                    EventQueue.invokeLater(this);
+                    return;
+                }
+                callbacks = new LinkedHashMap<AtomicBoolean, Runnable>(IDLE_CALLBACKS);
+                IDLE_CALLBACKS.clear();
+                idleCheckScheduled = false;
+            }
+            for (Map.Entry<AtomicBoolean, Runnable> entry : callbacks.entrySet()) {
+                if (entry.getKey().get()) continue;
+                try {
+                    entry.getValue().run();
+                } catch (Throwable t) {
+                    // don't let a failing callback starve the others
+                    Thread current = Thread.currentThread();
+                    current.getUncaughtExceptionHandler().uncaughtException(current, t);
+                }
+            }
+        }
+    };
+
     /**
      * Centers a Window on the screen<p>
      * Sets the window on the top left corner if the window's
@@ -228,6 +265,55 @@ public class SwingUtils {
         return image;
     }
 
+    /**
+     * Runs the given code in the EDT as soon as the AWT event queue has no pending events.<p>
+     * The check is queued behind pending events and queued again while new ones keep
+     * arriving, at most 10 times in a row, so that steady sources
+     * such as timers and animations don't delay the code forever. Concurrent callers
+     * share a single check, they never wait for each other's checks to go away.
+     *
+     * @param callback the code to run
+     * @return a flag that stops waiting when set
+     */
+    public static AtomicBoolean whenIdle(final Runnable callback) {
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        synchronized (IDLE_LOCK) {
+            IDLE_CALLBACKS.put(cancelled, callback);
+            // a check already scheduled keeps its count, or frequent callers would postpone it forever
+            if (!idleCheckScheduled) {
+                idleCheckScheduled = true;
+                idleChecks = 0;
+                EventQueue.invokeLater(IDLE_CHECK);
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Waits until the AWT event queue has no pending events. Must not be called from the EDT.
+     *
+     * @param maxWait maximum time to wait in milliseconds, waits forever if 0 or less
+     * @return true if the queue drained, false if the time ran out first
+     */
+    public static boolean awaitIdle(long maxWait) throws InterruptedException {
+        if (EventQueue.isDispatchThread()) {
+            throw new IllegalStateException("Can't wait for the event queue to drain from the EDT");
+        }
+        final CountDownLatch idle = new CountDownLatch(1);
+        AtomicBoolean cancelled = whenIdle(new Runnable() {
+            public void run() {
+                idle.countDown();
+            }
+        });
+        if (maxWait <= 0) {
+            idle.await();
+            return true;
+        }
+        boolean drained = idle.await(maxWait, TimeUnit.MILLISECONDS);
+        cancelled.set(true);
+        return drained;
+    }
+
     private static Class loadClass(String className) {
         try {
             return Class.forName(className);
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reflection metadata shared by {@code GriffonClassUtils}, {@code MethodUtils} and
+ * {@code ClassPropertyFetcher}.<p>
+ * Metadata is stored per class under a key chosen by each caller. Reads don't lock.
+ * Classes are held weakly. Metadata usually references its class, so it is held softly
+ * only for classes visible to the classloader of this cache, which outlive it anyway;
+ * the metadata of classes from other classloaders is held weakly, so caching a class
+ * never keeps it, or its classloader, from being collected.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public final class ClassMetadataCache {
+    private static final ClassMetadataCache INSTANCE = new ClassMetadataCache();
+
+    private final ConcurrentMap<Object, Reference<ConcurrentMap<Object, Object>>> classes = new ConcurrentHashMap<Object, Reference<ConcurrentMap<Object, Object>>>();
+    private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<Class<?>>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Computes the metadata of a class.
+     */
+    public interface Factory<T> {
+        /**
+         * @return the metadata, null if there is none; null is not cached
+         */
+        T create(Class<?> clazz);
+    }
+
+    public static ClassMetadataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the metadata of a class, computing it if it's not cached yet.
+     * Should two threads compute it at the same time, both get the value stored first.
+     *
+     * @param clazz   the class the metadata belongs to
+     * @param key     identifies the kind of metadata
+     * @param factory computes the metadata
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<?> clazz, Object key, Factory<T> factory) {
+        ConcurrentMap<Object, Object> metadata = metadataOf(clazz);
+        Object value = metadata.get(key);
+        if (value != null) {
+            hits.incrementAndGet();
+            return (T) value;
+        }
+        misses.incrementAndGet();
+        value = factory.create(clazz);
+        if (value == null) return null;
+        Object previous = metadata.putIfAbsent(key, value);
+        return (T) (previous != null ? previous : value);
+    }
+
+    /**
+     * Returns the metadata of a class if it has been cached.
+     */
+    public Object peek(Class<?> clazz, Object key) {
+        Reference<ConcurrentMap<Object, Object>> ref = classes.get(new LookupKey(clazz));
+        ConcurrentMap<Object, Object> metadata = ref != null ? ref.get() : null;
+        Object value = metadata != null ? metadata.get(key) : null;
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    public void put(Class<?> clazz, Object key, Object value) {
+        if (value == null) return;
+        metadataOf(clazz).put(key, value);
+    }
+
+    /**
+     * Drops all metadata of a class.
+     */
+    public void remove(Class<?> clazz) {
+        classes.remove(new LookupKey(clazz));
+    }
+
+    /**
+     * Drops one kind of metadata of every class.
+     *
+     * @return how many entries were dropped
+     */
+    public int clear(Object key) {
+        int count = 0;
+        for (Reference<ConcurrentMap<Object, Object>> ref : classes.values()) {
+            ConcurrentMap<Object, Object> metadata = ref.get();
+            if (metadata != null && metadata.remove(key) != null) count++;
+        }
+        return count;
+    }
+
+    public void clear() {
+        classes.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Number of classes with cached metadata, including metadata the GC has reclaimed
+     * but whose class is still loaded.
+     */
+    public int size() {
+        expunge();
+        return classes.size();
+    }
+
+    private ConcurrentMap<Object, Object> metadataOf(Class<?> clazz) {
+        Reference<ConcurrentMap<Object, Object>> ref = classes.get(new LookupKey(clazz));
+        ConcurrentMap<Object, Object> metadata = ref != null ? ref.get() : null;
+        if (metadata != null) return metadata;
+
+        expunge();
+        metadata = new ConcurrentHashMap<Object, Object>();
+        ClassKey key = new ClassKey(clazz, queue);
+        while (true) {
+            Reference<ConcurrentMap<Object, Object>> newRef = reference(clazz, metadata);
+            if (ref == null) {
+                ref = classes.putIfAbsent(key, newRef);
+                if (ref == null) return metadata;
+            } else if (classes.replace(key, ref, newRef)) {
+                return metadata;
+            } else {
+                ref = classes.get(key);
+            }
+            ConcurrentMap<Object, Object> existing = ref != null ? ref.get() : null;
+            if (existing != null) return existing;
+        }
+    }
+
+    private static Reference<ConcurrentMap<Object, Object>> reference(Class<?> clazz, ConcurrentMap<Object, Object> metadata) {
+        if (isVisible(clazz)) return new SoftReference<ConcurrentMap<Object, Object>>(metadata);
+        return new WeakReference<ConcurrentMap<Object, Object>>(metadata);
+    }
+
+    // true if the classloader of the class is the one of this cache or one of its parents
+    private static boolean isVisible(Class<?> clazz) {
+        ClassLoader loader = clazz.getClassLoader();
+        if (loader == null) return true;
+        for (ClassLoader cl = ClassMetadataCache.class.getClassLoader(); cl != null; cl = cl.getParent()) {
+            if (cl == loader) return true;
+        }
+        return false;
+    }
+
+    // drops the entries of classes that have been collected
+    private void expunge() {
+        Object key;
+        while ((key = queue.poll()) != null) {
+            classes.remove(key);
+        }
+    }
+
+    private static final class ClassKey extends WeakReference<Class<?>> {
+        private final int hash;
+
+        private ClassKey(Class<?> clazz, ReferenceQueue<Class<?>> queue) {
+            super(clazz, queue);
+            hash = System.identityHashCode(clazz);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj instanceof ClassKey) {
+                Object clazz = get();
+                return clazz != null && clazz == ((ClassKey) obj).get();
+            }
+            return obj instanceof LookupKey && obj.equals(this);
+        }
+    }
+
+    private static final class LookupKey {
+        private final Class<?> clazz;
+
+        private LookupKey(Class<?> clazz) {
+            this.clazz = clazz;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode(clazz);
+        }
+
+        public boolean equals(Object obj) {
+            if (obj instanceof ClassKey) return clazz == ((ClassKey) obj).get();
+            return obj instanceof LookupKey && clazz == ((LookupKey) obj).clazz;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.util;
+
+import griffon.core.*;
+import groovy.lang.Closure;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default implementation of {@code Promise}.<p>
+ * Continuations never block: they are registered as listeners and run when the
+ * promise completes, on the default pool of {@code ExecutorRegistry} or on the
+ * UI thread.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class DefaultPromise<T> implements Promise<T> {
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+    private static final Thread.UncaughtExceptionHandler UNCAUGHT_EXCEPTION_HANDLER = new GriffonExceptionHandler();
+
+    private final Object lock = new Object();
+    private final CountDownLatch done = new CountDownLatch(1);
+    // all of the following are guarded by lock
+    private int state = PENDING;
+    private T value;
+    private Throwable error;
+    private List<Runnable> listeners = new ArrayList<Runnable>();
+    private Future task;
+
+    /**
+     * Runs the given code block on an ExecutorService.
+     *
+     * @param executorService where the code runs. Will use the default ExecutorService if null.
+     * @param callable        the code to run
+     * @return a promise for the result of the code block
+     */
+    public static <T> DefaultPromise<T> submit(ExecutorService executorService, final Callable<T> callable) {
+        executorService = executorService != null ? executorService : ExecutorRegistry.getInstance().getDefaultExecutorService();
+        final DefaultPromise<T> promise = new DefaultPromise<T>();
+        promise.setTask(executorService.submit(new Runnable() {
+            public void run() {
+                try {
+                    promise.complete(callable.call());
+                } catch (Throwable t) {
+                    promise.fail(t);
+                }
+            }
+        }));
+        return promise;
+    }
+
+    /**
+     * Returns a promise that succeeds with the results of all the given promises, in order,
+     * or fails as soon as one of them fails. The remaining promises are cancelled on failure.
+     */
+    public static DefaultPromise<List> all(List<? extends Future> promises) {
+        final DefaultPromise<List> result = new DefaultPromise<List>();
+        final List<DefaultPromise> inputs = adapt(promises);
+        final Object[] values = new Object[inputs.size()];
+        final AtomicInteger pending = new AtomicInteger(inputs.size());
+        if (inputs.isEmpty()) result.complete(new ArrayList());
+        for (int i = 0; i < inputs.size(); i++) {
+            final int index = i;
+            final DefaultPromise input = inputs.get(i);
+            input.onComplete(new Runnable() {
+                public void run() {
+                    if (input.isSucceeded()) {
+                        values[index] = input.value;
+                        if (pending.decrementAndGet() == 0) result.complete(Arrays.asList(values));
+                    } else if (result.fail(input.failure())) {
+                        cancelAll(inputs);
+                    }
+                }
+            });
+        }
+        result.cancelOnCancel(inputs);
+        return result;
+    }
+
+    /**
+     * Returns a promise that succeeds with the result of the first of the given promises
+     * to succeed, or fails when all of them have failed. The remaining promises are cancelled
+     * on success.
+     */
+    public static DefaultPromise any(List<? extends Future> promises) {
+        final DefaultPromise result = new DefaultPromise();
+        final List<DefaultPromise> inputs = adapt(promises);
+        final AtomicInteger pending = new AtomicInteger(inputs.size());
+        if (inputs.isEmpty()) result.fail(new NoSuchElementException("No promises to wait for"));
+        for (final DefaultPromise input : inputs) {
+            input.onComplete(new Runnable() {
+                public void run() {
+                    if (input.isSucceeded()) {
+                        if (result.complete(input.value)) cancelAll(inputs);
+                    } else if (pending.decrementAndGet() == 0) {
+                        result.fail(input.failure());
+                    }
+                }
+            });
+        }
+        result.cancelOnCancel(inputs);
+        return result;
+    }
+
+    public Promise then(Closure callback) {
+        return continueWith(callback, false, true);
+    }
+
+    public Promise thenInside(Closure callback) {
+        return continueWith(callback, true, true);
+    }
+
+    public Promise onError(Closure callback) {
+        return continueWith(callback, false, false);
+    }
+
+    public Promise<T> timeout(final long millis) {
+        final Future timer = ExecutorRegistry.getInstance().schedule(new Runnable() {
+            public void run() {
+                if (fail(new TimeoutException("Promise did not complete within " + millis + "ms"))) {
+                    Future f = getTask();
+                    if (f != null) f.cancel(true);
+                }
+            }
+        }, millis);
+        onComplete(new Runnable() {
+            public void run() {
+                timer.cancel(false);
+            }
+        });
+        return this;
+    }
+
+    public Promise<T> bindTo(final MVCGroup group) {
+        if (!group.isAlive()) {
+            cancel(true);
+            return this;
+        }
+        final GriffonApplication app = group.getApp();
+        final String eventName = GriffonApplication.Event.DESTROY_MVC_GROUP.getName();
+        final RunnableWithArgs listener = new RunnableWithArgs() {
+            public void run(Object[] args) {
+                if (args != null && args.length > 0 && args[0] == group) cancel(true);
+            }
+        };
+        app.addApplicationEventListener(eventName, listener);
+        onComplete(new Runnable() {
+            public void run() {
+                app.removeApplicationEventListener(eventName, listener);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Completes this promise with a value, unless it's already complete.
+     *
+     * @return true if the promise was completed by this call
+     */
+    public boolean complete(T value) {
+        return transition(SUCCEEDED, value, null);
+    }
+
+    /**
+     * Completes this promise with an error, unless it's already complete.
+     *
+     * @return true if the promise was completed by this call
+     */
+    public boolean fail(Throwable error) {
+        return transition(FAILED, null, error);
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!transition(CANCELLED, null, null)) return false;
+        Future f = getTask();
+        if (f != null) f.cancel(mayInterruptIfRunning);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        synchronized (lock) {
+            return state == CANCELLED;
+        }
+    }
+
+    public boolean isFailed() {
+        synchronized (lock) {
+            return state == FAILED;
+        }
+    }
+
+    public boolean isDone() {
+        synchronized (lock) {
+            return state != PENDING;
+        }
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return report();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) throw new TimeoutException();
+        return report();
+    }
+
+    /**
+     * Runs the given code once this promise completes, in the thread that completes it,
+     * or right away if it's already complete.
+     */
+    public void onComplete(Runnable listener) {
+        synchronized (lock) {
+            if (state == PENDING) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    private T report() throws ExecutionException {
+        synchronized (lock) {
+            switch (state) {
+                case CANCELLED:
+                    throw new CancellationException();
+                case FAILED:
+                    throw new ExecutionException(error);
+                default:
+                    return value;
+            }
+        }
+    }
+
+    private boolean transition(int newState, T newValue, Throwable newError) {
+        List<Runnable> toNotify;
+        synchronized (lock) {
+            if (state != PENDING) return false;
+            state = newState;
+            value = newValue;
+            error = newError;
+            toNotify = listeners;
+            listeners = null;
+        }
+        done.countDown();
+        for (Runnable listener : toNotify) {
+            try {
+                listener.run();
+            } catch (Throwable throwable) {
+                UNCAUGHT_EXCEPTION_HANDLER.uncaughtException(Thread.currentThread(), throwable);
+            }
+        }
+        return true;
+    }
+
+    private boolean isSucceeded() {
+        synchronized (lock) {
+            return state == SUCCEEDED;
+        }
+    }
+
+    private Throwable failure() {
+        synchronized (lock) {
+            return state == CANCELLED ? new CancellationException() : error;
+        }
+    }
+
+    private Future getTask() {
+        synchronized (lock) {
+            return task;
+        }
+    }
+
+    private void setTask(Future task) {
+        boolean cancelled;
+        synchronized (lock) {
+            this.task = task;
+            cancelled = state == CANCELLED;
+        }
+        if (cancelled) task.cancel(true);
+    }
+
+    private void cancelOnCancel(final List<? extends Future> dependents) {
+        onComplete(new Runnable() {
+            public void run() {
+                if (isCancelled()) cancelAll(dependents);
+            }
+        });
+    }
+
+    private Promise continueWith(final Closure callback, final boolean inside, final boolean onSuccess) {
+        final DefaultPromise child = new DefaultPromise();
+        onComplete(new Runnable() {
+            public void run() {
+                if (isCancelled()) {
+                    child.cancel(true);
+                } else if (isSucceeded() != onSuccess) {
+                    // not for us, pass the outcome on
+                    if (onSuccess) {
+                        child.fail(failure());
+                    } else {
+                        child.complete(value);
+                    }
+                } else {
+                    final Object arg = onSuccess ? value : failure();
+                    Runnable continuation = new Runnable() {
+                        public void run() {
+                            if (child.isDone()) return;
+                            try {
+                                Object result = callback.getMaximumNumberOfParameters() == 0 ? callback.call() : callback.call(arg);
+                                child.completeWith(result);
+                            } catch (Throwable t) {
+                                child.fail(t);
+                            }
+                        }
+                    };
+                    if (inside) {
+                        UIThreadManager.getInstance().executeAsync(continuation);
+                    } else {
+                        child.setTask(ExecutorRegistry.getInstance().getDefaultExecutorService().submit(continuation));
+                    }
+                }
+            }
+        });
+        return child;
+    }
+
+    private void completeWith(Object result) {
+        if (result instanceof Future) {
+            final DefaultPromise nested = adapt((Future) result);
+            nested.onComplete(new Runnable() {
+                public void run() {
+                    if (nested.isSucceeded()) {
+                        complete((T) nested.value);
+                    } else if (nested.isCancelled()) {
+                        cancel(true);
+                    } else {
+                        fail(nested.failure());
+                    }
+                }
+            });
+            cancelOnCancel(Collections.singletonList(nested));
+        } else {
+            complete((T) result);
+        }
+    }
+
+    private static List<DefaultPromise> adapt(List<? extends Future> futures) {
+        List<DefaultPromise> promises = new ArrayList<DefaultPromise>(futures.size());
+        for (Future future : futures) {
+            promises.add(adapt(future));
+        }
+        return promises;
+    }
+
+    // plain Futures can only be waited upon, which takes a pool thread
+    private static DefaultPromise adapt(final Future future) {
+        if (future instanceof DefaultPromise) return (DefaultPromise) future;
+        final DefaultPromise promise = submit(null, new Callable() {
+            public Object call() throws Exception {
+                try {
+                    return future.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        });
+        promise.cancelOnCancel(Collections.singletonList(future));
+        return promise;
+    }
+
+    private static void cancelAll(List<? extends Future> futures) {
+        for (Future future : futures) {
+            future.cancel(true);
+        }
+    }
+}
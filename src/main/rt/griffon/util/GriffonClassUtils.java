@@ -15,6 +15,8 @@
  */
 package griffon.util;
 
+import griffon.core.Event;
+import griffon.core.EventHandler;
 import griffon.core.MVCClosure;
 import griffon.exceptions.BeanException;
 import griffon.exceptions.BeanInstantiationException;
@@ -117,6 +119,18 @@ public final class GriffonClassUtils {
         MVC_METHODS.add(new MethodDescriptor("createMVCGroup", new Class[]{String.class, String.class}));
         MVC_METHODS.add(new MethodDescriptor("createMVCGroup", new Class[]{String.class, String.class, Map.class}));
         MVC_METHODS.add(new MethodDescriptor("createMVCGroup", new Class[]{Map.class, String.class, String.class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{String.class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{String.class, Map.class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{Map.class, String.class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{String.class, String.class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{String.class, String.class, Map.class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{Map.class, String.class, String.class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{String.class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{String.class, Map.class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{Map.class, String.class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{String.class, String.class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{String.class, String.class, Map.class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{Map.class, String.class, String.class}));
         MVC_METHODS.add(new MethodDescriptor("destroyMVCGroup", new Class[]{String.class}));
         MVC_METHODS.add(new MethodDescriptor("withMVCGroup", new Class[]{String.class, Closure.class}));
         MVC_METHODS.add(new MethodDescriptor("withMVCGroup", new Class[]{String.class, Map.class, Closure.class}));
@@ -135,6 +149,8 @@ public final class GriffonClassUtils {
         MVC_METHODS.add(new MethodDescriptor("newInstance", new Class[]{Object[].class}));
         MVC_METHODS.add(new MethodDescriptor("buildMVCGroup", new Class[]{Object[].class}));
         MVC_METHODS.add(new MethodDescriptor("createMVCGroup", new Class[]{Object[].class}));
+        MVC_METHODS.add(new MethodDescriptor("buildMVCGroupAsync", new Class[]{Object[].class}));
+        MVC_METHODS.add(new MethodDescriptor("createMVCGroupAsync", new Class[]{Object[].class}));
         MVC_METHODS.add(new MethodDescriptor("withMVCGroup", new Class[]{Object[].class}));
 
         MVC_METHODS.add(new MethodDescriptor("getApp"));
@@ -154,6 +170,8 @@ public final class GriffonClassUtils {
         THREADING_METHODS.add(new MethodDescriptor("execFuture", new Class[]{Callable.class}));
         THREADING_METHODS.add(new MethodDescriptor("execFuture", new Class[]{ExecutorService.class, Closure.class}));
         THREADING_METHODS.add(new MethodDescriptor("execFuture", new Class[]{ExecutorService.class, Callable.class}));
+        THREADING_METHODS.add(new MethodDescriptor("execPromise", new Class[]{Closure.class}));
+        THREADING_METHODS.add(new MethodDescriptor("execPromise", new Class[]{Callable.class}));
         THREADING_METHODS.add(new MethodDescriptor("edt", new Class[]{Runnable.class}));
         THREADING_METHODS.add(new MethodDescriptor("edt", new Class[]{Closure.class}));
         THREADING_METHODS.add(new MethodDescriptor("doLater", new Class[]{Runnable.class}));
@@ -175,6 +193,11 @@ public final class GriffonClassUtils {
         EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("publishEventAsync", new Class[]{String.class, List.class}));
         EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("publishEventOutside", new Class[]{String.class}));
         EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("publishEventOutside", new Class[]{String.class, List.class}));
+        EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("addEventListener", new Class[]{Class.class, EventHandler.class}));
+        EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("removeEventListener", new Class[]{Class.class, EventHandler.class}));
+        EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("publishEvent", new Class[]{Event.class}));
+        EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("publishEventAsync", new Class[]{Event.class}));
+        EVENT_PUBLISHER_METHODS.add(new MethodDescriptor("publishEventOutside", new Class[]{Event.class}));
 
         OBSERVABLE_METHODS.add(new MethodDescriptor("addPropertyChangeListener", new Class[]{PropertyChangeListener.class}));
         OBSERVABLE_METHODS.add(new MethodDescriptor("addPropertyChangeListener", new Class[]{String.class, PropertyChangeListener.class}));
@@ -1514,7 +1537,23 @@ public final class GriffonClassUtils {
 
     // -- The following methods and properties were copied from commons-beanutils
 
-    private static final Map<String, PropertyDescriptor[]> descriptorsCache = new LinkedHashMap<String, PropertyDescriptor[]>();
+    private static final Object PROPERTY_DESCRIPTORS = new Object();
+    private static final ClassMetadataCache.Factory<PropertyDescriptor[]> PROPERTY_DESCRIPTORS_FACTORY = new ClassMetadataCache.Factory<PropertyDescriptor[]>() {
+        public PropertyDescriptor[] create(Class<?> beanClass) {
+            try {
+                PropertyDescriptor[] descriptors = Introspector.getBeanInfo(beanClass).getPropertyDescriptors();
+                return descriptors != null ? descriptors : new PropertyDescriptor[0];
+            } catch (IntrospectionException e) {
+                return new PropertyDescriptor[0];
+            } finally {
+                // the descriptors are cached here; the Introspector's cache would keep
+                // the class and its superclasses from ever being collected
+                for (Class<?> c = beanClass; c != null && c.getClassLoader() != null; c = c.getSuperclass()) {
+                    Introspector.flushFromCaches(c);
+                }
+            }
+        }
+    };
 
     /**
      * <p>Retrieve the property descriptor for the specified property of the
@@ -1608,27 +1647,7 @@ public final class GriffonClassUtils {
             throw new IllegalArgumentException("No bean class specified");
         }
 
-        // Look up any cached descriptors for this bean class
-        PropertyDescriptor[] descriptors = null;
-        descriptors = (PropertyDescriptor[]) descriptorsCache.get(beanClass.getName());
-        if (descriptors != null) {
-            return (descriptors);
-        }
-
-        // Introspect the bean and cache the generated descriptors
-        BeanInfo beanInfo = null;
-        try {
-            beanInfo = Introspector.getBeanInfo(beanClass);
-        } catch (IntrospectionException e) {
-            return (new PropertyDescriptor[0]);
-        }
-        descriptors = beanInfo.getPropertyDescriptors();
-        if (descriptors == null) {
-            descriptors = new PropertyDescriptor[0];
-        }
-
-        descriptorsCache.put(beanClass.getName(), descriptors);
-        return (descriptors);
+        return ClassMetadataCache.getInstance().get(beanClass, PROPERTY_DESCRIPTORS, PROPERTY_DESCRIPTORS_FACTORY);
     }
 
     /**
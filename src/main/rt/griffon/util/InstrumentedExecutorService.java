@@ -0,0 +1,226 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package griffon.util;
+
+import org.slf4j.MDC;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An ExecutorService that keeps track of how its tasks are doing.<p>
+ * Every task is timed from the moment it is submitted until it completes; times are
+ * collected in a histogram whose buckets are given by {@link #LATENCY_BUCKETS}.<p>
+ * When context propagation is enabled the submitter's MDC logging context is
+ * installed in the worker thread for the duration of each task.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class InstrumentedExecutorService extends AbstractExecutorService {
+    /**
+     * Upper bounds (exclusive, in milliseconds) of the latency histogram buckets.
+     * The last bucket holds every task that took longer.
+     */
+    public static final long[] LATENCY_BUCKETS = {1L, 10L, 100L, 1000L, 10000L};
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final boolean propagateContext;
+    private final AtomicInteger running = new AtomicInteger(0);
+    private final AtomicLong submitted = new AtomicLong(0);
+    private final AtomicLong completed = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    private final AtomicLong totalLatency = new AtomicLong(0);
+    private final AtomicLongArray histogram = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+
+    public InstrumentedExecutorService(String name, ExecutorService delegate) {
+        this(name, delegate, false);
+    }
+
+    public InstrumentedExecutorService(String name, ExecutorService delegate, boolean propagateContext) {
+        this.name = name;
+        this.delegate = delegate;
+        this.propagateContext = propagateContext;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExecutorService getDelegate() {
+        return delegate;
+    }
+
+    public boolean isPropagateContext() {
+        return propagateContext;
+    }
+
+    public void execute(Runnable command) {
+        Runnable task = new TimedRunnable(command);
+        submitted.incrementAndGet();
+        try {
+            delegate.execute(task);
+        } catch (RejectedExecutionException ree) {
+            submitted.decrementAndGet();
+            rejected.incrementAndGet();
+            throw ree;
+        }
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Number of threads currently running tasks.
+     */
+    public int getActiveCount() {
+        return running.get();
+    }
+
+    /**
+     * Number of tasks waiting for a thread.
+     */
+    public long getQueuedCount() {
+        if (delegate instanceof ThreadPoolExecutor) return ((ThreadPoolExecutor) delegate).getQueue().size();
+        return invokeCounter("getQueuedSubmissionCount") + invokeCounter("getQueuedTaskCount");
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Average time in milliseconds from submission to completion.
+     */
+    public double getAverageLatency() {
+        long count = completed.get();
+        return count == 0 ? 0d : totalLatency.get() / 1000000d / count;
+    }
+
+    /**
+     * Number of completed tasks per latency bucket, see {@link #LATENCY_BUCKETS}.
+     */
+    public long[] getLatencyHistogram() {
+        long[] counts = new long[histogram.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return counts;
+    }
+
+    public String toString() {
+        StringBuilder b = new StringBuilder(name)
+            .append("[active=").append(getActiveCount())
+            .append(", queued=").append(getQueuedCount())
+            .append(", completed=").append(getCompletedCount())
+            .append(", rejected=").append(getRejectedCount())
+            .append(", latency={");
+        long[] counts = getLatencyHistogram();
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) b.append(", ");
+            b.append(i < LATENCY_BUCKETS.length ? "<" + LATENCY_BUCKETS[i] : ">=" + LATENCY_BUCKETS[i - 1])
+                .append("ms: ").append(counts[i]);
+        }
+        return b.append("}]").toString();
+    }
+
+    private void record(long latency) {
+        completed.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        long millis = TimeUnit.NANOSECONDS.toMillis(latency);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS.length && millis >= LATENCY_BUCKETS[bucket]) bucket++;
+        histogram.incrementAndGet(bucket);
+    }
+
+    // counters of executors other than ThreadPoolExecutor (i.e, ForkJoinPool) are read reflectively.
+    // Executors that start a thread per task have no queue
+    private long invokeCounter(String methodName) {
+        try {
+            Method method = delegate.getClass().getMethod(methodName);
+            return ((Number) method.invoke(delegate)).longValue();
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+
+    private final class TimedRunnable implements Runnable {
+        private final Runnable runnable;
+        private final long submittedAt = System.nanoTime();
+        private final Map context;
+
+        private TimedRunnable(Runnable runnable) {
+            this.runnable = runnable;
+            this.context = propagateContext ? MDC.getCopyOfContextMap() : null;
+        }
+
+        public void run() {
+            Map previous = null;
+            if (propagateContext) {
+                previous = MDC.getCopyOfContextMap();
+                setContext(context);
+            }
+            running.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                running.decrementAndGet();
+                if (propagateContext) setContext(previous);
+                record(System.nanoTime() - submittedAt);
+            }
+        }
+
+        private void setContext(Map map) {
+            if (map == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(map);
+            }
+        }
+    }
+}
@@ -23,9 +23,8 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -74,26 +73,18 @@ public class MethodUtils {
     private static final Object[] EMPTY_OBJECT_ARRAY = new Object[0];
 
     /**
-     * Stores a cache of MethodDescriptor -> Method in a WeakHashMap.
-     * <p>
-     * The keys into this map only ever exist as temporary variables within
-     * methods of this class, and are never exposed to users of this class.
-     * This means that the WeakHashMap is used only as a mechanism for 
-     * limiting the size of the cache, ie a way to tell the garbage collector
-     * that the contents of the cache can be completely garbage-collected 
-     * whenever it needs the memory. Whether this is a good approach to
-     * this problem is doubtful; something like the commons-collections
-     * LRUMap may be more appropriate (though of course selecting an
-     * appropriate size is an issue).
-     * <p>
-     * This static variable is safe even when this code is deployed via a
-     * shared classloader because it is keyed via a MethodDescriptor object
-     * which has a Class as one of its members and that member is used in
-     * the MethodDescriptor.equals method. So two components that load the same
-     * class via different classloaders will generate non-equal MethodDescriptor
-     * objects and hence end up with different entries in the map.
+     * Methods are cached in {@code ClassMetadataCache}, keyed by MethodDescriptor
+     * under the class they were looked up on, so the cache never keeps a class
+     * from being unloaded.
      */
-    private static final Map cache = Collections.synchronizedMap(new WeakHashMap());
+    private static final ClassMetadataCache cache = ClassMetadataCache.getInstance();
+    /** Metadata key of the cached methods of a class */
+    private static final Object METHODS = new Object();
+    private static final ClassMetadataCache.Factory<ConcurrentMap<MethodDescriptor, Reference>> METHODS_FACTORY = new ClassMetadataCache.Factory<ConcurrentMap<MethodDescriptor, Reference>>() {
+        public ConcurrentMap<MethodDescriptor, Reference> create(Class<?> clazz) {
+            return new ConcurrentHashMap<MethodDescriptor, Reference>();
+        }
+    };
     
     // --------------------------------------------------------- Public Methods
 
@@ -114,13 +105,11 @@ public class MethodUtils {
 
     /**
      * Clear the method cache.
-     * @return the number of cached methods cleared
+     * @return the number of classes whose cached methods were cleared
      * @since 1.8.0
      */
     public static synchronized int clearCache() {
-        int size = cache.size();
-        cache.clear();
-        return size;
+        return cache.clear(METHODS);
     }
     
     /**
@@ -1199,7 +1188,7 @@ public class MethodUtils {
      */
     private static Method getCachedMethod(MethodDescriptor md) {
         if (CACHE_METHODS) {
-            Reference methodRef = (Reference)cache.get(md);
+            Reference methodRef = cache.get(md.cls, METHODS, METHODS_FACTORY).get(md);
             if (methodRef != null) {
                 return (Method)methodRef.get();
             }
@@ -1216,7 +1205,7 @@ public class MethodUtils {
     private static void cacheMethod(MethodDescriptor md, Method method) {
         if (CACHE_METHODS) {
             if (method != null) {
-                cache.put(md, new WeakReference(method));
+                cache.get(md.cls, METHODS, METHODS_FACTORY).put(md, new WeakReference(method));
             }
         }
     }
@@ -18,10 +18,20 @@ package org.codehaus.griffon.runtime.core
 
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
-import griffon.core.*
+import griffon.core.ArtifactHandler
+import griffon.core.ArtifactInfo
+import griffon.core.ArtifactManager
+import griffon.core.GriffonApplication
+import griffon.core.GriffonClass
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.regex.Matcher
+import java.util.regex.Pattern
 
 /**
- * Base implementation of the {@code ArtifactManager} interface.
+ * Base implementation of the {@code ArtifactManager} interface.<p>
+ * Handlers and artifacts are published as an immutable snapshot every time they change;
+ * lookups read the current snapshot without locking.
  *
  * @author Andres Almiray
  * @since 0.9.2
@@ -29,32 +39,40 @@ import griffon.core.*
 abstract class AbstractArtifactManager implements ArtifactManager {
     final GriffonApplication app
 
-    private final Map<String, ArtifactInfo[]> artifacts = [:]
-    private final Map<String, ArtifactHandler> artifactHandlers = [:]
+    private final Map<String, ArtifactInfo[]> artifactsByType = [:]
+    private final Map<String, ArtifactHandler> handlersByType = [:]
     private final Object lock = new Object()
+    private volatile Snapshot snapshot = new Snapshot([:], [:])
+    // dynamic method and property names resolved to artifact types
+    private final Map<String, String> dynamicTypes = new ConcurrentHashMap<String, String>()
 
     private static final Logger LOG = LoggerFactory.getLogger(AbstractArtifactManager)
+    private static final Pattern GET_CLASSES = ~/^get(\w+)Classes$/
+    private static final Pattern IS_CLASS = ~/^is(\w+)Class$/
+    private static final Pattern CLASSES = ~/^(\w+)Classes$/
 
     AbstractArtifactManager(GriffonApplication app) {
         this.app = app
     } 
 
     protected Map<String, ArtifactInfo[]> getArtifacts() {
-        artifacts
+        snapshot.artifacts
     }
 
     protected Map<String, ArtifactHandler> getArtifactHandlers() {
-        artifactHandlers
+        snapshot.handlers
     }
 
     final void loadArtifactMetadata() {
         Map<String, List<ArtifactInfo>> loadedArtifacts = doLoadArtifactMetadata()
 
         synchronized(lock) {
-            loadedArtifacts.each { type, list ->
-                artifacts[type] = (list as ArtifactInfo[])
-                artifactHandlers[type]?.initialize(artifacts[type])
+            for(Map.Entry<String, List<ArtifactInfo>> entry : loadedArtifacts.entrySet()) {
+                String type = entry.key
+                artifactsByType[type] = (entry.value as ArtifactInfo[])
+                handlersByType[type]?.initialize(artifactsByType[type])
             }
+            publish()
         }
     }
 
@@ -65,8 +83,9 @@ abstract class AbstractArtifactManager implements ArtifactManager {
         if(!handler) return
         if(LOG.infoEnabled) LOG.info("Registering artifact handler for type '${handler.type}': $handler")
         synchronized(lock) {
-            artifactHandlers[handler.type] = handler
-            if(artifacts[handler.type]) handler.initialize(artifacts[handler.type])
+            handlersByType[handler.type] = handler
+            if(artifactsByType[handler.type]) handler.initialize(artifactsByType[handler.type])
+            publish()
         }
     }
 
@@ -74,67 +93,50 @@ abstract class AbstractArtifactManager implements ArtifactManager {
         if(!handler) return
         if(LOG.infoEnabled) LOG.info("Removing artifact handler for type '${handler.type}': $handler")
         synchronized(lock) {
-            artifactHandlers.remove(handler.type)
+            handlersByType.remove(handler.type)
+            publish()
         }
     }
 
     GriffonClass findGriffonClass(String name, String type) {
         if(!name || !type) return null
-        synchronized(lock) {
-            return artifactHandlers[type]?.findClassFor(name)
-        }
+        snapshot.handlers[type]?.findClassFor(name)
     }
 
     GriffonClass findGriffonClass(Class clazz, String type) {
         if(!clazz || !type) return null
-        synchronized(lock) {
-            return artifactHandlers[type]?.getClassFor(clazz)
-        }
+        snapshot.handlers[type]?.getClassFor(clazz)
     }
 
     GriffonClass findGriffonClass(Object obj) {
         if(obj == null) return null
-        synchronized(lock) {
-            return findGriffonClass(obj.getClass())
-        }
+        findGriffonClass(obj.getClass())
     }
 
     GriffonClass findGriffonClass(Class clazz) {
         if(!clazz) return null
-        synchronized(lock) {
-            for(handler in artifactHandlers.values()) {
-                GriffonClass griffonClass = handler.getClassFor(clazz)
-                if(griffonClass) return griffonClass
-            }
-        }
-        return null
+        Snapshot current = snapshot
+        current.handlerFor(clazz.name)?.getClassFor(clazz)
     }
 
     GriffonClass findGriffonClass(String fqnClassName) {
         if(!fqnClassName) return null
-        synchronized(lock) {
-            for(handler in artifactHandlers.values()) {
-                GriffonClass griffonClass = handler.getClassFor(fqnClassName)
-                if(griffonClass) return griffonClass
-            }
-        }
-        return null
+        Snapshot current = snapshot
+        current.handlerFor(fqnClassName)?.getClassFor(fqnClassName)
     }
 
     List<GriffonClass> getClassesOfType(String type) {
-        synchronized(lock) {
-            if(artifacts.containsKey(type)) {
-                return artifactHandlers[type].classes.toList()
-            }
+        Snapshot current = snapshot
+        if(current.artifacts.containsKey(type)) {
+            ArtifactHandler handler = current.handlers[type]
+            if(handler) return handler.classes.toList()
         }
         return EMPTY_GRIFFON_CLASS_LIST
     }
 
     List<GriffonClass> getAllClasses() {
         List<GriffonClass> all = []
-        synchronized(lock) {
-            artifactHandlers.each { k, h -> all.addAll(h.getClasses().toList()) }
-        }
+        snapshot.handlers.each { k, h -> all.addAll(h.getClasses().toList()) }
         return Collections.unmodifiableList(all)
     }
 
@@ -148,23 +150,17 @@ abstract class AbstractArtifactManager implements ArtifactManager {
      * "Controller" or "Service".
      */
     def methodMissing(String methodName, args) {
-        def artifactType = methodName =~ /^get(\w+)Classes$/
-        if(artifactType) {
-            artifactType = normalize(artifactType)
-
-            if(!args && artifacts.containsKey(artifactType)) {
-                ArtifactManager.metaClass."$methodName" = this.&getClassesOfType.curry(artifactType)
+        String artifactType = resolveType(methodName, GET_CLASSES, true)
+        if(artifactType != null) {
+            if(!args && snapshot.artifacts.containsKey(artifactType)) {
                 return getClassesOfType(artifactType)
             }
             return EMPTY_GRIFFON_CLASS_ARRAY
         }
 
-        artifactType = methodName =~ /^is(\w+)Class$/
-        if(artifactType) {
-            artifactType = normalize(artifactType)
-
-            if(args?.size() == 1 && artifacts.containsKey(artifactType)) {
-                ArtifactManager.metaClass."$methodName" = this.&isClassOfType.curry(artifactType)
+        artifactType = resolveType(methodName, IS_CLASS, true)
+        if(artifactType != null) {
+            if(args?.size() == 1 && snapshot.artifacts.containsKey(artifactType)) {
                 return isClassOfType(artifactType, args[0])
             }
             return false
@@ -182,11 +178,9 @@ abstract class AbstractArtifactManager implements ArtifactManager {
      * "controller" or "service".
      */
     def propertyMissing(String propertyName) {
-        def artifactType = propertyName =~ /^(\w+)Classes$/
-        if(artifactType) {
-            artifactType = artifactType[0][1]
-            if(artifacts.containsKey(artifactType)) {
-                ArtifactManager.metaClass."$propertyName" = getClassesOfType(artifactType)
+        String artifactType = resolveType(propertyName, CLASSES, false)
+        if(artifactType != null) {
+            if(snapshot.artifacts.containsKey(artifactType)) {
                 return getClassesOfType(artifactType)
             }
             return EMPTY_GRIFFON_CLASS_ARRAY
@@ -196,17 +190,58 @@ abstract class AbstractArtifactManager implements ArtifactManager {
     }
 
     protected ArtifactInfo getArtifactOfType(String type, Class clazz) {
-        synchronized(lock) {
-            artifactHandlers[type]?.artifacts.find { it.clazz.name == clazz.name }
-        }
+        snapshot.artifactsByClassName[type]?.get(clazz.name)
     }
 
     protected boolean isClassOfType(String type, Class clazz) {
         getArtifactOfType(type, clazz) ? true : false
     }
 
-    private String normalize(input) {
-        input = input[0][1]
-        input[0].toLowerCase() + input[1..-1]
+    // must be called while holding the lock
+    private void publish() {
+        snapshot = new Snapshot(artifactsByType, handlersByType)
+    }
+
+    private String resolveType(String name, Pattern pattern, boolean normalize) {
+        String key = pattern.pattern() + name
+        String artifactType = dynamicTypes.get(key)
+        if(artifactType == null) {
+            Matcher matcher = pattern.matcher(name)
+            if(!matcher.matches()) return null
+            artifactType = matcher.group(1)
+            if(normalize) artifactType = artifactType[0].toLowerCase() + artifactType.substring(1)
+            dynamicTypes.put(key, artifactType)
+        }
+        artifactType
+    }
+
+    private static class Snapshot {
+        final Map<String, ArtifactInfo[]> artifacts
+        final Map<String, ArtifactHandler> handlers
+        final Map<String, Map<String, ArtifactInfo>> artifactsByClassName
+        private final Map<String, String> typesByClassName
+
+        Snapshot(Map<String, ArtifactInfo[]> artifacts, Map<String, ArtifactHandler> handlers) {
+            this.artifacts = Collections.unmodifiableMap(new LinkedHashMap<String, ArtifactInfo[]>(artifacts))
+            this.handlers = Collections.unmodifiableMap(new LinkedHashMap<String, ArtifactHandler>(handlers))
+            Map<String, Map<String, ArtifactInfo>> byClassName = [:]
+            Map<String, String> types = [:]
+            handlers.each { String type, ArtifactHandler handler ->
+                Map<String, ArtifactInfo> infos = [:]
+                handler.artifacts.each { ArtifactInfo info ->
+                    infos[info.className] = info
+                    // first handler wins, as in a sequential search
+                    if(!types.containsKey(info.className)) types[info.className] = type
+                }
+                byClassName[type] = Collections.unmodifiableMap(infos)
+            }
+            artifactsByClassName = Collections.unmodifiableMap(byClassName)
+            typesByClassName = Collections.unmodifiableMap(types)
+        }
+
+        ArtifactHandler handlerFor(String className) {
+            String type = typesByClassName[className]
+            type ? handlers[type] : null
+        }
     }
 }
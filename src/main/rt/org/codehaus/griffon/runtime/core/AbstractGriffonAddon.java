@@ -18,6 +18,8 @@ package org.codehaus.griffon.runtime.core;
 
 import griffon.core.GriffonAddon;
 import griffon.core.GriffonApplication;
+import griffon.core.Promise;
+import griffon.core.PromiseHandler;
 import griffon.core.UIThreadManager;
 import griffon.util.GriffonNameUtils;
 import groovy.lang.Closure;
@@ -41,7 +43,7 @@ import java.util.concurrent.Future;
  * @author Andres Almiray
  * @since 0.9.2
  */
-public abstract class AbstractGriffonAddon extends GroovyObjectSupport implements GriffonAddon {
+public abstract class AbstractGriffonAddon extends GroovyObjectSupport implements GriffonAddon, PromiseHandler {
     private final GriffonApplication app;
     private final Logger log;
 
@@ -171,6 +173,14 @@ public abstract class AbstractGriffonAddon extends GroovyObjectSupport implement
         return UIThreadManager.getInstance().executeFuture(callable);
     }
 
+    public Promise execPromise(Closure closure) {
+        return UIThreadManager.getInstance().executePromise(closure);
+    }
+
+    public Promise execPromise(Callable callable) {
+        return UIThreadManager.getInstance().executePromise(callable);
+    }
+
     protected Map<String, String> groupDef(String[][] parts) {
         Map<String, String> map = new LinkedHashMap<String, String>();
         for (int i = 0; i < parts.length; i++) {
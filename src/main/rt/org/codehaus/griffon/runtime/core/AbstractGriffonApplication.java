@@ -37,6 +37,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import static java.util.Arrays.asList;
+import static org.codehaus.griffon.runtime.core.AbstractMVCGroupManager.asyncMVCHandler;
 
 /**
  * Implements the basics for a skeleton GriffonApplication.<p>
@@ -44,7 +45,7 @@ import static java.util.Arrays.asList;
  * @author Danno Ferrin
  * @author Andres Almiray
  */
-public abstract class AbstractGriffonApplication extends AbstractObservable implements GriffonApplication {
+public abstract class AbstractGriffonApplication extends AbstractObservable implements GriffonApplication, TypedApplicationEventPublisher, PromiseHandler, AsyncMVCHandler {
     private Binding bindings = new Binding();
     private ConfigObject config;
     private ConfigObject builderConfig;
@@ -204,6 +205,8 @@ public abstract class AbstractGriffonApplication extends AbstractObservable impl
     public void initialize() {
         if (phase == ApplicationPhase.INITIALIZE) {
             GriffonApplicationHelper.prepare(this);
+            Object coalescing = ConfigUtils.getConfigValue(getConfig(), "griffon.events.coalesce");
+            if (coalescing instanceof Map) eventRouter.setCoalescing((Map) coalescing);
         }
     }
 
@@ -289,6 +292,14 @@ public abstract class AbstractGriffonApplication extends AbstractObservable impl
         log.debug("Shutdown stage 4: execute Shutdown script");
         GriffonApplicationHelper.runLifecycleHandler(GriffonApplication.Lifecycle.SHUTDOWN.getName(), this);
 
+        // stage 5 - deliver pending async events and stop the event workers
+        log.debug("Shutdown stage 5: stop async event delivery");
+        AsyncEventExecutor.getInstance().shutdown();
+
+        // stage 6 - stop all thread pools
+        log.debug("Shutdown stage 6: stop executors");
+        ExecutorRegistry.getInstance().shutdown();
+
         return true;
     }
 
@@ -338,6 +349,18 @@ public abstract class AbstractGriffonApplication extends AbstractObservable impl
         eventRouter.publishAsync(eventName, params);
     }
 
+    public void event(griffon.core.Event event) {
+        eventRouter.publish(event);
+    }
+
+    public void eventOutside(griffon.core.Event event) {
+        eventRouter.publishOutside(event);
+    }
+
+    public void eventAsync(griffon.core.Event event) {
+        eventRouter.publishAsync(event);
+    }
+
     public void addApplicationEventListener(Object listener) {
         eventRouter.addEventListener(listener);
     }
@@ -362,6 +385,22 @@ public abstract class AbstractGriffonApplication extends AbstractObservable impl
         eventRouter.removeEventListener(eventName, listener);
     }
 
+    public <E extends griffon.core.Event> void addApplicationEventListener(Class<E> eventClass, EventHandler<? super E> listener) {
+        eventRouter.addEventListener(eventClass, listener);
+    }
+
+    public void addApplicationEventListener(Class<? extends griffon.core.Event> eventClass, Closure listener) {
+        eventRouter.addEventListener(eventClass, listener);
+    }
+
+    public <E extends griffon.core.Event> void removeApplicationEventListener(Class<E> eventClass, EventHandler<? super E> listener) {
+        eventRouter.removeEventListener(eventClass, listener);
+    }
+
+    public void removeApplicationEventListener(Class<? extends griffon.core.Event> eventClass, Closure listener) {
+        eventRouter.removeEventListener(eventClass, listener);
+    }
+
     public Object createApplicationContainer() {
         return null;
     }
@@ -420,6 +459,14 @@ public abstract class AbstractGriffonApplication extends AbstractObservable impl
         return UIThreadManager.getInstance().executeFuture(callable);
     }
 
+    public Promise execPromise(Closure closure) {
+        return UIThreadManager.getInstance().executePromise(closure);
+    }
+
+    public Promise execPromise(Callable callable) {
+        return UIThreadManager.getInstance().executePromise(callable);
+    }
+
     public Object newInstance(Class clazz, String type) {
         return GriffonApplicationHelper.newInstance(this, clazz, type);
     }
@@ -472,6 +519,54 @@ public abstract class AbstractGriffonApplication extends AbstractObservable impl
         return getMvcGroupManager().createMVCGroup(mvcType, mvcName, args);
     }
 
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
     public void destroyMVCGroup(String mvcName) {
         getMvcGroupManager().destroyMVCGroup(mvcName);
     }
@@ -34,13 +34,15 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import static org.codehaus.griffon.runtime.core.AbstractMVCGroupManager.asyncMVCHandler;
+
 /**
  * Base implementation of the GriffonArtifact interface.
  *
  * @author Andres Almiray
  * @since 0.9.1
  */
-public abstract class AbstractGriffonArtifact extends GroovyObjectSupport implements GriffonArtifact {
+public abstract class AbstractGriffonArtifact extends GroovyObjectSupport implements GriffonArtifact, PromiseHandler, AsyncMVCHandler {
     private GriffonApplication app;
     private final Logger log;
 
@@ -112,6 +114,14 @@ public abstract class AbstractGriffonArtifact extends GroovyObjectSupport implem
         return UIThreadManager.getInstance().executeFuture(callable);
     }
 
+    public Promise execPromise(Closure closure) {
+        return UIThreadManager.getInstance().executePromise(closure);
+    }
+
+    public Promise execPromise(Callable callable) {
+        return UIThreadManager.getInstance().executePromise(callable);
+    }
+
     public Logger getLog() {
         return log;
     }
@@ -164,6 +174,54 @@ public abstract class AbstractGriffonArtifact extends GroovyObjectSupport implem
         return getApp().getMvcGroupManager().createMVCGroup(mvcType, mvcName, args);
     }
 
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
     public void destroyMVCGroup(String mvcName) {
         getApp().getMvcGroupManager().destroyMVCGroup(mvcName);
     }
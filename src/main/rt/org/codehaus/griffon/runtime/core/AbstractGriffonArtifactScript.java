@@ -32,13 +32,15 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import static org.codehaus.griffon.runtime.core.AbstractMVCGroupManager.asyncMVCHandler;
+
 /**
  * Base implementation of the GriffonArtifact interface for Script based artifacts.
  *
  * @author Andres Almiray
  * @since 0.9.4
  */
-public abstract class AbstractGriffonArtifactScript extends Script implements GriffonArtifact {
+public abstract class AbstractGriffonArtifactScript extends Script implements GriffonArtifact, PromiseHandler, AsyncMVCHandler {
     private GriffonApplication app;
     private FactoryBuilderSupport builder;
     private final Logger log;
@@ -115,6 +117,14 @@ public abstract class AbstractGriffonArtifactScript extends Script implements Gr
         return UIThreadManager.getInstance().executeFuture(callable);
     }
 
+    public Promise execPromise(Closure closure) {
+        return UIThreadManager.getInstance().executePromise(closure);
+    }
+
+    public Promise execPromise(Callable callable) {
+        return UIThreadManager.getInstance().executePromise(callable);
+    }
+
     public Logger getLog() {
         return log;
     }
@@ -167,6 +177,54 @@ public abstract class AbstractGriffonArtifactScript extends Script implements Gr
         return getApp().getMvcGroupManager().createMVCGroup(mvcType, mvcName, args);
     }
 
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
     public void destroyMVCGroup(String mvcName) {
         getApp().getMvcGroupManager().destroyMVCGroup(mvcName);
     }
@@ -23,6 +23,9 @@ import groovy.lang.Closure;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+
+import static org.codehaus.griffon.runtime.core.AbstractMVCGroupManager.asyncMVCHandler;
 
 /**
  * Base implementation of the MVCHandler interface.
@@ -30,7 +33,7 @@ import java.util.Map;
  * @author Andres Almiray
  * @since 0.9.3
  */
-public abstract class AbstractMCVHandler implements MVCHandler {
+public abstract class AbstractMCVHandler implements MVCHandler, AsyncMVCHandler {
     protected GriffonApplication getApp() {
         return ApplicationHolder.getApplication();
     }
@@ -83,6 +86,54 @@ public abstract class AbstractMCVHandler implements MVCHandler {
         return getApp().getMvcGroupManager().createMVCGroup(mvcType, mvcName, args);
     }
 
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).buildMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return asyncMVCHandler(getApp().getMvcGroupManager()).createMVCGroupAsync(mvcType, mvcName, args);
+    }
+
     public void destroyMVCGroup(String mvcName) {
         getApp().getMvcGroupManager().destroyMVCGroup(mvcName);
     }
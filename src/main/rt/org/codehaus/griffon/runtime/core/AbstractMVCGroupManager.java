@@ -23,21 +23,47 @@ import groovy.lang.Closure;
 import groovy.util.FactoryBuilderSupport;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * Base implementation of the {@code MVCGroupManager} interface.
+ * Base implementation of the {@code MVCGroupManager} interface.<p>
+ * Lookups never lock: configurations are published as immutable snapshots, groups are
+ * indexed in a concurrent map, and the per-role maps returned by {@code getModels()},
+ * {@code getViews()}, {@code getControllers()} and {@code getBuilders()} are computed
+ * once after a group is added or removed and shared until the next change.<p>
+ * Groups requested with {@code buildMVCGroupAsync()} or {@code createMVCGroupAsync()} are
+ * built in the <tt>mvcGroups</tt> pool of {@code ExecutorRegistry}.
  *
  * @author Andres Almiray
  * @since 0.9.4
  */
-public abstract class AbstractMVCGroupManager implements MVCGroupManager {
+public abstract class AbstractMVCGroupManager implements MVCGroupManager, AsyncMVCHandler {
+    public static final String EXECUTOR_NAME = "mvcGroups";
     private final GriffonApplication app;
 
+    private final Object lock = new Object();
+    // all of the following are guarded by lock
     private final Map<String, MVCGroupConfiguration> configurations = new LinkedHashMap<String, MVCGroupConfiguration>();
     private final Map<String, MVCGroup> groups = new LinkedHashMap<String, MVCGroup>();
-    private final Object lock = new Object();
+    // names of the groups being built, along with the group once it is registered
+    private final Map<String, MVCGroup[]> reservations = new HashMap<String, MVCGroup[]>();
     private boolean initialized;
 
+    // read without locking
+    private volatile Map<String, MVCGroupConfiguration> configurationsSnapshot = Collections.emptyMap();
+    private final ConcurrentMap<String, MVCGroup> groupIndex = new ConcurrentHashMap<String, MVCGroup>();
+    // null after groups change, rebuilt on demand
+    private volatile GroupViews groupViews;
+
+    static {
+        // builds wait on the member tasks they spawn, a bounded pool could run out of threads
+        Map<String, Object> defaults = new LinkedHashMap<String, Object>();
+        defaults.put("type", "cached");
+        defaults.put("threadNamePrefix", "griffon-mvc");
+        defaults.put("daemon", Boolean.TRUE);
+        ExecutorRegistry.getInstance().setDefaults(EXECUTOR_NAME, defaults);
+    }
+
     public AbstractMVCGroupManager(GriffonApplication app) {
         this.app = app;
     }
@@ -47,33 +73,25 @@ public abstract class AbstractMVCGroupManager implements MVCGroupManager {
     }
 
     public Map<String, MVCGroupConfiguration> getConfigurations() {
-        synchronized (lock) {
-            return Collections.unmodifiableMap(configurations);
-        }
+        return configurationsSnapshot;
     }
 
     public Map<String, MVCGroup> getGroups() {
-        synchronized (lock) {
-            return Collections.unmodifiableMap(groups);
-        }
+        return groupViews().groups;
     }
 
     public MVCGroupConfiguration findConfiguration(String mvcType) {
-        MVCGroupConfiguration configuration = null;
-        synchronized (lock) {
-            configuration = configurations.get(mvcType);
-        }
+        Map<String, MVCGroupConfiguration> snapshot = configurationsSnapshot;
+        MVCGroupConfiguration configuration = snapshot.get(mvcType);
 
         if (configuration == null) {
-            throw new MVCGroupConfigurationException("Unknown MVC type '" + mvcType + "'. Known types are " + configurations.keySet(), mvcType);
+            throw new MVCGroupConfigurationException("Unknown MVC type '" + mvcType + "'. Known types are " + snapshot.keySet(), mvcType);
         }
         return configuration;
     }
 
     public MVCGroup findGroup(String mvcId) {
-        synchronized (lock) {
-            return groups.get(mvcId);
-        }
+        return mvcId != null ? groupIndex.get(mvcId) : null;
     }
 
     public MVCGroup getAt(String mvcId) {
@@ -95,18 +113,52 @@ public abstract class AbstractMVCGroupManager implements MVCGroupManager {
                 return;
             }
             configurations.put(configuration.getMvcType(), configuration);
+            configurationsSnapshot = Collections.unmodifiableMap(new LinkedHashMap<String, MVCGroupConfiguration>(configurations));
+        }
+    }
+
+    /**
+     * Claims a group name for a build. A name can't be claimed while a group with
+     * that name exists or another build holds it.
+     *
+     * @return true if the name was free
+     */
+    protected boolean reserveGroupName(String mvcId) {
+        synchronized (lock) {
+            if (groups.containsKey(mvcId) || reservations.containsKey(mvcId)) return false;
+            reservations.put(mvcId, new MVCGroup[1]);
+            return true;
+        }
+    }
+
+    /**
+     * Gives back a name claimed with {@code reserveGroupName()}.
+     *
+     * @return the group registered under that name by the build that held it, if any
+     */
+    protected MVCGroup releaseGroupName(String mvcId) {
+        synchronized (lock) {
+            MVCGroup[] registered = reservations.remove(mvcId);
+            return registered != null ? registered[0] : null;
         }
     }
 
     protected void addGroup(MVCGroup group) {
         synchronized (lock) {
+            MVCGroup[] registered = reservations.get(group.getMvcId());
+            if (registered != null) registered[0] = group;
             groups.put(group.getMvcId(), group);
+            groupIndex.put(group.getMvcId(), group);
+            groupViews = null;
         }
     }
 
     protected void removeGroup(MVCGroup group) {
         synchronized (lock) {
-            groups.remove(group.getMvcId());
+            if (groups.remove(group.getMvcId()) != null) {
+                groupIndex.remove(group.getMvcId());
+                groupViews = null;
+            }
         }
     }
 
@@ -160,6 +212,64 @@ public abstract class AbstractMVCGroupManager implements MVCGroupManager {
         return createMVCGroup(findConfiguration(mvcType), mvcName, args);
     }
 
+    /**
+     * Returns a manager as an {@code AsyncMVCHandler}.
+     *
+     * @throws UnsupportedOperationException if the manager can't build groups in the background
+     */
+    public static AsyncMVCHandler asyncMVCHandler(MVCGroupManager manager) {
+        if (manager instanceof AsyncMVCHandler) return (AsyncMVCHandler) manager;
+        throw new UnsupportedOperationException(manager.getClass().getName() + " can't build MVC groups in the background");
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType) {
+        return buildMVCGroupAsync(findConfiguration(mvcType), mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName) {
+        return buildMVCGroupAsync(findConfiguration(mvcType), mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return buildMVCGroupAsync(findConfiguration(mvcType), mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return buildMVCGroupAsync(findConfiguration(mvcType), mvcType, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return buildMVCGroupAsync(findConfiguration(mvcType), mvcName, args);
+    }
+
+    public Future<MVCGroup> buildMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return buildMVCGroupAsync(findConfiguration(mvcType), mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType) {
+        return createMVCGroupAsync(findConfiguration(mvcType), mvcType, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName) {
+        return createMVCGroupAsync(findConfiguration(mvcType), mvcName, Collections.<String, Object>emptyMap());
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType) {
+        return createMVCGroupAsync(findConfiguration(mvcType), mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, Map<String, Object> args) {
+        return createMVCGroupAsync(findConfiguration(mvcType), mvcType, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(Map<String, Object> args, String mvcType, String mvcName) {
+        return createMVCGroupAsync(findConfiguration(mvcType), mvcName, args);
+    }
+
+    public Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(String mvcType, String mvcName, Map<String, Object> args) {
+        return createMVCGroupAsync(findConfiguration(mvcType), mvcName, args);
+    }
+
     public void withMVCGroup(String mvcType, Closure handler) {
         withMVCGroup(findConfiguration(mvcType), mvcType, Collections.<String, Object>emptyMap(), handler);
     }
@@ -213,6 +323,26 @@ public abstract class AbstractMVCGroupManager implements MVCGroupManager {
         return Arrays.asList(group.getModel(), group.getView(), group.getController());
     }
 
+    /**
+     * Builds a group in the <tt>mvcGroups</tt> pool. Subclasses may build the members
+     * of the group in parallel.
+     */
+    protected Future<MVCGroup> buildMVCGroupAsync(final MVCGroupConfiguration configuration, final String mvcName, final Map<String, Object> args) {
+        return getExecutorService().submit(new Callable<MVCGroup>() {
+            public MVCGroup call() {
+                return buildMVCGroup(configuration, mvcName, args);
+            }
+        });
+    }
+
+    protected Future<List<? extends GriffonMvcArtifact>> createMVCGroupAsync(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args) {
+        return new MVCMembersFuture(buildMVCGroupAsync(configuration, mvcName, args));
+    }
+
+    protected ExecutorService getExecutorService() {
+        return ExecutorRegistry.getInstance().getExecutorService(EXECUTOR_NAME);
+    }
+
     protected void withMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args, Closure handler) {
         try {
             List<? extends GriffonMvcArtifact> group = createMVCGroup(configuration, mvcName, args);
@@ -246,54 +376,94 @@ public abstract class AbstractMVCGroupManager implements MVCGroupManager {
     protected abstract MVCGroup buildMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args);
 
     public final Map<String, ? extends FactoryBuilderSupport> getBuilders() {
-        Map<String, FactoryBuilderSupport> builders = new LinkedHashMap<String, FactoryBuilderSupport>();
-        synchronized (lock) {
-            for (MVCGroup group : groups.values()) {
-                FactoryBuilderSupport builder = group.getBuilder();
-                if (builder != null) {
-                    builders.put(group.getMvcId(), builder);
-                }
-            }
-        }
-        return Collections.unmodifiableMap(builders);
+        return groupViews().builders;
     }
 
     public final Map<String, ? extends GriffonModel> getModels() {
-        Map<String, GriffonModel> models = new LinkedHashMap<String, GriffonModel>();
-        synchronized (lock) {
-            for (MVCGroup group : groups.values()) {
-                GriffonModel model = group.getModel();
-                if (model != null) {
-                    models.put(group.getMvcId(), model);
-                }
-            }
-        }
-        return Collections.unmodifiableMap(models);
+        return groupViews().models;
     }
 
     public final Map<String, ? extends GriffonView> getViews() {
-        Map<String, GriffonView> views = new LinkedHashMap<String, GriffonView>();
-        synchronized (lock) {
-            for (MVCGroup group : groups.values()) {
-                GriffonView view = group.getView();
-                if (view != null) {
-                    views.put(group.getMvcId(), view);
-                }
-            }
-        }
-        return Collections.unmodifiableMap(views);
+        return groupViews().views;
     }
 
     public final Map<String, ? extends GriffonController> getControllers() {
-        Map<String, GriffonController> controllers = new LinkedHashMap<String, GriffonController>();
+        return groupViews().controllers;
+    }
+
+    private GroupViews groupViews() {
+        GroupViews views = groupViews;
+        if (views != null) return views;
         synchronized (lock) {
-            for (MVCGroup group : groups.values()) {
+            if (groupViews == null) groupViews = new GroupViews(groups);
+            return groupViews;
+        }
+    }
+
+    /**
+     * Immutable copies of the live groups and their members, by mvcId.
+     */
+    private static final class GroupViews {
+        private final Map<String, MVCGroup> groups;
+        private final Map<String, FactoryBuilderSupport> builders;
+        private final Map<String, GriffonModel> models;
+        private final Map<String, GriffonView> views;
+        private final Map<String, GriffonController> controllers;
+
+        private GroupViews(Map<String, MVCGroup> liveGroups) {
+            Map<String, FactoryBuilderSupport> builders = new LinkedHashMap<String, FactoryBuilderSupport>();
+            Map<String, GriffonModel> models = new LinkedHashMap<String, GriffonModel>();
+            Map<String, GriffonView> views = new LinkedHashMap<String, GriffonView>();
+            Map<String, GriffonController> controllers = new LinkedHashMap<String, GriffonController>();
+            for (MVCGroup group : liveGroups.values()) {
+                String mvcId = group.getMvcId();
+                FactoryBuilderSupport builder = group.getBuilder();
+                if (builder != null) builders.put(mvcId, builder);
+                GriffonModel model = group.getModel();
+                if (model != null) models.put(mvcId, model);
+                GriffonView view = group.getView();
+                if (view != null) views.put(mvcId, view);
                 GriffonController controller = group.getController();
-                if (controller != null) {
-                    controllers.put(group.getMvcId(), controller);
-                }
+                if (controller != null) controllers.put(mvcId, controller);
             }
+            this.groups = Collections.unmodifiableMap(new LinkedHashMap<String, MVCGroup>(liveGroups));
+            this.builders = Collections.unmodifiableMap(builders);
+            this.models = Collections.unmodifiableMap(models);
+            this.views = Collections.unmodifiableMap(views);
+            this.controllers = Collections.unmodifiableMap(controllers);
+        }
+    }
+
+    // hands out the canonical MVC members of the group built by another Future
+    private static final class MVCMembersFuture implements Future<List<? extends GriffonMvcArtifact>> {
+        private final Future<MVCGroup> group;
+
+        private MVCMembersFuture(Future<MVCGroup> group) {
+            this.group = group;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return group.cancel(mayInterruptIfRunning);
+        }
+
+        public boolean isCancelled() {
+            return group.isCancelled();
+        }
+
+        public boolean isDone() {
+            return group.isDone();
+        }
+
+        public List<? extends GriffonMvcArtifact> get() throws InterruptedException, ExecutionException {
+            return membersOf(group.get());
+        }
+
+        public List<? extends GriffonMvcArtifact> get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return membersOf(group.get(timeout, unit));
+        }
+
+        private static List<? extends GriffonMvcArtifact> membersOf(MVCGroup group) {
+            return Arrays.asList(group.getModel(), group.getView(), group.getController());
         }
-        return Collections.unmodifiableMap(controllers);
     }
 }
@@ -16,6 +16,8 @@
 
 package org.codehaus.griffon.runtime.core;
 
+import griffon.core.Promise;
+import griffon.core.PromiseHandler;
 import griffon.core.ThreadingHandler;
 import griffon.core.UIThreadManager;
 import groovy.lang.Closure;
@@ -30,7 +32,7 @@ import java.util.concurrent.Future;
  * @author Andres Almiray
  * @since 0.9.3
  */
-public abstract class AbstractThreadingHandler implements ThreadingHandler {
+public abstract class AbstractThreadingHandler implements ThreadingHandler, PromiseHandler {
     public boolean isUIThread() {
         return UIThreadManager.getInstance().isUIThread();
     }
@@ -62,4 +64,12 @@ public abstract class AbstractThreadingHandler implements ThreadingHandler {
     public Future execFuture(Callable callable) {
         return UIThreadManager.getInstance().executeFuture(callable);
     }
+
+    public Promise execPromise(Closure closure) {
+        return UIThreadManager.getInstance().executePromise(closure);
+    }
+
+    public Promise execPromise(Callable callable) {
+        return UIThreadManager.getInstance().executePromise(callable);
+    }
 }
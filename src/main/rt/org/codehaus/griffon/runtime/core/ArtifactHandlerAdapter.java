@@ -23,11 +23,16 @@ import griffon.core.GriffonClass;
 import griffon.util.GriffonNameUtils;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Base implementation of the ArtifactHandler interface.
+ * Base implementation of the ArtifactHandler interface.<p>
+ * GriffonClasses are created, and their classes loaded, the first time they are requested.
+ * Lookups by class name, simple name and property name go through indexes that are rebuilt
+ * and published whenever {@code initialize()} is called, and are read without locking.
  *
  * @author Andres Almiray
  *
@@ -38,9 +43,7 @@ public abstract class ArtifactHandlerAdapter implements ArtifactHandler {
     private final String trailing;
     private final GriffonApplication app;
 
-    private ArtifactInfo[] artifacts = new ArtifactInfo[0];
-    private GriffonClass[] classes = new GriffonClass[0];
-    private Map<String, GriffonClass> classesByName = new TreeMap<String, GriffonClass>();
+    private volatile Index index = new Index(new ArtifactInfo[0]);
 
     public ArtifactHandlerAdapter(GriffonApplication app, String type, String trailing) {
         this.app = app;
@@ -57,20 +60,19 @@ public abstract class ArtifactHandlerAdapter implements ArtifactHandler {
     }
 
     public void initialize(ArtifactInfo[] artifacts) {
-        this.artifacts = new ArtifactInfo[artifacts.length];
-        System.arraycopy(artifacts, 0, this.artifacts, 0, artifacts.length);
-        classes = new GriffonClass[artifacts.length];
-        for(int i = 0; i < artifacts.length; i++) {
-            Class clazz = artifacts[i].getClazz();
-            classes[i] = newGriffonClassInstance(clazz);
-            classesByName.put(clazz.getName(), classes[i]);
-        }
+        ArtifactInfo[] copy = new ArtifactInfo[artifacts.length];
+        System.arraycopy(artifacts, 0, copy, 0, artifacts.length);
+        index = new Index(copy);
     }
 
     protected abstract GriffonClass newGriffonClassInstance(Class clazz);
 
     public Map<String, GriffonClass> getClassesByName() {
-        return Collections.<String, GriffonClass>unmodifiableMap(classesByName);
+        Map<String, GriffonClass> map = new TreeMap<String, GriffonClass>();
+        for (GriffonClass griffonClass : getClasses()) {
+            map.put(griffonClass.getClazz().getName(), griffonClass);
+        }
+        return Collections.unmodifiableMap(map);
     }
 
     /**
@@ -80,32 +82,43 @@ public abstract class ArtifactHandlerAdapter implements ArtifactHandler {
      */
     public boolean isArtifact(Class clazz) {
         if(clazz == null) return false;
-        return classesByName.get(clazz.getName()) != null;
+        return index.byClassName.containsKey(clazz.getName());
     }
 
     public boolean isArtifact(GriffonClass clazz) {
-        for(GriffonClass griffonClass: classes) {
-            if(griffonClass.equals(clazz)) return true;
-        }
-        return false;
+        if(clazz == null) return false;
+        return clazz.equals(getClassFor(clazz.getClazz()));
     }
 
     public GriffonClass[] getClasses() {
-        return classes;
+        Index current = index;
+        GriffonClass[] result = current.classes;
+        if (result == null) {
+            ArtifactInfo[] infos = current.artifacts;
+            result = new GriffonClass[infos.length];
+            for (int i = 0; i < infos.length; i++) {
+                result[i] = griffonClassFor(current, infos[i]);
+            }
+            current.classes = result;
+        }
+        return result;
     }
 
     public ArtifactInfo[] getArtifacts() {
-        return artifacts;
+        return index.artifacts;
     }
 
     public GriffonClass getClassFor(Class clazz) {
         if(clazz == null) return null;
-        return getClassFor(clazz.getName());
+        Index current = index;
+        GriffonClass griffonClass = current.classesByType.get(clazz);
+        if (griffonClass != null) return griffonClass;
+        return getClassFor(current, clazz.getName());
     }
 
     public GriffonClass getClassFor(String fqnClassName) {
         if(GriffonNameUtils.isBlank(fqnClassName)) return null;
-        return classesByName.get(fqnClassName);
+        return getClassFor(index, fqnClassName);
     }
 
     public GriffonClass findClassFor(String propertyName) {    
@@ -128,14 +141,59 @@ public abstract class ArtifactHandlerAdapter implements ArtifactHandler {
             simpleName += trailing;
         }
 
-        for(GriffonClass griffonClass: classes) {    
-            if(griffonClass.getClazz().getSimpleName().equals(simpleName)) return griffonClass;
-        }
-
-        return null;
+        Index current = index;
+        ArtifactInfo artifact = current.bySimpleName.get(simpleName);
+        return artifact != null ? griffonClassFor(current, artifact) : null;
     }
 
     public GriffonApplication getApp() {
         return app;
     }
+
+    private GriffonClass getClassFor(Index current, String fqnClassName) {
+        ArtifactInfo artifact = current.byClassName.get(fqnClassName);
+        return artifact != null ? griffonClassFor(current, artifact) : null;
+    }
+
+    private GriffonClass griffonClassFor(Index current, ArtifactInfo artifact) {
+        GriffonClass griffonClass = current.classesByName.get(artifact.getClassName());
+        if (griffonClass == null) {
+            synchronized (current) {
+                griffonClass = current.classesByName.get(artifact.getClassName());
+                if (griffonClass == null) {
+                    griffonClass = newGriffonClassInstance(artifact.getClazz());
+                    current.classesByType.put(griffonClass.getClazz(), griffonClass);
+                    current.classesByName.put(artifact.getClassName(), griffonClass);
+                }
+            }
+        }
+        return griffonClass;
+    }
+
+    /**
+     * Lookup tables for one set of artifacts. Name indexes are immutable; GriffonClasses
+     * are added as they are created.
+     */
+    private static class Index {
+        private final ArtifactInfo[] artifacts;
+        private final Map<String, ArtifactInfo> byClassName;
+        private final Map<String, ArtifactInfo> bySimpleName;
+        private final Map<String, GriffonClass> classesByName = new ConcurrentHashMap<String, GriffonClass>();
+        private final Map<Class, GriffonClass> classesByType = new ConcurrentHashMap<Class, GriffonClass>();
+        private volatile GriffonClass[] classes;
+
+        private Index(ArtifactInfo[] artifacts) {
+            this.artifacts = artifacts;
+            Map<String, ArtifactInfo> names = new HashMap<String, ArtifactInfo>();
+            Map<String, ArtifactInfo> simpleNames = new HashMap<String, ArtifactInfo>();
+            for (ArtifactInfo artifact : artifacts) {
+                names.put(artifact.getClassName(), artifact);
+                // first match wins, as in a sequential search
+                String simpleName = GriffonNameUtils.getShortName(artifact.getClassName());
+                if (!simpleNames.containsKey(simpleName)) simpleNames.put(simpleName, artifact);
+            }
+            byClassName = Collections.unmodifiableMap(names);
+            bySimpleName = Collections.unmodifiableMap(simpleNames);
+        }
+    }
 }
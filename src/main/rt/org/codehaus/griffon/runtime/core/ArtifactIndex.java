@@ -0,0 +1,129 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import griffon.core.ArtifactInfo;
+import griffon.core.GriffonApplication;
+import org.codehaus.griffon.runtime.util.GriffonApplicationHelper;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary artifact index, written at build time next to <tt>griffon-artifacts.properties</tt>.<p>
+ * Every entry carries the artifact's type, class name and whether the class is abstract,
+ * so artifacts can be registered without loading their classes. Classes are loaded the
+ * first time {@code getClazz()} is called.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public final class ArtifactIndex {
+    public static final String RESOURCE = "META-INF/griffon-artifacts.idx";
+    private static final int MAGIC = 0x47524958; // GRIX
+    private static final int VERSION = 2;
+
+    private ArtifactIndex() {
+
+    }
+
+    /**
+     * An artifact described by the index.
+     */
+    public static class Entry extends ArtifactInfo {
+        private final boolean abstractClass;
+        private GriffonApplication app;
+        private volatile Class clazz;
+
+        public Entry(String type, String className, boolean abstractClass) {
+            super(className, type);
+            this.abstractClass = abstractClass;
+        }
+
+        public boolean isAbstract() {
+            return abstractClass;
+        }
+
+        public Class getClazz() {
+            Class c = clazz;
+            if (c == null) {
+                if (app == null) throw new IllegalStateException("Can't load " + getClassName() + " outside of an application");
+                try {
+                    c = GriffonApplicationHelper.loadClass(app, getClassName());
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalArgumentException(e);
+                }
+                clazz = c;
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Reads an index.
+     *
+     * @param in  where to read from, is not closed
+     * @param app used to load the artifact classes when needed
+     * @return all entries, abstract classes included
+     */
+    public static List<Entry> read(InputStream in, GriffonApplication app) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) throw new IOException("Not an artifact index");
+        int version = data.readInt();
+        if (version != VERSION) throw new IOException("Unsupported artifact index version " + version);
+        int size = data.readInt();
+        List<Entry> entries = new ArrayList<Entry>(size);
+        for (int i = 0; i < size; i++) {
+            Entry entry = new Entry(data.readUTF(), data.readUTF(), data.readBoolean());
+            entry.app = app;
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public static void write(OutputStream out, List<Entry> entries) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(entries.size());
+        for (Entry entry : entries) {
+            data.writeUTF(entry.getType());
+            data.writeUTF(entry.getClassName());
+            data.writeBoolean(entry.isAbstract());
+        }
+        data.flush();
+    }
+
+    public static List<Entry> read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return read(in, null);
+        } finally {
+            in.close();
+        }
+    }
+
+    public static void write(File file, List<Entry> entries) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            write(out, entries);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import griffon.core.ExecutorRegistry;
+import griffon.util.GriffonExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static griffon.util.ConfigUtils.getConfigValueAsInt;
+import static griffon.util.ConfigUtils.getConfigValueAsString;
+
+/**
+ * Delivers asynchronous events on behalf of every {@code EventRouter}.<p>
+ * All routers share a single bounded pool of worker threads, which means the thread
+ * count remains constant regardless of how many event publishers are alive. Events
+ * published through the same router are delivered in FIFO order, except for those
+ * rejected by a full queue and delivered by the publishing thread: with the
+ * <tt>callerRuns</tt> policy, or when a listener running in a worker thread publishes
+ * under any policy but <tt>drop</tt>, such an event runs right away, ahead of the events
+ * of that router still waiting in the queue.<p>
+ * The following flags may be set in {@code Config.groovy}<ul>
+ * <li><tt>griffon.events.async.poolSize</tt> - number of worker threads. Default: 1</li>
+ * <li><tt>griffon.events.async.queueCapacity</tt> - maximum number of pending events. Default: 10000</li>
+ * <li><tt>griffon.events.async.rejectionPolicy</tt> - what to do when the queue is full, one of
+ * <tt>block</tt>, <tt>drop</tt> or <tt>callerRuns</tt>. Default: block</li>
+ * <li><tt>griffon.events.async.shutdownTimeout</tt> - milliseconds to wait for pending events
+ * when the application shuts down. Default: 5000</li>
+ * </ul>
+ * Worker threads belong to the <tt>events</tt> pool of {@link ExecutorRegistry}.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public final class AsyncEventExecutor {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncEventExecutor.class);
+    private static final Thread.UncaughtExceptionHandler UNCAUGHT_EXCEPTION_HANDLER = new GriffonExceptionHandler();
+    private static final AsyncEventExecutor INSTANCE = new AsyncEventExecutor();
+
+    public static final String KEY_POOL_SIZE = "griffon.events.async.poolSize";
+    public static final String KEY_QUEUE_CAPACITY = "griffon.events.async.queueCapacity";
+    public static final String KEY_REJECTION_POLICY = "griffon.events.async.rejectionPolicy";
+    public static final String KEY_SHUTDOWN_TIMEOUT = "griffon.events.async.shutdownTimeout";
+
+    private static final int DEFAULT_POOL_SIZE = 1;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 5000L;
+    // number of events a worker drains from a single router before yielding to other routers
+    private static final int DRAIN_BATCH = 64;
+
+    /**
+     * Describes what happens when an event is published and the queue is full.
+     */
+    public static enum RejectionPolicy {
+        /** the publisher waits until there's room in the queue */
+        BLOCK,
+        /** the event is discarded */
+        DROP,
+        /** the event is delivered in the publisher's thread */
+        CALLER_RUNS;
+
+        public static RejectionPolicy parse(String value) {
+            if ("drop".equalsIgnoreCase(value)) return DROP;
+            if ("callerRuns".equalsIgnoreCase(value) || "caller_runs".equalsIgnoreCase(value)) return CALLER_RUNS;
+            return BLOCK;
+        }
+    }
+
+    // marks worker threads so that listeners publishing events never block on a full queue
+    private static final ThreadLocal<Boolean> DELIVERING = new ThreadLocal<Boolean>();
+
+    private final Object lock = new Object();
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong delivered = new AtomicLong(0);
+
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+    private volatile RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
+    private volatile Semaphore permits = new Semaphore(DEFAULT_QUEUE_CAPACITY);
+    private ExecutorService executorService;
+    // set while shutdown() waits for executorService, which must not be replaced meanwhile
+    private boolean shuttingDown;
+    // delayed tasks that have not run yet; shutdown runs them right away
+    private final ConcurrentMap<DelayedTask, Boolean> delayedTasks = new ConcurrentHashMap<DelayedTask, Boolean>();
+
+    public static AsyncEventExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    private AsyncEventExecutor() {
+        registerPoolDefaults(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Reads settings from the application's configuration.<p>
+     * Settings take effect the next time the worker pool is started, that is, if called
+     * before any async event is published or after {@code shutdown()}.
+     *
+     * @param config the application's configuration
+     */
+    public void configure(Map config) {
+        synchronized (lock) {
+            poolSize = Math.max(1, getConfigValueAsInt(config, KEY_POOL_SIZE, DEFAULT_POOL_SIZE));
+            queueCapacity = Math.max(1, getConfigValueAsInt(config, KEY_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY));
+            shutdownTimeout = getConfigValueAsInt(config, KEY_SHUTDOWN_TIMEOUT, (int) DEFAULT_SHUTDOWN_TIMEOUT);
+            rejectionPolicy = RejectionPolicy.parse(getConfigValueAsString(config, KEY_REJECTION_POLICY, "block"));
+            if (executorService == null) permits = new Semaphore(queueCapacity);
+            registerPoolDefaults(poolSize);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Async events will be delivered by " + poolSize + " thread(s) [queueCapacity=" +
+                    queueCapacity + ", rejectionPolicy=" + rejectionPolicy + "]");
+            }
+        }
+    }
+
+    /**
+     * Creates a new event lane. Events submitted to the same lane are executed in order.
+     *
+     * @param name the name of the lane, used for logging purposes
+     * @return a new Executor that delivers events in FIFO order
+     */
+    public Executor newLane(String name) {
+        return new Lane(name);
+    }
+
+    /**
+     * Runs a task after the given delay, using the timer of {@code ExecutorRegistry}.
+     * Tasks should do little more than submitting events to a lane. Tasks still
+     * pending when this executor shuts down are run right away.
+     *
+     * @param task  the task to run
+     * @param delay delay in milliseconds
+     */
+    public void schedule(Runnable task, long delay) {
+        DelayedTask delayed = new DelayedTask(task);
+        delayedTasks.put(delayed, Boolean.TRUE);
+        try {
+            delayed.future = ExecutorRegistry.getInstance().schedule(delayed, delay);
+        } catch (RejectedExecutionException ree) {
+            // timer is shutting down
+            delayed.run();
+        }
+    }
+
+    /**
+     * Number of events that were discarded because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Number of events that have been delivered so far.
+     */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Number of events waiting to be delivered.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return queueCapacity - permits.availablePermits();
+        }
+    }
+
+    /**
+     * Stops all worker threads, waiting at most <tt>griffon.events.async.shutdownTimeout</tt>
+     * milliseconds for pending events to be delivered.<p>
+     * Publishing an async event after this method has been called will start a fresh pool.
+     */
+    public void shutdown() {
+        ExecutorService service = null;
+        long timeout = 0;
+        // delayed tasks flush coalesced events, their events must be delivered too
+        for (DelayedTask delayed : delayedTasks.keySet()) {
+            Future future = delayed.future;
+            if (future != null) future.cancel(false);
+            delayed.run();
+        }
+        synchronized (lock) {
+            service = executorService;
+            timeout = shutdownTimeout;
+            if (service != null) shuttingDown = true;
+        }
+        if (service == null) return;
+
+        LOG.debug("Shutting down async event executor");
+        // events published from now on are delivered by the publishing thread
+        service.shutdown();
+        try {
+            if (!service.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+                List<Runnable> pending = service.shutdownNow();
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Async event executor did not terminate in " + timeout + "ms; " + pending.size() + " event lane(s) were discarded");
+                }
+            }
+        } catch (InterruptedException e) {
+            service.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            shuttingDown = false;
+            if (executorService == service) {
+                executorService = null;
+                permits = new Semaphore(queueCapacity);
+            }
+        }
+    }
+
+    private Executor workers() {
+        synchronized (lock) {
+            // the registry may have shut the pool down on our behalf; during shutdown() lanes
+            // are rejected instead and drained by the thread that reschedules them
+            if (executorService == null || (executorService.isShutdown() && !shuttingDown)) {
+                executorService = ExecutorRegistry.getInstance().getExecutorService(ExecutorRegistry.EVENTS);
+            }
+            return executorService;
+        }
+    }
+
+    private static void registerPoolDefaults(int poolSize) {
+        Map<String, Object> settings = new LinkedHashMap<String, Object>();
+        settings.put("poolSize", poolSize);
+        settings.put("threadNamePrefix", "EventRouter");
+        settings.put("daemon", Boolean.TRUE);
+        ExecutorRegistry.getInstance().setDefaults(ExecutorRegistry.EVENTS, settings);
+    }
+
+    private boolean acquire(Semaphore semaphore) {
+        if (DELIVERING.get() != null) return semaphore.tryAcquire();
+        switch (rejectionPolicy) {
+            case DROP:
+            case CALLER_RUNS:
+                return semaphore.tryAcquire();
+            case BLOCK:
+            default:
+                try {
+                    semaphore.acquire();
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+        }
+    }
+
+    private static void runSafely(Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (Throwable throwable) {
+            UNCAUGHT_EXCEPTION_HANDLER.uncaughtException(Thread.currentThread(), throwable);
+        }
+    }
+
+    private final class Lane implements Executor, Runnable {
+        private final String name;
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<Task>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private Lane(String name) {
+            this.name = name;
+        }
+
+        public void execute(Runnable runnable) {
+            Semaphore semaphore = permits;
+            if (!acquire(semaphore)) {
+                if (rejectionPolicy != RejectionPolicy.DROP) {
+                    runSafely(runnable);
+                    delivered.incrementAndGet();
+                } else {
+                    dropped.incrementAndGet();
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn("Async event queue is full; discarding event on " + name);
+                    }
+                }
+                return;
+            }
+            tasks.offer(new Task(runnable, semaphore));
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers().execute(this);
+                } catch (RejectedExecutionException ree) {
+                    // pool is shutting down; deliver in the caller's thread rather than losing events
+                    run();
+                }
+            }
+        }
+
+        public void run() {
+            boolean nested = DELIVERING.get() != null;
+            DELIVERING.set(Boolean.TRUE);
+            try {
+                for (int i = 0; i < DRAIN_BATCH; i++) {
+                    Task task = tasks.poll();
+                    if (task == null) break;
+                    task.semaphore.release();
+                    runSafely(task.runnable);
+                    delivered.incrementAndGet();
+                }
+            } finally {
+                if (!nested) DELIVERING.remove();
+                scheduled.set(false);
+            }
+            if (!tasks.isEmpty()) schedule();
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Task {
+        private final Runnable runnable;
+        private final Semaphore semaphore;
+
+        private Task(Runnable runnable, Semaphore semaphore) {
+            this.runnable = runnable;
+            this.semaphore = semaphore;
+        }
+    }
+
+    private final class DelayedTask implements Runnable {
+        private final Runnable task;
+        private volatile Future future;
+
+        private DelayedTask(Runnable task) {
+            this.task = task;
+        }
+
+        // runs at most once, either on time or on shutdown
+        public void run() {
+            if (delayedTasks.remove(this) != null) runSafely(task);
+        }
+    }
+}
@@ -15,19 +15,20 @@
  */ 
 package org.codehaus.griffon.runtime.core;
 
+import griffon.util.ClassMetadataCache;
 import griffon.util.GriffonClassUtils;
 import griffon.util.GriffonNameUtils;
 
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /** 
  * Accesses class "properties": static fields, static getters, instance fields
  * or instance getters
  * 
- * Method and Field instances are cached for fast access
+ * Method and Field instances are cached for fast access; fetchers are kept
+ * in {@code ClassMetadataCache}
  * 
  * @author Lari Hotari, Sagire Software Oy (Grails)
  * @author Andres Almiray
@@ -42,35 +43,33 @@ public class ClassPropertyFetcher {
     private PropertyDescriptor[] propertyDescriptors;
     private String[] propertiesWithFields;
 
-    private static Map<Class<?>, ClassPropertyFetcher> cachedClassPropertyFetchers = new ConcurrentHashMap<Class<?>, ClassPropertyFetcher>();
-
     public static void clearClassPropertyFetcherCache() {
-        cachedClassPropertyFetchers.clear();
+        ClassMetadataCache.getInstance().clear(ClassPropertyFetcher.class);
     }
 
     public static ClassPropertyFetcher forClass(Class<?> c) {
         return forClass(c, null);
     }
 
-    public static ClassPropertyFetcher forClass(final Class<?> c, ReferenceInstanceCallback callback) {
-        ClassPropertyFetcher cpf = cachedClassPropertyFetchers.get(c);
-        if (cpf == null) {
-            if (callback == null) {
-                callback = new ReferenceInstanceCallback() {
-                    private Object o;
-
-                    public Object getReferenceInstance() {
-                        if (o == null) {
-                            o = GriffonClassUtils.instantiateClass(c);
+    public static ClassPropertyFetcher forClass(final Class<?> c, final ReferenceInstanceCallback callback) {
+        return ClassMetadataCache.getInstance().get(c, ClassPropertyFetcher.class, new ClassMetadataCache.Factory<ClassPropertyFetcher>() {
+            public ClassPropertyFetcher create(Class<?> clazz) {
+                ReferenceInstanceCallback cb = callback;
+                if (cb == null) {
+                    cb = new ReferenceInstanceCallback() {
+                        private Object o;
+
+                        public Object getReferenceInstance() {
+                            if (o == null) {
+                                o = GriffonClassUtils.instantiateClass(c);
+                            }
+                            return o;
                         }
-                        return o;
-                    }
-                };
+                    };
+                }
+                return new ClassPropertyFetcher(c, cb);
             }
-            cpf = new ClassPropertyFetcher(c, callback);
-            cachedClassPropertyFetchers.put(c, cpf);
-        }
-        return cpf;
+        });
     }
 
     ClassPropertyFetcher(Class<?> clazz, ReferenceInstanceCallback callback) {
@@ -179,6 +178,7 @@ public class ClassPropertyFetcher {
         }
 
         propertyDescriptors = GriffonClassUtils.getPropertyDescriptors(clazz);
+        PropertyAccessor accessor = PropertyAccessor.forClass(clazz);
         for (PropertyDescriptor desc : propertyDescriptors) {
             Method readMethod = desc.getReadMethod();
             if (readMethod != null) {
@@ -189,19 +189,25 @@ public class ClassPropertyFetcher {
                             new GetterPropertyFetcher(readMethod,
                                     staticReadMethod));
                 } else {
-                    instanceFetchers.put(desc.getName(),
-                            new GetterPropertyFetcher(readMethod,
-                                    staticReadMethod));
+                    int index = accessor.indexOf(desc.getName());
+                    if (index > -1 && readMethod.equals(accessor.getReadMethod(index))) {
+                        instanceFetchers.put(desc.getName(),
+                                new AccessorPropertyFetcher(accessor, index));
+                    } else {
+                        instanceFetchers.put(desc.getName(),
+                                new GetterPropertyFetcher(readMethod,
+                                        staticReadMethod));
+                    }
                 }
             }
         }
 
+        final Set<String> props = new HashSet<String>();
+        for (PropertyDescriptor p : propertyDescriptors) {
+            props.add(p.getName());
+        }
         final List<String> properties = new ArrayList<String>();
         for (Class<?> c : allClasses) {
-            final List<String> props = new ArrayList<String>();
-            for(PropertyDescriptor p : GriffonClassUtils.getPropertyDescriptors(clazz)) {
-                props.add(p.getName());
-            }
             for (Field field : c.getDeclaredFields()) {
                 if(field.isSynthetic()) continue;
                 final int modifiers = field.getModifiers();
@@ -329,6 +335,28 @@ public class ClassPropertyFetcher {
         }
     }
 
+    static class AccessorPropertyFetcher implements PropertyFetcher {
+        private final PropertyAccessor accessor;
+        private final int index;
+
+        AccessorPropertyFetcher(PropertyAccessor accessor, int index) {
+            this.accessor = accessor;
+            this.index = index;
+        }
+
+        public Object get(ReferenceInstanceCallback callback) {
+            if (callback != null) {
+                return accessor.get(callback.getReferenceInstance(), index);
+            }
+
+            return null;
+        }
+
+        public Class<?> getPropertyType(String name) {
+            return accessor.getPropertyType(index);
+        }
+    }
+
     static class FieldReaderFetcher implements PropertyFetcher {
         private final Field field;
         private final boolean staticField;
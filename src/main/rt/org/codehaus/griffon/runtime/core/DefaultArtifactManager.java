@@ -18,25 +18,28 @@ package org.codehaus.griffon.runtime.core;
 
 import griffon.core.ArtifactInfo;
 import griffon.core.GriffonApplication;
-import groovy.util.ConfigObject;
-import groovy.util.ConfigSlurper;
 import org.codehaus.griffon.runtime.util.GriffonApplicationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.*;
 
 /**
- * Default implementation of {@code ArtifactManager}.
+ * Default implementation of {@code ArtifactManager}.<p>
+ * Artifacts are read from the binary index ({@code ArtifactIndex}) when one is available
+ * next to <tt>META-INF/griffon-artifacts.properties</tt>; their classes are loaded on demand.
+ * Artifacts that are only listed in the properties file have their classes loaded right away.
  *
  * @author Andres Almiray
  * @since 0.9.2
  */
 public class DefaultArtifactManager extends AbstractArtifactManager {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultArtifactManager.class);
+    private static final String ARTIFACTS_RESOURCE = "META-INF/griffon-artifacts.properties";
 
     public DefaultArtifactManager(GriffonApplication app) {
         super(app);
@@ -45,10 +48,21 @@ public class DefaultArtifactManager extends AbstractArtifactManager {
     protected Map<String, List<ArtifactInfo>> doLoadArtifactMetadata() {
         Map<String, List<ArtifactInfo>> artifacts = new LinkedHashMap<String, List<ArtifactInfo>>();
         try {
-            Enumeration<URL> urls = getApp().getClass().getClassLoader().getResources("META-INF/griffon-artifacts.properties");
-            ConfigSlurper slurper = new ConfigSlurper();
+            ClassLoader classLoader = getApp().getClass().getClassLoader();
+            Map<String, Set<String>> indexed = new HashMap<String, Set<String>>();
+            Enumeration<URL> urls = classLoader.getResources(ArtifactIndex.RESOURCE);
             while (urls.hasMoreElements()) {
-                processURL(urls.nextElement(), slurper, artifacts);
+                URL url = urls.nextElement();
+                Set<String> classNames = processIndex(url, artifacts);
+                if (classNames != null) indexed.put(url.toString(), classNames);
+            }
+
+            urls = classLoader.getResources(ARTIFACTS_RESOURCE);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                String path = url.toString();
+                Set<String> skip = indexed.get(path.substring(0, path.length() - ARTIFACTS_RESOURCE.length()) + ArtifactIndex.RESOURCE);
+                processURL(url, artifacts, skip != null ? skip : Collections.<String>emptySet());
             }
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
@@ -57,22 +71,56 @@ public class DefaultArtifactManager extends AbstractArtifactManager {
         return artifacts;
     }
 
-    private void processURL(URL url, ConfigSlurper slurper, Map<String, List<ArtifactInfo>> artifacts) {
+    // returns the names of all classes in the index, null if it could not be read
+    private Set<String> processIndex(URL url, Map<String, List<ArtifactInfo>> artifacts) {
+        List<ArtifactIndex.Entry> entries;
+        InputStream in = null;
+        try {
+            in = url.openStream();
+            entries = ArtifactIndex.read(in, getApp());
+        } catch (IOException e) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Could not read artifact index " + url + ", falling back to griffon-artifacts.properties", e);
+            }
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Loading " + entries.size() + " artifact definitions from " + url);
+        }
+        Set<String> classNames = new HashSet<String>();
+        for (ArtifactIndex.Entry entry : entries) {
+            classNames.add(entry.getClassName());
+            if (entry.isAbstract()) continue;
+            List<ArtifactInfo> list = artifactsOfType(artifacts, entry.getType());
+            if (!list.contains(entry)) list.add(entry);
+        }
+        return classNames;
+    }
+
+    // classes already described by an index are skipped; an index may be missing entries
+    // if griffon-artifacts.properties was merged with the one of a jar that has no index
+    private void processURL(URL url, Map<String, List<ArtifactInfo>> artifacts, Set<String> skip) {
         Properties p = new Properties();
+        InputStream in = null;
         try {
-            p.load(url.openStream());
+            in = url.openStream();
+            p.load(in);
         } catch (IOException e) {
             return;
+        } finally {
+            closeQuietly(in);
         }
 
-        ConfigObject config = slurper.parse(p);
         if (LOG.isDebugEnabled()) {
             LOG.debug("Loading artifact definitions from " + url);
         }
 
-        for (Object key : config.keySet()) {
+        for (Object key : p.keySet()) {
             String type = key.toString();
-            String classes = (String) config.get(type);
+            String classes = p.getProperty(type).trim();
             if (classes.startsWith("'") && classes.endsWith("'")) {
                 classes = classes.substring(1, classes.length() - 1);
             }
@@ -81,13 +129,10 @@ public class DefaultArtifactManager extends AbstractArtifactManager {
                 LOG.debug("Artifacts of type '" + type + "' = " + classNames.length);
             }
 
-            List<ArtifactInfo> list = artifacts.get(type);
-            if (list == null) {
-                list = new ArrayList<ArtifactInfo>();
-                artifacts.put(type, list);
-            }
-
+            List<ArtifactInfo> list = artifactsOfType(artifacts, type);
             for (String className : classNames) {
+                className = className.trim();
+                if (className.length() == 0 || skip.contains(className)) continue;
                 try {
                     Class clazz = GriffonApplicationHelper.loadClass(getApp(), className);
                     if (Modifier.isAbstract(clazz.getModifiers())) continue;
@@ -99,4 +144,22 @@ public class DefaultArtifactManager extends AbstractArtifactManager {
             }
         }
     }
+
+    private static List<ArtifactInfo> artifactsOfType(Map<String, List<ArtifactInfo>> artifacts, String type) {
+        List<ArtifactInfo> list = artifacts.get(type);
+        if (list == null) {
+            list = new ArrayList<ArtifactInfo>();
+            artifacts.put(type, list);
+        }
+        return list;
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in == null) return;
+        try {
+            in.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
 }
@@ -24,25 +24,96 @@ import static griffon.util.GriffonNameUtils.isBlank
 import griffon.exceptions.MVCGroupInstantiationException
 import org.codehaus.griffon.runtime.builder.UberBuilder
 import org.codehaus.griffon.runtime.util.CompositeBuilderHelper
-import org.codehaus.groovy.runtime.InvokerHelper
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
 
 /**
- * Base implementation of the {@code MVCGroupManager} interface.
+ * Base implementation of the {@code MVCGroupManager} interface.<p>
+ * MVC types configured with a <tt>pool</tt> size keep destroyed groups whose members
+ * define <tt>mvcGroupRecycle()</tt> and reuse them on the next build, see {@code MVCGroupPool}.<p>
+ * Groups built asynchronously have their members instantiated and initialized in parallel;
+ * members listed before the view are initialized before the view script runs, the others after.
  *
  * @author Andres Almiray
  * @since 0.9.4
  */
 class DefaultMVCGroupManager extends AbstractMVCGroupManager {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultMVCGroupManager)
+    private static final String POOL_KEY = 'pool'
+    private static final List<String> RECYCLED_MEMBERS = ['model', 'view', 'controller']
+    // pooled groups remember the names of the args they were built with under this key
+    private static final String ARG_NAMES_KEY = '$argNames'
+    private final Map<String, MVCGroupBuildPlan> plans = new ConcurrentHashMap<String, MVCGroupBuildPlan>()
+    private final Map<String, MVCGroupPool> pools = new ConcurrentHashMap<String, MVCGroupPool>()
+    private final Map<String, Boolean> unpooledGroups = new ConcurrentHashMap<String, Boolean>()
+    private final Map<String, Set<String>> pooledGroupArgs = new ConcurrentHashMap<String, Set<String>>()
+    private boolean poolsDrainedOnShutdown
 
     DefaultMVCGroupManager(GriffonApplication app) {
         super(app)
     }
 
     MVCGroupConfiguration newMVCGroupConfiguration(GriffonApplication app, String mvcType, Map<String, String> members) {
+        if (members.containsKey(POOL_KEY)) {
+            members = new LinkedHashMap<String, String>(members)
+            String capacity = members.remove(POOL_KEY)
+            configurePool(app, mvcType, capacity)
+        }
         new DefaultMVCGroupConfiguration(app, mvcType, members);
     }
 
+    /**
+     * Returns the pool of an MVC type, null if groups of that type are not pooled.
+     */
+    MVCGroupPool getPool(String mvcType) {
+        pools[mvcType]
+    }
+
+    Map<String, MVCGroupPool> getPools() {
+        Collections.unmodifiableMap(new LinkedHashMap<String, MVCGroupPool>(pools))
+    }
+
+    private void configurePool(GriffonApplication app, String mvcType, String capacity) {
+        int size = 0
+        try {
+            size = capacity ? capacity.trim() as int : 0
+        } catch (NumberFormatException e) {
+            if (LOG.warnEnabled) LOG.warn("Invalid pool size '$capacity' for MVC group '$mvcType', groups of this type will not be pooled")
+        }
+        if (size <= 0) {
+            pools.remove(mvcType)?.drain()?.each { destroyMembers(mvcType, it) }
+            return
+        }
+        if (LOG.debugEnabled) LOG.debug("Pooling up to $size instances of MVC group '$mvcType'")
+        pools[mvcType] = new MVCGroupPool(mvcType, size)
+        drainPoolsOnShutdown(app)
+    }
+
+    private synchronized void drainPoolsOnShutdown(GriffonApplication app) {
+        if (poolsDrainedOnShutdown || app == null) return
+        poolsDrainedOnShutdown = true
+        app.addShutdownHandler(new ShutdownHandlerAdapter() {
+            void onShutdown(GriffonApplication application) {
+                drainPools()
+            }
+        })
+    }
+
+    /**
+     * Destroys the members of every pooled group.
+     */
+    void drainPools() {
+        for (MVCGroupPool pool : pools.values()) {
+            for (Map<String, Object> members : pool.drain()) {
+                destroyMembers(pool.mvcType, members)
+            }
+        }
+    }
+
     MVCGroup newMVCGroup(GriffonApplication app, MVCGroupConfiguration configuration, String mvcId, Map<String, Object> members) {
         new DefaultMVCGroup(app, configuration, mvcId, members);
     }
@@ -54,62 +125,138 @@ class DefaultMVCGroupManager extends AbstractMVCGroupManager {
     }
 
     protected MVCGroup buildMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args) {
+        doBuildMVCGroup(configuration, mvcName, args, false)
+    }
+
+    protected Future<MVCGroup> buildMVCGroupAsync(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args) {
+        executorService.submit({ doBuildMVCGroup(configuration, mvcName, args, true) } as Callable)
+    }
+
+    private MVCGroup doBuildMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args, boolean parallel) {
         if (isBlank(mvcName)) mvcName = configuration.mvcType
         if (args == null) args = Collections.EMPTY_MAP
 
-        if (findGroup(mvcName)) {
+        // the name is held until the build is over, concurrent builds can't take it
+        while (!reserveGroupName(mvcName)) {
+            MVCGroup existing = findGroup(mvcName)
             String action = app.config.griffon.mvcid.collision ?: 'exception'
-            switch (action) {
-                case 'warning':
-                    if (LOG.warnEnabled) {
-                        LOG.warn("A previous instance of MVC group '${configuration.mvcType}' with name '$mvcName' exists. Destroying the old instance first.")
-                        destroyMVCGroup(mvcName)
-                    }
-                    break
-                case 'exception':
-                default:
-                    throw new MVCGroupInstantiationException("Can not instantiate MVC group '${configuration.mvcType}' with name '${mvcName}' because a previous instance with that name exists and was not disposed off properly.", configuration.mvcType, mvcName)
+            if (existing == null || action != 'warning') {
+                throw new MVCGroupInstantiationException("Can not instantiate MVC group '${configuration.mvcType}' with name '${mvcName}' because a previous instance with that name exists and was not disposed off properly.", configuration.mvcType, mvcName)
             }
+            if (LOG.warnEnabled) LOG.warn("A previous instance of MVC group '${configuration.mvcType}' with name '$mvcName' exists. Destroying the old instance first.")
+            doDestroyMVCGroup(existing)
         }
 
-        if (LOG.infoEnabled) LOG.info("Building MVC group '${configuration.mvcType}' with name '${mvcName}'")
+        boolean built = false
+        try {
+            MVCGroup group = pooledOrNewMVCGroup(configuration, mvcName, args, parallel)
+            built = true
+            return group
+        } finally {
+            MVCGroup registered = releaseGroupName(mvcName)
+            // nobody is waiting on this thread, don't leave a half built group behind
+            if (parallel && !built && registered != null && findGroup(mvcName).is(registered)) {
+                try {
+                    doDestroyMVCGroup(registered)
+                } catch (Exception x) {
+                    if (LOG.warnEnabled) LOG.warn("Could not destroy group [$mvcName] of type ${configuration.mvcType}.", GriffonExceptionHandler.sanitize(x))
+                }
+            }
+        }
+    }
+
+    private MVCGroup pooledOrNewMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args, boolean parallel) {
+        MVCGroupPool pool = pools[configuration.mvcType]
+        if (pool == null) return buildNewMVCGroup(configuration, mvcName, args, parallel)
+
+        // members provided by the caller belong to someone else, such groups are not pooled
+        if (args.keySet().any { it in configuration.members.keySet() }) {
+            unpooledGroups[mvcName] = Boolean.TRUE
+            return buildNewMVCGroup(configuration, mvcName, args, parallel)
+        }
+
+        MVCGroup group
+        long start = System.nanoTime()
+        Map<String, Object> pooled = pool.take()
+        if (pooled != null) {
+            group = reuseMVCGroup(configuration, mvcName, args, pooled)
+            pool.recordReuse(System.nanoTime() - start)
+        } else {
+            group = buildNewMVCGroup(configuration, mvcName, args, parallel)
+            pool.recordBuild(System.nanoTime() - start)
+        }
+        pooledGroupArgs[mvcName] = new HashSet<String>(args.keySet())
+        group
+    }
+
+    private Map<String, Object> copyArgs(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args) {
         def argsCopy = [app: app, mvcType: configuration.mvcType, mvcName: mvcName]
         argsCopy.putAll(app.bindings.variables)
         argsCopy.putAll(args)
+        argsCopy
+    }
 
-        // figure out what the classes are and prep the metaclass
-        Map<String, MetaClass> metaClassMap = [:]
-        Map<String, Class> klassMap = [:]
-        Map<String, GriffonClass> griffonClassMap = [:]
-        configuration.members.each {String memberType, String memberClassName ->
-            GriffonClass griffonClass = app.artifactManager.findGriffonClass(memberClassName)
-            Class klass = griffonClass?.clazz ?: Thread.currentThread().contextClassLoader.loadClass(memberClassName)
-            MetaClass metaClass = griffonClass?.getMetaClass() ?: klass.getMetaClass()
+    private MVCGroup reuseMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args, Map<String, Object> instanceMap) {
+        if (LOG.infoEnabled) LOG.info("Reusing pooled MVC group '${configuration.mvcType}' with name '${mvcName}'")
+        def argsCopy = copyArgs(configuration, mvcName, args)
+        MVCGroupBuildPlan plan = buildPlanFor(configuration)
 
-            metaClassMap[memberType] = metaClass
-            klassMap[memberType] = klass
-            griffonClassMap[memberType] = griffonClass
+        // args from the group's previous life must not leak into this one
+        UberBuilder builder = instanceMap.builder
+        Set<String> previousArgs = instanceMap.remove(ARG_NAMES_KEY)
+        previousArgs?.each { String name ->
+            if (!instanceMap.containsKey(name)) builder.variables.remove(name)
+        }
+        argsCopy.putAll(instanceMap)
+        argsCopy.each {k, v -> builder.setVariable k, v }
+
+        MVCGroup group = newMVCGroup(app, configuration, mvcName, instanceMap)
+        app.event(GriffonApplication.Event.INITIALIZE_MVC_GROUP.name, [configuration, group])
+        app.addApplicationEventListener(instanceMap.controller)
+
+        // scripts share the builder as binding, they are not run again
+        instanceMap.each {k, v ->
+            if (v != null && k != 'builder' && !(v instanceof Script)) plan.setProperties(v, argsCopy)
+        }
+
+        addGroup(group)
+
+        instanceMap.each {String memberType, member ->
+            if (member != null && memberType != 'builder' && !(member instanceof Script)) {
+                callMemberMethod(member, 'mvcGroupInit', argsCopy)
+            }
         }
 
+        app.event(GriffonApplication.Event.CREATE_MVC_GROUP.name, [group])
+        group
+    }
+
+    private MVCGroup buildNewMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args, boolean parallel) {
+        if (LOG.infoEnabled) LOG.info("Building MVC group '${configuration.mvcType}' with name '${mvcName}'")
+        def argsCopy = copyArgs(configuration, mvcName, args)
+
+        // classes are resolved once per configuration
+        MVCGroupBuildPlan plan = buildPlanFor(configuration)
+
         // create the builder
-        UberBuilder builder = CompositeBuilderHelper.createBuilder(app, metaClassMap)
+        UberBuilder builder = CompositeBuilderHelper.createBuilder(app, plan.metaClasses)
         argsCopy.each {k, v -> builder.setVariable k, v }
 
-        // instantiate the parts
+        // instantiate the parts, unless a value was provided
+        Map<String, Object> instances = Collections.synchronizedMap([:])
+        List<Closure> tasks = []
+        plan.memberClasses.each {memberType, memberClass ->
+            if (!argsCopy.containsKey(memberType)) tasks << { instances[memberType] = plan.newInstance(app, memberType) }
+        }
+        runTasks(tasks, parallel)
+
         Map<String, Object> instanceMap = [:]
-        klassMap.each {memberType, memberClass ->
+        plan.memberClasses.each {memberType, memberClass ->
             if (argsCopy.containsKey(memberType)) {
                 // use provided value, even if null
                 instanceMap[memberType] = argsCopy[memberType]
             } else {
-                // otherwise create a new value
-                GriffonClass griffonClass = griffonClassMap[memberType]
-                def instance = null
-                if (griffonClass) {
-                    instance = griffonClass.newInstance()
-                } else {
-                    instance = app.newInstance(memberClass, memberType)
-                }
+                def instance = instances[memberType]
                 instanceMap[memberType] = instance
                 argsCopy[memberType] = instance
 
@@ -139,16 +286,20 @@ class DefaultMVCGroupManager extends AbstractMVCGroupManager {
                 v.binding.variables.putAll(argsCopy)
             } else {
                 // set the args and instances
-                InvokerHelper.setProperties(v, argsCopy)
+                if (v != null) plan.setProperties(v, argsCopy)
             }
         }
 
         addGroup(group)
 
-        // initialize the classes and call scripts
+        // initialize the classes and call scripts; classes found between two
+        // scripts may be initialized in parallel
         if (LOG.debugEnabled) LOG.debug("Initializing each MVC member of group '${mvcName}'")
+        List<Closure> inits = []
         instanceMap.each {String memberType, member ->
             if (member instanceof Script) {
+                runTasks(inits, parallel)
+                inits.clear()
                 // special case: view gets executed in the UI thread always
                 if (memberType == 'view') {
                     UIThreadManager.instance.executeSync { builder.build(member) }
@@ -157,51 +308,121 @@ class DefaultMVCGroupManager extends AbstractMVCGroupManager {
                     // they can switch into the UI thread as desired
                     builder.build(member)
                 }
-            } else if (memberType != 'builder') {
-                try {
-                    member.mvcGroupInit(argsCopy)
-                } catch (MissingMethodException mme) {
-                    if (mme.method != 'mvcGroupInit') {
-                        throw mme
-                    }
-                    // MME on mvcGroupInit means they didn't define
-                    // an init method.  This is not an error.
-                }
+            } else if (memberType != 'builder' && member != null) {
+                inits << { callMemberMethod(member, 'mvcGroupInit', argsCopy) }
             }
         }
+        runTasks(inits, parallel)
 
         app.event(GriffonApplication.Event.CREATE_MVC_GROUP.name, [group])
         return group
     }
 
+    // tasks are handed to the pool, then the current thread runs those the pool has not
+    // started yet; it never waits on a task that is queued behind itself
+    private void runTasks(List<Closure> tasks, boolean parallel) {
+        if (!parallel || tasks.size() < 2) {
+            for (Closure task : tasks) task.call()
+            return
+        }
+
+        List<FutureTask> futures = tasks.collect { new FutureTask(it as Callable) }
+        ExecutorService executor = executorService
+        for (FutureTask future : futures.tail()) executor.execute(future)
+        for (FutureTask future : futures) future.run()
+        for (FutureTask future : futures) {
+            try {
+                future.get()
+            } catch (ExecutionException e) {
+                throw e.cause
+            }
+        }
+    }
+
+    protected MVCGroupBuildPlan buildPlanFor(MVCGroupConfiguration configuration) {
+        MVCGroupBuildPlan plan = plans[configuration.mvcType]
+        if (plan == null || !plan.configuration.is(configuration)) {
+            plan = new MVCGroupBuildPlan(app, configuration)
+            plans[configuration.mvcType] = plan
+        }
+        plan
+    }
+
     void destroyMVCGroup(String mvcName) {
         MVCGroup group = findGroup(mvcName)
-        if (group == null) return
+        if (group != null) doDestroyMVCGroup(group)
+    }
+
+    private void doDestroyMVCGroup(MVCGroup group) {
+        String mvcName = group.mvcId
+        MVCGroupPool pool = pools[group.mvcType]
+        boolean unpooled = unpooledGroups.remove(mvcName) != null
+        Set<String> argNames = pooledGroupArgs.remove(mvcName)
+        if (pool != null && !unpooled && app.phase != ApplicationPhase.SHUTDOWN && isRecyclable(group)) {
+            recycleMVCGroup(group, pool, argNames)
+            return
+        }
         if (LOG.infoEnabled) LOG.info("Destroying MVC group identified by '$mvcName'")
         app.removeApplicationEventListener(group.controller)
-        [group.model, group.view, group.controller].each { member ->
+        destroyMembers(group.mvcType, [model: group.model, view: group.view, controller: group.controller, builder: group.builder])
+        removeGroup(group)
+
+        app.event(GriffonApplication.Event.DESTROY_MVC_GROUP.name, [group])
+    }
+
+    // groups can be pooled if all their MVC members can be reset
+    private boolean isRecyclable(MVCGroup group) {
+        for (String memberType : RECYCLED_MEMBERS) {
+            def member = group.getMember(memberType)
+            if (member == null || member instanceof Script) continue
+            if (!member.metaClass.respondsTo(member, 'mvcGroupRecycle')) return false
+        }
+        true
+    }
+
+    private void recycleMVCGroup(MVCGroup group, MVCGroupPool pool, Set<String> argNames) {
+        if (LOG.infoEnabled) LOG.info("Recycling MVC group identified by '${group.mvcId}'")
+        app.removeApplicationEventListener(group.controller)
+        Map<String, Object> members = [:]
+        for (String memberType : group.configuration.members.keySet()) {
+            members[memberType] = group.getMember(memberType)
+        }
+        members.builder = group.builder
+        if (argNames) members[ARG_NAMES_KEY] = argNames
+        for (String memberType : RECYCLED_MEMBERS) {
+            def member = members[memberType]
+            if (member != null) callMemberMethod(member, 'mvcGroupRecycle')
+        }
+        removeGroup(group)
+
+        app.event(GriffonApplication.Event.DESTROY_MVC_GROUP.name, [group])
+        if (!pool.offer(members)) destroyMembers(group.mvcType, members)
+    }
+
+    private void destroyMembers(String mvcType, Map<String, Object> members) {
+        [members.model, members.view, members.controller].each { member ->
             if ((member != null) & !(member instanceof Script)) {
-                try {
-                    member.mvcGroupDestroy()
-                } catch (MissingMethodException mme) {
-                    if (mme.method != 'mvcGroupDestroy') {
-                        throw mme
-                    }
-                    // MME on mvcGroupDestroy means they didn't define
-                    // a destroy method.  This is not an error.
-                }
+                callMemberMethod(member, 'mvcGroupDestroy')
             }
         }
 
         try {
-            group.builder?.dispose()
+            members.builder?.dispose()
         } catch (MissingMethodException mme) {
             // TODO find out why this call breaks applet mode on shutdown
-            if (LOG.errorEnabled) LOG.error("Application encountered an error while destroying group '$mvcName'", GriffonExceptionHandler.sanitize(mme))
+            if (LOG.errorEnabled) LOG.error("Application encountered an error while destroying group of type '$mvcType'", GriffonExceptionHandler.sanitize(mme))
         }
+    }
 
-        removeGroup(group)
-
-        app.event(GriffonApplication.Event.DESTROY_MVC_GROUP.name, [group])
+    // a MissingMethodException on the called method means the member doesn't
+    // define it. This is not an error.
+    private static void callMemberMethod(member, String methodName, Object... args) {
+        try {
+            member.invokeMethod(methodName, args)
+        } catch (MissingMethodException mme) {
+            if (mme.method != methodName) {
+                throw mme
+            }
+        }
     }
 }
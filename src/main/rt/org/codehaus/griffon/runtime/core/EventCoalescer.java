@@ -0,0 +1,193 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Collects asynchronous events of a single name during a time window and hands
+ * them over for delivery as a group, once per window.<p>
+ * Supported options are<ul>
+ * <li><tt>mode</tt> - one of <tt>latest</tt> (only the last event of the window is delivered),
+ * <tt>key</tt> (the last event per key is delivered) or <tt>batch</tt> (listeners receive a
+ * single List with the arguments of every event). Default: latest</li>
+ * <li><tt>window</tt> - length of the window in milliseconds. Default: 100</li>
+ * <li><tt>maxCount</tt> - flushes the window early once this many events were collected.
+ * Default: unbounded</li>
+ * <li><tt>key</tt> - for mode <tt>key</tt>, either the index of the argument to use as key or
+ * the name of a property of the first argument. Default: 0</li>
+ * </ul>
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+abstract class EventCoalescer {
+    static enum Mode {
+        LATEST, KEY, BATCH;
+
+        static Mode parse(Object value) {
+            String str = String.valueOf(value);
+            if ("key".equalsIgnoreCase(str)) return KEY;
+            if ("batch".equalsIgnoreCase(str)) return BATCH;
+            return LATEST;
+        }
+    }
+
+    private static final long DEFAULT_WINDOW = 100L;
+
+    private final String eventName;
+    private final Mode mode;
+    private final long window;
+    private final int maxCount;
+    private final Object key;
+    private final Executor lane;
+
+    private final Object lock = new Object();
+    // all of the following are guarded by lock
+    private List latest;
+    private final Map<Object, List> latestByKey = new LinkedHashMap<Object, List>();
+    private final List<Object> batch = new ArrayList<Object>();
+    private int count;
+    private boolean scheduled;
+    // windows are queued in the order they were closed, no matter which thread submits them
+    private final Queue<List<List>> closedWindows = new ConcurrentLinkedQueue<List<List>>();
+
+    private final Runnable flusher = new Runnable() {
+        public void run() {
+            boolean closed;
+            synchronized (lock) {
+                scheduled = false;
+                closed = close();
+            }
+            if (closed) lane.execute(publisher);
+        }
+    };
+
+    private final Runnable publisher = new Runnable() {
+        public void run() {
+            List<List> events = closedWindows.poll();
+            if (events == null) return;
+            for (List params : events) {
+                fire(params);
+            }
+        }
+    };
+
+    EventCoalescer(String eventName, Map options, Executor lane) {
+        this.eventName = eventName;
+        this.lane = lane;
+        this.mode = Mode.parse(options.get("mode"));
+        this.window = toLong(options.get("window"), DEFAULT_WINDOW);
+        this.maxCount = (int) toLong(options.get("maxCount"), Integer.MAX_VALUE);
+        this.key = options.containsKey("key") ? options.get("key") : 0;
+    }
+
+    String getEventName() {
+        return eventName;
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Accepts an event for the current window.
+     */
+    void offer(List params) {
+        boolean flush = false;
+        boolean schedule = false;
+        synchronized (lock) {
+            switch (mode) {
+                case KEY:
+                    Object k = keyOf(params);
+                    // re-inserting moves the key to the tail, keeping delivery in publish order
+                    latestByKey.remove(k);
+                    latestByKey.put(k, params);
+                    break;
+                case BATCH:
+                    batch.add(params == null || params.size() != 1 ? params : params.get(0));
+                    break;
+                case LATEST:
+                default:
+                    latest = params;
+            }
+            if (++count >= maxCount) {
+                flush = close();
+            } else if (!scheduled) {
+                scheduled = schedule = true;
+            }
+        }
+        if (flush) lane.execute(publisher);
+        if (schedule) AsyncEventExecutor.getInstance().schedule(flusher, window);
+    }
+
+    /**
+     * Notifies listeners of a coalesced event. Called from the lane's thread.
+     *
+     * @param params the event's arguments
+     */
+    protected abstract void fire(List params);
+
+    private boolean close() {
+        if (count == 0) return false;
+        List<List> events;
+        switch (mode) {
+            case KEY:
+                events = new ArrayList<List>(latestByKey.values());
+                latestByKey.clear();
+                break;
+            case BATCH:
+                events = Collections.<List>singletonList(Collections.singletonList(new ArrayList<Object>(batch)));
+                batch.clear();
+                break;
+            case LATEST:
+            default:
+                events = Collections.singletonList(latest);
+                latest = null;
+        }
+        count = 0;
+        closedWindows.offer(events);
+        return true;
+    }
+
+    private Object keyOf(List params) {
+        if (params == null || params.isEmpty()) return null;
+        if (key instanceof Number) {
+            int index = ((Number) key).intValue();
+            return index < params.size() ? params.get(index) : null;
+        }
+        Object arg = params.get(0);
+        return arg != null ? InvokerHelper.getProperty(arg, String.valueOf(key)) : null;
+    }
+
+    private static long toLong(Object value, long defaultValue) {
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value instanceof CharSequence) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException nfe) {
+                return defaultValue;
+            }
+        }
+        return value != null ? DefaultTypeTransformation.longUnbox(value) : defaultValue;
+    }
+}
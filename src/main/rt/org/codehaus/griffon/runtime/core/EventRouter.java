@@ -0,0 +1,931 @@
+/*
+ * Copyright 2009-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import griffon.core.Event;
+import griffon.core.EventHandler;
+import griffon.core.UIThreadManager;
+import griffon.util.GriffonNameUtils;
+import griffon.util.RunnableWithArgs;
+import groovy.lang.*;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static griffon.util.GriffonNameUtils.capitalize;
+import static org.codehaus.groovy.runtime.MetaClassHelper.convertToTypeArray;
+
+/**
+ * An event handling helper.<p>
+ * Listeners may be of type<ul>
+ * <li>a <tt>Script</tt></li>
+ * <li>a <tt>Map</tt></li>
+ * <li>a <tt>Closure</tt></li>
+ * <li>a <tt>RunnableWithArgs</tt></li>
+ * <li>a <tt>Object</tt> (a Java bean)</li>
+ * </ul>
+ *
+ * With the exception of Maps and Closures, the naming convention for an eventHandler is
+ * "on" + eventName, Maps and Closures require handlers to be named as eventName only.<p>
+ * Some examples of eventHandler names are: onStartupStart, onMyCoolEvent.
+ * Event names must follow the camelCase naming convention.<p>
+ * Typed events (subclasses of {@code griffon.core.Event}) may be handled by listeners
+ * registered per event class; they are also delivered to listeners registered by name,
+ * the event name being the simple name of the event's class.<p>
+ * Handlers are resolved once per event name and kept in a dispatch table that is
+ * updated whenever a listener is added or removed, thus publishing an event only
+ * touches the listeners that actually handle it. Handlers are resolved again when a
+ * MetaClass is replaced in the registry, for example when a class gets an
+ * {@code ExpandoMetaClass}, and when a bean handler finds the MetaClass of its listener
+ * changed, for example when an {@code ExpandoMetaClass} is modified in place. A listener
+ * without handlers that gains one through its own per instance MetaClass is only seen
+ * after the next such change.
+ *
+ * @author Andres Almiray
+ */
+public class EventRouter {
+    private static final Logger LOG = LoggerFactory.getLogger(EventRouter.class);
+    private static final Object[] NO_ARGS = new Object[0];
+    // bumped whenever a MetaClass is replaced in the registry or a bean handler sees its MetaClass change
+    private static final AtomicInteger METACLASS_CHANGES = new AtomicInteger();
+
+    static {
+        GroovySystem.getMetaClassRegistry().addMetaClassRegistryChangeEventListener(new MetaClassRegistryChangeEventListener() {
+            public void updateConstantMetaClass(MetaClassRegistryChangeEvent event) {
+                METACLASS_CHANGES.incrementAndGet();
+            }
+        });
+    }
+
+    private final Object lock = new Object();
+    // all of the following are guarded by lock
+    private final List<Object> listeners = new ArrayList<Object>();
+    private final Map<Script, Binding> scriptBindings = new HashMap<Script, Binding>();
+    private final Map<String, List<Object>> closureListeners = new LinkedHashMap<String, List<Object>>();
+    // capitalized event name -> handlers; entries are immutable and replaced on write
+    private final ConcurrentMap<String, Dispatcher> dispatchers = new ConcurrentHashMap<String, Dispatcher>();
+    private final Map<Class, List<Object>> typedListeners = new LinkedHashMap<Class, List<Object>>();
+    // published event class -> handlers registered for that class and its superclasses
+    private final ConcurrentMap<Class, TypedDispatcher> typedDispatchers = new ConcurrentHashMap<Class, TypedDispatcher>();
+
+    private final Executor deferredEvents = AsyncEventExecutor.getInstance().newLane(toString());
+    // capitalized event name -> coalescer for async events of that name
+    private final ConcurrentMap<String, EventCoalescer> coalescers = new ConcurrentHashMap<String, EventCoalescer>();
+
+    /**
+     * Publishes an event with no arguments.</p>
+     * Event listeners will be notified in the same thread
+     * that originated the event.
+     *
+     * @param eventName the name of the event
+     */
+    public void publish(String eventName) {
+        publish(eventName, Collections.emptyList());
+    }
+
+    /**
+     * Publishes an event with optional arguments.</p>
+     * Event listeners will be notified in the same thread
+     * that originated the event.
+     *
+     * @param eventName the name of the event
+     * @param params    the event's arguments
+     */
+    public void publish(String eventName, List params) {
+        if (isBlank(eventName)) return;
+        fire(eventName, params, "synchronously");
+    }
+
+    /**
+     * Publishes an event with no arguments.</p>
+     * Event listeners are guaranteed to be notified
+     * outside of the UI thread always.
+     *
+     * @param eventName the name of the event
+     */
+    public void publishOutside(String eventName) {
+        publishOutside(eventName, Collections.emptyList());
+    }
+
+    /**
+     * Publishes an event with optional arguments.</p>
+     * Event listeners are guaranteed to be notified
+     * outside of the UI thread always.
+     *
+     * @param eventName the name of the event
+     * @param params    the event's arguments
+     */
+    public void publishOutside(String eventName, List params) {
+        if (isBlank(eventName)) return;
+        UIThreadManager.getInstance().executeOutside(new Publisher(eventName, params, "outside"));
+    }
+
+    /**
+     * Publishes an event with no arguments.</p>
+     * Event listeners are guaranteed to be notified
+     * in a different thread than the publisher's, always.
+     *
+     * @param eventName the name of the event
+     */
+    public void publishAsync(String eventName) {
+        publishAsync(eventName, Collections.emptyList());
+    }
+
+    /**
+     * Publishes an event with optional arguments.</p>
+     * Event listeners are guaranteed to be notified
+     * in a different thread than the publisher's, always.
+     * Events are delivered in the same order they were published
+     * by a pool shared with every other EventRouter, unless the pool's
+     * queue is full, see {@link AsyncEventExecutor}.
+     *
+     * @param eventName the name of the event
+     * @param params    the event's arguments
+     */
+    public void publishAsync(String eventName, List params) {
+        if (isBlank(eventName)) return;
+        if (!coalescers.isEmpty()) {
+            EventCoalescer coalescer = coalescers.get(capitalize(eventName));
+            if (coalescer != null) {
+                coalescer.offer(params);
+                return;
+            }
+        }
+        deferredEvents.execute(new Publisher(eventName, params, "asynchronously"));
+    }
+
+    /**
+     * Coalesces async events with the given name.</p>
+     * Events published with {@code publishAsync} are collected during a time window
+     * and delivered once per window, according to the chosen mode<ul>
+     * <li><tt>latest</tt> - only the last event of the window is delivered</li>
+     * <li><tt>key</tt> - the last event for each distinct key is delivered; the key is
+     * the argument at index <tt>key</tt>, or the property named <tt>key</tt> of the first argument</li>
+     * <li><tt>batch</tt> - listeners receive a single List holding the argument of every
+     * event (or the argument list, for events with more than one argument)</li>
+     * </ul>
+     * Options are <tt>mode</tt> (default: latest), <tt>window</tt> in milliseconds (default: 100),
+     * <tt>maxCount</tt> which closes the window early (default: unbounded) and <tt>key</tt> (default: 0).
+     * Events published with {@code publish} and {@code publishOutside} are never coalesced.
+     *
+     * @param eventName the name of the event
+     * @param options   coalescing options, or null to stop coalescing the event
+     */
+    public void setCoalescing(String eventName, Map options) {
+        if (isBlank(eventName)) return;
+        final String name = capitalize(eventName);
+        if (options == null) {
+            coalescers.remove(name);
+            return;
+        }
+        EventCoalescer coalescer = new EventCoalescer(name, options, deferredEvents) {
+            protected void fire(List params) {
+                EventRouter.this.fire(name, params, "coalesced");
+            }
+        };
+        coalescers.put(name, coalescer);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Coalescing async event '" + name + "' with " + options);
+        }
+    }
+
+    /**
+     * Coalesces async events, see {@link #setCoalescing(String, Map)}.
+     *
+     * @param settings a Map of event name to coalescing options
+     */
+    public void setCoalescing(Map settings) {
+        if (settings == null) return;
+        for (Object o : settings.entrySet()) {
+            Map.Entry entry = (Map.Entry) o;
+            if (entry.getValue() instanceof Map) setCoalescing(String.valueOf(entry.getKey()), (Map) entry.getValue());
+        }
+    }
+
+    /**
+     * Publishes a typed event.</p>
+     * Event listeners will be notified in the same thread
+     * that originated the event.
+     *
+     * @param event the event to be published
+     */
+    public void publish(Event event) {
+        if (event == null) return;
+        fire(event, "synchronously");
+    }
+
+    /**
+     * Publishes a typed event.</p>
+     * Event listeners are guaranteed to be notified
+     * outside of the UI thread always.
+     *
+     * @param event the event to be published
+     */
+    public void publishOutside(Event event) {
+        if (event == null) return;
+        UIThreadManager.getInstance().executeOutside(new Publisher(event, "outside"));
+    }
+
+    /**
+     * Publishes a typed event.</p>
+     * Event listeners are guaranteed to be notified
+     * in a different thread than the publisher's, always.
+     *
+     * @param event the event to be published
+     */
+    public void publishAsync(Event event) {
+        if (event == null) return;
+        deferredEvents.execute(new Publisher(event, "asynchronously"));
+    }
+
+    private void fire(String eventName, List params, String mode) {
+        if (LOG.isTraceEnabled()) LOG.trace("Triggering event '" + eventName + "' " + mode);
+        Invoker[] invokers = dispatcherFor(eventName).invokers;
+        if (invokers.length == 0) return;
+        Object[] args = params == null || params.isEmpty() ? NO_ARGS : params.toArray();
+        for (int i = 0; i < invokers.length; i++) {
+            invokers[i].invoke(args);
+        }
+    }
+
+    private void fire(Event event, String mode) {
+        TypedDispatcher typed = typedDispatcherFor(event.getClass());
+        if (LOG.isTraceEnabled()) LOG.trace("Triggering event '" + typed.eventName + "' " + mode);
+        // one args array per publish, shared by every listener that is not an EventHandler
+        Object[] args = null;
+        Invoker[] invokers = typed.invokers;
+        for (int i = 0; i < invokers.length; i++) {
+            Invoker invoker = invokers[i];
+            if (invoker instanceof HandlerInvoker) {
+                ((HandlerInvoker) invoker).invoke(event);
+            } else {
+                if (args == null) args = new Object[]{event};
+                invoker.invoke(args);
+            }
+        }
+        invokers = dispatcherFor(typed.eventName).invokers;
+        if (invokers.length == 0) return;
+        if (args == null) args = new Object[]{event};
+        for (int i = 0; i < invokers.length; i++) {
+            invokers[i].invoke(args);
+        }
+    }
+
+    private TypedDispatcher typedDispatcherFor(Class eventClass) {
+        TypedDispatcher dispatcher = typedDispatchers.get(eventClass);
+        if (dispatcher != null) return dispatcher;
+
+        synchronized (lock) {
+            dispatcher = typedDispatchers.get(eventClass);
+            if (dispatcher == null) {
+                dispatcher = buildTypedDispatcher(eventClass);
+                typedDispatchers.put(eventClass, dispatcher);
+            }
+            return dispatcher;
+        }
+    }
+
+    private TypedDispatcher buildTypedDispatcher(Class eventClass) {
+        List<Invoker> invokers = new ArrayList<Invoker>();
+        for (Class c = eventClass; c != null && Event.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            List<Object> list = typedListeners.get(c);
+            if (list == null) continue;
+            for (Object listener : list) {
+                invokers.add(listener instanceof EventHandler ? new HandlerInvoker((EventHandler) listener) : invokerFor(listener));
+            }
+        }
+        return new TypedDispatcher(GriffonNameUtils.getShortName(eventClass), invokers.toArray(new Invoker[invokers.size()]));
+    }
+
+    private Dispatcher dispatcherFor(String eventName) {
+        // "fooBar" and "FooBar" are the same event
+        if (!Character.isUpperCase(eventName.charAt(0))) eventName = capitalize(eventName);
+        Dispatcher dispatcher = dispatchers.get(eventName);
+        if (dispatcher != null && dispatcher.metaClassChanges == METACLASS_CHANGES.get()) return dispatcher;
+
+        synchronized (lock) {
+            dispatcher = dispatchers.get(eventName);
+            if (dispatcher == null || dispatcher.metaClassChanges != METACLASS_CHANGES.get()) {
+                dispatcher = new Dispatcher(eventName, METACLASS_CHANGES.get());
+                for (Object listener : listeners) {
+                    dispatcher = dispatcher.withListener(invokerFor(listener, dispatcher.handlerName));
+                }
+                List<Object> list = closureListeners.get(eventName);
+                if (list != null) {
+                    for (Object listener : list) {
+                        dispatcher = dispatcher.withClosure(invokerFor(listener));
+                    }
+                }
+                dispatchers.put(eventName, dispatcher);
+            }
+            return dispatcher;
+        }
+    }
+
+    /**
+     * Adds an event listener.<p>
+     *
+     * A listener may be a<ul>
+     * <li>a <tt>Script</tt></li>
+     * <li>a <tt>Map</tt></li>
+     * <li>a <tt>Object</tt> (a Java bean)</li>
+     * </ul>
+     *
+     * With the exception of Maps, the naming convention for an eventHandler is
+     * "on" + eventName, Maps require handlers to be named as eventName only.<p>
+     * Some examples of eventHandler names are: onStartupStart, onMyCoolEvent.
+     * Event names must follow the camelCase naming convention.<p>
+     *
+     * @param listener an event listener of type Script, Map or Object
+     */
+    public void addEventListener(Object listener) {
+        if (listener == null || listener instanceof Closure || listener instanceof RunnableWithArgs) return;
+        if (listener instanceof Map) {
+            addEventListener((Map) listener);
+            return;
+        }
+        synchronized (lock) {
+            if (listeners.contains(listener)) return;
+            try {
+                LOG.debug("Adding listener " + listener);
+            } catch (UnsupportedOperationException uoe) {
+                LOG.debug("Adding listener " + listener.getClass().getName());
+            }
+            listeners.add(listener);
+            for (Map.Entry<String, Dispatcher> entry : dispatchers.entrySet()) {
+                Dispatcher dispatcher = entry.getValue();
+                dispatchers.put(entry.getKey(), dispatcher.withListener(invokerFor(listener, dispatcher.handlerName)));
+            }
+        }
+    }
+
+    /**
+     * Adds a Map containing event listeners.<p>
+     *
+     * An event listener may be a<ul>
+     * <li>a <tt>Closure</tt></li>
+     * <li>a <tt>RunnableWithArgs</tt></li>
+     * </ul>
+     *
+     * Maps require handlers to be named as eventName only.<p>
+     * Some examples of eventHandler names are: StartupStart, MyCoolEvent.
+     * Event names must follow the camelCase naming convention.<p>
+     *
+     * @param listener an event listener of type Script, Map or Object
+     */
+    public void addEventListener(Map<String, Object> listener) {
+        if (listener == null || listener.isEmpty()) return;
+        for (Map.Entry<String, Object> entry : listener.entrySet()) {
+            addClosureListener(String.valueOf(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes an event listener.<p>
+     *
+     * A listener may be a<ul>
+     * <li>a <tt>Script</tt></li>
+     * <li>a <tt>Map</tt></li>
+     * <li>a <tt>Object</tt> (a Java bean)</li>
+     * </ul>
+     *
+     * With the exception of Maps, the naming convention for an eventHandler is
+     * "on" + eventName, Maps require handlers to be named as eventName only.<p>
+     * Some examples of eventHandler names are: onStartupStart, onMyCoolEvent.
+     * Event names must follow the camelCase naming convention.<p>
+     *
+     * @param listener an event listener of type Script, Map or Object
+     */
+    public void removeEventListener(Object listener) {
+        if (listener == null || listener instanceof Closure || listener instanceof RunnableWithArgs) return;
+        if (listener instanceof Map) {
+            removeEventListener((Map) listener);
+            return;
+        }
+        synchronized (lock) {
+            if (LOG.isDebugEnabled()) {
+                try {
+                    LOG.debug("Removing listener " + listener);
+                } catch (UnsupportedOperationException uoe) {
+                    LOG.debug("Removing listener " + listener.getClass().getName());
+                }
+            }
+            listeners.remove(listener);
+            List<Object> removed = removeNestedListeners(listener);
+            removed.add(listener);
+            for (Map.Entry<String, Dispatcher> entry : dispatchers.entrySet()) {
+                dispatchers.put(entry.getKey(), entry.getValue().without(removed));
+            }
+        }
+    }
+
+    /**
+     * Removes a Map containing event listeners.<p>
+     *
+     * An event listener may be a<ul>
+     * <li>a <tt>Closure</tt></li>
+     * <li>a <tt>RunnableWithArgs</tt></li>
+     * </ul>
+     *
+     * Maps require handlers to be named as eventName only.<p>
+     * Some examples of eventHandler names are: StartupStart, MyCoolEvent.
+     * Event names must follow the camelCase naming convention.<p>
+     *
+     * @param listener an event listener of type Script, Map or Object
+     */
+    public void removeEventListener(Map<String, Object> listener) {
+        if (listener == null || listener.isEmpty()) return;
+        for (Map.Entry<String, Object> entry : listener.entrySet()) {
+            removeClosureListener(String.valueOf(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Adds a Closure as an event listener.<p>
+     * Event names must follow the camelCase naming convention.
+     *
+     * @param eventName the name of the event
+     * @param listener  the event listener
+     */
+    public void addEventListener(String eventName, Closure listener) {
+        addClosureListener(eventName, listener);
+    }
+
+    /**
+     * Adds a Runnable as an event listener.<p>
+     * Event names must follow the camelCase naming convention.
+     *
+     * @param eventName the name of the event
+     * @param listener  the event listener
+     */
+    public void addEventListener(String eventName, RunnableWithArgs listener) {
+        addClosureListener(eventName, listener);
+    }
+
+    /**
+     * Removes a Closure as an event listener.<p>
+     * Event names must follow the camelCase naming convention.
+     *
+     * @param eventName the name of the event
+     * @param listener  the event listener
+     */
+    public void removeEventListener(String eventName, Closure listener) {
+        removeClosureListener(eventName, listener);
+    }
+
+    /**
+     * Removes a Runnable as an event listener.<p>
+     * Event names must follow the camelCase naming convention.
+     *
+     * @param eventName the name of the event
+     * @param listener  the event listener
+     */
+    public void removeEventListener(String eventName, RunnableWithArgs listener) {
+        removeClosureListener(eventName, listener);
+    }
+
+    /**
+     * Adds a typed event listener.<p>
+     * The listener will be notified of events of the given class and its subclasses.
+     *
+     * @param eventClass the type of the event
+     * @param listener   the event listener
+     */
+    public <E extends Event> void addEventListener(Class<E> eventClass, EventHandler<? super E> listener) {
+        addTypedListener(eventClass, listener);
+    }
+
+    /**
+     * Adds a Closure as a typed event listener.<p>
+     * The listener will be notified of events of the given class and its subclasses.
+     *
+     * @param eventClass the type of the event
+     * @param listener   the event listener
+     */
+    public void addEventListener(Class<? extends Event> eventClass, Closure listener) {
+        addTypedListener(eventClass, listener);
+    }
+
+    /**
+     * Removes a typed event listener.
+     *
+     * @param eventClass the type of the event
+     * @param listener   the event listener
+     */
+    public <E extends Event> void removeEventListener(Class<E> eventClass, EventHandler<? super E> listener) {
+        removeTypedListener(eventClass, listener);
+    }
+
+    /**
+     * Removes a Closure as a typed event listener.
+     *
+     * @param eventClass the type of the event
+     * @param listener   the event listener
+     */
+    public void removeEventListener(Class<? extends Event> eventClass, Closure listener) {
+        removeTypedListener(eventClass, listener);
+    }
+
+    private void addTypedListener(Class eventClass, Object listener) {
+        if (eventClass == null || listener == null) return;
+        synchronized (lock) {
+            List<Object> list = typedListeners.get(eventClass);
+            if (list == null) {
+                list = new ArrayList<Object>();
+                typedListeners.put(eventClass, list);
+            }
+            if (list.contains(listener)) return;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Adding listener " + listener.getClass().getName() + " on " + eventClass.getName());
+            }
+            list.add(listener);
+            refreshTypedDispatchers(eventClass);
+        }
+    }
+
+    private void removeTypedListener(Class eventClass, Object listener) {
+        if (eventClass == null || listener == null) return;
+        synchronized (lock) {
+            List<Object> list = typedListeners.get(eventClass);
+            if (list != null && list.remove(listener)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Removing listener " + listener.getClass().getName() + " on " + eventClass.getName());
+                }
+                refreshTypedDispatchers(eventClass);
+            }
+        }
+    }
+
+    private void refreshTypedDispatchers(Class eventClass) {
+        for (Class publishedClass : typedDispatchers.keySet()) {
+            if (eventClass.isAssignableFrom(publishedClass)) {
+                typedDispatchers.put(publishedClass, buildTypedDispatcher(publishedClass));
+            }
+        }
+    }
+
+    private void addClosureListener(String eventName, Object listener) {
+        if (isBlank(eventName) || listener == null) return;
+        if (!(listener instanceof Closure) && !(listener instanceof RunnableWithArgs)) return;
+        eventName = capitalize(eventName);
+        synchronized (lock) {
+            List<Object> list = closureListeners.get(eventName);
+            if (list == null) {
+                list = new ArrayList<Object>();
+                closureListeners.put(eventName, list);
+            }
+            if (list.contains(listener)) return;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Adding listener " + listener.getClass().getName() + " on " + eventName);
+            }
+            list.add(listener);
+            Dispatcher dispatcher = dispatchers.get(eventName);
+            if (dispatcher != null) dispatchers.put(eventName, dispatcher.withClosure(invokerFor(listener)));
+        }
+    }
+
+    private void removeClosureListener(String eventName, Object listener) {
+        if (isBlank(eventName) || listener == null) return;
+        eventName = capitalize(eventName);
+        synchronized (lock) {
+            List<Object> list = closureListeners.get(eventName);
+            if (list != null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Removing listener " + listener.getClass().getName() + " on " + eventName);
+                }
+                list.remove(listener);
+                Dispatcher dispatcher = dispatchers.get(eventName);
+                if (dispatcher != null) dispatchers.put(eventName, dispatcher.without(Collections.singletonList(listener)));
+            }
+        }
+    }
+
+    private List<Object> removeNestedListeners(Object subject) {
+        List<Object> removed = new ArrayList<Object>();
+        for (Map.Entry<String, List<Object>> event : closureListeners.entrySet()) {
+            String eventName = event.getKey();
+            List<Object> toRemove = new ArrayList<Object>();
+            for (Object listener : event.getValue()) {
+                if (isNestedListener(listener, subject)) {
+                    toRemove.add(listener);
+                }
+            }
+            for (Object listener : toRemove) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Removing listener " + listener.getClass().getName() + " on " + eventName);
+                }
+                event.getValue().remove(listener);
+            }
+            removed.addAll(toRemove);
+        }
+        for (Map.Entry<Class, List<Object>> event : typedListeners.entrySet()) {
+            boolean changed = false;
+            for (Iterator<Object> it = event.getValue().iterator(); it.hasNext(); ) {
+                Object listener = it.next();
+                if (isNestedListener(listener, subject)) {
+                    it.remove();
+                    changed = true;
+                }
+            }
+            if (changed) refreshTypedDispatchers(event.getKey());
+        }
+        return removed;
+    }
+
+    private boolean isNestedListener(Object listener, Object subject) {
+        if (listener instanceof Closure) {
+            return ((Closure) listener).getOwner() == subject;
+        } else if (listener instanceof RunnableWithArgs) {
+            Class listenerClass = listener.getClass();
+            if (listenerClass.isMemberClass() && listenerClass.getEnclosingClass() == subject.getClass()) {
+                try {
+                    Field field = listenerClass.getDeclaredField("this$0");
+                    field.setAccessible(true);
+                    return field.get(listener) == subject;
+                } catch (Exception e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Invoker invokerFor(Object listener) {
+        if (listener instanceof Closure) {
+            return new ClosureInvoker(listener, (Closure) listener);
+        }
+        return new RunnableInvoker((RunnableWithArgs) listener);
+    }
+
+    private Invoker invokerFor(Object listener, String handlerName) {
+        if (listener instanceof Script) {
+            Script script = (Script) listener;
+            Binding binding = scriptBindings.get(script);
+            if (binding == null) {
+                binding = new Binding();
+                script.setBinding(binding);
+                script.run();
+                scriptBindings.put(script, binding);
+            }
+            Object handler = binding.getVariables().get(handlerName);
+            if (handler == null) return null;
+            if (handler instanceof Closure) return new ClosureInvoker(script, (Closure) handler);
+            return new CallableInvoker(script, handler);
+        }
+
+        return beanInvokerFor(listener, handlerName);
+    }
+
+    private static BeanInvoker beanInvokerFor(Object listener, String handlerName) {
+        MetaClass metaClass = InvokerHelper.getMetaClass(listener);
+        MetaProperty property = metaClass.getMetaProperty(handlerName);
+        List<MetaMethod> methods = metaClass.respondsTo(listener, handlerName);
+        if (property == null && (methods == null || methods.isEmpty())) return null;
+        return new BeanInvoker(listener, metaClass, handlerName, property, methods);
+    }
+
+    private static boolean isBlank(String str) {
+        return str == null || str.length() == 0;
+    }
+
+    /**
+     * Handlers for a single event name. Instances are immutable; bean and script
+     * handlers always come first, followed by closure handlers in registration order.
+     * A dispatcher is stale once {@code METACLASS_CHANGES} moves on.
+     */
+    private static final class Dispatcher {
+        private static final Invoker[] EMPTY = new Invoker[0];
+
+        private final String eventName;
+        private final String handlerName;
+        private final Invoker[] invokers;
+        private final int beanCount;
+        private final int metaClassChanges;
+
+        private Dispatcher(String eventName, int metaClassChanges) {
+            this(eventName, "on" + eventName, EMPTY, 0, metaClassChanges);
+        }
+
+        private Dispatcher(String eventName, String handlerName, Invoker[] invokers, int beanCount, int metaClassChanges) {
+            this.eventName = eventName;
+            this.handlerName = handlerName;
+            this.invokers = invokers;
+            this.beanCount = beanCount;
+            this.metaClassChanges = metaClassChanges;
+        }
+
+        private Dispatcher withListener(Invoker invoker) {
+            if (invoker == null) return this;
+            Invoker[] copy = new Invoker[invokers.length + 1];
+            System.arraycopy(invokers, 0, copy, 0, beanCount);
+            copy[beanCount] = invoker;
+            System.arraycopy(invokers, beanCount, copy, beanCount + 1, invokers.length - beanCount);
+            return new Dispatcher(eventName, handlerName, copy, beanCount + 1, metaClassChanges);
+        }
+
+        private Dispatcher withClosure(Invoker invoker) {
+            Invoker[] copy = new Invoker[invokers.length + 1];
+            System.arraycopy(invokers, 0, copy, 0, invokers.length);
+            copy[invokers.length] = invoker;
+            return new Dispatcher(eventName, handlerName, copy, beanCount, metaClassChanges);
+        }
+
+        private Dispatcher without(List<Object> removed) {
+            List<Invoker> kept = new ArrayList<Invoker>(invokers.length);
+            int beans = 0;
+            for (int i = 0; i < invokers.length; i++) {
+                if (removed.contains(invokers[i].listener)) continue;
+                kept.add(invokers[i]);
+                if (i < beanCount) beans++;
+            }
+            if (kept.size() == invokers.length) return this;
+            return new Dispatcher(eventName, handlerName, kept.toArray(new Invoker[kept.size()]), beans, metaClassChanges);
+        }
+    }
+
+    private static abstract class Invoker {
+        // the object that was registered as listener
+        protected final Object listener;
+
+        protected Invoker(Object listener) {
+            this.listener = listener;
+        }
+
+        abstract void invoke(Object[] args);
+    }
+
+    private static final class HandlerInvoker extends Invoker {
+        private final EventHandler handler;
+
+        private HandlerInvoker(EventHandler handler) {
+            super(handler);
+            this.handler = handler;
+        }
+
+        void invoke(Object[] args) {
+            handler.onEvent((Event) args[0]);
+        }
+
+        void invoke(Event event) {
+            handler.onEvent(event);
+        }
+    }
+
+    private static final class TypedDispatcher {
+        private final String eventName;
+        private final Invoker[] invokers;
+
+        private TypedDispatcher(String eventName, Invoker[] invokers) {
+            this.eventName = eventName;
+            this.invokers = invokers;
+        }
+    }
+
+    private static final class ClosureInvoker extends Invoker {
+        private final Closure closure;
+
+        private ClosureInvoker(Object listener, Closure closure) {
+            super(listener);
+            this.closure = closure;
+        }
+
+        void invoke(Object[] args) {
+            closure.call(args);
+        }
+    }
+
+    private static final class RunnableInvoker extends Invoker {
+        private final RunnableWithArgs runnable;
+
+        private RunnableInvoker(RunnableWithArgs runnable) {
+            super(runnable);
+            this.runnable = runnable;
+        }
+
+        void invoke(Object[] args) {
+            runnable.run(args);
+        }
+    }
+
+    private static final class CallableInvoker extends Invoker {
+        private final Object callable;
+
+        private CallableInvoker(Object listener, Object callable) {
+            super(listener);
+            this.callable = callable;
+        }
+
+        void invoke(Object[] args) {
+            InvokerHelper.invokeMethod(callable, "call", args);
+        }
+    }
+
+    private static final class BeanInvoker extends Invoker {
+        private final MetaClass metaClass;
+        private final String handlerName;
+        private final MetaProperty property;
+        private final MetaMethod method;
+        private final boolean overloaded;
+        // ExpandoMetaClasses modified in place keep their identity, not their version
+        private final int version;
+
+        private BeanInvoker(Object listener, MetaClass metaClass, String handlerName, MetaProperty property, List<MetaMethod> methods) {
+            super(listener);
+            this.metaClass = metaClass;
+            this.version = versionOf(metaClass);
+            this.handlerName = handlerName;
+            this.property = property;
+            int count = methods == null ? 0 : methods.size();
+            this.method = count == 1 ? methods.get(0) : null;
+            this.overloaded = count > 1;
+        }
+
+        void invoke(Object[] args) {
+            if (isStale()) {
+                // every dispatcher may have missed a handler added along with this change
+                METACLASS_CHANGES.incrementAndGet();
+                BeanInvoker current = beanInvokerFor(listener, handlerName);
+                if (current != null) current.invoke(args);
+                return;
+            }
+            if (property != null) {
+                Object handler = property.getProperty(listener);
+                if (DefaultTypeTransformation.castToBoolean(handler)) {
+                    if (handler instanceof Closure) {
+                        ((Closure) handler).call(args);
+                    } else {
+                        InvokerHelper.invokeMethod(handler, "call", args);
+                    }
+                    return;
+                }
+            }
+
+            if (method != null) {
+                if (method.isValidMethod(args)) method.doMethodInvoke(listener, args);
+            } else if (overloaded) {
+                MetaMethod mm = metaClass.pickMethod(handlerName, convertToTypeArray(args));
+                if (mm != null) mm.doMethodInvoke(listener, args);
+            }
+        }
+
+        private boolean isStale() {
+            if (listener instanceof GroovyObject && ((GroovyObject) listener).getMetaClass() != metaClass) return true;
+            return versionOf(metaClass) != version;
+        }
+
+        private static int versionOf(MetaClass metaClass) {
+            return metaClass instanceof ExpandoMetaClass ? ((ExpandoMetaClass) metaClass).getVersion() : 0;
+        }
+    }
+
+    private final class Publisher implements Runnable {
+        private final String eventName;
+        private final List params;
+        private final Event event;
+        private final String mode;
+
+        private Publisher(String eventName, List params, String mode) {
+            this.eventName = eventName;
+            this.params = params;
+            this.event = null;
+            this.mode = mode;
+        }
+
+        private Publisher(Event event, String mode) {
+            this.eventName = null;
+            this.params = null;
+            this.event = event;
+            this.mode = mode;
+        }
+
+        public void run() {
+            if (event != null) {
+                fire(event, mode);
+            } else {
+                fire(eventName, params, mode);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.GriffonApplication
+import griffon.core.GriffonClass
+import griffon.core.MVCGroupConfiguration
+import java.util.concurrent.ConcurrentHashMap
+import org.codehaus.groovy.runtime.InvokerHelper
+
+/**
+ * Everything {@code DefaultMVCGroupManager} needs to know about an MVC group configuration
+ * that does not change from one instance of the group to the next: the classes of each member
+ * and the arguments each member class can't take as properties.<p>
+ * Plans are compiled the first time a group is built and reused afterwards.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+class MVCGroupBuildPlan {
+    final MVCGroupConfiguration configuration
+    private final Map<String, Class> klassMap = [:]
+    private final Map<String, GriffonClass> griffonClassMap = [:]
+    // member class -> names that threw MissingPropertyException when injected, see MissingProperties
+    private final Map<Class, MissingProperties> missingProperties = new ConcurrentHashMap<Class, MissingProperties>()
+
+    MVCGroupBuildPlan(GriffonApplication app, MVCGroupConfiguration configuration) {
+        this.configuration = configuration
+        configuration.members.each {String memberType, String memberClassName ->
+            GriffonClass griffonClass = app.artifactManager.findGriffonClass(memberClassName)
+            Class klass = griffonClass?.clazz ?: Thread.currentThread().contextClassLoader.loadClass(memberClassName)
+            klassMap[memberType] = klass
+            griffonClassMap[memberType] = griffonClass
+        }
+    }
+
+    /**
+     * Member classes, by member type, in configuration order.
+     */
+    Map<String, Class> getMemberClasses() {
+        Collections.unmodifiableMap(klassMap)
+    }
+
+    GriffonClass getGriffonClass(String memberType) {
+        griffonClassMap[memberType]
+    }
+
+    /**
+     * Builder injection targets, by member type. MetaClasses are looked up every time as they
+     * may be replaced between builds.
+     */
+    Map<String, MetaClass> getMetaClasses() {
+        Map<String, MetaClass> metaClassMap = [:]
+        klassMap.each {String memberType, Class klass ->
+            metaClassMap[memberType] = griffonClassMap[memberType]?.getMetaClass() ?: klass.getMetaClass()
+        }
+        metaClassMap
+    }
+
+    Object newInstance(GriffonApplication app, String memberType) {
+        GriffonClass griffonClass = griffonClassMap[memberType]
+        griffonClass ? griffonClass.newInstance() : app.newInstance(klassMap[memberType], memberType)
+    }
+
+    /**
+     * Same as {@code InvokerHelper.setProperties()} except that arguments the member can't
+     * take are remembered and skipped on the next build, for as long as the member's MetaClass
+     * stays the same. Plain bean setters are called through a {@code PropertyAccessor}.
+     */
+    void setProperties(Object member, Map<String, Object> args) {
+        Class klass = member.getClass()
+        MetaClass mc = InvokerHelper.getMetaClass(member)
+        MissingProperties missing = missingProperties[klass]
+        if (missing == null || !missing.isBoundTo(mc)) {
+            missing = new MissingProperties(mc)
+            // per instance MetaClasses don't say anything about other instances
+            if (mc.is(GroovySystem.metaClassRegistry.getMetaClass(klass))) missingProperties[klass] = missing
+        }
+        args.each {key, value ->
+            String name = key.toString()
+            if (missing.names.containsKey(name)) return
+            try {
+                if (!PropertyAccessor.trySet(member, name, value)) mc.setProperty(member, name, value)
+            } catch (MissingPropertyException mpe) {
+                if (mpe.property == name && missing.version >= 0) missing.names[name] = Boolean.TRUE
+            }
+        }
+    }
+
+    /**
+     * Names found missing on a MetaClass, valid until the MetaClass is replaced or modified.
+     */
+    static class MissingProperties {
+        final MetaClass target
+        // -1 for MetaClasses whose properties may change without notice, nothing is remembered for those
+        final int version
+        final Map<String, Boolean> names = new ConcurrentHashMap<String, Boolean>()
+
+        MissingProperties(MetaClass metaClass) {
+            this.target = metaClass
+            this.version = metaClass instanceof MetaClassImpl ? metaClass.version : -1
+        }
+
+        boolean isBoundTo(MetaClass mc) {
+            mc.is(target) && version >= 0 && mc.version == version
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded pool of recycled MVC group members of one MVC type.<p>
+ * Keeps track of how often a build found members to reuse and of the time saved
+ * by reusing them, measured against the average time of a regular build.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class MVCGroupPool {
+    private final String mvcType;
+    private final int capacity;
+    private final LinkedList<Map<String, Object>> idle = new LinkedList<Map<String, Object>>();
+    private long hits;
+    private long misses;
+    private long discarded;
+    private long builds;
+    private long buildTime;
+    private long timeSaved;
+
+    public MVCGroupPool(String mvcType, int capacity) {
+        this.mvcType = mvcType;
+        this.capacity = Math.max(0, capacity);
+    }
+
+    public String getMvcType() {
+        return mvcType;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int getSize() {
+        return idle.size();
+    }
+
+    /**
+     * Takes the members of a recycled group, if there are any.
+     *
+     * @return null if the pool is empty
+     */
+    public synchronized Map<String, Object> take() {
+        Map<String, Object> members = idle.poll();
+        if (members != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return members;
+    }
+
+    /**
+     * Returns the members of a recycled group to the pool.
+     *
+     * @return false if the pool is full, the members should be destroyed
+     */
+    public synchronized boolean offer(Map<String, Object> members) {
+        if (idle.size() >= capacity) {
+            discarded++;
+            return false;
+        }
+        idle.addLast(members);
+        return true;
+    }
+
+    /**
+     * Empties the pool.
+     *
+     * @return the members of every group that was in the pool
+     */
+    public synchronized List<Map<String, Object>> drain() {
+        List<Map<String, Object>> members = new ArrayList<Map<String, Object>>(idle);
+        idle.clear();
+        return members;
+    }
+
+    synchronized void recordBuild(long nanos) {
+        builds++;
+        buildTime += nanos;
+    }
+
+    synchronized void recordReuse(long nanos) {
+        if (builds > 0) timeSaved += Math.max(0, buildTime / builds - nanos);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Number of recycled groups that were destroyed because the pool was full.
+     */
+    public synchronized long getDiscarded() {
+        return discarded;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    /**
+     * Milliseconds saved by reusing groups instead of building them.
+     */
+    public synchronized long getTimeSaved() {
+        return timeSaved / 1000000L;
+    }
+
+    public synchronized String toString() {
+        return "MVCGroupPool[" + mvcType + ", size=" + idle.size() + "/" + capacity + ", hits=" + hits +
+            ", misses=" + misses + ", discarded=" + discarded + ", saved=" + getTimeSaved() + "ms]";
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import griffon.exceptions.BeanException;
+import griffon.util.ClassMetadataCache;
+import griffon.util.GriffonClassUtils;
+import groovy.lang.MetaBeanProperty;
+import groovy.lang.MetaClass;
+import groovy.lang.MetaClassImpl;
+import groovy.lang.MetaMethod;
+import groovy.lang.MetaProperty;
+import org.codehaus.groovy.reflection.CachedMethod;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Reads and writes the bean properties of a class without going through reflection
+ * or the MOP.<p>
+ * Accessors of public classes are generated at runtime, calling getters and setters
+ * directly; other classes get an accessor based on {@code java.lang.reflect.Method}.
+ * Accessors are created once per class and kept in {@code ClassMetadataCache}.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public abstract class PropertyAccessor {
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyAccessor.class);
+
+    private static final ClassMetadataCache.Factory<PropertyAccessor> FACTORY = new ClassMetadataCache.Factory<PropertyAccessor>() {
+        public PropertyAccessor create(Class<?> clazz) {
+            return newAccessor(clazz);
+        }
+    };
+
+    private final String[] names;
+    private final Class[] types;
+    private final Method[] readMethods;
+    private final Method[] writeMethods;
+    private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+    // writable properties checked against each MetaClass, see isBoundTo()
+    private final Map<MetaClass, BoundMetaClass> boundMetaClasses = Collections.synchronizedMap(new WeakHashMap<MetaClass, BoundMetaClass>());
+    // the last one looked up, saves a trip to the map when beans share a MetaClass
+    private volatile BoundMetaClass lastBound;
+
+    protected PropertyAccessor(String[] names, Method[] readMethods, Method[] writeMethods) {
+        this.names = names;
+        this.readMethods = readMethods;
+        this.writeMethods = writeMethods;
+        types = new Class[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], i);
+            types[i] = readMethods[i] != null ? readMethods[i].getReturnType() : writeMethods[i].getParameterTypes()[0];
+        }
+    }
+
+    public static PropertyAccessor forClass(Class<?> clazz) {
+        return ClassMetadataCache.getInstance().get(clazz, PropertyAccessor.class, FACTORY);
+    }
+
+    /**
+     * Sets a property through the accessor of the bean's class if the bean's MetaClass
+     * would call the same setter and the value doesn't need to be coerced.
+     *
+     * @return false if the property must be set through the MOP
+     */
+    public static boolean trySet(Object bean, String name, Object value) {
+        PropertyAccessor accessor = forClass(bean.getClass());
+        int index = accessor.indexOf(name);
+        if (index < 0 || !accessor.accepts(index, value)) return false;
+        if (!accessor.isBoundTo(InvokerHelper.getMetaClass(bean), index)) return false;
+        accessor.set(bean, index, value);
+        return true;
+    }
+
+    public String[] getPropertyNames() {
+        return names.clone();
+    }
+
+    /**
+     * @return the index of a property, -1 if there's no such property
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    public Class getPropertyType(int index) {
+        return types[index];
+    }
+
+    public boolean isReadable(int index) {
+        return readMethods[index] != null;
+    }
+
+    public boolean isWritable(int index) {
+        return writeMethods[index] != null;
+    }
+
+    public Method getReadMethod(int index) {
+        return readMethods[index];
+    }
+
+    public Method getWriteMethod(int index) {
+        return writeMethods[index];
+    }
+
+    /**
+     * Whether a value can be passed as is to the setter of a property.
+     */
+    public boolean accepts(int index, Object value) {
+        if (writeMethods[index] == null) return false;
+        Class type = types[index];
+        if (value == null) return !type.isPrimitive();
+        if (type.isPrimitive()) return GriffonClassUtils.PRIMITIVE_TYPE_COMPATIBLE_CLASSES.get(type) == value.getClass();
+        return type.isInstance(value);
+    }
+
+    /**
+     * Whether setting a property through the given MetaClass ends up calling the
+     * setter of this accessor. The answer is checked again whenever the MetaClass
+     * is modified, as an ExpandoMetaClass may be.
+     */
+    public boolean isBoundTo(MetaClass metaClass, int index) {
+        // other MetaClasses may intercept property access in ways that can't be checked
+        if (!(metaClass instanceof MetaClassImpl)) return false;
+        int version = ((MetaClassImpl) metaClass).getVersion();
+        BoundMetaClass current = lastBound;
+        if (current == null || current.metaClass.get() != metaClass || current.version != version) {
+            current = boundMetaClasses.get(metaClass);
+            if (current == null || current.version != version) {
+                current = new BoundMetaClass(metaClass, version, names, writeMethods);
+                boundMetaClasses.put(metaClass, current);
+            }
+            lastBound = current;
+        }
+        return current.bound[index];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the property is not readable
+     */
+    public abstract Object get(Object bean, int index);
+
+    /**
+     * @throws IllegalArgumentException if the property is not writable
+     * @throws ClassCastException       if the setter doesn't take the value, see {@code accepts()}
+     */
+    public abstract void set(Object bean, int index, Object value);
+
+    private static PropertyAccessor newAccessor(Class<?> clazz) {
+        List<String> names = new ArrayList<String>();
+        List<Method> readMethods = new ArrayList<Method>();
+        List<Method> writeMethods = new ArrayList<Method>();
+        for (PropertyDescriptor descriptor : GriffonClassUtils.getPropertyDescriptors(clazz)) {
+            String name = descriptor.getName();
+            if ("class".equals(name) || "metaClass".equals(name)) continue;
+            Method readMethod = usable(descriptor.getReadMethod());
+            Method writeMethod = usable(descriptor.getWriteMethod());
+            if (readMethod == null && writeMethod == null) continue;
+            names.add(name);
+            readMethods.add(readMethod);
+            writeMethods.add(writeMethod);
+        }
+
+        String[] nameArray = names.toArray(new String[names.size()]);
+        Method[] readArray = readMethods.toArray(new Method[readMethods.size()]);
+        Method[] writeArray = writeMethods.toArray(new Method[writeMethods.size()]);
+        if (PropertyAccessorGenerator.canGenerate(clazz)) {
+            try {
+                return PropertyAccessorGenerator.generate(clazz, nameArray, readArray, writeArray);
+            } catch (Throwable t) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Could not generate a property accessor for " + clazz.getName() + ", using reflection", t);
+                }
+            }
+        }
+        return new ReflectiveAccessor(nameArray, readArray, writeArray);
+    }
+
+    private static Method usable(Method method) {
+        if (method == null || Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers())) return null;
+        // needed by the reflective accessor when the declaring class is not public
+        if (!method.isAccessible()) {
+            try {
+                method.setAccessible(true);
+            } catch (SecurityException e) {
+                // skip
+            }
+        }
+        return method;
+    }
+
+    private static final class BoundMetaClass {
+        // weak, as instances are the values of a map keyed by the MetaClass
+        private final WeakReference<MetaClass> metaClass;
+        private final int version;
+        private final boolean[] bound;
+
+        private BoundMetaClass(MetaClass metaClass, int version, String[] names, Method[] writeMethods) {
+            this.metaClass = new WeakReference<MetaClass>(metaClass);
+            this.version = version;
+            bound = new boolean[writeMethods.length];
+            for (int i = 0; i < writeMethods.length; i++) {
+                if (writeMethods[i] == null) continue;
+                MetaProperty property = metaClass.getMetaProperty(names[i]);
+                if (!(property instanceof MetaBeanProperty)) continue;
+                MetaMethod setter = ((MetaBeanProperty) property).getSetter();
+                bound[i] = setter instanceof CachedMethod && writeMethods[i].equals(((CachedMethod) setter).getCachedMethod());
+            }
+        }
+    }
+
+    private static final class ReflectiveAccessor extends PropertyAccessor {
+        private ReflectiveAccessor(String[] names, Method[] readMethods, Method[] writeMethods) {
+            super(names, readMethods, writeMethods);
+        }
+
+        public Object get(Object bean, int index) {
+            Method method = getReadMethod(index);
+            if (method == null) throw new IllegalArgumentException("Property at index " + index + " is not readable");
+            return invoke(method, bean);
+        }
+
+        public void set(Object bean, int index, Object value) {
+            Method method = getWriteMethod(index);
+            if (method == null) throw new IllegalArgumentException("Property at index " + index + " is not writable");
+            invoke(method, bean, value);
+        }
+
+        private Object invoke(Method method, Object bean, Object... args) {
+            try {
+                return method.invoke(bean, args);
+            } catch (IllegalAccessException e) {
+                throw new BeanException(e);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getTargetException();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new BeanException(cause);
+            }
+        }
+    }
+}
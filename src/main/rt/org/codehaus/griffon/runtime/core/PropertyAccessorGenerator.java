@@ -0,0 +1,186 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.core;
+
+import groovyjarjarasm.asm.ClassWriter;
+import groovyjarjarasm.asm.Label;
+import groovyjarjarasm.asm.MethodVisitor;
+import groovyjarjarasm.asm.Opcodes;
+import groovyjarjarasm.asm.Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Generates {@code PropertyAccessor} subclasses that call getters and setters directly,
+ * selecting the property with a switch on its index.<p>
+ * Uses the copy of ASM that ships with Groovy.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+final class PropertyAccessorGenerator implements Opcodes {
+    private static final String SUPER_NAME = Type.getInternalName(PropertyAccessor.class);
+    private static final String CONSTRUCTOR_DESCRIPTOR = Type.getConstructorDescriptor(PropertyAccessor.class.getDeclaredConstructors()[0]);
+
+    private PropertyAccessorGenerator() {
+
+    }
+
+    /**
+     * Only public classes that are loaded by an application classloader are supported.
+     */
+    static boolean canGenerate(Class<?> clazz) {
+        return Modifier.isPublic(clazz.getModifiers()) &&
+            !clazz.isInterface() && !clazz.isArray() && !clazz.isPrimitive() &&
+            clazz.getClassLoader() != null && !clazz.getName().startsWith("java.");
+    }
+
+    static PropertyAccessor generate(Class<?> clazz, String[] names, Method[] readMethods, Method[] writeMethods) throws Exception {
+        String className = clazz.getName() + "$$PropertyAccessor";
+        String internalName = className.replace('.', '/');
+        String target = Type.getInternalName(clazz);
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, internalName, null, SUPER_NAME, null);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitVarInsn(ALOAD, 3);
+        mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", CONSTRUCTOR_DESCRIPTOR);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // public Object get(Object bean, int index)
+        mv = cw.visitMethod(ACC_PUBLIC, "get", "(Ljava/lang/Object;I)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        Label[] labels = switchOnIndex(mv, readMethods);
+        for (int i = 0; i < names.length; i++) {
+            if (readMethods[i] == null) continue;
+            mv.visitLabel(labels[i]);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, target);
+            mv.visitMethodInsn(INVOKEVIRTUAL, target, readMethods[i].getName(), Type.getMethodDescriptor(readMethods[i]));
+            box(mv, Type.getReturnType(readMethods[i]));
+            mv.visitInsn(ARETURN);
+        }
+        fail(mv, labels[names.length], "readable");
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // public void set(Object bean, int index, Object value)
+        mv = cw.visitMethod(ACC_PUBLIC, "set", "(Ljava/lang/Object;ILjava/lang/Object;)V", null, null);
+        mv.visitCode();
+        labels = switchOnIndex(mv, writeMethods);
+        for (int i = 0; i < names.length; i++) {
+            if (writeMethods[i] == null) continue;
+            mv.visitLabel(labels[i]);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, target);
+            mv.visitVarInsn(ALOAD, 3);
+            unbox(mv, Type.getArgumentTypes(writeMethods[i])[0]);
+            mv.visitMethodInsn(INVOKEVIRTUAL, target, writeMethods[i].getName(), Type.getMethodDescriptor(writeMethods[i]));
+            Type returnType = Type.getReturnType(writeMethods[i]);
+            if (returnType.getSort() != Type.VOID) mv.visitInsn(returnType.getSize() == 2 ? POP2 : POP);
+            mv.visitInsn(RETURN);
+        }
+        fail(mv, labels[names.length], "writable");
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        Class<?> accessorClass = new AccessorClassLoader(clazz.getClassLoader()).define(className, cw.toByteArray());
+        return (PropertyAccessor) accessorClass.getConstructors()[0].newInstance(names, readMethods, writeMethods);
+    }
+
+    // returns one label per index, plus the default label at the end; indexes without a method jump to the default
+    private static Label[] switchOnIndex(MethodVisitor mv, Method[] methods) {
+        int size = methods.length;
+        Label[] labels = new Label[size + 1];
+        Label dflt = new Label();
+        labels[size] = dflt;
+        if (size == 0) return labels;
+        for (int i = 0; i < size; i++) labels[i] = methods[i] != null ? new Label() : dflt;
+        mv.visitVarInsn(ILOAD, 2);
+        Label[] cases = new Label[size];
+        System.arraycopy(labels, 0, cases, 0, size);
+        mv.visitTableSwitchInsn(0, size - 1, dflt, cases);
+        return labels;
+    }
+
+    private static void fail(MethodVisitor mv, Label dflt, String what) {
+        mv.visitLabel(dflt);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("No " + what + " property at the given index");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V");
+        mv.visitInsn(ATHROW);
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        String wrapper = wrapperOf(type);
+        if (wrapper == null) return;
+        mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + type.getDescriptor() + ")L" + wrapper + ";");
+    }
+
+    private static void unbox(MethodVisitor mv, Type type) {
+        String wrapper = wrapperOf(type);
+        if (wrapper == null) {
+            mv.visitTypeInsn(CHECKCAST, type.getSort() == Type.ARRAY ? type.getDescriptor() : type.getInternalName());
+            return;
+        }
+        mv.visitTypeInsn(CHECKCAST, wrapper);
+        mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getClassName() + "Value", "()" + type.getDescriptor());
+    }
+
+    private static String wrapperOf(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN: return "java/lang/Boolean";
+            case Type.CHAR: return "java/lang/Character";
+            case Type.BYTE: return "java/lang/Byte";
+            case Type.SHORT: return "java/lang/Short";
+            case Type.INT: return "java/lang/Integer";
+            case Type.FLOAT: return "java/lang/Float";
+            case Type.LONG: return "java/lang/Long";
+            case Type.DOUBLE: return "java/lang/Double";
+            default: return null;
+        }
+    }
+
+    /**
+     * Defines an accessor next to the class it reads; {@code PropertyAccessor} is
+     * resolved from Griffon's classloader in case the application's can't see it.
+     */
+    private static final class AccessorClassLoader extends ClassLoader {
+        private AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (PropertyAccessor.class.getName().equals(name)) return PropertyAccessor.class;
+            return super.loadClass(name, resolve);
+        }
+
+        private Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
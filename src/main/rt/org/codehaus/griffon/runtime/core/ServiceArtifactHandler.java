@@ -17,60 +17,207 @@
 package org.codehaus.griffon.runtime.core;
 
 import griffon.core.*;
-import groovy.lang.ExpandoMetaClass;
 import groovy.lang.GroovySystem;
 import groovy.lang.MetaClass;
+import groovy.lang.MetaClassImpl;
 import groovy.lang.MetaProperty;
 import org.codehaus.groovy.runtime.InvokerHelper;
-import org.codehaus.groovy.runtime.MethodClosure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collections;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import static griffon.util.ConfigUtils.getConfigValueAsBoolean;
 
 /**
- * Handler for 'Service' artifacts.
+ * Handler for 'Service' artifacts.<p>
+ * Services are singletons created on first use; concurrent lookups of a service that is
+ * being created wait for it instead of creating another instance. When
+ * {@code griffon.services.eager.instantiation} is set, services are created in dependency
+ * order in the <tt>services</tt> pool while the application starts up. Services are
+ * disposed in reverse creation order when the application shuts down, calling their
+ * {@code serviceDestroy()} method if they have one.
  *
  * @author Andres Almiray
  * @since 0.9.1
  */
 public class ServiceArtifactHandler extends ArtifactHandlerAdapter {
     private static final Logger LOG = LoggerFactory.getLogger(ServiceArtifactHandler.class);
-    private final ServiceManager serviceManager;
+    public static final String EXECUTOR_NAME = "services";
+    private final DefaultServiceManager serviceManager;
+    // service properties of each class that has been injected so far
+    private final Map<Class, InjectionPlan> injectionPlans = new ConcurrentHashMap<Class, InjectionPlan>();
+
+    static {
+        Map<String, Object> defaults = new LinkedHashMap<String, Object>();
+        defaults.put("poolSize", 1);
+        defaults.put("threadNamePrefix", "griffon-services");
+        defaults.put("daemon", Boolean.TRUE);
+        ExecutorRegistry.getInstance().setDefaults(EXECUTOR_NAME, defaults);
+    }
 
     private class DefaultServiceManager extends AbstractServiceManager {
-        private final Map<String, GriffonService> serviceInstances = new ConcurrentHashMap<String, GriffonService>();
+        private final ConcurrentMap<String, FutureTask<GriffonService>> serviceInstances = new ConcurrentHashMap<String, FutureTask<GriffonService>>();
+        // names of the services being created by the current thread
+        private final ThreadLocal<List<String>> inProgress = new ThreadLocal<List<String>>() {
+            protected List<String> initialValue() {
+                return new ArrayList<String>();
+            }
+        };
+        // thread creating each service and service each thread waits for, guarded by waitLock, to catch cycles across threads
+        private final Object waitLock = new Object();
+        private final Map<String, Thread> creators = new HashMap<String, Thread>();
+        private final Map<Thread, String> waiting = new HashMap<Thread, String>();
+        // creation order and time (ms) of every service
+        private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
 
         public DefaultServiceManager(GriffonApplication app) {
             super(app);
         }
 
         public Map<String, GriffonService> getServices() {
-            return Collections.unmodifiableMap(serviceInstances);
+            Map<String, GriffonService> services = new LinkedHashMap<String, GriffonService>();
+            for (Map.Entry<String, FutureTask<GriffonService>> entry : serviceInstances.entrySet()) {
+                GriffonService serviceInstance = valueOf(entry.getValue());
+                if (serviceInstance != null) services.put(entry.getKey(), serviceInstance);
+            }
+            return Collections.unmodifiableMap(services);
         }
 
-        public GriffonService findService(String name) {
-            GriffonService serviceInstance = serviceInstances.get(name);
-            if (serviceInstance == null) {
-                GriffonClass griffonClass = findClassFor(name);
-                if (griffonClass != null) {
-                    serviceInstance = instantiateService(griffonClass);
-                    serviceInstances.put(name, serviceInstance);
+        public GriffonService findService(final String name) {
+            FutureTask<GriffonService> task = serviceInstances.get(name);
+            if (task == null) {
+                final GriffonClass griffonClass = findClassFor(name);
+                if (griffonClass == null) return null;
+                FutureTask<GriffonService> newTask = new FutureTask<GriffonService>(new Callable<GriffonService>() {
+                    public GriffonService call() {
+                        return instantiateService(name, griffonClass);
+                    }
+                });
+                task = serviceInstances.putIfAbsent(name, newTask);
+                if (task == null) {
+                    task = newTask;
+                    List<String> names = inProgress.get();
+                    names.add(name);
+                    synchronized (waitLock) {
+                        creators.put(name, Thread.currentThread());
+                    }
+                    try {
+                        task.run();
+                    } finally {
+                        synchronized (waitLock) {
+                            creators.remove(name);
+                        }
+                        names.remove(names.size() - 1);
+                    }
                 }
             }
-            return serviceInstance;
+
+            try {
+                if (!task.isDone()) awaitCreation(name);
+                try {
+                    return task.get();
+                } finally {
+                    synchronized (waitLock) {
+                        waiting.remove(Thread.currentThread());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for service " + name, e);
+            } catch (ExecutionException e) {
+                // let a later lookup try again
+                serviceInstances.remove(name, task);
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IllegalStateException(cause);
+            }
         }
 
-        private GriffonService instantiateService(GriffonClass griffonClass) {
+        /**
+         * Records that the current thread is about to wait for a service, failing instead
+         * if the thread creating that service is, directly or not, waiting for this one.
+         */
+        private void awaitCreation(String name) {
+            Thread current = Thread.currentThread();
+            synchronized (waitLock) {
+                List<String> names = new ArrayList<String>(inProgress.get());
+                names.add(name);
+                Set<Thread> visited = new HashSet<Thread>();
+                String next = name;
+                while (next != null) {
+                    Thread creator = creators.get(next);
+                    if (creator == current) {
+                        throw new IllegalStateException("Circular dependency between services: " + names);
+                    }
+                    if (creator == null || !visited.add(creator)) break;
+                    next = waiting.get(creator);
+                    if (next != null) names.add(next);
+                }
+                waiting.put(current, name);
+            }
+        }
+
+        public Map<String, Long> getTimings() {
+            synchronized (timings) {
+                return Collections.unmodifiableMap(new LinkedHashMap<String, Long>(timings));
+            }
+        }
+
+        private GriffonService instantiateService(String name, GriffonClass griffonClass) {
+            long start = System.nanoTime();
             GriffonService serviceInstance = (GriffonService) griffonClass.newInstance();
             InvokerHelper.setProperty(serviceInstance, "app", getApp());
             getApp().addApplicationEventListener(serviceInstance);
+            long time = (System.nanoTime() - start) / 1000000L;
+            timings.put(name, time);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Instantiated service " + name + " in " + time + "ms");
+            }
             return serviceInstance;
         }
+
+        private void dispose() {
+            List<String> names;
+            synchronized (timings) {
+                names = new ArrayList<String>(timings.keySet());
+            }
+            Collections.reverse(names);
+            for (String name : names) {
+                FutureTask<GriffonService> task = serviceInstances.remove(name);
+                GriffonService serviceInstance = task != null ? valueOf(task) : null;
+                if (serviceInstance == null) continue;
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Disposing service " + name);
+                }
+                getApp().removeApplicationEventListener(serviceInstance);
+                try {
+                    if (InvokerHelper.getMetaClass(serviceInstance).respondsTo(serviceInstance, "serviceDestroy").size() > 0) {
+                        InvokerHelper.invokeMethod(serviceInstance, "serviceDestroy", null);
+                    }
+                } catch (RuntimeException e) {
+                    if (LOG.isWarnEnabled()) {
+                        LOG.warn("An error occurred while disposing service " + name, e);
+                    }
+                }
+            }
+            timings.clear();
+        }
+
+        private GriffonService valueOf(FutureTask<GriffonService> task) {
+            if (!task.isDone()) return null;
+            try {
+                return task.get();
+            } catch (Exception e) {
+                return null;
+            }
+        }
     }
 
     public ServiceArtifactHandler(GriffonApplication app) {
@@ -80,6 +227,11 @@ public class ServiceArtifactHandler extends ArtifactHandlerAdapter {
             LOG.debug("Registering " + serviceManager + " as ServiceManager.");
         }
         InvokerHelper.setProperty(app, "serviceManager", serviceManager);
+        app.addShutdownHandler(new ShutdownHandlerAdapter() {
+            public void onShutdown(GriffonApplication application) {
+                serviceManager.dispose();
+            }
+        });
     }
 
     protected GriffonClass newGriffonClassInstance(Class clazz) {
@@ -88,39 +240,105 @@ public class ServiceArtifactHandler extends ArtifactHandlerAdapter {
 
     public void initialize(ArtifactInfo[] artifacts) {
         super.initialize(artifacts);
+        injectionPlans.clear();
         if (isBasicInjectionDisabled()) return;
+        getApp().addApplicationEventListener(this);
         if (isEagerInstantiationEnabled()) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Instantiating service instances eagerly");
-            }
-            for (ArtifactInfo artifactInfo : artifacts) {
-                GriffonClass griffonClass = getClassFor(artifactInfo.getClazz());
-                serviceManager.findService(griffonClass.getPropertyName());
-            }
+            warmUp();
         }
-        getApp().addApplicationEventListener(this);
+    }
+
+    /**
+     * Milliseconds it took to create each service, in creation order.
+     */
+    public Map<String, Long> getServiceTimings() {
+        return serviceManager.getTimings();
     }
 
     /**
      * Application event listener.<p>
      * Lazily injects services instances if {@code app.config.griffon.basic_injection.disable}
-     * is not set to true
+     * is not set to true. The service properties of a class are resolved the first time an
+     * instance of it is seen, and again only if its MetaClass is replaced or modified.
      */
     public void onNewInstance(Class klass, String t, Object instance) {
         if (isBasicInjectionDisabled()) return;
         MetaClass metaClass = InvokerHelper.getMetaClass(instance);
-        for (MetaProperty property : metaClass.getProperties()) {
-            String propertyName = property.getName();
-            if (!propertyName.endsWith(getTrailing())) continue;
-            GriffonService serviceInstance = serviceManager.findService(propertyName);
+        Class type = instance.getClass();
+        InjectionPlan plan = injectionPlans.get(type);
+        if (plan == null || !plan.isBoundTo(metaClass)) {
+            plan = new InjectionPlan(metaClass);
+            if (metaClass == GroovySystem.getMetaClassRegistry().getMetaClass(type)) {
+                injectionPlans.put(type, plan);
+            }
+        }
 
+        for (MetaProperty property : plan.properties) {
+            GriffonService serviceInstance = serviceManager.findService(property.getName());
             if (serviceInstance != null) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("Injecting service " + serviceInstance + " on " + instance + " using property '" + propertyName + "'");
+                    LOG.debug("Injecting service " + serviceInstance + " on " + instance + " using property '" + property.getName() + "'");
+                }
+                property.setProperty(instance, serviceInstance);
+            }
+        }
+    }
+
+    // creates services after the ones they depend on, in the background unless there are cycles
+    private void warmUp() {
+        final List<String> order = new ArrayList<String>();
+        boolean cycles = false;
+        Map<String, Integer> state = new HashMap<String, Integer>();
+        for (GriffonClass griffonClass : getClasses()) {
+            cycles |= sort(griffonClass.getPropertyName(), state, order);
+        }
+
+        Runnable task = new Runnable() {
+            public void run() {
+                long start = System.nanoTime();
+                for (String name : order) {
+                    try {
+                        serviceManager.findService(name);
+                    } catch (RuntimeException e) {
+                        if (LOG.isErrorEnabled()) {
+                            LOG.error("Could not instantiate service " + name, e);
+                        }
+                    }
+                }
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("Instantiated " + order.size() + " services in " + ((System.nanoTime() - start) / 1000000L) + "ms: " + serviceManager.getTimings());
                 }
-                InvokerHelper.setProperty(instance, propertyName, serviceInstance);
             }
+        };
+
+        if (cycles) {
+            if (LOG.isWarnEnabled()) {
+                LOG.warn("Services have circular dependencies, instantiating them in the current thread");
+            }
+            task.run();
+        } else {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Instantiating service instances eagerly: " + order);
+            }
+            ExecutorRegistry.getInstance().getExecutorService(EXECUTOR_NAME).execute(task);
+        }
+    }
+
+    // depth first; returns true if a cycle was found
+    private boolean sort(String name, Map<String, Integer> state, List<String> order) {
+        Integer current = state.get(name);
+        if (current != null) return current == 1;
+        GriffonClass griffonClass = findClassFor(name);
+        if (griffonClass == null) return false;
+        state.put(name, 1);
+        boolean cycles = false;
+        MetaClass metaClass = GroovySystem.getMetaClassRegistry().getMetaClass(griffonClass.getClazz());
+        for (MetaProperty property : new InjectionPlan(metaClass).properties) {
+            cycles |= sort(property.getName(), state, order);
         }
+        state.put(name, 2);
+        order.add(name);
+        return cycles;
     }
 
     private boolean isBasicInjectionDisabled() {
@@ -130,4 +348,32 @@ public class ServiceArtifactHandler extends ArtifactHandlerAdapter {
     private boolean isEagerInstantiationEnabled() {
         return getConfigValueAsBoolean(getApp().getConfig(), "griffon.services.eager.instantiation", false);
     }
+
+    /**
+     * Properties of a class that are named after a known service.
+     */
+    private class InjectionPlan {
+        private final MetaClass metaClass;
+        // an ExpandoMetaClass may gain properties without being replaced
+        private final int version;
+        private final List<MetaProperty> properties = new ArrayList<MetaProperty>();
+
+        private InjectionPlan(MetaClass metaClass) {
+            this.metaClass = metaClass;
+            this.version = versionOf(metaClass);
+            for (MetaProperty property : metaClass.getProperties()) {
+                String propertyName = property.getName();
+                if (!propertyName.endsWith(getTrailing())) continue;
+                if (findClassFor(propertyName) != null) properties.add(property);
+            }
+        }
+
+        private boolean isBoundTo(MetaClass metaClass) {
+            return this.metaClass == metaClass && version == versionOf(metaClass);
+        }
+    }
+
+    private static int versionOf(MetaClass metaClass) {
+        return metaClass instanceof MetaClassImpl ? ((MetaClassImpl) metaClass).getVersion() : -1;
+    }
 }
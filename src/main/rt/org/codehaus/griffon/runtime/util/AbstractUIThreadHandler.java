@@ -16,26 +16,36 @@
 
 package org.codehaus.griffon.runtime.util;
 
+import griffon.core.ExecutorRegistry;
 import griffon.util.GriffonExceptionHandler;
 import griffon.util.UIThreadHandler;
 
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Base implementation of {@code UIThreadHandler}
+ * Base implementation of {@code UIThreadHandler}.<p>
+ * Code executed outside of the UI thread runs on the default pool of {@code ExecutorRegistry}.
  *
  * @author Andres Almiray
  */
 public abstract class AbstractUIThreadHandler implements UIThreadHandler {
-    protected static final ExecutorService DEFAULT_EXECUTOR_SERVICE = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    /**
+     * Forwards to the default pool of {@code ExecutorRegistry}, whichever it is at the time of the call.
+     *
+     * @deprecated use {@code ExecutorRegistry.getInstance().getDefaultExecutorService()} instead
+     */
+    @Deprecated
+    protected static final ExecutorService DEFAULT_EXECUTOR_SERVICE = new DefaultExecutorService();
     private static final Thread.UncaughtExceptionHandler UNCAUGHT_EXCEPTION_HANDLER = new GriffonExceptionHandler();
 
     public void executeOutside(final Runnable runnable) {
         if (!isUIThread()) {
             runnable.run();
         } else {
-            DEFAULT_EXECUTOR_SERVICE.submit(new Runnable() {
+            ExecutorRegistry.getInstance().getDefaultExecutorService().submit(new Runnable() {
                 public void run() {
                     try {
                         runnable.run();
@@ -46,4 +56,34 @@ public abstract class AbstractUIThreadHandler implements UIThreadHandler {
             });
         }
     }
+
+    private static final class DefaultExecutorService extends AbstractExecutorService {
+        private static ExecutorService delegate() {
+            return ExecutorRegistry.getInstance().getDefaultExecutorService();
+        }
+
+        public void execute(Runnable command) {
+            delegate().execute(command);
+        }
+
+        public void shutdown() {
+            delegate().shutdown();
+        }
+
+        public List<Runnable> shutdownNow() {
+            return delegate().shutdownNow();
+        }
+
+        public boolean isShutdown() {
+            return delegate().isShutdown();
+        }
+
+        public boolean isTerminated() {
+            return delegate().isTerminated();
+        }
+
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate().awaitTermination(timeout, unit);
+        }
+    }
 }
@@ -60,7 +60,7 @@ class AddonHelper {
                 default:
                     if (nodeName == "root") nodeName = ""
                     node.value.each {addon ->
-                        Class addonClass = Class.forName(addon.key) //FIXME get correct classloader
+                        Class addonClass = CompositeBuilderHelper.loadBuilderClass(addon.key)
                         if (!FactoryBuilderSupport.isAssignableFrom(addonClass)) {
                             AddonHelper.handleAddon(app, addonClass, nodeName, addon.key)
                         }
@@ -120,7 +120,7 @@ class AddonHelper {
                 default:
                     if (nodeName == "root") nodeName = ""
                     node.value.each {addon ->
-                        Class addonClass = Class.forName(addon.key) //FIXME get correct classloader
+                        Class addonClass = CompositeBuilderHelper.loadBuilderClass(addon.key)
                         if (!FactoryBuilderSupport.isAssignableFrom(addonClass)) {
                             handleAddonForBuilder(app, builder, targets, addon, nodeName)
                         }
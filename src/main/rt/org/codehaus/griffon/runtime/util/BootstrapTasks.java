@@ -0,0 +1,191 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.util;
+
+import griffon.core.ExecutorRegistry;
+import griffon.util.DefaultPromise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the stages of an application's bootstrap.<p>
+ * Stages that don't depend on the application's state are forked and run in the
+ * <tt>bootstrap</tt> pool as soon as the stages they depend on are done; everything
+ * else runs in the calling thread, in order, waiting for forked results where needed.
+ * The time spent on every stage is recorded.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class BootstrapTasks {
+    private static final Logger LOG = LoggerFactory.getLogger(BootstrapTasks.class);
+    public static final String EXECUTOR_NAME = "bootstrap";
+
+    static {
+        Map<String, Object> defaults = new LinkedHashMap<String, Object>();
+        defaults.put("threadNamePrefix", "griffon-bootstrap");
+        defaults.put("daemon", Boolean.TRUE);
+        ExecutorRegistry.getInstance().setDefaults(EXECUTOR_NAME, defaults);
+    }
+
+    private final ExecutorService executorService;
+    private final boolean sharedPool;
+    private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    private final Map<String, DefaultPromise<Object>> tasks = new ConcurrentHashMap<String, DefaultPromise<Object>>();
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    public BootstrapTasks() {
+        this(ExecutorRegistry.getInstance().getExecutorService(EXECUTOR_NAME), true);
+    }
+
+    public BootstrapTasks(ExecutorService executorService) {
+        this(executorService, false);
+    }
+
+    private BootstrapTasks(ExecutorService executorService, boolean sharedPool) {
+        this.executorService = executorService;
+        this.sharedPool = sharedPool;
+    }
+
+    /**
+     * Runs a stage in the bootstrap pool once all of the given stages are done,
+     * whether they succeeded or not.
+     *
+     * @param name      the name of the stage
+     * @param task      the code to run
+     * @param dependsOn names of previously forked stages
+     */
+    public void fork(final String name, final Callable task, String... dependsOn) {
+        final DefaultPromise<Object> result = new DefaultPromise<Object>();
+        List<DefaultPromise<Object>> dependencies = new ArrayList<DefaultPromise<Object>>();
+        for (String dependency : dependsOn) {
+            DefaultPromise<Object> promise = tasks.get(dependency);
+            if (promise == null) {
+                throw new IllegalArgumentException("Bootstrap stage '" + name + "' depends on unknown stage '" + dependency + "'");
+            }
+            dependencies.add(promise);
+        }
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Bootstrap stage '" + name + "' has been defined already");
+        }
+        tasks.put(name, result);
+
+        final AtomicInteger pending = new AtomicInteger(dependencies.size() + 1);
+        Runnable launch = new Runnable() {
+            public void run() {
+                if (pending.decrementAndGet() == 0) start(name, task, result);
+            }
+        };
+        for (DefaultPromise<Object> dependency : dependencies) {
+            dependency.onComplete(launch);
+        }
+        launch.run();
+    }
+
+    /**
+     * Runs a stage in the calling thread.
+     *
+     * @param name the name of the stage
+     * @param task the code to run
+     * @return the result of the stage
+     */
+    public Object run(String name, Callable task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    /**
+     * Waits for a forked stage to finish.
+     *
+     * @param name the name of the stage
+     * @return the result of the stage
+     */
+    public Object get(String name) throws Exception {
+        DefaultPromise<Object> promise = tasks.get(name);
+        if (promise == null) throw new IllegalArgumentException("Unknown bootstrap stage '" + name + "'");
+        try {
+            return promise.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Milliseconds spent on each stage, in the order they finished.
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<String, Long>(timings));
+        }
+    }
+
+    /**
+     * Logs the time spent on each stage and releases the bootstrap pool.
+     * Forked stages that are still running are allowed to finish.
+     */
+    public void finish() {
+        if (LOG.isInfoEnabled()) LOG.info("Bootstrap stages (ms): " + getTimings());
+        if (sharedPool) ExecutorRegistry.getInstance().shutdown(EXECUTOR_NAME);
+    }
+
+    private void start(final String name, final Callable task, final DefaultPromise<Object> result) {
+        Runnable runnable = new Runnable() {
+            public void run() {
+                Thread thread = Thread.currentThread();
+                ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader(contextClassLoader);
+                long start = System.nanoTime();
+                Object value = null;
+                Throwable error = null;
+                try {
+                    value = task.call();
+                } catch (Throwable t) {
+                    error = t;
+                } finally {
+                    record(name, start);
+                    thread.setContextClassLoader(previous);
+                }
+                if (error != null) {
+                    result.fail(error);
+                } else {
+                    result.complete(value);
+                }
+            }
+        };
+        try {
+            executorService.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            runnable.run();
+        }
+    }
+
+    private void record(String name, long start) {
+        timings.put(name, (System.nanoTime() - start) / 1000000L);
+        if (LOG.isDebugEnabled()) LOG.debug("Bootstrap stage '" + name + "' done");
+    }
+}
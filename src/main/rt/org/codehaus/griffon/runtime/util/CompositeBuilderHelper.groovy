@@ -19,6 +19,7 @@ import griffon.core.GriffonApplication
 import org.codehaus.griffon.runtime.builder.UberBuilder
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Helper class that initializes a CompositeBuilder with the builder configuration read from the application.
@@ -29,6 +30,7 @@ import org.slf4j.LoggerFactory
 class CompositeBuilderHelper {
     private static final Logger LOG = LoggerFactory.getLogger(CompositeBuilderHelper)
     private final static CompositeBuilderCustomizer builderCustomizer
+    private final static Map<String, Class> builderClasses = new ConcurrentHashMap<String, Class>()
 
     static {
         ClassLoader classLoader = CompositeBuilderHelper.class.classLoader
@@ -65,6 +67,19 @@ class CompositeBuilderHelper {
         return uberBuilder
     }
 
+    /**
+     * Resolves a class named in the builder configuration. Classes are looked up once
+     * as the same configuration is walked every time an MVC group is built.
+     */
+    static Class loadBuilderClass(String className) {
+        Class klass = builderClasses[className]
+        if (klass == null) {
+            klass = Class.forName(className) //FIXME get correct classloader
+            builderClasses[className] = klass
+        }
+        klass
+    }
+
     static handleFeatures(UberBuilder uberBuilder, features) {
         if (features) LOG.debug("Applying 'features' config node to builders")
         for (feature in features) {
@@ -90,7 +105,7 @@ class CompositeBuilderHelper {
     }
 
     static handleLocalBuilder(UberBuilder uberBuilder, Map<String, MetaClass> targets, String prefixName, builderClassName) {
-        Class builderClass = Class.forName(builderClassName.key) //FIXME get correct classloader
+        Class builderClass = loadBuilderClass(builderClassName.key)
         if (!FactoryBuilderSupport.isAssignableFrom(builderClass)) {
             return;
         }
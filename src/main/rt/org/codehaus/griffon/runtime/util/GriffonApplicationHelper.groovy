@@ -92,6 +92,8 @@ class GriffonApplicationHelper {
      * <li>Setups basic artifact handlers.</li>
      * <li>Initializes available addons.</li>
      * </ul>
+     * Configuration files are parsed and artifact classes are loaded in the bootstrap pool
+     * while the rest of the tasks run in order; events are published in the calling thread.
      *
      * @param app the current Griffon application
      */
@@ -101,25 +103,80 @@ class GriffonApplicationHelper {
         Metadata.current.getGriffonStartDir()
         Metadata.current.getGriffonWorkingDir()
 
-        readAndSetConfiguration(app)
-        app.event(GriffonApplication.Event.BOOTSTRAP_START.name, [app])
+        BootstrapTasks tasks = new BootstrapTasks()
+        try {
+            forkBootstrapTasks(app, tasks)
+
+            tasks.run('configuration') { readAndSetConfiguration(app, tasks) }
+            app.event(GriffonApplication.Event.BOOTSTRAP_START.name, [app])
 
-        applyPlatformTweaks(app)
-        runLifecycleHandler(GriffonApplication.Lifecycle.INITIALIZE.name, app)
-        initializeArtifactManager(app)
-        initializeMvcManager(app)
-        initializeAddonManager(app)
+            tasks.run('platformTweaks') { applyPlatformTweaks(app) }
+            tasks.run('initialize') { runLifecycleHandler(GriffonApplication.Lifecycle.INITIALIZE.name, app) }
+            tasks.run('artifactManager') { initializeArtifactManager(app) }
+            tasks.run('mvcGroupManager') { initializeMvcManager(app) }
+            tasks.run('addonManager') { initializeAddonManager(app) }
 
-        app.event(GriffonApplication.Event.BOOTSTRAP_END.name, [app])
+            app.event(GriffonApplication.Event.BOOTSTRAP_END.name, [app])
+        } finally {
+            tasks.finish()
+        }
     }
 
-    private static void readAndSetConfiguration(GriffonApplication app) {
-        ConfigSlurper configSlurper = new ConfigSlurper(Environment.current.name)
-        app.config = loadConfig(configSlurper, app.appConfigClass, GriffonApplication.Configuration.APPLICATION.name)
-        app.config.merge(loadConfig(configSlurper, app.configClass, GriffonApplication.Configuration.CONFIG.name))
+    private static void forkBootstrapTasks(GriffonApplication app, BootstrapTasks tasks) {
+        String environment = Environment.current.name
+        tasks.fork('applicationConfig') {
+            loadConfig(new ConfigSlurper(environment), app.appConfigClass, GriffonApplication.Configuration.APPLICATION.name)
+        }
+        tasks.fork('config') {
+            loadConfig(new ConfigSlurper(environment), app.configClass, GriffonApplication.Configuration.CONFIG.name)
+        }
+        tasks.fork('builderConfig') {
+            loadConfig(new ConfigSlurper(environment), app.builderClass, GriffonApplication.Configuration.BUILDER.name)
+        }
+        tasks.fork('artifactClasses') { preloadArtifactClasses(app) }
+        // GriffonClasses get their ClassPropertyFetcher from a shared cache
+        tasks.fork('propertyFetchers', { ->
+            tasks.get('artifactClasses').each { Class clazz -> ClassPropertyFetcher.forClass(clazz) }
+        }, 'artifactClasses')
+    }
+
+    /**
+     * Loads (but does not initialize) the classes listed in every
+     * <tt>META-INF/griffon-artifacts.properties</tt> so that registering them later is cheap.
+     * Locations that provide an {@code ArtifactIndex} are skipped as their classes are loaded lazily.
+     */
+    private static List<Class> preloadArtifactClasses(GriffonApplication app) {
+        List<Class> classes = []
+        String artifacts = 'META-INF/griffon-artifacts.properties'
+        Set<String> indexed = app.class.classLoader.getResources(ArtifactIndex.RESOURCE).collect { it.toString() } as Set
+        app.class.classLoader.getResources(artifacts).each { URL url ->
+            String path = url.toString()
+            if (indexed.contains(path[0..<(path.length() - artifacts.length())] + ArtifactIndex.RESOURCE)) return
+            Properties p = new Properties()
+            url.withInputStream { p.load(it) }
+            p.values().each { String value ->
+                value.replace("'", '').split(',').each { String className ->
+                    try {
+                        classes << loadClass(app, className.trim())
+                    } catch (ClassNotFoundException cnfe) {
+                        // reported by the ArtifactManager later on
+                    }
+                }
+            }
+        }
+        classes
+    }
+
+    private static void readAndSetConfiguration(GriffonApplication app, BootstrapTasks tasks) {
+        app.config = tasks.get('applicationConfig')
+        app.config.merge(tasks.get('config'))
         GriffonExceptionHandler.configure(app.config.flatten([:]))
+        ExecutorRegistry.instance.configure(app.config)
+        AsyncEventExecutor.instance.configure(app.config)
+        UIThreadHandler uiThreadHandler = UIThreadManager.instance.UIThreadHandler
+        if (uiThreadHandler.respondsTo('configure', Map)) uiThreadHandler.configure(app.config)
 
-        app.builderConfig = loadConfig(configSlurper, app.builderClass, GriffonApplication.Configuration.BUILDER.name)
+        app.builderConfig = tasks.get('builderConfig')
 
         def eventsClass = app.eventsClass
         if (eventsClass) {
@@ -226,6 +283,7 @@ class GriffonApplicationHelper {
      */
     static void safeSet(receiver, property, value) {
         try {
+            if (receiver != null && PropertyAccessor.trySet(receiver, property.toString(), value)) return
             receiver."$property" = value
         } catch (MissingPropertyException mpe) {
             if (mpe.property != property) {
@@ -329,6 +387,12 @@ class GriffonApplicationHelper {
             metaClass.buildMVCGroup = {Object... args ->
                 app.mvcGroupManager.buildMVCGroup(* args)
             }
+            metaClass.createMVCGroupAsync = {Object... args ->
+                app.mvcGroupManager.createMVCGroupAsync(* args)
+            }
+            metaClass.buildMVCGroupAsync = {Object... args ->
+                app.mvcGroupManager.buildMVCGroupAsync(* args)
+            }
             metaClass.destroyMVCGroup = {String mvcName ->
                 app.mvcGroupManager.destroyMVCGroup(mvcName)
             }
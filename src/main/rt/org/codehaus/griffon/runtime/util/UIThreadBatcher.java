@@ -0,0 +1,215 @@
+/*
+ * Copyright 2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.codehaus.griffon.runtime.util;
+
+import griffon.util.GriffonExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queues runnables destined to the UI thread and executes many of them per UI event.<p>
+ * A single drain task is posted to the UI thread at a time. Each drain runs queued
+ * runnables until the queue is empty or the frame budget is spent, then posts itself
+ * again, giving the toolkit a chance to process input and paint events in between.
+ * Runnables queued while a drain is in progress are left for the next one.
+ *
+ * @author Andres Almiray
+ * @since 0.9.4
+ */
+public class UIThreadBatcher implements Executor {
+    private static final Logger LOG = LoggerFactory.getLogger(UIThreadBatcher.class);
+    private static final Thread.UncaughtExceptionHandler UNCAUGHT_EXCEPTION_HANDLER = new GriffonExceptionHandler();
+    public static final long DEFAULT_FRAME_BUDGET = 8L;
+
+    private final Executor uiExecutor;
+    private final long frameBudget;
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<Task>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicInteger depth = new AtomicInteger(0);
+
+    private final AtomicInteger maxDepth = new AtomicInteger(0);
+    private final AtomicLong executed = new AtomicLong(0);
+    private final AtomicLong batches = new AtomicLong(0);
+    private final AtomicLong saturatedBatches = new AtomicLong(0);
+    private final AtomicLong totalLatency = new AtomicLong(0);
+    private final AtomicLong maxLatency = new AtomicLong(0);
+    private volatile long lastLatency;
+
+    private final Runnable drainer = new Runnable() {
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * Creates a new batcher.
+     *
+     * @param uiExecutor  posts a runnable to the UI thread, for example by calling {@code SwingUtilities.invokeLater}
+     * @param frameBudget maximum time in milliseconds a single drain may keep the UI thread busy
+     */
+    public UIThreadBatcher(Executor uiExecutor, long frameBudget) {
+        this.uiExecutor = uiExecutor;
+        this.frameBudget = TimeUnit.MILLISECONDS.toNanos(frameBudget > 0 ? frameBudget : DEFAULT_FRAME_BUDGET);
+    }
+
+    public void execute(Runnable runnable) {
+        queue.offer(new Task(runnable, System.nanoTime()));
+        int current = depth.incrementAndGet();
+        int max = maxDepth.get();
+        while (current > max && !maxDepth.compareAndSet(max, current)) {
+            max = maxDepth.get();
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(drainer);
+        }
+    }
+
+    private void drain() {
+        long start = System.nanoTime();
+        long deadline = start + frameBudget;
+        // runnables queued by the ones we run now wait for the next drain
+        int limit = depth.get();
+        batches.incrementAndGet();
+        try {
+            for (int i = 0; i < limit; i++) {
+                Task task = queue.poll();
+                if (task == null) break;
+                depth.decrementAndGet();
+                recordLatency(System.nanoTime() - task.queuedAt);
+                try {
+                    task.runnable.run();
+                } catch (Throwable throwable) {
+                    UNCAUGHT_EXCEPTION_HANDLER.uncaughtException(Thread.currentThread(), throwable);
+                }
+                executed.incrementAndGet();
+                if (System.nanoTime() - deadline >= 0 && i + 1 < limit) {
+                    saturatedBatches.incrementAndGet();
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("UI thread frame budget exhausted after " + (i + 1) + " runnables; " + depth.get() + " still queued");
+                    }
+                    break;
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) schedule();
+        }
+    }
+
+    private void recordLatency(long latency) {
+        lastLatency = latency;
+        totalLatency.addAndGet(latency);
+        long max = maxLatency.get();
+        while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+    }
+
+    /**
+     * Number of runnables waiting for the UI thread.
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Highest queue depth seen since metrics were last reset.
+     */
+    public int getMaxQueueDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Number of runnables executed so far.
+     */
+    public long getExecutedCount() {
+        return executed.get();
+    }
+
+    /**
+     * Number of UI events used to execute runnables.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Number of batches that ran out of frame budget before draining the queue.
+     * A steadily growing value means the UI thread is saturated.
+     */
+    public long getSaturatedBatchCount() {
+        return saturatedBatches.get();
+    }
+
+    /**
+     * Time in milliseconds the last runnable waited before being executed.
+     */
+    public double getLastLatency() {
+        return toMillis(lastLatency);
+    }
+
+    /**
+     * Longest time in milliseconds a runnable waited before being executed.
+     */
+    public double getMaxLatency() {
+        return toMillis(maxLatency.get());
+    }
+
+    /**
+     * Average time in milliseconds runnables waited before being executed.
+     */
+    public double getAverageLatency() {
+        long count = executed.get();
+        return count == 0 ? 0d : toMillis(totalLatency.get()) / count;
+    }
+
+    public void resetMetrics() {
+        maxDepth.set(depth.get());
+        executed.set(0);
+        batches.set(0);
+        saturatedBatches.set(0);
+        totalLatency.set(0);
+        maxLatency.set(0);
+        lastLatency = 0;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    private static final class Task {
+        private final Runnable runnable;
+        private final long queuedAt;
+
+        private Task(Runnable runnable, long queuedAt) {
+            this.runnable = runnable;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
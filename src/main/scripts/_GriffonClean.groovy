@@ -43,6 +43,11 @@ target(cleanCompiledSources: "Cleans compiled Java and Groovy sources") {
     ant.delete(dir:testDirPath)
     ant.delete(dir:testResourcesDirPath)
     ant.delete(dir:cliClassesDirPath)
+    // griffonc keeps an index of compiled classes next to each output dir
+    for(path in [classesDirPath, pluginClassesDirPath, cliClassesDirPath]) {
+        File dir = new File(path)
+        ant.delete(file: new File(dir.parentFile, "${dir.name}-index.properties"), failonerror:false)
+    }
 }
 
 target(cleanTestReports: "Cleans the test reports") {
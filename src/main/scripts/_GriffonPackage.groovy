@@ -21,6 +21,7 @@ import griffon.util.Metadata
 import java.util.zip.ZipEntry
 import java.util.zip.ZipFile
 import java.text.SimpleDateFormat
+import org.codehaus.griffon.cli.support.ArtifactIndexWriter
 import static griffon.util.GriffonNameUtils.capitalize
 import static griffon.util.GriffonApplicationUtils.is64Bit
 import static griffon.util.GriffonApplicationUtils.osArch
@@ -176,6 +177,9 @@ collectArtifactMetadata = {
                 writer.println("$type = '${list.join(',')}'")
             }
         }
+
+        // binary index read at startup, classes are loaded lazily
+        ArtifactIndexWriter.write(new File(artifactMetadataDir, 'griffon-artifacts.idx'), artifacts, classesDir)
     }
 }
 
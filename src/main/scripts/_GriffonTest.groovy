@@ -22,6 +22,8 @@ import org.codehaus.griffon.test.event.GriffonTestEventPublisher
 import org.codehaus.griffon.test.junit4.JUnit4GriffonTestType
 import org.codehaus.griffon.test.report.junit.JUnitReportProcessor
 import org.codehaus.griffon.test.support.GriffonTestMode
+import org.codehaus.griffon.test.support.TestDurations
+import org.codehaus.griffon.test.support.TestSelection
 
 /**
  * Gant script that runs the Griffon unit tests
@@ -77,6 +79,22 @@ reportFormats = [ "xml", "plain" ]
 // If true, only run the tests that failed before.
 reRunTests = false
 
+// If true, only run the tests affected by the classes that changed since all tests last passed.
+changedTestsOnly = false
+
+// Created for each test type when changedTestsOnly is set, see runTests
+testSelection = null
+
+// Digests of the classes of the last run where all tests passed
+testSelectionFile = new File(griffonSettings.projectWorkDir, "test-selection.properties")
+
+// Number of threads unit and other tests are run on, set it with -parallel[=N]
+// or griffon.testing.parallel in BuildConfig.groovy
+testWorkers = 1
+
+// How long each test class took the last time it ran, parallel runs start with the slowest ones
+testDurations = new TestDurations(new File(griffonSettings.projectWorkDir, "test-durations.properties"))
+
 // Where the report files are created.
 testReportsDir = griffonSettings.testReportsDir
 // Where the test source can be found
@@ -112,8 +130,17 @@ target(allTests: "Runs the project's tests.") {
     // If we are to run the tests that failed, replace the list of
     // test names with the failed ones.
     if (reRunTests) testNames = getFailedTests()
+    // A green run of every test is the baseline of changedTestsOnly
+    boolean allTestsTargeted = !reRunTests && !targetPhasesAndTypes && testNames == (buildConfig.griffon.testing.patterns ?: ['**.*'])
+    if (testOptions.changed) changedTestsOnly = true
     
     testTargetPatterns = testNames.collect { new GriffonTestTargetPattern(it) } as GriffonTestTargetPattern[]
+
+    def parallel = testOptions.parallel ?: buildConfig.griffon.testing.parallel
+    if (parallel) {
+        testWorkers = parallel == true || parallel == 'true' ? Runtime.runtime.availableProcessors() : parallel as int
+        if (testWorkers > 1) event("StatusUpdate", ["Running unit and other tests on $testWorkers threads"])
+    }
     if(isPluginProject && !isAddonPlugin) phasesToRun.remove('integration')
     if(!phasesToRun) {
         println "No test phases were defined. Aborting"
@@ -201,7 +228,12 @@ target(allTests: "Runs the project's tests.") {
             event("TestPhaseEnd", [phase])
             currentTestPhaseName = null
         }
+
+        if (!testsFailed && allTestsTargeted) {
+            new TestSelection(testSelectionFile, testClassDirs()).store()
+        }
     } finally {
+        testDurations.store()
         String msg = testsFailed ? "\nTests FAILED" : "\nTests PASSED"
         if (createTestReports) {
             event("TestProduceReports", [])
@@ -272,6 +304,12 @@ compileTests = { GriffonTestType type, File source, File dest ->
 }
 
 runTests = { GriffonTestType type, File compiledClassesDir ->
+    if (changedTestsOnly) {
+        testSelection = new TestSelection(testSelectionFile, testClassDirs())
+        if (testSelection.hasPreviousRun()) {
+            event("StatusUpdate", ["Running $type.name tests affected by ${testSelection.changedClasses.size()} changed classes"])
+        }
+    }
     def testCount = type.prepare(testTargetPatterns, compiledClassesDir, binding)
     
     if (testCount) {
@@ -305,6 +343,15 @@ runTests = { GriffonTestType type, File compiledClassesDir ->
         }
     }
 }
+/**
+ * The directories holding the classes that tests may depend on, as well as the tests themselves.
+ */
+testClassDirs = {
+    def dirs = [griffonSettings.classesDir, griffonSettings.pluginClassesDir]
+    if (griffonSettings.testClassesDir.exists()) griffonSettings.testClassesDir.eachDir { dirs << it }
+    dirs
+}
+
 unitTestPhasePreparation = {}
 unitTestPhaseCleanUp = {}
 
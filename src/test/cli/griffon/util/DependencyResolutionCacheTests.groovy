@@ -0,0 +1,97 @@
+package griffon.util
+
+/**
+ * Test case for {@link DependencyResolutionCache}.
+ */
+class DependencyResolutionCacheTests extends GroovyTestCase {
+    private File dir
+    private File jar
+    private Map savedSystemProps = [:]
+
+    void setUp() {
+        dir = File.createTempFile("dependency-cache", "")
+        dir.delete()
+        dir.mkdirs()
+        jar = new File(dir, "lib.jar")
+        jar.text = "jar"
+    }
+
+    void tearDown() {
+        savedSystemProps.each { String key, String value ->
+            if (value == null) {
+                System.clearProperty(key)
+            } else {
+                System.setProperty(key, value)
+            }
+        }
+        dir.deleteDir()
+    }
+
+    void testEntriesSurviveReloading() {
+        def cache = new DependencyResolutionCache(new File(dir, "deps.properties"))
+        cache.put("compile", [jar])
+        assertNull "nothing is stored without a fingerprint", cache.get("compile")
+
+        cache.reset("abc", [new File(dir, "inline")])
+        cache.put("compile", [jar])
+        cache.put("provided", [])
+
+        cache = new DependencyResolutionCache(new File(dir, "deps.properties"))
+        assertTrue cache.isFresh("abc")
+        assertFalse cache.isFresh("def")
+        assertEquals([jar.absoluteFile], cache.get("compile"))
+        assertEquals([], cache.get("provided"))
+        assertNull cache.get("runtime")
+        assertEquals([new File(dir, "inline").absoluteFile], cache.inlinePluginDirectories)
+
+        cache.reset("def", [])
+        assertNull cache.get("compile")
+    }
+
+    void testMissingJarsInvalidateAConfiguration() {
+        def cache = new DependencyResolutionCache(new File(dir, "deps.properties"))
+        cache.reset("abc", [])
+        cache.put("compile", [jar])
+        jar.delete()
+        assertNull cache.get("compile")
+    }
+
+    void testFingerprintTracksFileContents() {
+        def config = new File(dir, "BuildConfig.groovy")
+        String missing = DependencyResolutionCache.fingerprint([config], ["0.9.4"])
+        config.text = "griffon.project.dependency.resolution = {}"
+        String first = DependencyResolutionCache.fingerprint([config], ["0.9.4"])
+
+        assertFalse missing == first
+        assertEquals first, DependencyResolutionCache.fingerprint([config], ["0.9.4"])
+        assertFalse first == DependencyResolutionCache.fingerprint([config], ["0.9.5"])
+
+        config.text = "griffon.project.dependency.resolution = { inherits 'global' }"
+        assertFalse first == DependencyResolutionCache.fingerprint([config], ["0.9.4"])
+    }
+
+    void testBuildSettingsSkipIvyWhenNothingChanged() {
+        setSystemProperty(BuildSettings.PROJECT_WORK_DIR, new File(dir, "work").path)
+        def settings = new BuildSettings(null, dir)
+        settings.loadConfig(new ConfigObject())
+        assertNotNull settings.@dependencyManager
+
+        settings.dependencyCache.put("compile", [jar])
+        settings = new BuildSettings(null, dir)
+        settings.loadConfig(new ConfigObject())
+        assertNull "Ivy is configured on demand", settings.@dependencyManager
+        assertTrue settings.defaultCompileDependencies.contains(jar.absoluteFile)
+        assertNotNull settings.dependencyManager
+
+        setSystemProperty(BuildSettings.DEPENDENCY_CACHE, "false")
+        settings = new BuildSettings(null, dir)
+        settings.loadConfig(new ConfigObject())
+        assertNull settings.dependencyCache
+        assertNotNull settings.@dependencyManager
+    }
+
+    private void setSystemProperty(String name, String value) {
+        if (!savedSystemProps.containsKey(name)) savedSystemProps[name] = System.getProperty(name)
+        System.setProperty(name, value)
+    }
+}
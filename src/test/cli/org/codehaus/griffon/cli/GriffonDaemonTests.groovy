@@ -0,0 +1,123 @@
+package org.codehaus.griffon.cli
+
+class GriffonDaemonTests extends GroovyTestCase {
+    private String userHome
+    private File home
+    private File baseDir
+    private GriffonDaemon daemon
+    private Thread server
+
+    protected void setUp() {
+        userHome = System.getProperty('user.home')
+        home = File.createTempFile('daemon', '')
+        home.delete()
+        home.mkdirs()
+        System.setProperty('user.home', home.path)
+        baseDir = new File(home, 'project')
+        daemon = new GriffonDaemon(baseDir, '/opt/griffon')
+    }
+
+    protected void tearDown() {
+        if (server?.alive) {
+            daemon.send(GriffonDaemon.STOP_COMMAND, new ByteArrayOutputStream())
+            server.join(5000)
+        }
+        System.setProperty('user.home', userHome)
+        new AntBuilder().delete(dir: home, quiet: true)
+    }
+
+    void testNothingIsSentWithoutDaemon() {
+        assert daemon.send('compile', new ByteArrayOutputStream()) == null
+    }
+
+    void testCommandsRunInTheDaemon() {
+        def commands = []
+        start(isStale: { false }, execute: { String line, PrintStream out ->
+            commands << line
+            out.println "running $line"
+            System.out.println 'through System.out'
+            3
+        })
+
+        def output = new ByteArrayOutputStream()
+        assert daemon.send('test-app unit:', output) == 3
+        assert commands == ['test-app unit:']
+        assert output.toString().readLines() == ['running test-app unit:', 'through System.out']
+
+        assert daemon.send('compile', new ByteArrayOutputStream()) == 3
+        assert commands == ['test-app unit:', 'compile']
+    }
+
+    void testOtherGriffonHomesAreIgnored() {
+        start(isStale: { false }, execute: { String line, PrintStream out -> 0 })
+        assert new GriffonDaemon(baseDir, '/opt/other-griffon').send('compile', new ByteArrayOutputStream()) == null
+        assert new GriffonDaemon(new File(home, 'other'), '/opt/griffon').send('compile', new ByteArrayOutputStream()) == null
+    }
+
+    void testStaleDaemonStepsAside() {
+        boolean executed = false
+        start(isStale: { true }, execute: { String line, PrintStream out -> executed = true; 0 })
+
+        assert daemon.send('compile', new ByteArrayOutputStream()) == null
+        server.join(5000)
+        assert !server.alive
+        assert !executed
+        assert !daemon.portFile.exists()
+    }
+
+    void testSilentClientsDoNotBlockTheDaemon() {
+        System.setProperty('griffon.daemon.requestTimeout', '200')
+        try {
+            start(isStale: { false }, execute: { String line, PrintStream out -> 7 })
+            Properties props = new Properties()
+            daemon.portFile.withInputStream { props.load(it) }
+            Socket silent = new Socket('127.0.0.1', props.port as int)
+            try {
+                assert daemon.send('compile', new ByteArrayOutputStream()) == 7
+            } finally {
+                silent.close()
+            }
+        } finally {
+            System.clearProperty('griffon.daemon.requestTimeout')
+        }
+    }
+
+    void testClientsWithTheWrongTokenAreTurnedAway() {
+        boolean executed = false
+        start(isStale: { false }, execute: { String line, PrintStream out -> executed = true; 0 })
+        Properties props = new Properties()
+        daemon.portFile.withInputStream { props.load(it) }
+
+        Socket socket = new Socket('127.0.0.1', props.port as int)
+        try {
+            DataOutputStream request = new DataOutputStream(socket.outputStream)
+            request.writeUTF(props.token.reverse() + '0')
+            request.writeUTF('compile')
+            request.flush()
+            assert socket.inputStream.read() == -1
+        } finally {
+            socket.close()
+        }
+        assert !executed
+    }
+
+    void testStop() {
+        start(isStale: { false }, execute: { String line, PrintStream out -> 0 })
+
+        assert daemon.send(GriffonDaemon.STOP_COMMAND, new ByteArrayOutputStream()) == 0
+        server.join(5000)
+        assert !server.alive
+        assert daemon.send('compile', new ByteArrayOutputStream()) == null
+    }
+
+    private void start(Map executor) {
+        server = Thread.start {
+            daemon.serve(executor as GriffonDaemon.CommandExecutor)
+        }
+        long deadline = System.currentTimeMillis() + 5000
+        while (!daemon.portFile.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        assert daemon.portFile.exists()
+    }
+}
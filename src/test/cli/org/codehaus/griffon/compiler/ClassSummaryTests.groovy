@@ -0,0 +1,70 @@
+package org.codehaus.griffon.compiler
+
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.Phases
+
+class ClassSummaryTests extends GroovyTestCase {
+    private File dir
+
+    protected void setUp() {
+        dir = File.createTempFile('class-summary', '')
+        dir.delete()
+        dir.mkdirs()
+    }
+
+    protected void tearDown() {
+        dir.deleteDir()
+    }
+
+    void testGroovyTimestampsAreLeftOutOfTheDigest() {
+        byte[] bytes = compile('class Stamped { int answer() { 42 } }')
+        String digest = summarize(bytes).digest
+
+        // a later compilation, where Groovy's two reads of the clock for the name
+        // of the timestamp field and for its value were a millisecond apart
+        Class stamped = new GroovyClassLoader().defineClass('Stamped', bytes)
+        long value = stamped.getField('__timeStamp').getLong(null)
+        String name = stamped.fields*.name.find { it.startsWith('__timeStamp__239_neverHappen') }
+        replace(bytes, longConstant(value), longConstant(value + 2))
+        replace(bytes, name.bytes, (name[0..-2] + ((name[-1] as int) + 1) % 10).bytes)
+
+        assert summarize(bytes).digest == digest
+    }
+
+    void testChangesToTheBytecodeChangeTheDigest() {
+        String digest = summarize(compile('class Stamped { int answer() { 42 } }')).digest
+        assert summarize(compile('class Stamped { int answer() { 43 } }')).digest != digest
+    }
+
+    private byte[] compile(String text) {
+        File target = new File(dir, 'classes')
+        def unit = new CompilationUnit(new CompilerConfiguration(targetDirectory: target))
+        unit.addSource('Stamped.groovy', text)
+        unit.compile(Phases.CLASS_GENERATION)
+        unit.classes.find { it.name == 'Stamped' }.bytes
+    }
+
+    private ClassSummary summarize(byte[] bytes) {
+        File file = new File(dir, 'Stamped.class')
+        file.bytes = bytes
+        ClassSummary.read(file)
+    }
+
+    private static byte[] longConstant(long value) {
+        byte[] constant = new byte[9]
+        constant[0] = 5
+        for (int i = 0; i < 8; i++) constant[8 - i] = (byte) (value >>> (8 * i))
+        constant
+    }
+
+    private static void replace(byte[] bytes, byte[] pattern, byte[] replacement) {
+        for (int i = 0; i <= bytes.length - pattern.length; i++) {
+            if ((0..<pattern.length).every { bytes[i + it] == pattern[it] }) {
+                System.arraycopy(replacement, 0, bytes, i, replacement.length)
+                return
+            }
+        }
+        fail("pattern not found")
+    }
+}
@@ -0,0 +1,108 @@
+package org.codehaus.griffon.compiler
+
+class IncrementalCompilationTests extends GroovyTestCase {
+    private File baseDir
+    private File srcDir
+    private File confDir
+    private File classesDir
+    private AntBuilder ant
+
+    protected void setUp() {
+        baseDir = File.createTempFile('incremental', '')
+        baseDir.delete()
+        srcDir = new File(baseDir, 'src/main')
+        classesDir = new File(baseDir, 'classes')
+        confDir = new File(baseDir, 'griffon-app/conf')
+        srcDir.mkdirs()
+        confDir.mkdirs()
+        classesDir.mkdirs()
+        ant = new AntBuilder()
+        ant.taskdef(name: 'griffonc', classname: 'org.codehaus.griffon.compiler.GriffonCompiler')
+
+        source('Person', 'class Person { String name }')
+        source('Greeter', 'class Greeter { String greet(Person p) { "Hello ${p.name}" } }')
+        source('Unrelated', 'class Unrelated { int answer() { 42 } }')
+        compile()
+    }
+
+    protected void tearDown() {
+        ant.delete(dir: baseDir, quiet: true)
+    }
+
+    void testIndexIsWritten() {
+        def index = CompileIndex.load(new File(baseDir, 'classes-index.properties'))
+        assert index.getClassNames().containsAll(['Person', 'Greeter', 'Unrelated'])
+        assert index.getSource('Greeter') == new File(srcDir, 'Greeter.groovy').absoluteFile
+        assert index.getDependents(['Person']) == ['Greeter'] as Set
+    }
+
+    void testAbiChangeRecompilesDependents() {
+        def greeter = bytes('Greeter')
+        def unrelated = bytes('Unrelated')
+
+        source('Person', 'class Person { String name; int age }')
+        compile()
+
+        assert bytes('Greeter') != greeter
+        assert bytes('Unrelated') == unrelated
+    }
+
+    void testBodyChangeLeavesDependentsAlone() {
+        source('Person', 'class Person { String name; String toString() { name } }')
+        compile()
+        def person = bytes('Person')
+        def greeter = bytes('Greeter')
+
+        source('Person', 'class Person { String name; String toString() { "Person " + name } }')
+        compile()
+
+        assert bytes('Person') != person
+        assert bytes('Greeter') == greeter
+    }
+
+    void testClassesOfDeletedSourcesAreRemoved() {
+        assert new File(classesDir, 'Unrelated.class').exists()
+
+        new File(srcDir, 'Unrelated.groovy').delete()
+        compile()
+
+        assert !new File(classesDir, 'Unrelated.class').exists()
+        assert !CompileIndex.load(new File(baseDir, 'classes-index.properties')).getClassNames().contains('Unrelated')
+    }
+
+    void testDependentsInOtherSourceDirectoriesAreRecompiled() {
+        source(confDir, 'Settings', 'class Settings { String name }')
+        source('Reader', 'class Reader { String read(Settings s) { s.name } }')
+        compile(confDir)
+        compile()
+        def reader = bytes('Reader')
+
+        // src/main is compiled before griffon-app/conf
+        source(confDir, 'Settings', 'class Settings { String name; int size }')
+        compile()
+        compile(confDir)
+
+        assert new File(classesDir, 'Reader.class').exists()
+        assert bytes('Reader') != reader
+    }
+
+    private void source(String name, String text) {
+        source(srcDir, name, text)
+    }
+
+    private void source(File dir, String name, String text) {
+        File file = new File(dir, "${name}.groovy")
+        file.text = text
+        // make sure the class compiled from the source looks out of date
+        File classFile = new File(classesDir, "${name}.class")
+        if (classFile.exists()) classFile.lastModified = file.lastModified() - 10000
+    }
+
+    private byte[] bytes(String className) {
+        new File(classesDir, "${className}.class").bytes
+    }
+
+    private void compile(File dir = srcDir) {
+        ant.griffonc(destdir: classesDir, srcdir: dir, projectName: 'incremental', basedir: baseDir.absolutePath)
+    }
+}
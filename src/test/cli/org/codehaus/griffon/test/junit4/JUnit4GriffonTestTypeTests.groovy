@@ -0,0 +1,118 @@
+package org.codehaus.griffon.test.junit4
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import org.codehaus.griffon.test.GriffonTestTargetPattern
+import org.codehaus.griffon.test.event.GriffonTestEventPublisher
+import org.codehaus.griffon.test.support.TestDurations
+
+class JUnit4GriffonTestTypeTests extends GroovyTestCase {
+    private File reportsDir
+    private List events = []
+    private Binding binding
+
+    protected void setUp() {
+        super.setUp()
+        reportsDir = File.createTempFile("reports", "")
+        reportsDir.delete()
+        reportsDir.mkdirs()
+        binding = new Binding(
+            classLoader: getClass().classLoader,
+            testOptions: [:],
+            testWorkers: 3,
+            testDurations: new TestDurations(),
+            currentTestPhaseName: "unit",
+            currentTestTypeName: "unit",
+            testReportsDir: reportsDir,
+            reportFormats: ["xml"])
+        ParallelLatch.latch = new CountDownLatch(3)
+    }
+
+    protected void tearDown() {
+        reportsDir.deleteDir()
+        super.tearDown()
+    }
+
+    void testClassesRunInParallel() {
+        def type = new FixedJUnit4GriffonTestType([SlowParallelCase, FirstParallelCase, SecondParallelCase])
+        binding.testDurations[SlowParallelCase.name] = 1000
+        binding.testDurations[FirstParallelCase.name] = 10
+
+        assert type.prepare([new GriffonTestTargetPattern("**.*")] as GriffonTestTargetPattern[], null, binding) == 4
+        assert type.runners*.getAt(0) == [SecondParallelCase, SlowParallelCase, FirstParallelCase]
+
+        def result = type.run(new GriffonTestEventPublisher({ String name, List args -> events << [name] + args }))
+        assert result.passCount == 3
+        assert result.failCount == 1
+
+        // the events of each test case are published together
+        def testCases = events.findAll { it[0] == "TestCaseStart" }.collect { it[1] }
+        assert testCases.sort() == [FirstParallelCase, SecondParallelCase, SlowParallelCase]*.name.sort()
+        testCases.each { name ->
+            int start = events.findIndexOf { it[0] == "TestCaseStart" && it[1] == name }
+            int end = events.findIndexOf { it[0] == "TestCaseEnd" && it[1] == name }
+            assert events[start..end].every { !(it[0] in ["TestCaseStart", "TestCaseEnd"]) || it[1] == name }
+        }
+
+        // and their output is kept apart
+        def report = new XmlSlurper().parse(new File(reportsDir, "TEST-unit-unit-${FirstParallelCase.name}.xml"))
+        assert report.'system-out'.text().contains("first")
+        assert !report.'system-out'.text().contains("second")
+
+        assert binding.testDurations[SecondParallelCase.name] != null
+    }
+
+    void testTypesThatNeedTheApplicationRunSerially() {
+        def type = new JUnit4GriffonTestType("integration", "integration", new org.codehaus.griffon.test.support.GriffonTestMode())
+        type.buildBinding = binding
+        assert type.workerCount == 1
+    }
+}
+
+class FixedJUnit4GriffonTestType extends JUnit4GriffonTestType {
+    private final List classes
+
+    FixedJUnit4GriffonTestType(List classes) {
+        super("unit", "unit")
+        this.classes = classes
+    }
+
+    protected getTestClasses() {
+        classes
+    }
+}
+
+class ParallelLatch {
+    static CountDownLatch latch
+
+    // every class waits for the others, they can only pass if they run at the same time
+    static boolean await() {
+        latch.countDown()
+        latch.await(5, TimeUnit.SECONDS)
+    }
+}
+
+class SlowParallelCase extends GroovyTestCase {
+    void testSlow() {
+        println "slow"
+        assert ParallelLatch.await()
+    }
+}
+
+class FirstParallelCase extends GroovyTestCase {
+    void testFirst() {
+        println "first"
+        assert ParallelLatch.await()
+    }
+
+    void testFailure() {
+        fail("expected")
+    }
+}
+
+class SecondParallelCase extends GroovyTestCase {
+    void testSecond() {
+        println "second"
+        assert ParallelLatch.await()
+    }
+}
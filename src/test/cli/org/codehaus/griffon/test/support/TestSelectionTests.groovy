@@ -0,0 +1,78 @@
+package org.codehaus.griffon.test.support
+
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+
+class TestSelectionTests extends GroovyTestCase {
+    private File dir
+    private File classesDir
+    private File testClassesDir
+    private File stateFile
+
+    protected void setUp() {
+        super.setUp()
+        dir = File.createTempFile("test-selection", "")
+        dir.delete()
+        classesDir = new File(dir, "classes")
+        testClassesDir = new File(dir, "test-classes/unit")
+        stateFile = new File(dir, "test-selection.properties")
+
+        compile(classesDir, [],
+            'acme/Service.groovy': 'package acme\nclass Service { String greet() { "hello" } }',
+            'acme/Controller.groovy': 'package acme\nclass Controller { Service service = new Service() }',
+            'acme/Other.groovy': 'package acme\nclass Other { int answer() { 42 } }')
+        compile(testClassesDir, [classesDir],
+            'acme/ControllerTests.groovy': 'package acme\nclass ControllerTests extends GroovyTestCase { void testIt() { new Controller() } }',
+            'acme/OtherTests.groovy': 'package acme\nclass OtherTests extends GroovyTestCase { void testIt() { [1, 2].each { new Other() } } }')
+    }
+
+    protected void tearDown() {
+        dir.deleteDir()
+        super.tearDown()
+    }
+
+    void testReferencesAreReadFromBytecode() {
+        def selection = new TestSelection(stateFile, [classesDir, testClassesDir])
+        assert selection.getDependencies('acme.Controller') == ['acme.Controller', 'acme.Service'] as Set
+        assert 'acme.Service' in selection.getDependencies('acme.ControllerTests')
+        // closures are classes of their own
+        assert selection.getDependencies('acme.OtherTests').contains('acme.Other')
+    }
+
+    void testEveryTestIsAffectedWithoutAGreenRun() {
+        def selection = new TestSelection(stateFile, [classesDir, testClassesDir])
+        assert !selection.hasPreviousRun()
+        assert selection.isAffected('acme.ControllerTests')
+        assert selection.isAffected('acme.OtherTests')
+    }
+
+    void testOnlyTestsDependingOnChangedClassesAreAffected() {
+        new TestSelection(stateFile, [classesDir, testClassesDir]).store()
+
+        // recompiling without changes is not a change, despite Groovy's timestamps
+        sleep 20
+        compile(classesDir, [], 'acme/Other.groovy': 'package acme\nclass Other { int answer() { 42 } }')
+        def selection = new TestSelection(stateFile, [classesDir, testClassesDir])
+        assert selection.changedClasses.isEmpty()
+        assert !selection.isAffected('acme.ControllerTests')
+
+        compile(classesDir, [], 'acme/Service.groovy': 'package acme\nclass Service { String greet() { "bye" } }')
+        selection = new TestSelection(stateFile, [classesDir, testClassesDir])
+        assert selection.changedClasses == ['acme.Service'] as Set
+        assert selection.isAffected('acme.ControllerTests')
+        assert !selection.isAffected('acme.OtherTests')
+    }
+
+    private void compile(Map sources, File target, List<File> classpath) {
+        def loader = new GroovyClassLoader(getClass().classLoader)
+        classpath.each { loader.addClasspath(it.path) }
+        def unit = new CompilationUnit(new CompilerConfiguration(targetDirectory: target), null, loader)
+        sources.each { path, text ->
+            def file = new File(dir, "src/$path")
+            file.parentFile.mkdirs()
+            file.text = text
+            unit.addSource(file)
+        }
+        unit.compile()
+    }
+}
@@ -0,0 +1,81 @@
+package griffon.core
+
+import griffon.util.InstrumentedExecutorService
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import org.slf4j.MDC
+
+class ExecutorRegistryTests extends GroovyTestCase {
+    private ExecutorRegistry registry = ExecutorRegistry.instance
+
+    protected void tearDown() {
+        registry.configure([:])
+        registry.shutdown()
+    }
+
+    void testPoolsAreConfiguredByName() {
+        registry.configure(griffon: [executors: [io: [poolSize: 3, threadNamePrefix: 'io', daemon: true]]])
+        InstrumentedExecutorService io = registry.getExecutorService('io')
+        assert io.is(registry.getExecutorService('io'))
+        assert io.delegate instanceof ThreadPoolExecutor
+        assert io.delegate.corePoolSize == 3
+        assert io.submit({ Thread.currentThread().name } as Callable).get() == 'io-1'
+        assert registry.executorNames.contains('io')
+    }
+
+    void testPoolsGrowUpToMaxPoolSize() {
+        registry.configure(griffon: [executors: [burst: [poolSize: 1, maxPoolSize: 3]]])
+        InstrumentedExecutorService pool = registry.getExecutorService('burst')
+        CountDownLatch started = new CountDownLatch(3)
+        CountDownLatch release = new CountDownLatch(1)
+        try {
+            3.times { pool.submit({ started.countDown(); release.await() } as Callable) }
+            assert started.await(5, TimeUnit.SECONDS)
+            assert pool.delegate.poolSize == 3
+            shouldFail(RejectedExecutionException) {
+                pool.submit({ 'rejected' } as Callable)
+            }
+        } finally {
+            release.countDown()
+        }
+    }
+
+    void testMetricsAreCollected() {
+        InstrumentedExecutorService pool = registry.defaultExecutorService
+        (1..5).collect { pool.submit({ it } as Callable) }*.get()
+        pool.shutdown()
+        pool.awaitTermination(1000, java.util.concurrent.TimeUnit.MILLISECONDS)
+        assert pool.submittedCount == 5
+        assert pool.completedCount == 5
+        assert pool.latencyHistogram.toList().sum() == 5
+    }
+
+    void testShutdownPoolsAreReplaced() {
+        InstrumentedExecutorService pool = registry.getExecutorService('temp')
+        registry.shutdown()
+        assert pool.isShutdown()
+        assert !registry.getExecutorService('temp').isShutdown()
+    }
+
+    void testExecuteFutureRunsOnTheDefaultPool() {
+        def name = UIThreadManager.instance.executeFuture({ Thread.currentThread().name } as Callable).get()
+        assert name.startsWith('griffon-default-')
+    }
+
+    void testVirtualModeFallsBackAndPropagatesContext() {
+        registry.configure(griffon: [executors: [blocking: [type: 'virtual', threadNamePrefix: 'blocking']]])
+        InstrumentedExecutorService pool = registry.getExecutorService('blocking')
+        assert pool.propagateContext
+        MDC.put('user', 'duke')
+        try {
+            def result = pool.submit({ [Thread.currentThread().name, MDC.get('user')] } as Callable).get()
+            assert result[0].startsWith('blocking-')
+            assert result[1] == 'duke'
+        } finally {
+            MDC.remove('user')
+        }
+    }
+}
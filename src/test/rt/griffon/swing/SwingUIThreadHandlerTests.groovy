@@ -0,0 +1,52 @@
+package griffon.swing
+
+class SwingUIThreadHandlerTests extends GroovyTestCase {
+    void testSyncCallsRunAfterEarlierAsyncCallsWhenBatching() {
+        SwingUIThreadHandler handler = new SwingUIThreadHandler()
+        // a tiny frame budget makes every drain yield after one runnable
+        handler.configure([griffon: [uiThread: [batching: [enabled: true, frameBudget: 1]]]])
+        List calls = Collections.synchronizedList([])
+
+        Thread.start {
+            (1..3).each { i -> handler.executeAsync { Thread.sleep(5); calls << i } }
+            handler.executeSync { calls << 'sync' }
+            calls << 'returned'
+        }.join(5000)
+
+        assert calls == [1, 2, 3, 'sync', 'returned']
+    }
+
+    void testSyncCallFailuresReachTheCaller() {
+        SwingUIThreadHandler handler = new SwingUIThreadHandler()
+        handler.configure([griffon: [uiThread: [batching: [enabled: true]]]])
+        Throwable caught = null
+
+        Thread.start {
+            try {
+                handler.executeSync { throw new IllegalStateException('boom') }
+            } catch (RuntimeException e) {
+                caught = e.cause
+            }
+        }.join(5000)
+
+        assert caught instanceof IllegalStateException
+    }
+
+    void testInterruptedSyncCallsStillWaitForTheirRunnable() {
+        SwingUIThreadHandler handler = new SwingUIThreadHandler()
+        handler.configure([griffon: [uiThread: [batching: [enabled: true]]]])
+        List calls = Collections.synchronizedList([])
+        boolean interrupted = false
+
+        Thread.start {
+            handler.executeAsync { Thread.sleep(200) }
+            Thread.currentThread().interrupt()
+            handler.executeSync { calls << 'sync' }
+            calls << 'returned'
+            interrupted = Thread.currentThread().isInterrupted()
+        }.join(5000)
+
+        assert calls == ['sync', 'returned']
+        assert interrupted
+    }
+}
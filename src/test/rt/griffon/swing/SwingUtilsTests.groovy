@@ -0,0 +1,65 @@
+package griffon.swing
+
+import java.awt.EventQueue
+
+class SwingUtilsTests extends GroovyTestCase {
+    void testAwaitIdleWaitsForPendingEvents() {
+        def calls = []
+        EventQueue.invokeAndWait {
+            (1..5).each { i -> EventQueue.invokeLater { Thread.sleep(10); calls << i } }
+        }
+        assert SwingUtils.awaitIdle(5000)
+        assert calls == (1..5).toList()
+    }
+
+    void testAwaitIdleReturnsDespiteASteadyEventSource() {
+        boolean busy = true
+        Closure spin
+        spin = { if (busy) EventQueue.invokeLater(spin) }
+        EventQueue.invokeLater(spin)
+        try {
+            assert SwingUtils.awaitIdle(5000)
+        } finally {
+            busy = false
+        }
+    }
+
+    void testConcurrentCallersDoNotHoldEachOtherUp() {
+        def results = Collections.synchronizedList([])
+        def threads = (1..5).collect { Thread.start { results << SwingUtils.awaitIdle(5000) } }
+        threads*.join(10000)
+        assert results == [true] * 5
+    }
+
+    void testFrequentCallersDoNotPostponeTheCheck() {
+        boolean busy = true
+        Closure spin
+        spin = { Thread.sleep(2); if (busy) EventQueue.invokeLater(spin) }
+        EventQueue.invokeLater(spin)
+        // calls whenIdle more often than the check can run
+        def caller = Thread.start {
+            while (busy) {
+                SwingUtils.whenIdle {}
+                Thread.sleep(1)
+            }
+        }
+        try {
+            assert SwingUtils.awaitIdle(2000)
+        } finally {
+            busy = false
+            caller.join(5000)
+        }
+    }
+
+    void testAwaitIdleGivesUpWhenAnEventTakesTooLong() {
+        EventQueue.invokeLater { Thread.sleep(500) }
+        assert !SwingUtils.awaitIdle(50)
+        assert SwingUtils.awaitIdle(5000)
+    }
+
+    void testAwaitIdleCanNotBeCalledFromTheEDT() {
+        EventQueue.invokeAndWait {
+            shouldFail(IllegalStateException) { SwingUtils.awaitIdle(10) }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package griffon.util
+
+import org.codehaus.griffon.runtime.core.ClassPropertyFetcher
+
+import java.lang.ref.WeakReference
+
+class ClassMetadataCacheTests extends GroovyTestCase {
+    private ClassMetadataCache cache = new ClassMetadataCache()
+
+    void testMetadataIsComputedOncePerClassAndKey() {
+        int computed = 0
+        def factory = { Class c -> computed++; c.simpleName } as ClassMetadataCache.Factory
+
+        assert cache.get(String, 'name', factory) == 'String'
+        assert cache.get(String, 'name', factory) == 'String'
+        assert cache.get(Integer, 'name', factory) == 'Integer'
+        assert computed == 2
+        assert cache.hits == 1
+        assert cache.misses == 2
+
+        assert cache.clear('name') == 2
+        assert cache.peek(String, 'name') == null
+    }
+
+    void testNullIsNotCached() {
+        int computed = 0
+        def factory = { Class c -> computed++; null } as ClassMetadataCache.Factory
+        assert cache.get(String, 'none', factory) == null
+        assert cache.get(String, 'none', factory) == null
+        assert computed == 2
+    }
+
+    void testClassesCanBeCollected() {
+        Class clazz = throwawayClass()
+        cache.put(clazz, 'name', 'reloaded')
+        assert cache.size() == 1
+
+        WeakReference ref = new WeakReference(clazz)
+        clazz = null
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc()
+            sleep(50)
+        }
+        assert ref.get() == null
+        assert cache.size() == 0
+    }
+
+    void testCachedMetadataDoesNotPinItsClass() {
+        Class clazz = throwawayClass()
+        assert ClassPropertyFetcher.forClass(clazz).is(ClassPropertyFetcher.forClass(clazz))
+        assert ClassMetadataCache.instance.peek(clazz, ClassPropertyFetcher) != null
+
+        WeakReference ref = new WeakReference(clazz)
+        clazz = null
+        for (int i = 0; i < 20 && ref.get() != null; i++) {
+            System.gc()
+            sleep(50)
+        }
+        assert ref.get() == null
+    }
+
+    private Class throwawayClass() {
+        URL location = ClassMetadataCache.protectionDomain.codeSource.location
+        Class clazz = new URLClassLoader([location] as URL[], (ClassLoader) null).loadClass(ClassMetadataCache.name)
+        assert !ClassMetadataCache.is(clazz)
+        clazz
+    }
+}
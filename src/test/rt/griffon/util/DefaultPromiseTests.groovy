@@ -0,0 +1,91 @@
+package griffon.util
+
+import griffon.core.ExecutorRegistry
+import griffon.core.GriffonApplication
+import griffon.core.MVCGroup
+import griffon.core.UIThreadManager
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+
+class DefaultPromiseTests extends GroovyTestCase {
+    private UIThreadManager uiThreadManager = UIThreadManager.instance
+
+    protected void setUp() {
+        ExecutorRegistry.instance.configure(griffon: [executors: [default: [poolSize: 4]]])
+    }
+
+    protected void tearDown() {
+        ExecutorRegistry.instance.configure([:])
+        ExecutorRegistry.instance.shutdown()
+    }
+
+    void testContinuationsReceiveResults() {
+        def promise = uiThreadManager.executePromise { 20 }
+            .then { it + 1 }
+            .then { value -> uiThreadManager.executePromise { value * 2 } }
+        assert promise.get(5, TimeUnit.SECONDS) == 42
+    }
+
+    void testThenInsideRunsInTheUIThread() {
+        def promise = uiThreadManager.executePromise { 'data' }
+            .thenInside { [it, uiThreadManager.isUIThread()] }
+        // other tests may have installed a mock handler that never reports being the UI thread
+        boolean swing = uiThreadManager.UIThreadHandler instanceof griffon.swing.SwingUIThreadHandler
+        assert promise.get(5, TimeUnit.SECONDS) == ['data', swing]
+    }
+
+    void testFailuresSkipContinuationsUntilOnError() {
+        def skipped = true
+        def promise = uiThreadManager.executePromise { throw new IllegalStateException('boom') }
+            .then { skipped = false }
+            .onError { Throwable t -> t.message }
+        assert promise.get(5, TimeUnit.SECONDS) == 'boom'
+        assert skipped
+    }
+
+    void testAllAndAny() {
+        def slow = uiThreadManager.executePromise { Thread.sleep(5000); 'slow' }
+        def fast = uiThreadManager.executePromise { 'fast' }
+        assert uiThreadManager.all([fast, uiThreadManager.executePromise { 2 }]).get(5, TimeUnit.SECONDS) == ['fast', 2]
+        assert uiThreadManager.any([slow, fast]).get(5, TimeUnit.SECONDS) == 'fast'
+        assert slow.cancelled
+    }
+
+    void testTimeoutFailsThePromise() {
+        def promise = uiThreadManager.executePromise { Thread.sleep(5000) }.timeout(50)
+        try {
+            promise.get(5, TimeUnit.SECONDS)
+            fail('expected a timeout')
+        } catch (ExecutionException e) {
+            assert e.cause instanceof TimeoutException
+        }
+        assert promise.failed
+    }
+
+    void testCancellationPropagatesToContinuations() {
+        def latch = new CountDownLatch(1)
+        def parent = uiThreadManager.executePromise { latch.await(); 1 }
+        def child = parent.then { it + 1 }
+        parent.cancel(true)
+        latch.countDown()
+        assert child.cancelled
+        shouldFail(CancellationException) { child.get() }
+    }
+
+    void testPromisesBoundToAGroupAreCancelledWhenItIsDestroyed() {
+        def listeners = [:]
+        def app = [
+            addApplicationEventListener: { String name, listener -> listeners[name] = listener },
+            removeApplicationEventListener: { String name, listener -> listeners.remove(name) }
+        ] as GriffonApplication
+        MVCGroup group = [getApp: { app }, isAlive: { true }] as MVCGroup
+
+        def promise = uiThreadManager.executePromise { Thread.sleep(5000) }.bindTo(group)
+        listeners.DestroyMVCGroup.run([group] as Object[])
+        assert promise.cancelled
+        assert !listeners
+    }
+}
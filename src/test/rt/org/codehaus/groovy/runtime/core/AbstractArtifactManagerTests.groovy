@@ -0,0 +1,53 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.ArtifactInfo
+import griffon.core.ArtifactManager
+import griffon.core.GriffonApplication
+import griffon.core.GriffonClass
+import griffon.test.mock.MockGriffonApplication
+
+class AbstractArtifactManagerTests extends GroovyTestCase {
+    private GriffonApplication app
+    private TestArtifactManager artifactManager
+
+    void setUp() {
+        app = new MockGriffonApplication()
+        artifactManager = new TestArtifactManager(app)
+        artifactManager.registerArtifactHandler(new ModelArtifactHandler(app))
+        artifactManager.loadArtifactMetadata()
+    }
+
+    void testLookupsByNameAndClass() {
+        GriffonClass griffonClass = artifactManager.findGriffonClass(LookupModel)
+        assert griffonClass.clazz == LookupModel
+        assert artifactManager.findGriffonClass(LookupModel.name).is(griffonClass)
+        assert artifactManager.findGriffonClass('lookup', 'model').is(griffonClass)
+        assert artifactManager.findGriffonClass('lookupModel', 'model').is(griffonClass)
+        assert artifactManager.findGriffonClass(LookupModel, 'model').is(griffonClass)
+        assert artifactManager.findGriffonClass(new LookupModel()).is(griffonClass)
+        assert !artifactManager.findGriffonClass(String)
+        assert !artifactManager.findGriffonClass('other', 'model')
+    }
+
+    void testDynamicQueriesLeaveTheMetaClassAlone() {
+        MetaClass before = GroovySystem.metaClassRegistry.getMetaClass(ArtifactManager)
+        assert artifactManager.modelClasses*.clazz == [LookupModel]
+        assert artifactManager.getModelClasses()*.clazz == [LookupModel]
+        assert artifactManager.isModelClass(LookupModel)
+        assert !artifactManager.isModelClass(String)
+        assert !artifactManager.isControllerClass(LookupModel)
+        assert GroovySystem.metaClassRegistry.getMetaClass(ArtifactManager).is(before)
+    }
+}
+
+class TestArtifactManager extends AbstractArtifactManager {
+    TestArtifactManager(GriffonApplication app) {
+        super(app)
+    }
+
+    protected Map doLoadArtifactMetadata() {
+        [model: [new ArtifactInfo(LookupModel, 'model')]]
+    }
+}
+
+class LookupModel extends AbstractGriffonModel {}
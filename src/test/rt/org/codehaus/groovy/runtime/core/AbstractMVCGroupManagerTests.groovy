@@ -0,0 +1,57 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.GriffonApplication
+import griffon.core.GriffonModel
+import griffon.core.MVCGroup
+import griffon.core.MVCGroupConfiguration
+
+class AbstractMVCGroupManagerTests extends GroovyTestCase {
+    private TestMVCGroupManager manager = new TestMVCGroupManager()
+
+    void testRoleViewsFollowAddedAndRemovedGroups() {
+        MVCGroup foo = group('foo')
+        MVCGroup bar = group('bar')
+        manager.addGroup(foo)
+        manager.addGroup(bar)
+
+        assert manager.findGroup('foo').is(foo)
+        assert manager.groups.keySet().toList() == ['foo', 'bar']
+        assert manager.models.keySet().toList() == ['foo', 'bar']
+        assert manager.models.is(manager.models)
+
+        manager.removeGroup(foo)
+        assert manager.findGroup('foo') == null
+        assert manager.models.keySet().toList() == ['bar']
+        assert manager.views.isEmpty()
+    }
+
+    void testViewsAreImmutableSnapshots() {
+        manager.addGroup(group('foo'))
+        Map models = manager.models
+        shouldFail(UnsupportedOperationException) { models.clear() }
+
+        manager.addGroup(group('bar'))
+        assert models.keySet().toList() == ['foo']
+        assert manager.models.keySet().toList() == ['foo', 'bar']
+    }
+
+    private MVCGroup group(String mvcId) {
+        GriffonModel model = [:] as GriffonModel
+        [getMvcId: { mvcId }, getModel: { model }, getView: { null },
+         getController: { null }, getBuilder: { null }] as MVCGroup
+    }
+
+    static class TestMVCGroupManager extends AbstractMVCGroupManager {
+        TestMVCGroupManager() { super(null) }
+
+        protected void doInitialize(Map<String, MVCGroupConfiguration> configurations) {}
+
+        protected MVCGroup buildMVCGroup(MVCGroupConfiguration configuration, String mvcName, Map<String, Object> args) { null }
+
+        public MVCGroupConfiguration newMVCGroupConfiguration(GriffonApplication app, String mvcType, Map<String, String> members) { null }
+
+        public MVCGroup newMVCGroup(GriffonApplication app, MVCGroupConfiguration configuration, String mvcId, Map<String, Object> members) { null }
+
+        public void destroyMVCGroup(String mvcId) {}
+    }
+}
@@ -0,0 +1,40 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.GriffonApplication
+
+class ArtifactIndexTests extends GroovyTestCase {
+    void testEntriesSurviveARoundTrip() {
+        List entries = [
+            new ArtifactIndex.Entry('controller', 'sample.SampleController', false),
+            new ArtifactIndex.Entry('model', 'sample.AbstractModel', true)
+        ]
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        ArtifactIndex.write(out, entries)
+
+        List read = ArtifactIndex.read(new ByteArrayInputStream(out.toByteArray()), null)
+        assert read == entries
+        assert read[0].type == 'controller'
+        assert read[0].className == 'sample.SampleController'
+        assert !read[0].abstract
+        assert read[1].abstract
+    }
+
+    void testClassesAreLoadedOnDemand() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        ArtifactIndex.write(out, [new ArtifactIndex.Entry('model', IndexedModel.name, false)])
+        GriffonApplication app = [:] as GriffonApplication
+
+        ArtifactIndex.Entry entry = ArtifactIndex.read(new ByteArrayInputStream(out.toByteArray()), app)[0]
+        assert entry.@clazz == null
+        assert entry.clazz == IndexedModel
+        assert entry.@clazz == IndexedModel
+    }
+
+    void testCorruptIndexIsRejected() {
+        shouldFail(IOException) {
+            ArtifactIndex.read(new ByteArrayInputStream('model = foo.BarModel'.bytes), null)
+        }
+    }
+}
+
+class IndexedModel {}
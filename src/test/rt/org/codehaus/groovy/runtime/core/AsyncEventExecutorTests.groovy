@@ -0,0 +1,92 @@
+package org.codehaus.griffon.runtime.core
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+
+class AsyncEventExecutorTests extends GroovyTestCase {
+    private AsyncEventExecutor executor = AsyncEventExecutor.instance
+    private CountDownLatch gate = new CountDownLatch(1)
+    private List calls = Collections.synchronizedList([])
+
+    protected void tearDown() {
+        gate.countDown()
+        executor.shutdown()
+        executor.configure([:])
+    }
+
+    void testFullQueueBlocksThePublisher() {
+        Executor lane = busyLane('block', 2)
+        def publisher = Thread.start { lane.execute { calls << 3 } }
+        publisher.join(200)
+        assert publisher.alive
+
+        gate.countDown()
+        publisher.join(5000)
+        executor.shutdown()
+        assert calls == [1, 2, 3]
+    }
+
+    void testFullQueueDropsEvents() {
+        Executor lane = busyLane('drop', 2)
+        long dropped = executor.droppedCount
+        assert executor.pendingCount == 2
+        lane.execute { calls << 3 }
+        assert executor.droppedCount == dropped + 1
+
+        gate.countDown()
+        executor.shutdown()
+        assert calls == [1, 2]
+    }
+
+    void testCallerRunsDeliversAheadOfQueuedEvents() {
+        Executor lane = busyLane('callerRuns', 2)
+        Thread publisher = Thread.currentThread()
+        lane.execute { calls << (Thread.currentThread() == publisher ? 'caller' : 'worker') }
+
+        gate.countDown()
+        executor.shutdown()
+        // the rejected event does not wait for the ones published before it
+        assert calls == ['caller', 1, 2]
+    }
+
+    void testEventsOfEachRouterAreDeliveredInOrder() {
+        executor.shutdown()
+        executor.configure([griffon: [events: [async: [poolSize: 4]]]])
+        Map lanes = [a: executor.newLane('a'), b: executor.newLane('b'), c: executor.newLane('c')]
+        Map received = lanes.collectEntries { name, lane -> [name, Collections.synchronizedList([])] }
+
+        (1..500).each { i ->
+            lanes.each { name, lane -> lane.execute { received[name] << i } }
+        }
+        executor.shutdown()
+
+        received.each { name, list -> assert list == (1..500).toList() }
+    }
+
+    void testShutdownWaitsForEveryPendingEvent() {
+        Executor lane = busyLane('block', 1000)
+        // more than a worker drains before yielding to other lanes
+        (3..200).each { i -> lane.execute { Thread.sleep(1); calls << i } }
+
+        def stopper = Thread.start { executor.shutdown() }
+        Thread.sleep(100)
+        gate.countDown()
+        stopper.join(10000)
+
+        assert calls == (1..200).toList()
+    }
+
+    // a lane whose single worker is stuck until the gate opens, with two events queued behind it
+    private Executor busyLane(String policy, int queueCapacity) {
+        executor.shutdown()
+        executor.configure([griffon: [events: [async: [poolSize: 1, queueCapacity: queueCapacity, rejectionPolicy: policy]]]])
+        Executor lane = executor.newLane(policy)
+        CountDownLatch started = new CountDownLatch(1)
+        lane.execute { started.countDown(); gate.await() }
+        assert started.await(5, TimeUnit.SECONDS)
+        lane.execute { calls << 1 }
+        lane.execute { calls << 2 }
+        lane
+    }
+}
@@ -0,0 +1,243 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.Event
+import griffon.core.EventHandler
+import griffon.util.RunnableWithArgs
+
+class EventRouterTests extends GroovyTestCase {
+    private EventRouter router = new EventRouter()
+
+    void testBeanListener() {
+        def bean = new BeanListener()
+        router.addEventListener(bean)
+        router.publish('foo', ['one'])
+        router.publish('Bar', ['two', 3])
+        router.publish('unknown', [])
+        assert bean.calls == ['foo:one', 'bar:two:3']
+    }
+
+    void testBeanListenerWithClosureProperty() {
+        def bean = new ClosureBeanListener()
+        router.addEventListener(bean)
+        router.publish('foo', ['one'])
+        assert bean.calls == ['foo:one']
+    }
+
+    void testClosureAndRunnableListeners() {
+        def calls = []
+        router.addEventListener('foo') { arg -> calls << "closure:$arg".toString() }
+        router.addEventListener('Foo', { Object[] args -> calls << "runnable:${args[0]}".toString() } as RunnableWithArgs)
+        router.addEventListener([Foo: { arg -> calls << "map:$arg".toString() }])
+        router.publish('foo', ['x'])
+        assert calls == ['closure:x', 'runnable:x', 'map:x']
+    }
+
+    void testBeanListenersAreCalledBeforeClosures() {
+        def calls = []
+        router.publish('foo', ['warm up'])
+        router.addEventListener('foo') { arg -> calls << 'closure' }
+        router.addEventListener(new RecordingListener(calls: calls))
+        router.publish('foo', ['x'])
+        assert calls == ['bean', 'closure']
+    }
+
+    void testDispatchTableIsUpdatedOnAddAndRemove() {
+        def bean = new BeanListener()
+        router.publish('foo', ['before'])
+        router.addEventListener(bean)
+        router.publish('foo', ['during'])
+        router.removeEventListener(bean)
+        router.publish('foo', ['after'])
+        assert bean.calls == ['foo:during']
+
+        def calls = []
+        def closure = { arg -> calls << arg }
+        router.addEventListener('foo', closure)
+        router.publish('foo', ['one'])
+        router.removeEventListener('foo', closure)
+        router.publish('foo', ['two'])
+        assert calls == ['one']
+    }
+
+    void testEventNamesAreCaseInsensitiveOnTheFirstLetter() {
+        def bean = new BeanListener()
+        router.addEventListener(bean)
+        router.publish('foo', ['one'])
+        router.publish('Foo', ['two'])
+        router.removeEventListener(bean)
+        router.publish('foo', ['three'])
+        router.publish('Foo', ['four'])
+        assert bean.calls == ['foo:one', 'foo:two']
+    }
+
+    void testHandlersAddedThroughTheMetaClassAreFound() {
+        try {
+            LateListener.metaClass.onLater = { arg -> delegate.calls << "later:$arg".toString() }
+            def bean = new LateListener()
+            router.addEventListener(bean)
+            router.publish('later', ['x'])
+            // modifies the ExpandoMetaClass in place
+            LateListener.metaClass.onLater = { arg -> delegate.calls << "changed:$arg".toString() }
+            LateListener.metaClass.onLatest = { arg -> delegate.calls << "latest:$arg".toString() }
+            router.publish('later', ['y'])
+            router.publish('latest', ['z'])
+            assert bean.calls == ['later:x', 'changed:y', 'latest:z']
+
+            bean.metaClass.onLater = { arg -> delegate.calls << "mine:$arg".toString() }
+            router.publish('later', ['w'])
+            assert bean.calls[-1] == 'mine:w'
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(LateListener)
+        }
+    }
+
+    void testRemovingBeanRemovesNestedClosures() {
+        def bean = new NestedListener()
+        bean.register(router)
+        router.addEventListener(bean)
+        router.publish('foo', ['one'])
+        router.removeEventListener(bean)
+        router.publish('foo', ['two'])
+        assert bean.calls == ['one']
+    }
+
+    void testScriptListener() {
+        Script script = new GroovyShell().parse('onFoo = { arg -> calls << arg }; calls = []')
+        router.addEventListener(script)
+        router.publish('foo', ['one'])
+        router.publish('foo', ['two'])
+        assert script.binding.calls == ['one', 'two']
+    }
+
+    void testTypedEventsAreDispatchedByClassHierarchy() {
+        def ticks = []
+        def all = []
+        router.addEventListener(MarketTick, { MarketTick tick -> ticks << tick.price } as EventHandler)
+        router.addEventListener(Event, { Event e -> all << e.class.simpleName } as EventHandler)
+        router.publish(new MarketTick(this, 1))
+        router.publish(new QuoteUpdated(this))
+        assert ticks == [1]
+        assert all == ['MarketTick', 'QuoteUpdated']
+    }
+
+    void testTypedEventsReachNamedListeners() {
+        def bean = new TickListener()
+        def calls = []
+        router.addEventListener(bean)
+        router.addEventListener('MarketTick') { MarketTick tick -> calls << tick.price }
+        router.publish(new MarketTick(this, 2))
+        assert bean.prices == [2]
+        assert calls == [2]
+    }
+
+    void testTypedListenersCanBeRemoved() {
+        def ticks = []
+        def handler = { MarketTick tick -> ticks << tick.price } as EventHandler
+        router.addEventListener(MarketTick, handler)
+        router.publish(new MarketTick(this, 1))
+        router.removeEventListener(MarketTick, handler)
+        router.publish(new MarketTick(this, 2))
+        assert ticks == [1]
+    }
+
+    void testAsyncEventsAreDeliveredInOrder() {
+        def calls = Collections.synchronizedList([])
+        router.addEventListener('foo') { arg -> calls << arg }
+        (1..50).each { router.publishAsync('foo', [it]) }
+        AsyncEventExecutor.instance.shutdown()
+        assert calls == (1..50).toList()
+    }
+
+    void testCoalescingKeepsLatestEvent() {
+        def calls = Collections.synchronizedList([])
+        router.addEventListener('foo') { arg -> calls << arg }
+        router.setCoalescing('foo', [mode: 'latest', window: 50])
+        (1..50).each { router.publishAsync('foo', [it]) }
+        AsyncEventExecutor.instance.shutdown()
+        assert calls == [50]
+    }
+
+    void testShutdownFlushesPendingWindowsUsingTheSharedTimer() {
+        def calls = Collections.synchronizedList([])
+        router.addEventListener('foo') { arg -> calls << arg }
+        router.setCoalescing('foo', [mode: 'latest', window: 60000])
+        router.publishAsync('foo', ['pending'])
+        assert !Thread.allStackTraces.keySet().any { it.name == 'EventRouter-timer' }
+        long start = System.currentTimeMillis()
+        AsyncEventExecutor.instance.shutdown()
+        assert calls == ['pending']
+        assert System.currentTimeMillis() - start < 10000
+    }
+
+    void testCoalescingByKey() {
+        def calls = Collections.synchronizedList([])
+        router.addEventListener('price') { symbol, value -> calls << "$symbol:$value".toString() }
+        router.setCoalescing('price', [mode: 'key', key: 0, window: 50])
+        router.publishAsync('price', ['ABC', 1])
+        router.publishAsync('price', ['XYZ', 2])
+        router.publishAsync('price', ['ABC', 3])
+        AsyncEventExecutor.instance.shutdown()
+        assert calls == ['XYZ:2', 'ABC:3']
+    }
+
+    void testBatchingDeliversListsBoundedByMaxCount() {
+        def batches = Collections.synchronizedList([])
+        router.addEventListener('rows') { List rows -> batches << rows }
+        router.setCoalescing(Rows: [mode: 'batch', window: 50, maxCount: 10])
+        (1..25).each { router.publishAsync('rows', [it]) }
+        AsyncEventExecutor.instance.shutdown()
+        assert batches == [(1..10).toList(), (11..20).toList(), (21..25).toList()]
+    }
+}
+
+class BeanListener {
+    List calls = []
+
+    void onFoo(String arg) { calls << "foo:$arg".toString() }
+
+    void onBar(String arg, int n) { calls << "bar:$arg:$n".toString() }
+}
+
+class LateListener {
+    def calls = []
+}
+
+class ClosureBeanListener {
+    List calls = []
+    def onFoo = { arg -> calls << "foo:$arg".toString() }
+}
+
+class RecordingListener {
+    List calls
+
+    void onFoo(arg) { calls << 'bean' }
+}
+
+class NestedListener {
+    List calls = []
+
+    void register(EventRouter router) {
+        router.addEventListener('foo') { arg -> calls << arg }
+    }
+}
+
+class MarketTick extends Event {
+    final int price
+
+    MarketTick(Object source, int price) {
+        super(source)
+        this.price = price
+    }
+}
+
+class QuoteUpdated extends Event {
+    QuoteUpdated(Object source) {
+        super(source)
+    }
+}
+
+class TickListener {
+    List prices = []
+
+    void onMarketTick(MarketTick tick) { prices << tick.price }
+}
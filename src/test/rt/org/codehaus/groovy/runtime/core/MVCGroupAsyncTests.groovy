@@ -0,0 +1,148 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.AddonManager
+import griffon.core.ArtifactManager
+import griffon.core.GriffonApplication
+import griffon.core.MVCGroup
+import griffon.exceptions.MVCGroupInstantiationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
+class MVCGroupAsyncTests extends GroovyTestCase {
+    private List<String> events = Collections.synchronizedList([])
+    private DefaultMVCGroupManager manager
+
+    protected void setUp() {
+        super.setUp()
+        AsyncLatch.reset(3)
+        ArtifactManager artifactManager = [findGriffonClass: { String name -> null }] as ArtifactManager
+        GriffonApplication app = [
+            getArtifactManager: { artifactManager },
+            getBindings: { new Binding() },
+            getConfig: { new ConfigObject() },
+            getBuilderConfig: { new ConfigObject() },
+            getAddonManager: { [getAddons: { [:] }] as AddonManager },
+            newInstance: { Class klass, String type -> klass.newInstance() },
+            event: { String name, List args = [] -> events << name },
+            addApplicationEventListener: { Object[] args -> },
+            removeApplicationEventListener: { Object[] args -> }
+        ] as GriffonApplication
+        manager = new DefaultMVCGroupManager(app)
+        manager.initialize([
+            async: manager.newMVCGroupConfiguration(app, 'async',
+                [model: AsyncModel.name, view: AsyncView.name, controller: AsyncController.name]),
+            broken: manager.newMVCGroupConfiguration(app, 'broken',
+                [model: AsyncModel.name, controller: BrokenController.name])
+        ])
+    }
+
+    void testMembersAreInitializedInParallelOutsideTheCallingThread() {
+        Future<MVCGroup> future = manager.buildMVCGroupAsync('async', 'first', [title: 'First'])
+        MVCGroup group = future.get(10, TimeUnit.SECONDS)
+
+        assert manager.findGroup('first').is(group)
+        assert group.model.title == 'First'
+        assert group.controller.model.is(group.model)
+        // every member waits for the others in mvcGroupInit, they can only finish together
+        [group.model, group.view, group.controller].each { member ->
+            assert member.initialized
+            assert member.initThread != Thread.currentThread()
+        }
+        assert events.last() == GriffonApplication.Event.CREATE_MVC_GROUP.name
+    }
+
+    void testCreateReturnsTheMVCMembers() {
+        List members = manager.createMVCGroupAsync('async').get(10, TimeUnit.SECONDS)
+        assert members*.class == [AsyncModel, AsyncView, AsyncController]
+    }
+
+    void testFailedGroupsAreDestroyed() {
+        AsyncLatch.reset(0)
+        Future<MVCGroup> future = manager.buildMVCGroupAsync('broken')
+        try {
+            future.get(10, TimeUnit.SECONDS)
+            fail('Expected the build to fail')
+        } catch (ExecutionException e) {
+            assert e.cause instanceof IllegalStateException
+        }
+        assert manager.findGroup('broken') == null
+        assert events.contains(GriffonApplication.Event.DESTROY_MVC_GROUP.name)
+    }
+
+    void testConcurrentBuildsCannotShareAName() {
+        List<Future<MVCGroup>> futures = [
+            manager.buildMVCGroupAsync('async', 'shared', [:]),
+            manager.buildMVCGroupAsync('async', 'shared', [:])
+        ]
+        List<MVCGroup> built = []
+        List<Throwable> failures = []
+        futures.each { future ->
+            try {
+                built << future.get(10, TimeUnit.SECONDS)
+            } catch (ExecutionException e) {
+                failures << e.cause
+            }
+        }
+
+        assert built.size() == 1
+        assert failures.size() == 1
+        assert failures[0] instanceof MVCGroupInstantiationException
+        // the build that lost must not take the winner down with it
+        assert manager.findGroup('shared').is(built[0])
+        assert !events.contains(GriffonApplication.Event.DESTROY_MVC_GROUP.name)
+    }
+}
+
+class AsyncLatch {
+    static CountDownLatch latch
+
+    static void reset(int members) {
+        latch = new CountDownLatch(members)
+    }
+
+    static boolean await() {
+        latch.countDown()
+        latch.await(5, TimeUnit.SECONDS)
+    }
+}
+
+class AsyncModel extends AbstractGriffonModel {
+    String title
+    boolean initialized
+    Thread initThread
+
+    void mvcGroupInit(Map<String, Object> args) {
+        initThread = Thread.currentThread()
+        initialized = AsyncLatch.await()
+    }
+}
+
+class AsyncView extends AbstractGriffonView {
+    AsyncModel model
+    boolean initialized
+    Thread initThread
+
+    void mvcGroupInit(Map<String, Object> args) {
+        initThread = Thread.currentThread()
+        initialized = AsyncLatch.await()
+    }
+}
+
+class AsyncController extends AbstractGriffonController {
+    AsyncModel model
+    boolean initialized
+    Thread initThread
+
+    void mvcGroupInit(Map<String, Object> args) {
+        initThread = Thread.currentThread()
+        initialized = AsyncLatch.await()
+    }
+}
+
+class BrokenController extends AbstractGriffonController {
+    void mvcGroupInit(Map<String, Object> args) {
+        throw new IllegalStateException('boom')
+    }
+}
@@ -0,0 +1,53 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.ArtifactManager
+import griffon.core.GriffonApplication
+import griffon.core.MVCGroupConfiguration
+
+class MVCGroupBuildPlanTests extends GroovyTestCase {
+    void testMemberClassesAreResolvedOnce() {
+        int lookups = 0
+        ArtifactManager artifactManager = [findGriffonClass: { String name -> lookups++; null }] as ArtifactManager
+        GriffonApplication app = [getArtifactManager: { artifactManager }] as GriffonApplication
+        MVCGroupConfiguration configuration = [getMembers: { [model: PlanModel.name] }] as MVCGroupConfiguration
+
+        MVCGroupBuildPlan plan = new MVCGroupBuildPlan(app, configuration)
+        assert plan.memberClasses == [model: PlanModel]
+        plan.metaClasses
+        plan.memberClasses
+        assert lookups == 1
+    }
+
+    void testArgumentsAreInjectedAndMissingPropertiesSkipped() {
+        MVCGroupConfiguration configuration = [getMembers: { [:] }] as MVCGroupConfiguration
+        MVCGroupBuildPlan plan = new MVCGroupBuildPlan(null, configuration)
+
+        PlanModel model = new PlanModel()
+        plan.setProperties(model, [name: 'first', unknown: 1])
+        assert model.name == 'first'
+        assert plan.@missingProperties[PlanModel].names.keySet() == ['unknown'] as Set
+
+        plan.setProperties(model, [name: 'second', unknown: 2])
+        assert model.name == 'second'
+    }
+
+    void testPropertiesAddedToTheMetaClassAreInjected() {
+        MVCGroupConfiguration configuration = [getMembers: { [:] }] as MVCGroupConfiguration
+        MVCGroupBuildPlan plan = new MVCGroupBuildPlan(null, configuration)
+        try {
+            plan.setProperties(new LatePlanModel(), [extra: 1])
+            LatePlanModel.metaClass.extra = 0
+            LatePlanModel model = new LatePlanModel()
+            plan.setProperties(model, [extra: 2])
+            assert model.extra == 2
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(LatePlanModel)
+        }
+    }
+}
+
+class PlanModel {
+    String name
+}
+
+class LatePlanModel {}
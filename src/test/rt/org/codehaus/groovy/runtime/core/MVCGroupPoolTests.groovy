@@ -0,0 +1,148 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.ApplicationPhase
+import griffon.core.ArtifactManager
+import griffon.core.GriffonApplication
+import griffon.core.MVCGroup
+import griffon.core.MVCGroupConfiguration
+import griffon.core.ShutdownHandler
+import org.codehaus.griffon.runtime.builder.UberBuilder
+
+class MVCGroupPoolTests extends GroovyTestCase {
+    private ApplicationPhase phase = ApplicationPhase.MAIN
+    private List<String> events = []
+    private List<ShutdownHandler> shutdownHandlers = []
+    private DefaultMVCGroupManager manager
+
+    protected void setUp() {
+        super.setUp()
+        ArtifactManager artifactManager = [findGriffonClass: { String name -> null }] as ArtifactManager
+        GriffonApplication app = [
+            getArtifactManager: { artifactManager },
+            getBindings: { new Binding() },
+            getConfig: { new ConfigObject() },
+            getPhase: { phase },
+            event: { String name, List args = [] -> events << name },
+            addApplicationEventListener: { Object[] args -> },
+            removeApplicationEventListener: { Object[] args -> },
+            addShutdownHandler: { ShutdownHandler handler -> shutdownHandlers << handler }
+        ] as GriffonApplication
+        manager = new DefaultMVCGroupManager(app)
+        MVCGroupConfiguration dialog = manager.newMVCGroupConfiguration(app, 'dialog',
+            [model: RecycledModel.name, controller: RecycledController.name, pool: '1'])
+        MVCGroupConfiguration pane = manager.newMVCGroupConfiguration(app, 'pane',
+            [model: DisposableModel.name, pool: '2'])
+        manager.initialize([dialog: dialog, pane: pane])
+    }
+
+    void testPoolSizeIsNotAMember() {
+        assert manager.findConfiguration('dialog').members.keySet() == ['model', 'controller'] as Set
+        assert manager.getPool('dialog').capacity == 1
+        assert manager.pools.keySet() == ['dialog', 'pane'] as Set
+        assert shutdownHandlers.size() == 1
+    }
+
+    void testDestroyedGroupsAreRecycledAndReused() {
+        MVCGroup first = build('dialog', 'first')
+        RecycledModel model = first.model
+        manager.destroyMVCGroup('first')
+        assert model.recycled == 1
+        assert model.destroyed == 0
+        assert manager.findGroup('first') == null
+        assert events.last() == GriffonApplication.Event.DESTROY_MVC_GROUP.name
+
+        MVCGroup second = manager.buildMVCGroup('dialog', 'second', [title: 'Second'])
+        assert second.model.is(model)
+        assert second.controller.model.is(model)
+        assert model.title == 'Second'
+        assert model.initialized == 1
+        assert manager.findGroup('second').is(second)
+
+        MVCGroupPool pool = manager.getPool('dialog')
+        assert pool.hits == 1
+        assert pool.misses == 0
+        assert pool.size == 0
+    }
+
+    void testReusedGroupsForgetTheArgsOfTheirPreviousLife() {
+        build('dialog', 'first')
+        manager.destroyMVCGroup('first')
+        MVCGroup second = manager.buildMVCGroup('dialog', 'second', [title: 'Second', icon: 'info'])
+        UberBuilder builder = second.builder
+        assert builder.variables.icon == 'info'
+        manager.destroyMVCGroup('second')
+
+        MVCGroup third = manager.buildMVCGroup('dialog', 'third', [title: 'Third'])
+        assert third.builder.is(builder)
+        assert builder.variables.title == 'Third'
+        assert builder.variables.mvcName == 'third'
+        assert !builder.variables.containsKey('icon')
+        assert builder.variables.model.is(third.model)
+    }
+
+    void testRecycledGroupsAreDestroyedWhenThePoolIsFull() {
+        RecycledModel first = build('dialog', 'first').model
+        RecycledModel second = build('dialog', 'second').model
+        manager.destroyMVCGroup('first')
+        manager.destroyMVCGroup('second')
+
+        assert first.destroyed == 0
+        assert second.destroyed == 1
+        assert manager.getPool('dialog').discarded == 1
+
+        shutdownHandlers*.onShutdown(null)
+        assert first.destroyed == 1
+        assert manager.getPool('dialog').size == 0
+    }
+
+    void testGroupsWithoutRecycleHookAreDestroyed() {
+        DisposableModel model = build('pane', 'pane').model
+        manager.destroyMVCGroup('pane')
+        assert model.destroyed == 1
+        assert manager.getPool('pane').size == 0
+    }
+
+    void testGroupsAreNotPooledOnShutdown() {
+        RecycledModel model = build('dialog', 'first').model
+        phase = ApplicationPhase.SHUTDOWN
+        manager.destroyMVCGroup('first')
+        assert model.destroyed == 1
+        assert manager.getPool('dialog').size == 0
+    }
+
+    // groups are put together by hand, building them from scratch requires a full application
+    private MVCGroup build(String mvcType, String mvcId) {
+        MVCGroupConfiguration configuration = manager.findConfiguration(mvcType)
+        Map<String, Object> members = [builder: new UberBuilder()]
+        configuration.members.each { type, className -> members[type] = Class.forName(className).newInstance() }
+        members.controller?.model = members.model
+        MVCGroup group = manager.newMVCGroup(null, configuration, mvcId, members)
+        manager.addGroup(group)
+        group
+    }
+}
+
+class RecycledModel extends AbstractGriffonModel {
+    String title
+    int initialized
+    int recycled
+    int destroyed
+
+    void mvcGroupInit(Map<String, Object> args) { initialized++ }
+
+    void mvcGroupRecycle() { recycled++ }
+
+    void mvcGroupDestroy() { destroyed++ }
+}
+
+class RecycledController extends AbstractGriffonController {
+    RecycledModel model
+
+    void mvcGroupRecycle() {}
+}
+
+class DisposableModel extends AbstractGriffonModel {
+    int destroyed
+
+    void mvcGroupDestroy() { destroyed++ }
+}
@@ -0,0 +1,79 @@
+package org.codehaus.griffon.runtime.core
+
+import java.awt.Dimension
+
+class PropertyAccessorTests extends GroovyTestCase {
+    void testGeneratedAccessorReadsAndWritesProperties() {
+        PropertyAccessor accessor = PropertyAccessor.forClass(AccessedBean)
+        assert accessor.class.name == AccessedBean.name + '$$PropertyAccessor'
+        assert accessor.is(PropertyAccessor.forClass(AccessedBean))
+
+        AccessedBean bean = new AccessedBean(name: 'griffon', count: 1)
+        int name = accessor.indexOf('name')
+        int count = accessor.indexOf('count')
+        assert accessor.get(bean, name) == 'griffon'
+        assert accessor.get(bean, count) == 1
+
+        accessor.set(bean, name, 'swing')
+        accessor.set(bean, count, 2)
+        assert bean.name == 'swing'
+        assert bean.count == 2
+
+        assert accessor.indexOf('metaClass') == -1
+        assert accessor.indexOf('unknown') == -1
+        assert !accessor.isWritable(accessor.indexOf('readOnly'))
+        shouldFail(IllegalArgumentException) {
+            accessor.set(bean, accessor.indexOf('readOnly'), 'x')
+        }
+    }
+
+    void testValuesThatNeedCoercionAreRejected() {
+        PropertyAccessor accessor = PropertyAccessor.forClass(AccessedBean)
+        int count = accessor.indexOf('count')
+        assert accessor.accepts(count, 1)
+        assert !accessor.accepts(count, null)
+        assert !accessor.accepts(count, 1L)
+        assert accessor.accepts(accessor.indexOf('name'), null)
+        assert !accessor.accepts(accessor.indexOf('name'), "${1}")
+    }
+
+    void testTrySetDefersToTheMetaClass() {
+        AccessedBean bean = new AccessedBean()
+        assert PropertyAccessor.trySet(bean, 'name', 'direct')
+        assert bean.name == 'direct'
+        assert !PropertyAccessor.trySet(bean, 'count', 1L)
+
+        bean.metaClass.setName = { String n -> delegate.@name = n.toUpperCase() }
+        assert !PropertyAccessor.trySet(bean, 'name', 'mop')
+        bean.name = 'mop'
+        assert bean.name == 'MOP'
+    }
+
+    void testExpandoMetaClassesModifiedInPlaceAreCheckedAgain() {
+        AccessedBean bean = new AccessedBean()
+        ExpandoMetaClass emc = new ExpandoMetaClass(AccessedBean, false, true)
+        emc.initialize()
+        bean.metaClass = emc
+        AccessedBean other = new AccessedBean()
+        assert PropertyAccessor.trySet(other, 'name', 'direct')
+        assert PropertyAccessor.trySet(bean, 'name', 'direct')
+
+        emc.setName = { String n -> delegate.@name = n.toUpperCase() }
+        assert !PropertyAccessor.trySet(bean, 'name', 'mop')
+        assert PropertyAccessor.trySet(other, 'name', 'direct')
+    }
+
+    void testClassesOutsideTheApplicationUseReflection() {
+        PropertyAccessor accessor = PropertyAccessor.forClass(Dimension)
+        assert !accessor.class.name.endsWith('$$PropertyAccessor')
+        Dimension dimension = new Dimension(1, 2)
+        assert accessor.get(dimension, accessor.indexOf('height')) == 2d
+    }
+}
+
+class AccessedBean {
+    String name
+    int count
+
+    String getReadOnly() { 'readOnly' }
+}
@@ -0,0 +1,178 @@
+package org.codehaus.griffon.runtime.core
+
+import griffon.core.ArtifactInfo
+import griffon.core.GriffonApplication
+import griffon.test.mock.MockGriffonApplication
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+
+class ServiceArtifactHandlerTests extends GroovyTestCase {
+    private GriffonApplication app
+    private ServiceArtifactHandler handler
+
+    void setUp() {
+        app = new MockGriffonApplication()
+        app.artifactManager = new DefaultArtifactManager(app)
+        handler = new ServiceArtifactHandler(app)
+        handler.initialize([new ArtifactInfo(InjectedService, 'service'), new ArtifactInfo(SlowService, 'service')] as ArtifactInfo[])
+    }
+
+    void testServicesAreInjectedThroughACachedPlan() {
+        ServiceConsumer first = new ServiceConsumer()
+        handler.onNewInstance(ServiceConsumer, 'controller', first)
+        assert first.injectedService instanceof InjectedService
+        assert first.otherService == null
+
+        ServiceConsumer second = new ServiceConsumer()
+        handler.onNewInstance(ServiceConsumer, 'controller', second)
+        assert second.injectedService.is(first.injectedService)
+        assert handler.@injectionPlans[ServiceConsumer].@properties*.name == ['injectedService']
+    }
+
+    void testPerInstanceMetaClassesBypassTheCache() {
+        handler.onNewInstance(ServiceConsumer, 'controller', new ServiceConsumer())
+        def plan = handler.@injectionPlans[ServiceConsumer]
+
+        ServiceConsumer consumer = new ServiceConsumer()
+        consumer.metaClass.extra = 'extra'
+        handler.onNewInstance(ServiceConsumer, 'controller', consumer)
+        assert consumer.injectedService instanceof InjectedService
+        assert handler.@injectionPlans[ServiceConsumer].is(plan)
+    }
+
+    void testPropertiesAddedToTheMetaClassAreInjected() {
+        try {
+            LateServiceConsumer.metaClass.extra = 'extra'
+            handler.onNewInstance(LateServiceConsumer, 'controller', new LateServiceConsumer())
+            assert handler.@injectionPlans[LateServiceConsumer].@properties.empty
+
+            LateServiceConsumer.metaClass.injectedService = null
+            LateServiceConsumer consumer = new LateServiceConsumer()
+            handler.onNewInstance(LateServiceConsumer, 'controller', consumer)
+            assert consumer.injectedService instanceof InjectedService
+        } finally {
+            GroovySystem.metaClassRegistry.removeMetaClass(LateServiceConsumer)
+        }
+    }
+
+    void testConcurrentLookupsShareOneInstance() {
+        int threads = 4
+        CyclicBarrier barrier = new CyclicBarrier(threads)
+        CountDownLatch done = new CountDownLatch(threads)
+        List instances = Collections.synchronizedList([])
+        threads.times {
+            Thread.start {
+                barrier.await()
+                instances << app.serviceManager.findService('slowService')
+                done.countDown()
+            }
+        }
+        done.await()
+        assert instances.size() == threads
+        assert instances.unique { System.identityHashCode(it) }.size() == 1
+        assert SlowService.created.get() == 1
+    }
+
+    void testCircularDependenciesAreReported() {
+        handler.initialize([new ArtifactInfo(FirstService, 'service'), new ArtifactInfo(SecondService, 'service')] as ArtifactInfo[])
+        Throwable error = null
+        try {
+            app.serviceManager.findService('firstService')
+        } catch (Exception e) {
+            error = e
+        }
+        while (error && !(error instanceof IllegalStateException)) error = error.cause
+        assert error?.message?.contains('[firstService, secondService, firstService]')
+    }
+
+    void testCircularDependenciesAcrossThreadsAreReported() {
+        handler.initialize([new ArtifactInfo(LeftService, 'service'), new ArtifactInfo(RightService, 'service')] as ArtifactInfo[])
+        List errors = Collections.synchronizedList([])
+        List threads = ['leftService', 'rightService'].collect { name ->
+            Thread thread = new Thread({
+                try {
+                    app.serviceManager.findService(name)
+                } catch (Exception e) {
+                    Throwable error = e
+                    while (error && !(error instanceof IllegalStateException)) error = error.cause
+                    errors << error?.message
+                }
+            })
+            thread.daemon = true
+            thread.start()
+            thread
+        }
+        threads*.join(5000)
+        assert !threads.any { it.alive }
+        assert errors.size() == 2
+        assert errors.every { it?.startsWith('Circular dependency between services') }
+    }
+
+    void testServicesAreDisposedInReverseCreationOrder() {
+        handler.initialize([new ArtifactInfo(FirstDisposableService, 'service'), new ArtifactInfo(SecondDisposableService, 'service')] as ArtifactInfo[])
+        DisposableService.disposed.clear()
+        app.serviceManager.findService('secondDisposableService')
+        app.serviceManager.findService('firstDisposableService')
+        assert handler.serviceTimings.keySet() as List == ['secondDisposableService', 'firstDisposableService']
+
+        AbstractGriffonApplication.getDeclaredField('shutdownHandlers').with { accessible = true; get(app) }*.onShutdown(app)
+        assert DisposableService.disposed == ['FirstDisposableService', 'SecondDisposableService']
+        assert app.serviceManager.services.isEmpty()
+    }
+}
+
+class InjectedService extends AbstractGriffonService {}
+
+class SlowService extends AbstractGriffonService {
+    static final java.util.concurrent.atomic.AtomicInteger created = new java.util.concurrent.atomic.AtomicInteger()
+
+    SlowService() {
+        created.incrementAndGet()
+        sleep(50)
+    }
+}
+
+class FirstService extends AbstractGriffonService {
+    def secondService
+}
+
+class SecondService extends AbstractGriffonService {
+    def firstService
+}
+
+class LeftService extends AbstractGriffonService {
+    static final CyclicBarrier created = new CyclicBarrier(2)
+    def rightService
+
+    LeftService() {
+        created.await(5, java.util.concurrent.TimeUnit.SECONDS)
+    }
+}
+
+class RightService extends AbstractGriffonService {
+    def leftService
+
+    RightService() {
+        LeftService.created.await(5, java.util.concurrent.TimeUnit.SECONDS)
+    }
+}
+
+abstract class DisposableService extends AbstractGriffonService {
+    static final List disposed = []
+
+    void serviceDestroy() {
+        disposed << getClass().simpleName
+    }
+}
+
+class FirstDisposableService extends DisposableService {}
+
+class SecondDisposableService extends DisposableService {}
+
+class ServiceConsumer {
+    def injectedService
+    def otherService
+}
+
+class LateServiceConsumer {}
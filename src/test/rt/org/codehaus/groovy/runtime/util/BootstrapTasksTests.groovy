@@ -0,0 +1,40 @@
+package org.codehaus.griffon.runtime.util
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class BootstrapTasksTests extends GroovyTestCase {
+    private executorService = Executors.newFixedThreadPool(2)
+    private BootstrapTasks tasks = new BootstrapTasks(executorService)
+
+    protected void tearDown() {
+        executorService.shutdownNow()
+    }
+
+    void testIndependentStagesRunConcurrently() {
+        CountDownLatch both = new CountDownLatch(2)
+        tasks.fork('one') { both.countDown(); both.await(5, TimeUnit.SECONDS) }
+        tasks.fork('two') { both.countDown(); both.await(5, TimeUnit.SECONDS) }
+        assert tasks.get('one')
+        assert tasks.get('two')
+    }
+
+    void testStagesStartAfterTheirDependencies() {
+        def order = [].asSynchronized()
+        tasks.fork('first') { Thread.sleep(50); order << 'first'; 1 }
+        tasks.fork('second', { -> order << 'second'; tasks.get('first') + 1 }, 'first')
+        assert tasks.run('inline') { tasks.get('second') } == 2
+        assert order == ['first', 'second']
+        assert tasks.timings.keySet() == ['first', 'second', 'inline'] as Set
+    }
+
+    void testFailuresAreRethrownByGet() {
+        tasks.fork('broken') { throw new IllegalStateException('boom') }
+        shouldFail(IllegalStateException) { tasks.get('broken') }
+    }
+
+    void testUnknownDependenciesAreRejected() {
+        shouldFail(IllegalArgumentException) { tasks.fork('orphan', { -> null }, 'missing') }
+    }
+}
@@ -0,0 +1,54 @@
+package org.codehaus.griffon.runtime.util
+
+import java.util.concurrent.Executor
+
+class UIThreadBatcherTests extends GroovyTestCase {
+    private List<Runnable> posted = []
+    private Executor uiThread = { Runnable r -> posted << r } as Executor
+
+    void testRunnablesAreExecutedInASingleUIEvent() {
+        UIThreadBatcher batcher = new UIThreadBatcher(uiThread, 1000)
+        def calls = []
+        (1..100).each { i -> batcher.execute({ calls << i } as Runnable) }
+        assert posted.size() == 1
+        assert batcher.queueDepth == 100
+
+        runPosted()
+        assert calls == (1..100).toList()
+        assert batcher.queueDepth == 0
+        assert batcher.maxQueueDepth == 100
+        assert batcher.executedCount == 100
+        assert batcher.batchCount == 1
+    }
+
+    void testRunnablesQueuedDuringADrainWaitForTheNextOne() {
+        UIThreadBatcher batcher = new UIThreadBatcher(uiThread, 1000)
+        def calls = []
+        batcher.execute({ calls << 'first'; batcher.execute({ calls << 'nested' } as Runnable) } as Runnable)
+
+        runPosted()
+        assert calls == ['first']
+        assert posted.size() == 1
+
+        runPosted()
+        assert calls == ['first', 'nested']
+    }
+
+    void testDrainYieldsWhenFrameBudgetIsSpent() {
+        UIThreadBatcher batcher = new UIThreadBatcher(uiThread, 1)
+        def calls = []
+        (1..3).each { i -> batcher.execute({ Thread.sleep(5); calls << i } as Runnable) }
+
+        runPosted()
+        assert calls == [1]
+        assert batcher.saturatedBatchCount == 1
+        while (posted) runPosted()
+        assert calls == [1, 2, 3]
+        assert batcher.maxLatency > 0
+    }
+
+    private void runPosted() {
+        Runnable r = posted.remove(0)
+        r.run()
+    }
+}